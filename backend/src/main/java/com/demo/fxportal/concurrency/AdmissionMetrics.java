@@ -0,0 +1,27 @@
+package com.demo.fxportal.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Locale;
+
+/**
+ * Names shared by everything that turns requests away before they reach the database, so shed
+ * load shows up as one series: {@code fxportal.admission.shed{operation, reason}}.
+ */
+final class AdmissionMetrics {
+
+    static final String REASON_QUEUE_TIME = "queue-time";
+    static final String REASON_RATE_LIMIT = "rate-limit";
+
+    private AdmissionMetrics() {
+    }
+
+    static Counter shedCounter(MeterRegistry meterRegistry, DbOperation operation, String reason) {
+        return Counter.builder("fxportal.admission.shed")
+                .description("Requests rejected by admission control before reaching the database")
+                .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
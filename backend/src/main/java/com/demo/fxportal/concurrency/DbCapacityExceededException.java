@@ -0,0 +1,20 @@
+package com.demo.fxportal.concurrency;
+
+import java.util.Locale;
+
+/**
+ * Thrown when no database permit became free within the acquire timeout.
+ */
+public class DbCapacityExceededException extends RuntimeException {
+
+    private final DbOperation operation;
+
+    public DbCapacityExceededException(DbOperation operation) {
+        super("Too many concurrent " + operation.name().toLowerCase(Locale.ROOT).replace('_', ' ') + " requests, try again shortly");
+        this.operation = operation;
+    }
+
+    public DbOperation getOperation() {
+        return operation;
+    }
+}
@@ -0,0 +1,172 @@
+package com.demo.fxportal.concurrency;
+
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for database work: a shared pool of permits handed out in
+ * {@link DbOperation} priority order, with a cap and a maximum queue time per operation.
+ *
+ * <p>Permits must be taken outside the {@code @Transactional} service call, because the
+ * connection is checked out of Hikari when the transaction begins. Requests queue here instead,
+ * where a freed permit goes to a waiting booking before a quote or history read. A request
+ * that cannot get a permit within its operation's queue time is shed, so latency stays bounded
+ * instead of every request slowing down together.
+ */
+@Component
+public class DbConcurrencyLimiter {
+
+    private static final DbOperation[] PRIORITY_ORDER = DbOperation.values();
+
+    private final boolean enabled;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int permits;
+    private int inUse;
+    private final Map<DbOperation, Integer> caps = new EnumMap<>(DbOperation.class);
+    private final Map<DbOperation, Long> maxQueueNanos = new EnumMap<>(DbOperation.class);
+    private final Map<DbOperation, Integer> active = new EnumMap<>(DbOperation.class);
+    private final Map<DbOperation, ArrayDeque<Waiter>> queues = new EnumMap<>(DbOperation.class);
+    private final Map<DbOperation, Timer> waitTimers = new EnumMap<>(DbOperation.class);
+    private final Map<DbOperation, Counter> shed = new EnumMap<>(DbOperation.class);
+
+    public DbConcurrencyLimiter(DbConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.permits = properties.getPermits();
+        caps.put(DbOperation.BOOKING, properties.getBookings());
+        caps.put(DbOperation.QUOTE_INSERT, properties.getQuoteInserts());
+        caps.put(DbOperation.HISTORY_READ, properties.getHistoryReads());
+        caps.put(DbOperation.BACKGROUND, properties.getBackground());
+        maxQueueNanos.put(DbOperation.BOOKING, properties.getBookingMaxQueueTime().toNanos());
+        maxQueueNanos.put(DbOperation.QUOTE_INSERT, properties.getQuoteInsertMaxQueueTime().toNanos());
+        maxQueueNanos.put(DbOperation.HISTORY_READ, properties.getHistoryReadMaxQueueTime().toNanos());
+        maxQueueNanos.put(DbOperation.BACKGROUND, properties.getBackgroundMaxQueueTime().toNanos());
+
+        for (DbOperation operation : DbOperation.values()) {
+            String tag = operation.name().toLowerCase(Locale.ROOT);
+            active.put(operation, 0);
+            queues.put(operation, new ArrayDeque<>());
+            waitTimers.put(operation, Timer.builder("fxportal.db.permit.wait")
+                    .description("Time spent queued for a database permit")
+                    .tag("operation", tag)
+                    .register(meterRegistry));
+            shed.put(operation, AdmissionMetrics.shedCounter(meterRegistry, operation, AdmissionMetrics.REASON_QUEUE_TIME));
+            Gauge.builder("fxportal.db.permit.queued", this, limiter -> limiter.queued(operation))
+                    .description("Requests currently queued for a database permit")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("fxportal.db.permit.available", this, DbConcurrencyLimiter::available)
+                .description("Database permits currently free")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(DbOperation operation, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        acquire(operation);
+        try {
+            return work.get();
+        } finally {
+            release(operation);
+        }
+    }
+
+    private void acquire(DbOperation operation) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            ArrayDeque<Waiter> queue = queues.get(operation);
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            dispatch();
+
+            long remaining = maxQueueNanos.get(operation);
+            while (!waiter.granted) {
+                if (remaining <= 0) {
+                    queue.remove(waiter);
+                    waitTimers.get(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    shed.get(operation).increment();
+                    throw new DbCapacityExceededException(operation);
+                }
+                try {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    if (!waiter.granted) {
+                        remaining = 0;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        waitTimers.get(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void release(DbOperation operation) {
+        lock.lock();
+        try {
+            inUse--;
+            active.merge(operation, -1, Integer::sum);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hands free permits to queued requests, highest priority first, FIFO within an operation. */
+    private void dispatch() {
+        for (DbOperation operation : PRIORITY_ORDER) {
+            ArrayDeque<Waiter> queue = queues.get(operation);
+            while (inUse < permits && active.get(operation) < caps.get(operation) && !queue.isEmpty()) {
+                Waiter waiter = queue.pollFirst();
+                waiter.granted = true;
+                inUse++;
+                active.merge(operation, 1, Integer::sum);
+                waiter.condition.signal();
+            }
+        }
+    }
+
+    private int available() {
+        lock.lock();
+        try {
+            return permits - inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int queued(DbOperation operation) {
+        lock.lock();
+        try {
+            return queues.get(operation).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.demo.fxportal.concurrency;
+
+/**
+ * Kinds of database work, in admission priority order: when a permit frees up, a queued
+ * booking gets it before a queued quote insert, a quote insert before a history read, and
+ * any request before a background job.
+ */
+public enum DbOperation {
+    BOOKING, QUOTE_INSERT, HISTORY_READ, BACKGROUND
+}
@@ -0,0 +1,88 @@
+package com.demo.fxportal.concurrency;
+
+import com.demo.fxportal.config.QuoteRateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-client token buckets on {@code POST /api/quotes}, checked before the body is read.
+ * Registered for that path in {@link com.demo.fxportal.config.WebConfig}; a client over its
+ * allowance gets 429 with {@code Retry-After}. The binary gateway calls {@link #acquire} directly.
+ * <p>
+ * Clients are keyed on the authenticated principal, else the remote address (the real peer behind
+ * nginx, via {@code server.forward-headers-strategy=native}); nothing the client sends chooses its
+ * bucket. At most {@code maxClients} buckets are kept, the least recently used dropped first.
+ */
+@Component
+public class QuoteRateLimiter implements HandlerInterceptor {
+
+    private final QuoteRateLimitProperties properties;
+    private final Map<String, TokenBucket> buckets;
+    private final Counter rateLimited;
+
+    public QuoteRateLimiter(QuoteRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > properties.getMaxClients();
+            }
+        };
+        this.rateLimited = AdmissionMetrics.shedCounter(meterRegistry, DbOperation.QUOTE_INSERT,
+                AdmissionMetrics.REASON_RATE_LIMIT);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            acquire(clientId(request));
+        }
+        return true;
+    }
+
+    /**
+     * Takes a token from {@code clientId}'s bucket.
+     *
+     * @throws RateLimitExceededException if the bucket is empty
+     */
+    public void acquire(String clientId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long waitNanos = bucket(clientId, now).tryConsume(now);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            throw new RateLimitExceededException(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /** Number of clients currently holding a bucket; never more than {@code maxClients}. */
+    int trackedClients() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    private TokenBucket bucket(String clientId, long now) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(clientId,
+                    id -> new TokenBucket(properties.getCapacity(), properties.getRefillPerSecond(), now));
+        }
+    }
+
+    private static String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : request.getRemoteAddr();
+    }
+}
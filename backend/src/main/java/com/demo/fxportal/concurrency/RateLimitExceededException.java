@@ -0,0 +1,20 @@
+package com.demo.fxportal.concurrency;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has used up its quote request allowance.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("Too many quote requests, try again shortly");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
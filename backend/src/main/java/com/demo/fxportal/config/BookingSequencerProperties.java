@@ -0,0 +1,34 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The single-writer booking path. Each currency pair is owned by one shard thread, which books
+ * its pairs' trades in batches; {@code shards} of {@code 0} means one per available processor.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.booking-sequencer")
+public class BookingSequencerProperties {
+
+    private boolean enabled = false;
+
+    private int shards = 0;
+
+    /** Bookings a shard can hold waiting; when it is full, callers wait up to {@code submitTimeout}. */
+    private int ringSize = 1024;
+
+    /** Most bookings written in one transaction. */
+    private int maxBatchSize = 64;
+
+    /** How long a caller may wait for room in a full shard before the booking is shed with 503. */
+    private Duration submitTimeout = Duration.ofMillis(250);
+
+    /**
+     * How long a request thread waits for its booking's batch before giving up with 503. The
+     * booking may still commit afterwards, so a retry can be told the quote is already booked.
+     */
+    private Duration resultTimeout = Duration.ofSeconds(10);
+}
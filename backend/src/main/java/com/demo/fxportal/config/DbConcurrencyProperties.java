@@ -0,0 +1,40 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Database admission control. {@code permits} matches the Hikari pool size and is shared by all
+ * operations in priority order; the per-operation caps keep quotes, history reads and background
+ * jobs from filling the pool, so bookings always find at least one permit free. Every pooled
+ * connection is taken under a permit, so keep {@code quoteInserts + historyReads + background}
+ * below {@code permits}.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.db-concurrency")
+public class DbConcurrencyProperties {
+
+    private boolean enabled = true;
+
+    private int permits = 14;
+
+    private int bookings = 14;
+
+    private int quoteInserts = 6;
+
+    private int historyReads = 3;
+
+    /** Shared by the end-of-day report, trade imports, the outbox relay and the quote reaper. */
+    private int background = 4;
+
+    /** How long each kind of request may queue for a permit before it is shed with 503. */
+    private Duration bookingMaxQueueTime = Duration.ofSeconds(2);
+
+    private Duration quoteInsertMaxQueueTime = Duration.ofMillis(250);
+
+    private Duration historyReadMaxQueueTime = Duration.ofMillis(500);
+
+    private Duration backgroundMaxQueueTime = Duration.ofSeconds(30);
+}
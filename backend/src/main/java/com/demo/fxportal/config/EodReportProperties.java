@@ -0,0 +1,37 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The end-of-day mark-to-market report: open trades revalued at one snapshot of mid rates, with
+ * {@code booked_at} split into ranges that are read in parallel on their own connections.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.eod-report")
+public class EodReportProperties {
+
+    /** Spring cron expression for the daily run; {@code -} only runs it on request. */
+    private String cron = "-";
+
+    /** Time zone of {@code cron} and of the report's business date. */
+    private String zone = "UTC";
+
+    /** Worker threads; {@code 0} uses one per core. Capped by {@code maxConnections}. */
+    private int parallelism = 0;
+
+    /** Most pooled connections the report holds at once, so bookings keep the rest. */
+    private int maxConnections = 4;
+
+    /**
+     * {@code booked_at} ranges per worker. More ranges than workers lets idle workers steal the
+     * ranges of a busy one when bookings are unevenly spread over time.
+     */
+    private int rangesPerWorker = 4;
+
+    /** Rows the driver fetches per round trip while streaming a range. */
+    private int fetchSize = 10_000;
+
+    /** Where the report files are written, one per business date. */
+    private String directory = "data/eod-reports";
+}
@@ -0,0 +1,26 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxportal.flight-recorder")
+public class FlightRecorderProperties {
+
+    private boolean enabled = false;
+
+    /** Requested durations above this are clamped, so a forgotten recording always ends. */
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    /** Oldest data is dropped once a recording reaches this size on disk. */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "fxportal-jfr");
+
+    /** Finished recordings kept for download; older files are deleted. */
+    private int retained = 5;
+}
@@ -0,0 +1,25 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fxportal.gateway")
+public class GatewayProperties {
+
+    private boolean enabled = false;
+
+    private String bindAddress = "0.0.0.0";
+
+    /** {@code 0} picks a free port, logged at startup. */
+    private int port = 9091;
+
+    /** Largest accepted frame after its length prefix; a longer frame closes the session. */
+    private int maxFrameLength = 16 * 1024;
+
+    /** Pipelined requests a session may have outstanding before the gateway stops reading from it. */
+    private int maxInFlightPerSession = 128;
+
+    /** Threads running requests; they block on the same database permits as the REST threads. */
+    private int workerThreads = 16;
+}
@@ -0,0 +1,19 @@
+package com.demo.fxportal.config;
+
+import com.demo.fxportal.outbox.FileTradeEventPublisher;
+import com.demo.fxportal.outbox.TradeEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(TradeEventPublisher.class)
+    public TradeEventPublisher fileTradeEventPublisher(OutboxProperties properties) {
+        return new FileTradeEventPublisher(Path.of(properties.getFile()));
+    }
+}
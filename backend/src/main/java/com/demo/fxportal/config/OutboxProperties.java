@@ -0,0 +1,29 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Trade events through the {@code trade_outbox} table. When disabled, bookings and status changes
+ * write no events and the relay does not run.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = false;
+
+    /** Most events handed to the publisher at once. */
+    private int batchSize = 200;
+
+    /** How long the relay sleeps when it finds less than a full batch. */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /** How long the relay waits before offering a batch the publisher refused again. */
+    private Duration retryDelay = Duration.ofSeconds(1);
+
+    /** NDJSON file the default publisher appends to, when no other publisher bean is defined. */
+    private String file = "data/outbox/trade-events.ndjson";
+}
@@ -0,0 +1,40 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "fxportal.pricing")
+public class PricingProperties {
+
+    /**
+     * Simulated USD leg for every priced currency, keyed by its market-convention pair
+     * (for example {@code EUR/USD} or {@code USD/JPY}). All crosses are derived from these.
+     */
+    private Map<String, BigDecimal> usdLegs = defaultUsdLegs();
+
+    private static Map<String, BigDecimal> defaultUsdLegs() {
+        Map<String, BigDecimal> legs = new LinkedHashMap<>();
+        legs.put("EUR/USD", new BigDecimal("1.0850"));
+        legs.put("GBP/USD", new BigDecimal("1.2650"));
+        legs.put("USD/JPY", new BigDecimal("149.50"));
+        legs.put("USD/CHF", new BigDecimal("0.8750"));
+        legs.put("AUD/USD", new BigDecimal("0.6550"));
+        legs.put("USD/CAD", new BigDecimal("1.3550"));
+        legs.put("NZD/USD", new BigDecimal("0.6050"));
+        legs.put("USD/SEK", new BigDecimal("10.450"));
+        legs.put("USD/NOK", new BigDecimal("10.600"));
+        legs.put("USD/DKK", new BigDecimal("6.8700"));
+        legs.put("USD/SGD", new BigDecimal("1.3400"));
+        legs.put("USD/HKD", new BigDecimal("7.8200"));
+        legs.put("USD/CNY", new BigDecimal("7.2000"));
+        legs.put("USD/MXN", new BigDecimal("17.100"));
+        legs.put("USD/ZAR", new BigDecimal("18.600"));
+        legs.put("USD/PLN", new BigDecimal("4.0000"));
+        return legs;
+    }
+}
@@ -0,0 +1,23 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-client token buckets on {@code POST /api/quotes}. Clients are told apart by
+ * authenticated principal, else by remote address.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.quote-rate-limit")
+public class QuoteRateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Burst size: quotes a client may request back to back after being idle. */
+    private int capacity = 20;
+
+    private double refillPerSecond = 10;
+
+    /** Hard cap on tracked clients; past it the least recently seen client's bucket is dropped. */
+    private int maxClients = 10_000;
+}
@@ -0,0 +1,23 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxportal.quote-reaper")
+public class QuoteReaperProperties {
+
+    private boolean enabled = true;
+
+    /** How long after expiry a quote is kept before it becomes eligible for archiving. */
+    private Duration gracePeriod = Duration.ofMinutes(5);
+
+    private int batchSize = 500;
+
+    private int maxBatchesPerRun = 20;
+
+    /** Pause between batches so the reaper never competes with bookings for long. */
+    private Duration batchPause = Duration.ofMillis(200);
+}
@@ -0,0 +1,38 @@
+package com.demo.fxportal.config;
+
+import com.demo.fxportal.diagnostics.ServerTimingBuffer;
+import com.demo.fxportal.diagnostics.ServerTimingEndpoint;
+import com.demo.fxportal.diagnostics.ServerTimingFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Server-Timing beans. They always exist; {@code fxportal.server-timing.enabled} decides whether
+ * the filter is registered and whether the endpoint answers.
+ */
+@Configuration
+public class ServerTimingConfig {
+
+    @Bean
+    public ServerTimingBuffer serverTimingBuffer(ServerTimingProperties properties) {
+        return new ServerTimingBuffer(properties.getBufferSize());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingBuffer buffer,
+                                                                         ServerTimingProperties properties) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(buffer, properties.getSampleRate()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+
+    @Bean
+    public ServerTimingEndpoint serverTimingEndpoint(ServerTimingBuffer buffer, ServerTimingProperties properties) {
+        return new ServerTimingEndpoint(buffer, properties.isEnabled());
+    }
+}
@@ -0,0 +1,18 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fxportal.server-timing")
+public class ServerTimingProperties {
+
+    /** Off by default; when off no filter is registered and stage marks are a thread-local read. */
+    private boolean enabled = false;
+
+    /** Share of timed requests copied into the ring buffer behind {@code /actuator/servertimings}. */
+    private double sampleRate = 0.1;
+
+    /** Number of sampled requests kept; older samples are overwritten. */
+    private int bufferSize = 512;
+}
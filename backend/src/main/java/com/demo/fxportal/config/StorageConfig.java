@@ -0,0 +1,42 @@
+package com.demo.fxportal.config;
+
+import com.demo.fxportal.repository.InMemoryQuoteStore;
+import com.demo.fxportal.repository.InMemoryTradeStore;
+import com.demo.fxportal.repository.JpaQuoteStore;
+import com.demo.fxportal.repository.JpaTradeStore;
+import com.demo.fxportal.repository.QuoteRepository;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeHistoryRepository;
+import com.demo.fxportal.repository.TradeInsertRepository;
+import com.demo.fxportal.repository.TradeRepository;
+import com.demo.fxportal.repository.TradeStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Picks the quote and trade stores for {@code fxportal.storage.backend}. */
+@Configuration
+@Slf4j
+public class StorageConfig {
+
+    @Bean
+    public QuoteStore quoteStore(StorageProperties properties, QuoteRepository quoteRepository) {
+        if (properties.getBackend() == StorageProperties.Backend.MEMORY) {
+            log.warn("Quotes are held in memory, and lost on restart unless store snapshots are enabled");
+            return new InMemoryQuoteStore(properties.getQuoteRetention(), properties.getSnapshot().isEnabled());
+        }
+        return new JpaQuoteStore(quoteRepository);
+    }
+
+    @Bean
+    public TradeStore tradeStore(StorageProperties properties,
+                                 TradeRepository tradeRepository,
+                                 TradeInsertRepository tradeInsertRepository,
+                                 TradeHistoryRepository tradeHistoryRepository) {
+        if (properties.getBackend() == StorageProperties.Backend.MEMORY) {
+            log.warn("Trades are held in memory, and lost on restart unless store snapshots are enabled");
+            return new InMemoryTradeStore(properties.getSnapshot().isEnabled());
+        }
+        return new JpaTradeStore(tradeRepository, tradeInsertRepository, tradeHistoryRepository);
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Where quotes and trades live. {@code MEMORY} keeps them in process, which the {@code inmemory}
+ * profile selects, so load tests measure the service layer without a database behind it.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.storage")
+public class StorageProperties {
+
+    private Backend backend = Backend.JPA;
+
+    /** {@code MEMORY} only: how long after expiry a quote is dropped, as the reaper's grace period. */
+    private Duration quoteRetention = Duration.ofMinutes(5);
+
+    private Snapshot snapshot = new Snapshot();
+
+    public enum Backend {
+        /** The {@code quotes} and {@code trades} tables. */
+        JPA,
+        /** Concurrent maps in this process; gone on restart. */
+        MEMORY
+    }
+
+    /** {@code MEMORY} only: periodic snapshots of the stores, loaded again on startup. */
+    @Data
+    public static class Snapshot {
+
+        private boolean enabled = false;
+
+        /** Snapshot files; must be a local disk that survives restarts. */
+        private String directory = "data/snapshots";
+
+        /** Time between snapshots; each writes what changed since the one before. */
+        private Duration interval = Duration.ofSeconds(30);
+
+        /** Deltas written before the next snapshot is a full one and older files are deleted. */
+        private int fullEvery = 20;
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bulk trade imports: CSV or NDJSON files under {@code directory}, cut into chunks of whole lines
+ * that are parsed and loaded in parallel, each in its own transaction.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.trade-import")
+public class TradeImportProperties {
+
+    /** Where import files are read from; requests name files relative to it. */
+    private String directory = "data/imports";
+
+    /** Target chunk size in bytes. A chunk ends at the first line break after it, and commits as a whole. */
+    private int chunkBytes = 8 * 1024 * 1024;
+
+    /** Worker threads; {@code 0} uses one per core. Capped by {@code maxConnections}. */
+    private int parallelism = 0;
+
+    /** Most pooled connections an import holds at once, so bookings keep the rest. */
+    private int maxConnections = 4;
+
+    /** Load through Postgres COPY; off, or on other databases, rows go in as JDBC batches. */
+    private boolean copyEnabled = true;
+
+    /** Rows per JDBC batch when not using COPY. */
+    private int batchSize = 1000;
+}
@@ -0,0 +1,35 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Journal-first bookings: a booking is committed once its record is synced to the local trade
+ * journal, and a projector copies journaled trades into {@code trades} behind it.
+ */
+@Data
+@ConfigurationProperties(prefix = "fxportal.trade-journal")
+public class TradeJournalProperties {
+
+    private boolean enabled = false;
+
+    /** Segment files and the projection checkpoint; must be a local disk that survives restarts. */
+    private String directory = "data/trade-journal";
+
+    /** Records per segment file. A segment is deleted once everything in it has been projected. */
+    private int segmentRecords = 64 * 1024;
+
+    /** Longest a booking waits for others to share its sync; {@code 0} syncs as soon as anything is pending. */
+    private Duration syncInterval = Duration.ofMillis(2);
+
+    /** Pending bookings that trigger a sync without waiting out {@code syncInterval}. */
+    private int syncBatchSize = 256;
+
+    /** Most journaled trades the projector inserts in one transaction. */
+    private int projectorBatchSize = 500;
+
+    /** How long the projector waits before retrying after the database refused a batch. */
+    private Duration projectorRetryDelay = Duration.ofSeconds(1);
+}
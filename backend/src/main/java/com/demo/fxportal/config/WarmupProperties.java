@@ -0,0 +1,19 @@
+package com.demo.fxportal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxportal.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    /** Synthetic quote-and-book round trips to run; each one touches every hot path once. */
+    private int iterations = 10_000;
+
+    /** Readiness is reported once the iterations finish or this much time has passed. */
+    private Duration budget = Duration.ofSeconds(20);
+}
@@ -0,0 +1,65 @@
+package com.demo.fxportal.controller;
+
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.dto.TradeImportRequest;
+import com.demo.fxportal.dto.TradeImportStatus;
+import com.demo.fxportal.service.TradeImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Imports", description = "Bulk trade import API")
+public class ImportController {
+
+    private final TradeImportService tradeImportService;
+
+    @PostMapping("/trades")
+    @Operation(summary = "Import trades from a file",
+            description = "Loads a CSV or NDJSON file from the import directory in the background, or resumes an interrupted import of it")
+    @ApiResponse(responseCode = "202", content = @Content(schema = @Schema(implementation = TradeImportStatus.class)))
+    public ResponseEntity<?> importTrades(@Valid @RequestBody TradeImportRequest request) {
+        return ResultResponses.toResponse(tradeImportService.start(request.getFile()), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/trades")
+    @Operation(summary = "Get the progress of a trade import",
+            description = "Chunks and rows loaded and rejected so far, and whether the import is running, incomplete or completed")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = TradeImportStatus.class)))
+    public ResponseEntity<?> importStatus(
+            @Parameter(description = "Import file, relative to the import directory")
+            @RequestParam String file) {
+        return ResultResponses.toResponse(tradeImportService.status(file), HttpStatus.OK);
+    }
+
+    @GetMapping("/trades/rejects")
+    @Operation(summary = "Get the rejected lines of a trade import", description = "Lines that were not loaded and why, in line order")
+    @ApiResponse(responseCode = "200",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = TradeImportReject.class))))
+    public ResponseEntity<?> importRejects(
+            @Parameter(description = "Import file, relative to the import directory")
+            @RequestParam String file,
+
+            @Parameter(description = "Page number (0-indexed)")
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+
+            @Parameter(description = "Page size (1-1000)")
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size) {
+        return ResultResponses.toResponse(tradeImportService.rejects(file, page, size), HttpStatus.OK);
+    }
+}
@@ -1,9 +1,16 @@
 package com.demo.fxportal.controller;
 
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.diagnostics.ServerTiming;
 import com.demo.fxportal.dto.QuoteRequest;
 import com.demo.fxportal.dto.QuoteResponse;
 import com.demo.fxportal.service.QuoteService;
+import com.demo.fxportal.service.ServiceResult;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,11 +25,16 @@ import org.springframework.web.bind.annotation.*;
 public class QuoteController {
 
     private final QuoteService quoteService;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
 
     @PostMapping
     @Operation(summary = "Request a new FX quote", description = "Creates a new quote with a rate that expires after 30 seconds")
-    public ResponseEntity<QuoteResponse> requestQuote(@Valid @RequestBody QuoteRequest request) {
-        QuoteResponse response = quoteService.requestQuote(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    @ApiResponse(responseCode = "201", content = @Content(schema = @Schema(implementation = QuoteResponse.class)))
+    public ResponseEntity<?> requestQuote(@Valid @RequestBody QuoteRequest request) {
+        ServerTiming.mark("validate");
+        ServiceResult<QuoteResponse> result = dbConcurrencyLimiter.call(DbOperation.QUOTE_INSERT,
+                () -> quoteService.requestQuote(request));
+        ServerTiming.mark("commit");
+        return ResultResponses.toResponse(result, HttpStatus.CREATED);
     }
 }
@@ -0,0 +1,38 @@
+package com.demo.fxportal.controller;
+
+import com.demo.fxportal.dto.EodReportResponse;
+import com.demo.fxportal.service.EodReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "End-of-day reporting API")
+public class ReportController {
+
+    private final EodReportService eodReportService;
+
+    @GetMapping("/eod")
+    @Operation(summary = "Get the latest end-of-day report",
+            description = "Summary of the last mark-to-market and P&L report: totals and one line per pair and side")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = EodReportResponse.class)))
+    public ResponseEntity<?> latestEodReport() {
+        return ResultResponses.toResponse(eodReportService.latest(), HttpStatus.OK);
+    }
+
+    @PostMapping("/eod")
+    @Operation(summary = "Run the end-of-day report",
+            description = "Revalues every open trade at current mid rates, writes the report file and returns its summary")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = EodReportResponse.class)))
+    public ResponseEntity<?> runEodReport() {
+        return ResultResponses.toResponse(eodReportService.run(), HttpStatus.OK);
+    }
+}
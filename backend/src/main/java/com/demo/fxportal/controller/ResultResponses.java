@@ -0,0 +1,39 @@
+package com.demo.fxportal.controller;
+
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.service.ServiceResult;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maps a {@link ServiceResult} straight to a response. Rejections get the same status codes and
+ * {@link ErrorResponse} body that {@link GlobalExceptionHandler} used to produce from exceptions.
+ * Shared with the binary gateway, which answers with the same bodies.
+ */
+public final class ResultResponses {
+
+    private ResultResponses() {
+    }
+
+    public static ResponseEntity<?> toResponse(ServiceResult<?> result, HttpStatus successStatus) {
+        if (result instanceof ServiceResult.Success<?> success) {
+            return ResponseEntity.status(successStatus).body(success.value());
+        }
+        ServiceResult.Rejected<?> rejected = (ServiceResult.Rejected<?>) result;
+        HttpStatus status = switch (rejected.rejection()) {
+            case UNSUPPORTED_PAIR, QUOTE_NOT_FOUND, IMPORT_FILE_INVALID -> HttpStatus.BAD_REQUEST;
+            case TRADE_NOT_FOUND, REPORT_NOT_FOUND, IMPORT_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case QUOTE_EXPIRED, ALREADY_BOOKED, INVALID_STATUS_CHANGE, IMPORT_IN_PROGRESS -> HttpStatus.CONFLICT;
+            case DATABASE_REQUIRED -> HttpStatus.NOT_IMPLEMENTED;
+            case TRADE_NOT_PROJECTED -> HttpStatus.SERVICE_UNAVAILABLE;
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(new ErrorResponse(status.value(), rejected.message(), LocalDateTime.now()));
+    }
+}
@@ -1,11 +1,22 @@
 package com.demo.fxportal.controller;
 
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.diagnostics.ServerTiming;
 import com.demo.fxportal.dto.TradeRequest;
 import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.dto.TradeStatusRequest;
 import com.demo.fxportal.model.Side;
 import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.repository.TradeHistorySort;
+import com.demo.fxportal.service.BookingSequencer;
+import com.demo.fxportal.service.ServiceResult;
+import com.demo.fxportal.service.TradeJournalService;
 import com.demo.fxportal.service.TradeService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -24,6 +35,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/trades")
@@ -33,12 +45,39 @@ import java.util.Optional;
 public class TradeController {
 
     private final TradeService tradeService;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final BookingSequencer bookingSequencer;
+    private final TradeJournalService tradeJournalService;
 
     @PostMapping
     @Operation(summary = "Book a trade", description = "Books a trade based on a valid quote ID")
-    public ResponseEntity<TradeResponse> bookTrade(@Valid @RequestBody TradeRequest request) {
-        TradeResponse response = tradeService.bookTrade(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    @ApiResponse(responseCode = "201", content = @Content(schema = @Schema(implementation = TradeResponse.class)))
+    public ResponseEntity<?> bookTrade(@Valid @RequestBody TradeRequest request) {
+        ServerTiming.mark("validate");
+        ServiceResult<TradeResponse> result;
+        if (tradeJournalService.isEnabled()) {
+            result = tradeJournalService.bookTrade(request);
+        } else if (bookingSequencer.isEnabled()) {
+            result = bookingSequencer.book(request);
+        } else {
+            result = dbConcurrencyLimiter.call(DbOperation.BOOKING, () -> tradeService.bookTrade(request));
+        }
+        ServerTiming.mark("commit");
+        return ResultResponses.toResponse(result, HttpStatus.CREATED);
+    }
+
+    @PatchMapping("/{tradeId}/status")
+    @Operation(summary = "Change a trade's status", description = "Settles or cancels a booked trade."
+            + " With journal bookings, a trade not yet copied to the database gets 503 with Retry-After")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = TradeResponse.class)))
+    public ResponseEntity<?> changeStatus(@PathVariable UUID tradeId, @Valid @RequestBody TradeStatusRequest request) {
+        ServerTiming.mark("validate");
+        ServiceResult<TradeResponse> result = tradeJournalService.isEnabled()
+                ? tradeJournalService.changeStatus(tradeId, request.getStatus())
+                : dbConcurrencyLimiter.call(DbOperation.BOOKING,
+                        () -> tradeService.changeStatus(tradeId, request.getStatus()));
+        ServerTiming.mark("commit");
+        return ResultResponses.toResponse(result, HttpStatus.OK);
     }
 
     @GetMapping
@@ -65,15 +104,17 @@ public class TradeController {
             @Parameter(description = "Page size (1-100)")
             @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
 
-            @Parameter(description = "Sort by field")
+            @Parameter(description = "Sort by field (bookedAt, amount or rate)")
             @RequestParam(defaultValue = "bookedAt") String sortBy,
 
             @Parameter(description = "Sort direction (ASC or DESC)")
             @RequestParam(defaultValue = "DESC") Sort.Direction direction
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-        Page<TradeResponse> trades = tradeService.getTradeHistory(
-                currencyPair, side, status, fromDate, toDate, pageable);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, TradeHistorySort.from(sortBy).property()));
+        ServerTiming.mark("validate");
+        Page<TradeResponse> trades = dbConcurrencyLimiter.call(DbOperation.HISTORY_READ,
+                () -> tradeService.getTradeHistory(currencyPair, side, status, fromDate, toDate, pageable));
+        ServerTiming.mark("commit");
         return ResponseEntity.ok(trades);
     }
 }
@@ -0,0 +1,189 @@
+package com.demo.fxportal.diagnostics;
+
+import com.demo.fxportal.config.FlightRecorderProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Starts bounded Java Flight Recorder recordings and serves them back, so a latency spike can be
+ * profiled without shelling into the container.
+ *
+ * <ul>
+ *   <li>{@code POST /actuator/flightrecording} {@code {"duration":"30s"}} starts a recording</li>
+ *   <li>{@code GET /actuator/flightrecording} lists recordings</li>
+ *   <li>{@code GET /actuator/flightrecording/{id}} downloads the {@code .jfr} file</li>
+ *   <li>{@code GET /actuator/flightrecording/{id}/summary} top methods and allocation sites</li>
+ * </ul>
+ *
+ * <p>A recording runs for its duration, clamped to {@code max-duration}. {@code max-size} bounds its
+ * disk use rather than ending it: past that size JFR drops the oldest data, so the file keeps the
+ * most recent part of the recording.
+ *
+ * <p>Every operation answers {@code 404} unless {@code fxportal.flight-recorder.enabled} is set.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecorderEndpoint {
+
+    static final int SUMMARY_LIMIT = 15;
+
+    /**
+     * On top of the JDK "profile" preset: sampled allocations with stack traces, monitor and park
+     * waits above 5 ms, and socket reads/writes above 1 ms, which is where JDBC round trips to
+     * Postgres show up. The startup environment variables and system properties are left out, as
+     * they hold the database password and the file can be downloaded.
+     */
+    private static final Map<String, String> OVERRIDES = Map.ofEntries(
+            Map.entry("jdk.InitialEnvironmentVariable#enabled", "false"),
+            Map.entry("jdk.InitialSystemProperty#enabled", "false"),
+            Map.entry("jdk.ObjectAllocationSample#enabled", "true"),
+            Map.entry("jdk.ObjectAllocationSample#throttle", "300/s"),
+            Map.entry("jdk.JavaMonitorEnter#threshold", "5 ms"),
+            Map.entry("jdk.ThreadPark#threshold", "5 ms"),
+            Map.entry("jdk.SocketRead#enabled", "true"),
+            Map.entry("jdk.SocketRead#threshold", "1 ms"),
+            Map.entry("jdk.SocketWrite#enabled", "true"),
+            Map.entry("jdk.SocketWrite#threshold", "1 ms"),
+            Map.entry("jdk.ExecutionSample#period", "10 ms"));
+
+    private final FlightRecorderProperties properties;
+    private final Deque<Recording> recordings = new ConcurrentLinkedDeque<>();
+
+    public FlightRecorderEndpoint(FlightRecorderProperties properties) {
+        this.properties = properties;
+    }
+
+    public record RecordingStatus(long id, String state, Instant startedAt, Duration duration,
+                                  long maxSizeBytes, long sizeBytes) {
+
+        static RecordingStatus of(Recording recording) {
+            return new RecordingStatus(recording.getId(), recording.getState().name(), recording.getStartTime(),
+                    recording.getDuration(), recording.getMaxSize(), recording.getSize());
+        }
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<List<RecordingStatus>> recordings() {
+        if (!properties.isEnabled()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(recordings.stream().map(RecordingStatus::of).toList());
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Object> start(Duration duration) {
+        if (!properties.isEnabled()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recordings.stream().anyMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+            return new WebEndpointResponse<>("A recording is already running", 409);
+        }
+
+        Duration bounded = duration.compareTo(properties.getMaxDuration()) > 0 ? properties.getMaxDuration() : duration;
+
+        Recording recording = new Recording(settings());
+        try {
+            Files.createDirectories(properties.getDirectory());
+            recording.setName("fxportal-" + Instant.now().toEpochMilli());
+            recording.setToDisk(true);
+            recording.setDuration(bounded);
+            recording.setMaxSize(properties.getMaxSize().toBytes());
+            recording.setDestination(properties.getDirectory().resolve(recording.getName() + ".jfr"));
+        } catch (IOException ex) {
+            recording.close();
+            throw new UncheckedIOException(ex);
+        }
+        recording.start();
+        recordings.addLast(recording);
+        evictOldRecordings();
+
+        log.info("Started flight recording {} for {}", recording.getId(), bounded);
+        return new WebEndpointResponse<>(RecordingStatus.of(recording));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Selector long id) {
+        Path file = finishedFile(id);
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<FlightRecordingSummary> summary(@Selector long id, @Selector String view) throws IOException {
+        Path file = finishedFile(id);
+        if (file == null || !"summary".equals(view)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(FlightRecordingSummary.of(file, SUMMARY_LIMIT));
+    }
+
+    /** The recording's file once it has been written, or {@code null} if unknown or still running. */
+    private Path finishedFile(long id) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        for (Recording recording : recordings) {
+            if (recording.getId() == id) {
+                Path destination = recording.getDestination();
+                boolean finished = recording.getState() == RecordingState.STOPPED
+                        || recording.getState() == RecordingState.CLOSED;
+                return finished && destination != null && Files.exists(destination) ? destination : null;
+            }
+        }
+        return null;
+    }
+
+    private void evictOldRecordings() {
+        List<Recording> evicted = new ArrayList<>();
+        while (recordings.size() > Math.max(1, properties.getRetained())) {
+            evicted.add(recordings.pollFirst());
+        }
+        for (Recording recording : evicted) {
+            recording.close();
+            try {
+                if (recording.getDestination() != null) {
+                    Files.deleteIfExists(recording.getDestination());
+                }
+            } catch (IOException ex) {
+                log.warn("Could not delete flight recording {}: {}", recording.getDestination(), ex.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, String> settings() {
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("profile").getSettings());
+            settings.putAll(OVERRIDES);
+            return settings;
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("JFR profile configuration is unavailable", ex);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.demo.fxportal.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top allocation sites and hottest methods inside the application's own packages, read from a
+ * finished {@code .jfr} file. Each sample is attributed to the innermost frame in
+ * {@code com.demo.fxportal}, so time spent in Hibernate or Jackson on our behalf is charged to
+ * the portal method that called into it. Proxy classes and this package are skipped.
+ */
+public record FlightRecordingSummary(
+        long executionSamples,
+        List<Site> hottestMethods,
+        List<Site> allocationSites,
+        List<Site> lockContention) {
+
+    static final String APPLICATION_PACKAGE = "com.demo.fxportal.";
+    private static final String DIAGNOSTICS_PACKAGE = "com.demo.fxportal.diagnostics.";
+
+    /**
+     * @param frame  {@code Class.method:line} of the attributed frame
+     * @param weight samples for CPU, sampled bytes for allocation, milliseconds blocked for locks
+     */
+    public record Site(String frame, long weight) {
+    }
+
+    public static FlightRecordingSummary of(Path recording, int limit) throws IOException {
+        Map<String, Long> cpu = new HashMap<>();
+        Map<String, Long> allocation = new HashMap<>();
+        Map<String, Long> locks = new HashMap<>();
+        long executionSamples = 0;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        executionSamples++;
+                        attribute(event, cpu, 1);
+                    }
+                    case "jdk.ObjectAllocationSample" -> attribute(event, allocation, event.getLong("weight"));
+                    case "jdk.JavaMonitorEnter", "jdk.ThreadPark" ->
+                            attribute(event, locks, event.getDuration().toMillis());
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new FlightRecordingSummary(executionSamples, top(cpu, limit), top(allocation, limit), top(locks, limit));
+    }
+
+    private static void attribute(RecordedEvent event, Map<String, Long> totals, long weight) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            // Spring proxies and the profiler itself are never what we are looking for
+            if (type.startsWith(APPLICATION_PACKAGE) && !type.contains("$$") && !type.startsWith(DIAGNOSTICS_PACKAGE)) {
+                String site = type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                totals.merge(site, weight, Long::sum);
+                return;
+            }
+        }
+    }
+
+    private static List<Site> top(Map<String, Long> totals, int limit) {
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new Site(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
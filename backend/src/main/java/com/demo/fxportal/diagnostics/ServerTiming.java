@@ -0,0 +1,82 @@
+package com.demo.fxportal.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Stage timings for the request being handled on the current thread.
+ *
+ * <p>Code on the request path calls {@link #mark(String)} at the end of each stage; the time
+ * since the previous mark is attributed to that stage. Outside a timed request (timing disabled,
+ * scheduled jobs, tests) there is no current instance and {@code mark} only reads a thread-local.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final int MAX_STAGES = 16;
+
+    private final long startNanos;
+    private final String[] names = new String[MAX_STAGES];
+    private final long[] durations = new long[MAX_STAGES];
+    private int count;
+    private long lastMarkNanos;
+
+    private ServerTiming(long startNanos) {
+        this.startNanos = startNanos;
+        this.lastMarkNanos = startNanos;
+    }
+
+    public static void mark(String stage) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.record(stage, System.nanoTime());
+        }
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String stage, long nowNanos) {
+        if (count < MAX_STAGES) {
+            names[count] = stage;
+            durations[count] = nowNanos - lastMarkNanos;
+            count++;
+        }
+        lastMarkNanos = nowNanos;
+    }
+
+    long totalNanos() {
+        return lastMarkNanos - startNanos;
+    }
+
+    /** Renders the stages as a {@code Server-Timing} header value, e.g. {@code insert;dur=0.412}. */
+    String toHeaderValue() {
+        StringJoiner header = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            header.add(names[i] + ";dur=" + millis(durations[i]));
+        }
+        header.add("total;dur=" + millis(totalNanos()));
+        return header.toString();
+    }
+
+    Map<String, Double> toMillis() {
+        Map<String, Double> stages = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            stages.merge(names[i], millis(durations[i]), Double::sum);
+        }
+        stages.put("total", millis(totalNanos()));
+        return stages;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
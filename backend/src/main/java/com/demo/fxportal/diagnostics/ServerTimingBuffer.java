@@ -0,0 +1,42 @@
+package com.demo.fxportal.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent sampled requests. Writers never block each other;
+ * a reader may see a slot that was overwritten mid-read, which is fine for diagnostics.
+ */
+public class ServerTimingBuffer {
+
+    private final AtomicReferenceArray<ServerTimingSample> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ServerTimingBuffer(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Server timing buffer size must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    public void add(ServerTimingSample sample) {
+        long next = sequence.getAndIncrement();
+        slots.set((int) (next % slots.length()), sample);
+    }
+
+    /** Samples newest first. */
+    public List<ServerTimingSample> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<ServerTimingSample> samples = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            ServerTimingSample sample = slots.get((int) (i % slots.length()));
+            if (sample != null) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.fxportal.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/servertimings}: the most recent sampled request timings, newest first, or
+ * {@code 404} when Server-Timing is off.
+ */
+@Endpoint(id = "servertimings")
+public class ServerTimingEndpoint {
+
+    private final ServerTimingBuffer buffer;
+    private final boolean enabled;
+
+    public ServerTimingEndpoint(ServerTimingBuffer buffer, boolean enabled) {
+        this.buffer = buffer;
+        this.enabled = enabled;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<List<ServerTimingSample>> samples() {
+        if (!enabled) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(buffer.snapshot());
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.fxportal.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times each API request, adds a {@code Server-Timing} header and samples it into the buffer.
+ *
+ * <p>The body is buffered so that JSON rendering can be timed as its own stage and the header
+ * still be written before anything reaches the client.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final ServerTimingBuffer buffer;
+    private final double sampleRate;
+
+    public ServerTimingFilter(ServerTimingBuffer buffer, double sampleRate) {
+        this.buffer = buffer;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        ServerTiming timing = ServerTiming.begin();
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            ServerTiming.end();
+            timing.record("render", System.nanoTime());
+            wrapper.setHeader(HEADER, timing.toHeaderValue());
+            if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                buffer.add(new ServerTimingSample(Instant.now(), request.getMethod(), request.getRequestURI(),
+                        wrapper.getStatus(), timing.toMillis()));
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
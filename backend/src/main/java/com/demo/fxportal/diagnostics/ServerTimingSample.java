@@ -0,0 +1,13 @@
+package com.demo.fxportal.diagnostics;
+
+import java.time.Instant;
+import java.util.Map;
+
+/** One sampled request as shown by {@code /actuator/servertimings}. */
+public record ServerTimingSample(
+        Instant timestamp,
+        String method,
+        String path,
+        int status,
+        Map<String, Double> stagesMillis) {
+}
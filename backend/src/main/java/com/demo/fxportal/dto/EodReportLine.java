@@ -0,0 +1,31 @@
+package com.demo.fxportal.dto;
+
+import com.demo.fxportal.model.Side;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Open trades of one currency pair and side, revalued at the report's mid rate. {@code pnl} is in
+ * {@code pnlCurrency}, the pair's quote currency. The mark and P&amp;L fields are {@code null} when
+ * no rate was available for the pair.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EodReportLine {
+
+    private String currencyPair;
+    private Side side;
+    private long trades;
+    private BigDecimal amount;
+    private BigDecimal averageRate;
+    private BigDecimal markRate;
+    private BigDecimal pnl;
+    private String pnlCurrency;
+    private BigDecimal pnlUsd;
+}
@@ -0,0 +1,31 @@
+package com.demo.fxportal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EodReportResponse {
+
+    private LocalDate businessDate;
+    private LocalDateTime ratesAt;
+    private LocalDateTime generatedAt;
+    private long openTrades;
+    /** Open trades that could not be revalued: legacy pairs, or pairs without a rate. */
+    private long unpricedTrades;
+    private BigDecimal totalPnlUsd;
+    private int parallelism;
+    private int ranges;
+    private long durationMillis;
+    private String file;
+    private List<EodReportLine> lines;
+}
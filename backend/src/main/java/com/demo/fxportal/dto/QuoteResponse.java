@@ -28,7 +28,7 @@ public class QuoteResponse {
     public static QuoteResponse fromEntity(Quote quote) {
         return QuoteResponse.builder()
                 .quoteId(quote.getId())
-                .currencyPair(quote.getCurrencyPair())
+                .currencyPair(quote.getCurrencyPair().getSymbol())
                 .side(quote.getSide())
                 .amount(quote.getAmount())
                 .rate(quote.getRate())
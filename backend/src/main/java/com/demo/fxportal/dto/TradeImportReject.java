@@ -0,0 +1,15 @@
+package com.demo.fxportal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A line of an import file that was not loaded, and why. Lines are numbered from 1. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeImportReject {
+
+    private long line;
+    private String reason;
+}
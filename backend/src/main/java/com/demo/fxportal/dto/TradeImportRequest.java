@@ -0,0 +1,18 @@
+package com.demo.fxportal.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeImportRequest {
+
+    /** Path of a {@code .csv} or {@code .ndjson} file, relative to the import directory. */
+    @NotBlank(message = "File is required")
+    private String file;
+}
@@ -0,0 +1,53 @@
+package com.demo.fxportal.dto;
+
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of a trade import file, with the column limits of {@code quotes} and {@code trades}.
+ * Missing ids are derived from the file and line, so loading the line again gives the same trade.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeImportRow {
+
+    private UUID tradeId;
+
+    /** The quote the trade was booked against; created from the trade when it does not exist. */
+    private UUID quoteId;
+
+    @NotBlank(message = "Currency pair is required")
+    @Pattern(regexp = "^[A-Z]{3}/[A-Z]{3}$", message = "Currency pair must be in format XXX/YYY (e.g., EUR/USD)")
+    private String currencyPair;
+
+    @NotNull(message = "Side is required")
+    private Side side;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.0001", inclusive = true, message = "Amount must be greater than 0")
+    @Digits(integer = 15, fraction = 4, message = "Amount must have at most 15 integer digits and 4 decimal places")
+    private BigDecimal amount;
+
+    @NotNull(message = "Rate is required")
+    @DecimalMin(value = "0.000001", inclusive = true, message = "Rate must be greater than 0")
+    @Digits(integer = 13, fraction = 6, message = "Rate must have at most 13 integer digits and 6 decimal places")
+    private BigDecimal rate;
+
+    /** {@code BOOKED} when absent. */
+    private Trade.Status status;
+
+    @NotNull(message = "Booked at is required")
+    @PastOrPresent(message = "Booked at must not be in the future")
+    private LocalDateTime bookedAt;
+}
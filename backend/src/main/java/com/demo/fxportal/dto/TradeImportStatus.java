@@ -0,0 +1,36 @@
+package com.demo.fxportal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeImportStatus {
+
+    public enum State {
+        /** Being loaded by this instance. */
+        RUNNING,
+        /** Stopped before every chunk was loaded; starting it again loads the rest. */
+        INCOMPLETE,
+        COMPLETED
+    }
+
+    private String file;
+    private State state;
+    private long fileSize;
+    /** Zero until the file has been cut into chunks. */
+    private int chunks;
+    private int chunksLoaded;
+    private long rowsLoaded;
+    private long rowsRejected;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    /** Why the last run on this instance stopped early, if it did. */
+    private String error;
+}
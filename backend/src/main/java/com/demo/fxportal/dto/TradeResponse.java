@@ -30,7 +30,7 @@ public class TradeResponse {
         return TradeResponse.builder()
                 .tradeId(trade.getId())
                 .quoteId(trade.getQuoteId())
-                .currencyPair(trade.getCurrencyPair())
+                .currencyPair(trade.getCurrencyPair().getSymbol())
                 .side(trade.getSide())
                 .amount(trade.getAmount())
                 .rate(trade.getRate())
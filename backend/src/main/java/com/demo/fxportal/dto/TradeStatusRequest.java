@@ -0,0 +1,18 @@
+package com.demo.fxportal.dto;
+
+import com.demo.fxportal.model.Trade;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeStatusRequest {
+
+    @NotNull(message = "Status is required")
+    private Trade.Status status;
+}
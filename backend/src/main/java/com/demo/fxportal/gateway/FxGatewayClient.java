@@ -0,0 +1,115 @@
+package com.demo.fxportal.gateway;
+
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ValidationErrorResponse;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.wire.FxBinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Java client for {@link GatewayServer}. One persistent connection; requests are pipelined, so
+ * any number may be outstanding, and each returned future completes when its response arrives.
+ * Rejections and errors complete the future exceptionally with a {@link GatewayRejectedException}.
+ * Thread-safe.
+ */
+public class FxGatewayClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final OutputStream out;
+    private final Map<Integer, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCorrelationId = new AtomicInteger();
+    private final Thread reader;
+
+    private FxGatewayClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.out = socket.getOutputStream();
+        this.reader = new Thread(this::readLoop, "gateway-client-" + socket.getLocalPort());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public static FxGatewayClient connect(String host, int port) throws IOException {
+        Socket socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        return new FxGatewayClient(socket);
+    }
+
+    public CompletableFuture<QuoteResponse> requestQuote(QuoteRequest request) {
+        return send(request).thenApply(QuoteResponse.class::cast);
+    }
+
+    public CompletableFuture<TradeResponse> bookTrade(TradeRequest request) {
+        return send(request).thenApply(TradeResponse.class::cast);
+    }
+
+    private CompletableFuture<Object> send(Object request) {
+        int correlationId = nextCorrelationId.incrementAndGet();
+        CompletableFuture<Object> response = new CompletableFuture<>();
+        pending.put(correlationId, response);
+        ByteBuffer frame = GatewayFrames.frame(correlationId, FxBinaryCodec.encode(request));
+        try {
+            synchronized (out) {
+                out.write(frame.array(), 0, frame.limit());
+            }
+        } catch (IOException ex) {
+            pending.remove(correlationId);
+            response.completeExceptionally(ex);
+        }
+        return response;
+    }
+
+    private void readLoop() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (true) {
+                int length = in.readInt();
+                int correlationId = in.readInt();
+                byte[] message = new byte[length - GatewayFrames.CORRELATION_ID];
+                in.readFully(message);
+                CompletableFuture<Object> response = pending.remove(correlationId);
+                if (response != null) {
+                    complete(response, message);
+                }
+            }
+        } catch (IOException ex) {
+            IOException cause = ex instanceof EOFException ? new EOFException("Gateway closed the session") : ex;
+            pending.values().forEach(response -> response.completeExceptionally(cause));
+            pending.clear();
+        }
+    }
+
+    private static void complete(CompletableFuture<Object> response, byte[] message) {
+        try {
+            Object decoded = FxBinaryCodec.decode(ByteBuffer.wrap(message));
+            if (decoded instanceof ValidationErrorResponse error) {
+                response.completeExceptionally(new GatewayRejectedException(error.getStatus(), error.getMessage(),
+                        error.getErrors()));
+            } else if (decoded instanceof ErrorResponse error) {
+                response.completeExceptionally(new GatewayRejectedException(error.getStatus(), error.getMessage(),
+                        Map.of()));
+            } else {
+                response.complete(decoded);
+            }
+        } catch (RuntimeException ex) {
+            response.completeExceptionally(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
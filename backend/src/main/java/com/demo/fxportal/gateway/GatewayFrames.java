@@ -0,0 +1,25 @@
+package com.demo.fxportal.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Framing shared by {@link GatewayServer} and {@link FxGatewayClient}: a {@code u32} length of
+ * what follows, a {@code u32} correlation id, then one {@link com.demo.fxportal.wire.FxBinaryCodec}
+ * message. Big-endian, like the messages themselves.
+ */
+final class GatewayFrames {
+
+    static final int LENGTH_PREFIX = 4;
+    static final int CORRELATION_ID = 4;
+
+    private GatewayFrames() {
+    }
+
+    static ByteBuffer frame(int correlationId, byte[] message) {
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_PREFIX + CORRELATION_ID + message.length);
+        frame.putInt(CORRELATION_ID + message.length);
+        frame.putInt(correlationId);
+        frame.put(message);
+        return frame.flip();
+    }
+}
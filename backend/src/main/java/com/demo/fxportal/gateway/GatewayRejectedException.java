@@ -0,0 +1,22 @@
+package com.demo.fxportal.gateway;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Completes an {@link FxGatewayClient} future when the gateway answered with an error body.
+ * {@link #getStatus()} is the HTTP status the REST API would have returned.
+ */
+@Getter
+public class GatewayRejectedException extends RuntimeException {
+
+    private final int status;
+    private final Map<String, String> errors;
+
+    public GatewayRejectedException(int status, String message, Map<String, String> errors) {
+        super(message);
+        this.status = status;
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.fxportal.gateway;
+
+import com.demo.fxportal.concurrency.DbCapacityExceededException;
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.concurrency.QuoteRateLimiter;
+import com.demo.fxportal.concurrency.RateLimitExceededException;
+import com.demo.fxportal.controller.GlobalExceptionHandler;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ValidationErrorResponse;
+import com.demo.fxportal.controller.ResultResponses;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.service.BookingSequencer;
+import com.demo.fxportal.service.QuoteService;
+import com.demo.fxportal.service.ServiceResult;
+import com.demo.fxportal.service.TradeJournalService;
+import com.demo.fxportal.service.TradeService;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers one gateway request exactly as {@code POST /api/quotes} or {@code POST /api/trades}
+ * would: the same rate limit, bean validation, database permits and services, and the same
+ * response bodies, with the HTTP status carried in the error body.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GatewayRequestHandler {
+
+    private final QuoteService quoteService;
+    private final TradeService tradeService;
+    private final BookingSequencer bookingSequencer;
+    private final TradeJournalService tradeJournalService;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final QuoteRateLimiter quoteRateLimiter;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final Validator validator;
+
+    /** Decodes {@code message} and returns the response body to encode. Never throws. */
+    public Object handle(ByteBuffer message, String clientId) {
+        Object request;
+        try {
+            request = FxBinaryCodec.decode(message);
+        } catch (IllegalArgumentException | BufferUnderflowException ex) {
+            return new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Malformed request: " + ex.getMessage(),
+                    LocalDateTime.now());
+        }
+        try {
+            if (request instanceof QuoteRequest quoteRequest) {
+                quoteRateLimiter.acquire(clientId);
+                ValidationErrorResponse invalid = validate(quoteRequest);
+                return invalid != null ? invalid : ResultResponses.toResponse(
+                        dbConcurrencyLimiter.call(DbOperation.QUOTE_INSERT, () -> quoteService.requestQuote(quoteRequest)),
+                        HttpStatus.CREATED).getBody();
+            }
+            if (request instanceof TradeRequest tradeRequest) {
+                ValidationErrorResponse invalid = validate(tradeRequest);
+                if (invalid != null) {
+                    return invalid;
+                }
+                return ResultResponses.toResponse(book(tradeRequest), HttpStatus.CREATED).getBody();
+            }
+            return new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+                    "Unsupported request " + request.getClass().getSimpleName(), LocalDateTime.now());
+        } catch (RateLimitExceededException ex) {
+            return exceptionHandler.handleRateLimitExceededException(ex).getBody();
+        } catch (DbCapacityExceededException ex) {
+            return exceptionHandler.handleDbCapacityExceededException(ex).getBody();
+        } catch (RuntimeException ex) {
+            log.error("Gateway request failed", ex);
+            return exceptionHandler.handleGenericException(ex).getBody();
+        }
+    }
+
+    private ServiceResult<TradeResponse> book(TradeRequest request) {
+        if (tradeJournalService.isEnabled()) {
+            return tradeJournalService.bookTrade(request);
+        }
+        if (bookingSequencer.isEnabled()) {
+            return bookingSequencer.book(request);
+        }
+        return dbConcurrencyLimiter.call(DbOperation.BOOKING, () -> tradeService.bookTrade(request));
+    }
+
+    private ValidationErrorResponse validate(Object request) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        Map<String, String> errors = new HashMap<>();
+        violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+        return new ValidationErrorResponse(HttpStatus.BAD_REQUEST.value(), "Validation failed",
+                LocalDateTime.now(), errors);
+    }
+}
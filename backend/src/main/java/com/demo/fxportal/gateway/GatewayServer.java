@@ -0,0 +1,309 @@
+package com.demo.fxportal.gateway;
+
+import com.demo.fxportal.config.GatewayProperties;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Binary TCP gateway for automated clients, running beside the REST API when
+ * {@code fxportal.gateway.enabled} is set.
+ *
+ * <p>Sessions are persistent and may pipeline: a client can send any number of request frames
+ * (see {@link GatewayFrames}) without waiting, and each response carries the correlation id of its
+ * request. Responses are written as they complete, so they may overtake each other. A session with
+ * {@code maxInFlightPerSession} requests outstanding is not read from until one finishes.
+ *
+ * <p>One selector thread does all socket I/O; requests run on a fixed worker pool through
+ * {@link GatewayRequestHandler}. A frame longer than {@code maxFrameLength} closes the session.
+ *
+ * <p>When {@code accept()} fails, typically because the process is out of file descriptors,
+ * accepting pauses for {@link #ACCEPT_BACKOFF_MILLIS} while open sessions carry on. Any other
+ * selector failure stops the gateway: the error is logged and {@link #isRunning()} turns false.
+ */
+@Component
+@Slf4j
+public class GatewayServer implements SmartLifecycle {
+
+    static final long ACCEPT_BACKOFF_MILLIS = 100;
+
+    private final GatewayProperties properties;
+    private final GatewayRequestHandler requestHandler;
+    private final Timer requestTimer;
+    private final Counter acceptFailures;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final Queue<GatewaySession> ready = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private SelectionKey acceptKey;
+    /** {@link System#nanoTime()} at which a paused accept resumes; selector thread only. */
+    private long acceptPausedUntil;
+    private boolean acceptPaused;
+    private ExecutorService workers;
+    private Thread selectorThread;
+
+    public GatewayServer(GatewayProperties properties, GatewayRequestHandler requestHandler,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.requestHandler = requestHandler;
+        this.requestTimer = Timer.builder("fxportal.gateway.requests")
+                .description("Gateway request time from frame read to response queued")
+                .register(meterRegistry);
+        this.acceptFailures = Counter.builder("fxportal.gateway.accept.failures")
+                .description("Failed accepts, each pausing new gateway sessions briefly")
+                .register(meterRegistry);
+        Gauge.builder("fxportal.gateway.sessions", sessions, AtomicInteger::get)
+                .description("Open gateway sessions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(properties.getBindAddress(), properties.getPort()));
+            serverChannel.configureBlocking(false);
+            acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot start the binary gateway", ex);
+        }
+        AtomicInteger workerCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "gateway-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        selectorThread = new Thread(this::selectLoop, "gateway-selector");
+        selectorThread.start();
+        log.info("Binary gateway listening on port {}", getLocalPort());
+    }
+
+    @Override
+    public void stop() {
+        // The selector thread may have failed and cleared running already; the workers still need stopping
+        if (selectorThread == null) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        selectorThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** The bound port, e.g. when configured as {@code 0}; {@code -1} when the gateway is not running. */
+    public int getLocalPort() {
+        try {
+            return running ? ((InetSocketAddress) serverChannel.getLocalAddress()).getPort() : -1;
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                if (acceptPaused && System.nanoTime() - acceptPausedUntil >= 0) {
+                    acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+                    acceptPaused = false;
+                }
+                selector.select(acceptPaused ? ACCEPT_BACKOFF_MILLIS : 0);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        GatewaySession session = (GatewaySession) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                read(session);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(session);
+                            }
+                        } catch (IOException ex) {
+                            log.debug("Closing gateway session {}: {}", session.clientId(), ex.getMessage());
+                            close(session);
+                        }
+                    }
+                }
+                GatewaySession session;
+                while ((session = ready.poll()) != null) {
+                    if (session.key().isValid()) {
+                        try {
+                            write(session);
+                            resumeReading(session);
+                        } catch (IOException ex) {
+                            close(session);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.error("Binary gateway selector failed, the gateway is stopped", ex);
+        } finally {
+            running = false;
+            selector.keys().forEach(key -> {
+                if (key.attachment() instanceof GatewaySession session) {
+                    session.close();
+                }
+            });
+            sessions.set(0);
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel;
+        try {
+            channel = serverChannel.accept();
+        } catch (IOException ex) {
+            // The listening socket stays ready while the cause lasts, so stop selecting on it for a while
+            acceptFailures.increment();
+            log.warn("Binary gateway cannot accept connections, pausing for {} ms: {}", ACCEPT_BACKOFF_MILLIS,
+                    ex.getMessage());
+            acceptKey.interestOps(0);
+            acceptPaused = true;
+            acceptPausedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACCEPT_BACKOFF_MILLIS);
+            return;
+        }
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            GatewaySession session = new GatewaySession(channel, properties.getMaxFrameLength());
+            session.key(channel.register(selector, SelectionKey.OP_READ, session));
+            sessions.incrementAndGet();
+        } catch (IOException ex) {
+            log.debug("Dropping gateway connection before its session started: {}", ex.getMessage());
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Dropped either way
+            }
+        }
+    }
+
+    private void read(GatewaySession session) throws IOException {
+        if (session.read() < 0) {
+            close(session);
+            return;
+        }
+        dispatchFrames(session);
+    }
+
+    private void dispatchFrames(GatewaySession session) throws IOException {
+        while (session.inFlight() < properties.getMaxInFlightPerSession()) {
+            GatewaySession.Frame frame = session.nextFrame();
+            if (frame == null) {
+                return;
+            }
+            session.requestStarted();
+            long start = System.nanoTime();
+            workers.execute(() -> respond(session, frame, start));
+        }
+        // Backpressure: stop reading until a pipelined request completes
+        session.key().interestOps(session.key().interestOps() & ~SelectionKey.OP_READ);
+    }
+
+    /** Runs on a worker thread. */
+    private void respond(GatewaySession session, GatewaySession.Frame frame, long start) {
+        Object response = requestHandler.handle(frame.message(), session.clientId());
+        byte[] encoded;
+        try {
+            encoded = FxBinaryCodec.encode(response);
+        } catch (RuntimeException ex) {
+            log.error("Cannot encode gateway response {}", response, ex);
+            encoded = FxBinaryCodec.encode(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "An unexpected error occurred", LocalDateTime.now()));
+        }
+        session.enqueue(GatewayFrames.frame(frame.correlationId(), encoded));
+        session.requestFinished();
+        requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        ready.add(session);
+        selector.wakeup();
+    }
+
+    private void resumeReading(GatewaySession session) throws IOException {
+        SelectionKey key = session.key();
+        if (key.isValid() && (key.interestOps() & SelectionKey.OP_READ) == 0
+                && session.inFlight() < properties.getMaxInFlightPerSession()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            dispatchFrames(session);
+        }
+    }
+
+    private void write(GatewaySession session) throws IOException {
+        SelectionKey key = session.key();
+        if (session.flush()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        } else {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void close(GatewaySession session) {
+        if (session.key().isValid()) {
+            session.key().cancel();
+            sessions.decrementAndGet();
+        }
+        session.close();
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.fxportal.gateway;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One client connection. Reads and writes happen on the selector thread; workers only
+ * {@link #enqueue} finished responses.
+ */
+final class GatewaySession {
+
+    /** A complete request frame: its correlation id and the message bytes. */
+    record Frame(int correlationId, ByteBuffer message) {
+    }
+
+    private final SocketChannel channel;
+    private final String clientId;
+    private final int maxFrameLength;
+    private final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+    private SelectionKey key;
+
+    GatewaySession(SocketChannel channel, int maxFrameLength) throws IOException {
+        this.channel = channel;
+        this.maxFrameLength = maxFrameLength;
+        this.clientId = channel.getRemoteAddress() instanceof InetSocketAddress address
+                ? address.getAddress().getHostAddress()
+                : String.valueOf(channel.getRemoteAddress());
+    }
+
+    String clientId() {
+        return clientId;
+    }
+
+    SelectionKey key() {
+        return key;
+    }
+
+    void key(SelectionKey key) {
+        this.key = key;
+    }
+
+    /** @return bytes read, or {@code -1} once the client has closed its side */
+    int read() throws IOException {
+        if (!readBuffer.hasRemaining()) {
+            readBuffer = grow(readBuffer);
+        }
+        return channel.read(readBuffer);
+    }
+
+    /**
+     * Takes the next complete frame from what has been read so far.
+     *
+     * @return the frame, or {@code null} if more bytes are needed
+     * @throws IOException if the client announced a frame outside the accepted length
+     */
+    Frame nextFrame() throws IOException {
+        if (readBuffer.position() < GatewayFrames.LENGTH_PREFIX) {
+            return null;
+        }
+        int length = readBuffer.getInt(0);
+        if (length <= GatewayFrames.CORRELATION_ID || length > maxFrameLength) {
+            throw new IOException("Frame length " + length + " outside 5.." + maxFrameLength);
+        }
+        int frameEnd = GatewayFrames.LENGTH_PREFIX + length;
+        if (readBuffer.position() < frameEnd) {
+            if (readBuffer.capacity() < frameEnd) {
+                readBuffer = ByteBuffer.allocate(frameEnd).put(readBuffer.flip());
+            }
+            return null;
+        }
+        int correlationId = readBuffer.getInt(GatewayFrames.LENGTH_PREFIX);
+        byte[] message = new byte[length - GatewayFrames.CORRELATION_ID];
+        readBuffer.get(GatewayFrames.LENGTH_PREFIX + GatewayFrames.CORRELATION_ID, message);
+        readBuffer.flip().position(frameEnd);
+        readBuffer.compact();
+        return new Frame(correlationId, ByteBuffer.wrap(message));
+    }
+
+    int requestStarted() {
+        return inFlight.incrementAndGet();
+    }
+
+    void enqueue(ByteBuffer response) {
+        responses.add(response);
+    }
+
+    /** @return requests still outstanding after this one */
+    int requestFinished() {
+        return inFlight.decrementAndGet();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /** @return {@code true} if every queued response has been written */
+    boolean flush() throws IOException {
+        ByteBuffer head;
+        while ((head = responses.peek()) != null) {
+            channel.write(head);
+            if (head.hasRemaining()) {
+                return false;
+            }
+            responses.poll();
+        }
+        return true;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        return ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+    }
+}
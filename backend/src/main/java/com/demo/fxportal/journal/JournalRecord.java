@@ -0,0 +1,144 @@
+package com.demo.fxportal.journal;
+
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.pricing.FixedPoint;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * One booked trade as it is laid out in the journal. Every record is {@link #SIZE} bytes, so
+ * record {@code n} of a segment starts at {@code n * SIZE}:
+ *
+ * <pre>
+ *  0  i64  sequence (from 1; 0 marks an unused slot)
+ *  8  uuid trade id
+ * 24  uuid quote id
+ * 40  i16  currency pair id
+ * 42  u8   side ordinal
+ * 43  u8   status ordinal
+ * 44  i64  amount, unscaled at {@link FixedPoint#AMOUNT_SCALE}
+ * 52  i64  rate, unscaled at {@link FixedPoint#RATE_SCALE}
+ * 60  i64  booked at, epoch micros
+ * 68  i64  quote expires at, epoch micros
+ * 76  u32  CRC32C of bytes 0-75
+ * </pre>
+ *
+ * Timestamps are the wall-clock {@link LocalDateTime}s the entities use, read as UTC. The enum
+ * ordinals are part of the layout, so {@link Side} and {@link Trade.Status} may only gain values
+ * at the end.
+ */
+public record JournalRecord(
+        long sequence,
+        UUID tradeId,
+        UUID quoteId,
+        CurrencyPair currencyPair,
+        Side side,
+        Trade.Status status,
+        BigDecimal amount,
+        BigDecimal rate,
+        LocalDateTime bookedAt,
+        LocalDateTime quoteExpiresAt) {
+
+    public static final int SIZE = 80;
+
+    private static final int CHECKSUM_OFFSET = 76;
+
+    /** A record for a trade not yet in the journal; its sequence is assigned on append. */
+    public static JournalRecord of(Trade trade, LocalDateTime quoteExpiresAt) {
+        return new JournalRecord(0, trade.getId(), trade.getQuoteId(), trade.getCurrencyPair(), trade.getSide(),
+                trade.getStatus(), trade.getAmount(), trade.getRate(), trade.getBookedAt(), quoteExpiresAt);
+    }
+
+    /**
+     * Whether an amount fits the record's fixed-point field. Quote validation allows 15 integer
+     * digits, a little more than an unscaled {@code long} holds.
+     */
+    public static boolean fits(BigDecimal amount) {
+        return amount.setScale(FixedPoint.AMOUNT_SCALE).unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    /** The precision the journal keeps, and so the {@code booked_at} a trade will be projected with. */
+    public static LocalDateTime truncate(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    JournalRecord withSequence(long sequence) {
+        return new JournalRecord(sequence, tradeId, quoteId, currencyPair, side, status, amount, rate,
+                bookedAt, quoteExpiresAt);
+    }
+
+    public Trade toTrade() {
+        return Trade.builder()
+                .id(tradeId)
+                .quoteId(quoteId)
+                .currencyPair(currencyPair)
+                .side(side)
+                .status(status)
+                .amount(amount)
+                .rate(rate)
+                .bookedAt(bookedAt)
+                .build();
+    }
+
+    void writeTo(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, tradeId.getMostSignificantBits());
+        buffer.putLong(offset + 16, tradeId.getLeastSignificantBits());
+        buffer.putLong(offset + 24, quoteId.getMostSignificantBits());
+        buffer.putLong(offset + 32, quoteId.getLeastSignificantBits());
+        buffer.putShort(offset + 40, currencyPair.getId());
+        buffer.put(offset + 42, (byte) side.ordinal());
+        buffer.put(offset + 43, (byte) status.ordinal());
+        buffer.putLong(offset + 44, amount.setScale(FixedPoint.AMOUNT_SCALE).unscaledValue().longValueExact());
+        buffer.putLong(offset + 52, rate.setScale(FixedPoint.RATE_SCALE).unscaledValue().longValueExact());
+        buffer.putLong(offset + 60, toMicros(bookedAt));
+        buffer.putLong(offset + 68, toMicros(quoteExpiresAt));
+        buffer.putInt(offset + CHECKSUM_OFFSET, checksum(buffer, offset));
+    }
+
+    /**
+     * Reads the record at {@code offset}, or returns {@code null} if the slot is unused or fails its
+     * checksum (a write torn by a crash).
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset);
+        if (sequence <= 0 || buffer.getInt(offset + CHECKSUM_OFFSET) != checksum(buffer, offset)) {
+            return null;
+        }
+        return new JournalRecord(
+                sequence,
+                new UUID(buffer.getLong(offset + 8), buffer.getLong(offset + 16)),
+                new UUID(buffer.getLong(offset + 24), buffer.getLong(offset + 32)),
+                CurrencyPairRegistry.fromId(buffer.getShort(offset + 40)),
+                Side.values()[buffer.get(offset + 42)],
+                Trade.Status.values()[buffer.get(offset + 43)],
+                BigDecimal.valueOf(buffer.getLong(offset + 44), FixedPoint.AMOUNT_SCALE),
+                BigDecimal.valueOf(buffer.getLong(offset + 52), FixedPoint.RATE_SCALE),
+                fromMicros(buffer.getLong(offset + 60)),
+                fromMicros(buffer.getLong(offset + 68)));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,522 @@
+package com.demo.fxportal.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of booked trades.
+ *
+ * <p>The journal is a run of segment files named after their first sequence, each holding a fixed
+ * number of {@link JournalRecord#SIZE}-byte slots. {@link #append} copies a record into the mapped
+ * tail segment and returns its sequence; {@link #awaitDurable} waits until a sync thread has forced
+ * it to disk. The sync thread batches: once a record is pending it waits up to the sync interval,
+ * or until the batch size is reached, and then forces everything appended so far with one
+ * {@code msync}, so concurrent bookings share the cost of a flush.
+ *
+ * <p>A consumer reads durable records in order and reports what it has applied with
+ * {@link #markProjected}. That watermark is kept in a checkpoint file, and segments entirely below
+ * it are deleted. On {@link #open}, the segments are scanned up to the first unused or corrupt slot.
+ * Anything from there on was never acknowledged as durable, so it is zeroed and appending resumes
+ * after the last good record. The checkpoint is not synced: after a crash it may lag, and the
+ * consumer sees some records again.
+ *
+ * <p>A record the consumer cannot apply is {@link #park parked}: copied, synced, to a side file in
+ * the same directory, so it outlives the segment it came from and can be inspected or replayed by hand.
+ *
+ * <p>A failed sync poisons the journal. Every later append or wait then throws, because what reached
+ * the disk is no longer known.
+ */
+@Slf4j
+public final class TradeJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "projected.checkpoint";
+    private static final String PARKED_FILE = "parked.records";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final long syncIntervalNanos;
+    private final int syncBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    /** First sequence of each live segment; guarded by {@link #lock}. */
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final FileChannel checkpointChannel;
+    private final FileChannel parkedChannel;
+    private final Thread syncThread;
+
+    // Guarded by lock
+    private long lastSequence;
+    private long firstPendingNanos;
+    private IOException failure;
+    private boolean closed;
+
+    private volatile long durableSequence;
+    private volatile long projectedSequence;
+    private volatile long syncs;
+    /** Whole records in the parked file; a torn tail from a crash mid-park is written over. */
+    private volatile long parkedCount;
+
+    private TradeJournal(Path directory, int segmentRecords, Duration syncInterval, int syncBatchSize)
+            throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.syncBatchSize = syncBatchSize;
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.parkedChannel = FileChannel.open(directory.resolve(PARKED_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.parkedCount = parkedChannel.size() / JournalRecord.SIZE;
+        this.syncThread = new Thread(this::syncLoop, "trade-journal-sync");
+        this.syncThread.setDaemon(true);
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if needed, and recovers it as described
+     * above.
+     *
+     * @param segmentRecords slots per newly created segment
+     * @param syncInterval   longest a pending record waits for others to share its sync
+     * @param syncBatchSize  pending records that trigger a sync without waiting out the interval
+     */
+    public static TradeJournal open(Path directory, int segmentRecords, Duration syncInterval, int syncBatchSize)
+            throws IOException {
+        Files.createDirectories(directory);
+        TradeJournal journal = new TradeJournal(directory, segmentRecords, syncInterval, syncBatchSize);
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException ex) {
+            journal.closeFiles();
+            throw ex;
+        }
+        journal.syncThread.start();
+        return journal;
+    }
+
+    /**
+     * Copies {@code record} into the journal under the next sequence. The record is not durable
+     * until {@link #awaitDurable} returns for that sequence.
+     *
+     * @return the sequence assigned to the record
+     */
+    public long append(JournalRecord record) {
+        lock.lock();
+        try {
+            checkUsable();
+            long sequence = lastSequence + 1;
+            Segment segment = segments.lastEntry().getValue();
+            if (sequence >= segment.firstSequence + segment.capacity) {
+                segment = createSegment(sequence);
+            }
+            record.withSequence(sequence).writeTo(segment.buffer, segment.offsetOf(sequence));
+            if (lastSequence == durableSequence) {
+                firstPendingNanos = System.nanoTime();
+            }
+            lastSequence = sequence;
+            pending.signal();
+            return sequence;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create journal segment", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Blocks until {@code sequence} has been forced to disk. */
+    public void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                checkUsable();
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for a record after {@code sequence} to become durable.
+     *
+     * @return whether there is one
+     */
+    public boolean awaitDurableAfter(long sequence, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (durableSequence <= sequence && remaining > 0 && !closed) {
+                remaining = durable.awaitNanos(remaining);
+            }
+            return durableSequence > sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Up to {@code maxRecords} durable records, in order, starting at {@code fromSequence}. */
+    public List<JournalRecord> read(long fromSequence, int maxRecords) {
+        long to = Math.min(durableSequence, fromSequence + maxRecords - 1);
+        List<JournalRecord> records = new ArrayList<>((int) Math.max(0, to - fromSequence + 1));
+        if (to < fromSequence) {
+            return records;
+        }
+        List<Segment> covering;
+        lock.lock();
+        try {
+            Long first = segments.floorKey(fromSequence);
+            covering = new ArrayList<>(segments.subMap(first != null ? first : fromSequence, true, to, true).values());
+        } finally {
+            lock.unlock();
+        }
+        // A segment deleted meanwhile stays mapped until its buffer is collected
+        for (Segment segment : covering) {
+            long end = Math.min(to, segment.firstSequence + segment.capacity - 1);
+            for (long sequence = Math.max(fromSequence, segment.firstSequence); sequence <= end; sequence++) {
+                JournalRecord record = JournalRecord.readFrom(segment.buffer, segment.offsetOf(sequence));
+                if (record == null || record.sequence() != sequence) {
+                    throw new IllegalStateException("Journal record " + sequence + " is unreadable");
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Records that everything up to {@code sequence} has been applied downstream, and deletes
+     * segments that hold nothing newer.
+     */
+    public void markProjected(long sequence) throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(12).putLong(0, sequence);
+        CRC32C crc = new CRC32C();
+        crc.update(checkpoint.slice(0, 8));
+        checkpoint.putInt(8, (int) crc.getValue());
+        checkpointChannel.write(checkpoint, 0);
+        projectedSequence = sequence;
+
+        List<Segment> obsolete = new ArrayList<>();
+        lock.lock();
+        try {
+            // Never the tail, which appends continue into
+            while (segments.size() > 1) {
+                Segment oldest = segments.firstEntry().getValue();
+                if (oldest.firstSequence + oldest.capacity - 1 > sequence) {
+                    break;
+                }
+                obsolete.add(segments.pollFirstEntry().getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Segment segment : obsolete) {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+            log.debug("Deleted projected journal segment {}", segment.path.getFileName());
+        }
+    }
+
+    /**
+     * Copies a durable record the consumer could not apply to the parked file and syncs it, so the
+     * record survives {@link #markProjected} deleting its segment.
+     */
+    public synchronized void park(JournalRecord record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE);
+        record.writeTo(buffer, 0);
+        long position = parkedCount * JournalRecord.SIZE;
+        while (buffer.hasRemaining()) {
+            position += parkedChannel.write(buffer, position);
+        }
+        parkedChannel.force(true);
+        if (parkedCount++ == 0) {
+            syncDirectory();
+        }
+    }
+
+    /** Every parked record, oldest first. */
+    public synchronized List<JournalRecord> readParked() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(parkedCount * JournalRecord.SIZE));
+        int read;
+        do {
+            read = parkedChannel.read(buffer, buffer.position());
+        } while (read > 0 && buffer.hasRemaining());
+        List<JournalRecord> parked = new ArrayList<>();
+        for (int offset = 0; offset + JournalRecord.SIZE <= buffer.position(); offset += JournalRecord.SIZE) {
+            JournalRecord record = JournalRecord.readFrom(buffer, offset);
+            if (record != null) {
+                parked.add(record);
+            }
+        }
+        return parked;
+    }
+
+    public long getParkedCount() {
+        return parkedCount;
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public long getProjectedSequence() {
+        return projectedSequence;
+    }
+
+    /** Number of {@code msync} batches so far; with the durable sequence, gives the mean batch size. */
+    public long getSyncCount() {
+        return syncs;
+    }
+
+    /** Syncs whatever is pending and releases the files. Appends after this throw. */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.signal();
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        closeFiles();
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            List<Segment> dirty;
+            lock.lock();
+            try {
+                while (!closed && lastSequence == durableSequence) {
+                    pending.awaitUninterruptibly();
+                }
+                if (lastSequence == durableSequence) {
+                    return;
+                }
+                long deadline = firstPendingNanos + syncIntervalNanos;
+                long remaining;
+                while (!closed && lastSequence - durableSequence < syncBatchSize
+                        && (remaining = deadline - System.nanoTime()) > 0) {
+                    pending.awaitNanos(remaining);
+                }
+                target = lastSequence;
+                Long first = segments.floorKey(durableSequence + 1);
+                dirty = new ArrayList<>(segments.subMap(first, true, target, true).values());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException syncFailure = null;
+            try {
+                for (Segment segment : dirty) {
+                    long from = Math.max(durableSequence + 1, segment.firstSequence);
+                    long to = Math.min(target, segment.firstSequence + segment.capacity - 1);
+                    segment.buffer.force(segment.offsetOf(from), (int) (to - from + 1) * JournalRecord.SIZE);
+                }
+            } catch (UncheckedIOException ex) {
+                syncFailure = ex.getCause();
+            }
+
+            lock.lock();
+            try {
+                if (syncFailure != null) {
+                    log.error("Trade journal sync failed, refusing further bookings", syncFailure);
+                    failure = syncFailure;
+                } else {
+                    durableSequence = target;
+                    syncs++;
+                }
+                durable.signalAll();
+                if (failure != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void checkUsable() {
+        if (failure != null) {
+            throw new UncheckedIOException("Trade journal is unusable after a failed sync", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Trade journal is closed");
+        }
+    }
+
+    private void recover() throws IOException {
+        projectedSequence = readCheckpoint();
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList();
+        }
+        TreeMap<Long, Path> byFirstSequence = new TreeMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            byFirstSequence.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+        }
+
+        long expected = -1;
+        for (Map.Entry<Long, Path> entry : byFirstSequence.entrySet()) {
+            boolean last = entry.getKey().equals(byFirstSequence.lastKey());
+            if (expected >= 0 && entry.getKey() != expected) {
+                throw new IllegalStateException("Journal segment " + entry.getValue().getFileName()
+                        + " does not follow on from sequence " + (expected - 1));
+            }
+            Segment segment = mapSegment(entry.getKey(), entry.getValue(), -1);
+            segments.put(segment.firstSequence, segment);
+            long scanned = scan(segment);
+            if (scanned < segment.capacity && !last) {
+                throw new IllegalStateException("Journal segment " + entry.getValue().getFileName()
+                        + " ends early at sequence " + (segment.firstSequence + scanned - 1));
+            }
+            lastSequence = segment.firstSequence + scanned - 1;
+            expected = segment.firstSequence + segment.capacity;
+        }
+
+        if (segments.isEmpty()) {
+            lastSequence = projectedSequence;
+            createSegment(lastSequence + 1);
+        }
+        durableSequence = lastSequence;
+        if (projectedSequence > lastSequence) {
+            log.warn("Journal checkpoint {} is past the last record {}", projectedSequence, lastSequence);
+            projectedSequence = lastSequence;
+        }
+        markProjected(projectedSequence);
+        log.info("Opened trade journal in {}: records up to {}, projected up to {}",
+                directory, lastSequence, projectedSequence);
+    }
+
+    /**
+     * Counts the good records at the start of a segment and zeroes whatever follows them, so a
+     * torn or half-flushed tail cannot be mistaken for records later.
+     */
+    private long scan(Segment segment) {
+        long count = 0;
+        while (count < segment.capacity) {
+            JournalRecord record = JournalRecord.readFrom(segment.buffer, (int) (count * JournalRecord.SIZE));
+            if (record == null || record.sequence() != segment.firstSequence + count) {
+                break;
+            }
+            count++;
+        }
+        int from = (int) (count * JournalRecord.SIZE);
+        int length = segment.capacity * JournalRecord.SIZE - from;
+        boolean dirty = false;
+        for (int i = from; i < from + length; i++) {
+            if (segment.buffer.get(i) != 0) {
+                dirty = true;
+                segment.buffer.put(i, (byte) 0);
+            }
+        }
+        if (dirty) {
+            log.warn("Discarded an incomplete record at sequence {} of the trade journal",
+                    segment.firstSequence + count);
+            segment.buffer.force(from, length);
+        }
+        return count;
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(12);
+        if (checkpointChannel.read(checkpoint, 0) < 12) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(checkpoint.slice(0, 8));
+        if (checkpoint.getInt(8) != (int) crc.getValue()) {
+            log.warn("Trade journal checkpoint is corrupt, replaying the whole journal");
+            return 0;
+        }
+        return checkpoint.getLong(0);
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Segment segment = mapSegment(firstSequence,
+                directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX)), segmentRecords);
+        segments.put(firstSequence, segment);
+        syncDirectory();
+        return segment;
+    }
+
+    /** Forces the directory entry of a newly created file, without which a crash can lose the whole file. */
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /** Maps a segment file; {@code capacity} of {@code -1} takes it from the existing file's size. */
+    private static Segment mapSegment(long firstSequence, Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int records = capacity >= 0 ? capacity : (int) (channel.size() / JournalRecord.SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) records * JournalRecord.SIZE);
+            return new Segment(firstSequence, records, path, channel, buffer);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private void closeFiles() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        checkpointChannel.close();
+        parkedChannel.close();
+    }
+
+    private record Segment(long firstSequence, int capacity, Path path, FileChannel channel, MappedByteBuffer buffer) {
+
+        int offsetOf(long sequence) {
+            return (int) (sequence - firstSequence) * JournalRecord.SIZE;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.demo.fxportal.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the quote and booking hot paths.
+ *
+ * <p>Every timer is registered up front (one per outcome, one per history filter combination)
+ * so recording is a lookup-free call on an existing meter; callers pass {@link System#nanoTime()}
+ * readings rather than allocating a {@link Timer.Sample}.
+ *
+ * <p>Outcomes that depend on a write, such as a created quote or a booked trade, are recorded
+ * {@link #afterCommit after commit}, so a commit that fails on a constraint is not counted.
+ */
+@Component
+public class TradingMetrics {
+
+    public enum QuoteOutcome {
+        CREATED, UNSUPPORTED_PAIR
+    }
+
+    public enum BookingOutcome {
+        BOOKED, EXPIRED, DUPLICATE, NOT_FOUND
+    }
+
+    /** Bits of the history filter mask, see {@link #recordHistoryQuery}. */
+    public static final int FILTER_CURRENCY_PAIR = 1;
+    public static final int FILTER_SIDE = 1 << 1;
+    public static final int FILTER_STATUS = 1 << 2;
+    public static final int FILTER_FROM_DATE = 1 << 3;
+    public static final int FILTER_TO_DATE = 1 << 4;
+    /** Number of distinct masks. */
+    public static final int FILTER_COMBINATIONS = FILTER_TO_DATE << 1;
+
+    private static final String[] FILTER_NAMES = {"currencyPair", "side", "status", "fromDate", "toDate"};
+
+    private final Map<QuoteOutcome, Timer> quoteTimers = new EnumMap<>(QuoteOutcome.class);
+    private final Map<BookingOutcome, Timer> bookingTimers = new EnumMap<>(BookingOutcome.class);
+    private final Timer quoteToBookTimer;
+    private final Timer[] historyTimers = new Timer[1 << FILTER_NAMES.length];
+
+    public TradingMetrics(MeterRegistry meterRegistry) {
+        for (QuoteOutcome outcome : QuoteOutcome.values()) {
+            quoteTimers.put(outcome, Timer.builder("fxportal.quotes.requests")
+                    .description("Time to price and persist a quote request")
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry));
+        }
+        for (BookingOutcome outcome : BookingOutcome.values()) {
+            bookingTimers.put(outcome, Timer.builder("fxportal.trades.bookings")
+                    .description("Time to validate and book a trade against a quote")
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry));
+        }
+        quoteToBookTimer = Timer.builder("fxportal.trades.quote.to.book")
+                .description("Time between a quote being created and a trade being booked on it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofMinutes(2))
+                .register(meterRegistry);
+        for (int mask = 0; mask < historyTimers.length; mask++) {
+            historyTimers[mask] = Timer.builder("fxportal.trades.history")
+                    .description("Trade history query latency by the filters supplied")
+                    .tag("filters", filterTag(mask))
+                    .register(meterRegistry);
+        }
+    }
+
+    /** Runs {@code record} once the current transaction has committed, or now if there is none. */
+    public static void afterCommit(Runnable record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+
+    public void recordQuote(QuoteOutcome outcome, long startNanos) {
+        quoteTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBooking(BookingOutcome outcome, long startNanos) {
+        bookingTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordQuoteToBook(LocalDateTime quoteCreatedAt, LocalDateTime bookedAt) {
+        if (quoteCreatedAt != null && bookedAt != null) {
+            quoteToBookTimer.record(Duration.between(quoteCreatedAt, bookedAt));
+        }
+    }
+
+    /**
+     * @param filterMask combination of the {@code FILTER_*} bits that were present on the query
+     */
+    public void recordHistoryQuery(int filterMask, long startNanos) {
+        historyTimers[filterMask].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** The {@code FILTER_*} mask for a history query, from which of its filters were supplied. */
+    public static int historyFilterMask(Optional<?> currencyPair,
+                                        Optional<?> side,
+                                        Optional<?> status,
+                                        Optional<?> fromDate,
+                                        Optional<?> toDate) {
+        int mask = 0;
+        if (currencyPair.isPresent()) {
+            mask |= FILTER_CURRENCY_PAIR;
+        }
+        if (side.isPresent()) {
+            mask |= FILTER_SIDE;
+        }
+        if (status.isPresent()) {
+            mask |= FILTER_STATUS;
+        }
+        if (fromDate.isPresent()) {
+            mask |= FILTER_FROM_DATE;
+        }
+        if (toDate.isPresent()) {
+            mask |= FILTER_TO_DATE;
+        }
+        return mask;
+    }
+
+    static String filterTag(int mask) {
+        if (mask == 0) {
+            return "none";
+        }
+        StringJoiner joiner = new StringJoiner("+");
+        for (int bit = 0; bit < FILTER_NAMES.length; bit++) {
+            if ((mask & (1 << bit)) != 0) {
+                joiner.add(FILTER_NAMES[bit]);
+            }
+        }
+        return joiner.toString();
+    }
+
+    private static String tagValue(Enum<?> outcome) {
+        return outcome.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,35 @@
+package com.demo.fxportal.model;
+
+/**
+ * An interned currency pair. Instances come only from {@link CurrencyPairRegistry},
+ * so pairs can be compared by identity and stored as their compact {@link #getId() id}.
+ * The API keeps using the {@code XXX/YYY} {@link #getSymbol() symbol}.
+ */
+public final class CurrencyPair {
+
+    private final short id;
+    private final String symbol;
+
+    CurrencyPair(short id, String symbol) {
+        this.id = id;
+        this.symbol = symbol;
+    }
+
+    public short getId() {
+        return id;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /** Whether the pair belongs to the priced universe (as opposed to a legacy stored pair). */
+    public boolean isTradable() {
+        return id < CurrencyPairRegistry.LEGACY_ID_START;
+    }
+
+    @Override
+    public String toString() {
+        return symbol;
+    }
+}
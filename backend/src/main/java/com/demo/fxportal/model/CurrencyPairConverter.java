@@ -0,0 +1,18 @@
+package com.demo.fxportal.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class CurrencyPairConverter implements AttributeConverter<CurrencyPair, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(CurrencyPair pair) {
+        return pair == null ? null : pair.getId();
+    }
+
+    @Override
+    public CurrencyPair convertToEntityAttribute(Short id) {
+        return id == null ? null : CurrencyPairRegistry.fromId(id);
+    }
+}
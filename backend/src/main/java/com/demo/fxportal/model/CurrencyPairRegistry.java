@@ -0,0 +1,97 @@
+package com.demo.fxportal.model;
+
+import com.demo.fxportal.pricing.CurrencyIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns currency pairs into small integer ids.
+ *
+ * <p>Every pair of the {@link CurrencyIndex} universe has the fixed id
+ * {@code base * STRIDE + quote}, which is also its slot in the cross-rate matrix.
+ * Pairs stored before the universe existed are registered at startup from the
+ * {@code currency_pairs} table with ids from {@link #LEGACY_ID_START} up; they can be
+ * read and filtered on but not priced.
+ */
+public final class CurrencyPairRegistry {
+
+    public static final int LEGACY_ID_START = CurrencyIndex.STRIDE * CurrencyIndex.STRIDE;
+
+    private static final CurrencyPair[] SUPPORTED = new CurrencyPair[LEGACY_ID_START];
+    private static final Map<String, CurrencyPair> LEGACY_BY_SYMBOL = new ConcurrentHashMap<>();
+    private static final Map<Short, CurrencyPair> LEGACY_BY_ID = new ConcurrentHashMap<>();
+
+    static {
+        for (int base = 0; base < CurrencyIndex.size(); base++) {
+            for (int quote = 0; quote < CurrencyIndex.size(); quote++) {
+                if (base != quote) {
+                    int id = CurrencyIndex.pairIndex(base, quote);
+                    SUPPORTED[id] = new CurrencyPair((short) id,
+                            CurrencyIndex.code(base) + "/" + CurrencyIndex.code(quote));
+                }
+            }
+        }
+    }
+
+    private CurrencyPairRegistry() {
+    }
+
+    /** Looks up a pair by symbol without allocating; returns {@code null} if unknown. */
+    public static CurrencyPair lookup(String symbol) {
+        int slot = CurrencyIndex.pairIndex(symbol);
+        if (slot >= 0 && SUPPORTED[slot] != null) {
+            return SUPPORTED[slot];
+        }
+        // Known codes can still name a legacy pair, e.g. a same-currency one like EUR/EUR
+        return symbol == null ? null : LEGACY_BY_SYMBOL.get(symbol);
+    }
+
+    public static Optional<CurrencyPair> find(String symbol) {
+        return Optional.ofNullable(lookup(symbol));
+    }
+
+    /** Pairs that new quotes may be issued for; legacy pairs are only readable. */
+    public static Optional<CurrencyPair> findTradable(String symbol) {
+        return find(symbol).filter(CurrencyPair::isTradable);
+    }
+
+    public static CurrencyPair of(String symbol) {
+        CurrencyPair pair = lookup(symbol);
+        if (pair == null) {
+            throw new IllegalArgumentException("Unsupported currency pair: " + symbol);
+        }
+        return pair;
+    }
+
+    public static CurrencyPair fromId(short id) {
+        CurrencyPair pair = id >= 0 && id < LEGACY_ID_START ? SUPPORTED[id] : LEGACY_BY_ID.get(id);
+        if (pair == null) {
+            throw new IllegalArgumentException("Unknown currency pair id: " + id);
+        }
+        return pair;
+    }
+
+    /** All pairs of the priced universe, in id order. */
+    public static List<CurrencyPair> supported() {
+        List<CurrencyPair> pairs = new ArrayList<>();
+        for (CurrencyPair pair : SUPPORTED) {
+            if (pair != null) {
+                pairs.add(pair);
+            }
+        }
+        return pairs;
+    }
+
+    public static CurrencyPair registerLegacy(short id, String symbol) {
+        if (id < LEGACY_ID_START) {
+            throw new IllegalArgumentException("Legacy currency pair ids start at " + LEGACY_ID_START + ": " + id);
+        }
+        CurrencyPair pair = LEGACY_BY_ID.computeIfAbsent(id, key -> new CurrencyPair(key, symbol));
+        LEGACY_BY_SYMBOL.putIfAbsent(symbol, pair);
+        return pair;
+    }
+}
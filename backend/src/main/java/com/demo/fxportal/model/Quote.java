@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -18,12 +19,16 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Quote {
 
+    /** How long a client may book against a quote after it is issued. */
+    public static final Duration VALIDITY = Duration.ofMinutes(2);
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(name = "currency_pair", nullable = false, length = 10)
-    private String currencyPair;
+    @Convert(converter = CurrencyPairConverter.class)
+    @Column(name = "currency_pair_id", nullable = false)
+    private CurrencyPair currencyPair;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 4)
@@ -25,8 +25,9 @@ public class Trade {
     @Column(name = "quote_id", nullable = false)
     private UUID quoteId;
 
-    @Column(name = "currency_pair", nullable = false, length = 10)
-    private String currencyPair;
+    @Convert(converter = CurrencyPairConverter.class)
+    @Column(name = "currency_pair_id", nullable = false)
+    private CurrencyPair currencyPair;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 4)
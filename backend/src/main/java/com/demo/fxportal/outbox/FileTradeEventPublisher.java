@@ -0,0 +1,55 @@
+package com.demo.fxportal.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each event's payload as one line of NDJSON and syncs the file once per batch. The
+ * default publisher, for running without a broker; downstream tools can tail the file.
+ */
+@Slf4j
+public class FileTradeEventPublisher implements TradeEventPublisher, AutoCloseable {
+
+    private final Path file;
+    private FileChannel channel;
+
+    public FileTradeEventPublisher(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<TradeEvent> events) throws IOException {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            log.info("Publishing trade events to {}", file.toAbsolutePath());
+        }
+        StringBuilder lines = new StringBuilder(events.size() * 256);
+        for (TradeEvent event : events) {
+            lines.append(event.payload()).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
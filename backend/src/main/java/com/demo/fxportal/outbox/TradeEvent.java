@@ -0,0 +1,16 @@
+package com.demo.fxportal.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One outbox row as handed to a {@link TradeEventPublisher}.
+ *
+ * @param id        outbox sequence; increases along each trade's events, and is what consumers
+ *                  deduplicate redeliveries on
+ * @param payload   the event as JSON: {@code type}, {@code trade} (as returned by the trades API),
+ *                  {@code previousStatus} for status changes, and {@code occurredAt}
+ * @param createdAt when the event was raised, on the application's clock like the trade timestamps
+ */
+public record TradeEvent(long id, TradeEventType type, UUID tradeId, String payload, LocalDateTime createdAt) {
+}
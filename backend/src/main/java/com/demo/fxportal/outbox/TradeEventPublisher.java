@@ -0,0 +1,19 @@
+package com.demo.fxportal.outbox;
+
+import java.util.List;
+
+/**
+ * Where the outbox relay delivers trade events: a broker client, a file, a test double. Define a
+ * bean of this type to replace the default {@link FileTradeEventPublisher}.
+ *
+ * <p>Delivery is at least once. A batch is deleted from the outbox only after {@code publish}
+ * returns, so a failure or a crash in between offers the same events again, in the same order.
+ */
+public interface TradeEventPublisher {
+
+    /**
+     * Publishes {@code events} in the order given, returning only once all of them are accepted.
+     * Throwing rejects the whole batch; events already sent from it are sent again on retry.
+     */
+    void publish(List<TradeEvent> events) throws Exception;
+}
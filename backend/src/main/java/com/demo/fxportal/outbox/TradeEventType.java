@@ -0,0 +1,6 @@
+package com.demo.fxportal.outbox;
+
+public enum TradeEventType {
+    TRADE_BOOKED,
+    TRADE_STATUS_CHANGED
+}
@@ -0,0 +1,60 @@
+package com.demo.fxportal.outbox;
+
+import com.demo.fxportal.config.OutboxProperties;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.repository.TradeOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records trade events in {@code trade_outbox}. Every method joins the caller's transaction and
+ * refuses to run without one, so an event commits or rolls back with the change it describes.
+ * Does nothing unless {@code fxportal.outbox.enabled} is set.
+ */
+@Component
+@RequiredArgsConstructor
+public class TradeOutbox {
+
+    private final TradeOutboxRepository repository;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /** {@code trades} must already have their id and {@code bookedAt}, i.e. be persisted. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tradesBooked(List<Trade> trades) {
+        if (!properties.isEnabled() || trades.isEmpty()) {
+            return;
+        }
+        repository.append(trades.stream()
+                .map(trade -> event(TradeEventType.TRADE_BOOKED, trade, null))
+                .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Trade trade, Trade.Status previousStatus) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        repository.append(List.of(event(TradeEventType.TRADE_STATUS_CHANGED, trade, previousStatus)));
+    }
+
+    private TradeEvent event(TradeEventType type, Trade trade, Trade.Status previousStatus) {
+        Payload payload = new Payload(type, TradeResponse.fromEntity(trade), previousStatus, LocalDateTime.now());
+        try {
+            return new TradeEvent(0, type, trade.getId(), objectMapper.writeValueAsString(payload), payload.occurredAt());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise " + type + " for trade " + trade.getId(), ex);
+        }
+    }
+
+    record Payload(TradeEventType type, TradeResponse trade, Trade.Status previousStatus, LocalDateTime occurredAt) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.demo.fxportal.outbox;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.config.OutboxProperties;
+import com.demo.fxportal.repository.TradeOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@code trade_outbox} into the {@link TradeEventPublisher}, one batch per transaction:
+ * lock the oldest events, publish them in id order, delete them, commit. If the publisher throws or
+ * the commit fails, the rows stay and the same batch is offered again after the retry delay, so
+ * delivery is at least once and never reordered. Each batch takes a background database permit.
+ *
+ * <p>Id order is commit order for the events of any one trade. Events of different trades that
+ * commit concurrently can be delivered in either order.
+ */
+@Component
+@Slf4j
+public class TradeOutboxRelay implements SmartLifecycle {
+
+    private final TradeOutboxRepository repository;
+    private final TradeEventPublisher publisher;
+    private final OutboxProperties properties;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer lagTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread relay;
+
+    public TradeOutboxRelay(TradeOutboxRepository repository,
+                            TradeEventPublisher publisher,
+                            OutboxProperties properties,
+                            DbConcurrencyLimiter dbConcurrencyLimiter,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.publisher = publisher;
+        this.properties = properties;
+        this.dbConcurrencyLimiter = dbConcurrencyLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = Counter.builder("fxportal.outbox.published")
+                .description("Trade events accepted by the publisher")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("fxportal.outbox.publish.failures")
+                .description("Outbox batches the publisher refused, to be offered again")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("fxportal.outbox.lag")
+                .description("Time from a trade event committing to its publisher accepting it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("fxportal.outbox.batch")
+                .description("Trade events published per relay transaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes and deletes the oldest batch of events.
+     *
+     * @return how many events were published
+     * @throws RuntimeException if the publisher refused the batch; nothing was deleted
+     */
+    int relayBatch() {
+        Integer published = dbConcurrencyLimiter.call(DbOperation.BACKGROUND, () -> transactionTemplate.execute(tx -> {
+            List<TradeEvent> events = repository.lockOldest(properties.getBatchSize());
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                publisher.publish(events);
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException("Publisher refused " + events.size() + " trade events", ex);
+            }
+            repository.delete(events);
+            LocalDateTime now = LocalDateTime.now();
+            events.forEach(event -> lagTimer.record(Duration.between(event.createdAt(), now)));
+            return events.size();
+        }));
+        if (published == null || published == 0) {
+            return 0;
+        }
+        publishedCounter.increment(published);
+        batchSizes.record(published);
+        return published;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        relay = new Thread(this::relayLoop, "trade-outbox-relay");
+        relay.start();
+        log.info("Trade outbox relay started, publishing to {}", publisher.getClass().getSimpleName());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            relay.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void relayLoop() {
+        while (running) {
+            Duration pause = properties.getPollInterval();
+            try {
+                if (relayBatch() >= properties.getBatchSize()) {
+                    // More waiting behind a full batch
+                    continue;
+                }
+            } catch (RuntimeException ex) {
+                failureCounter.increment();
+                log.warn("Trade outbox relay failed, retrying in {}: {}", properties.getRetryDelay(), ex.getMessage());
+                pause = properties.getRetryDelay();
+            }
+            try {
+                Thread.sleep(pause.toMillis());
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.demo.fxportal.pricing;
+
+import com.demo.fxportal.config.PricingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mid rates for every pair in the {@link CurrencyIndex} universe, triangulated through USD.
+ *
+ * <p>Each currency has one USD leg, quoted in market convention ({@code EUR/USD} or
+ * {@code USD/JPY}). Every cross {@code A/B} is kept pre-computed at
+ * {@link FixedPoint#RATE_SCALE}, so pricing is a single array read. A leg tick only
+ * recomputes the row and column of the currency that moved.
+ */
+@Component
+@Slf4j
+public class CrossRateMatrix {
+
+    /** Marks a pair that cannot be priced (unknown leg or identical currencies). */
+    public static final long UNAVAILABLE = 0L;
+
+    private final AtomicLongArray rates = new AtomicLongArray(CurrencyIndex.STRIDE * CurrencyIndex.STRIDE);
+
+    // The USD value of one unit of each currency, kept as the fraction numerator / denominator
+    // so that direct legs (e.g. USD/JPY = 149.50) come out exact.
+    private final BigDecimal[] usdNumerator = new BigDecimal[CurrencyIndex.STRIDE];
+    private final BigDecimal[] usdDenominator = new BigDecimal[CurrencyIndex.STRIDE];
+
+    public CrossRateMatrix(PricingProperties properties) {
+        usdNumerator[CurrencyIndex.USD] = BigDecimal.ONE;
+        usdDenominator[CurrencyIndex.USD] = BigDecimal.ONE;
+        properties.getUsdLegs().forEach(this::onTick);
+    }
+
+    /** Rate for a matrix slot from {@link CurrencyIndex#pairIndex}, or {@link #UNAVAILABLE}. */
+    public long rate(int pairIndex) {
+        return rates.get(pairIndex);
+    }
+
+    public long rate(String currencyPair) {
+        int pairIndex = CurrencyIndex.pairIndex(currencyPair);
+        return pairIndex < 0 ? UNAVAILABLE : rates.get(pairIndex);
+    }
+
+    /**
+     * Applies a new USD leg rate, e.g. {@code onTick("USD/JPY", 149.62)}, and refreshes
+     * every cross that involves the non-USD currency.
+     */
+    public synchronized void onTick(String legPair, BigDecimal rate) {
+        int pairIndex = CurrencyIndex.pairIndex(legPair);
+        if (pairIndex < 0 || rate.signum() <= 0) {
+            throw new IllegalArgumentException("Invalid USD leg: " + legPair + " = " + rate);
+        }
+        int base = CurrencyIndex.baseOf(pairIndex);
+        int quote = CurrencyIndex.quoteOf(pairIndex);
+
+        int currency;
+        if (quote == CurrencyIndex.USD && base != CurrencyIndex.USD) {
+            currency = base;
+            usdNumerator[currency] = rate;
+            usdDenominator[currency] = BigDecimal.ONE;
+        } else if (base == CurrencyIndex.USD && quote != CurrencyIndex.USD) {
+            currency = quote;
+            usdNumerator[currency] = BigDecimal.ONE;
+            usdDenominator[currency] = rate;
+        } else {
+            throw new IllegalArgumentException("Not a USD leg: " + legPair);
+        }
+
+        refresh(currency);
+        log.debug("Applied {} = {}", legPair, rate);
+    }
+
+    private void refresh(int currency) {
+        for (int other = 0; other < CurrencyIndex.size(); other++) {
+            if (other == currency) {
+                continue;
+            }
+            rates.set(CurrencyIndex.pairIndex(currency, other), cross(currency, other));
+            rates.set(CurrencyIndex.pairIndex(other, currency), cross(other, currency));
+        }
+    }
+
+    private long cross(int base, int quote) {
+        if (usdNumerator[base] == null || usdNumerator[quote] == null) {
+            return UNAVAILABLE;
+        }
+        // (nb / db) / (nq / dq) = (nb * dq) / (db * nq)
+        BigDecimal numerator = usdNumerator[base].multiply(usdDenominator[quote]);
+        BigDecimal denominator = usdDenominator[base].multiply(usdNumerator[quote]);
+        return FixedPoint.fromBigDecimal(
+                numerator.divide(denominator, FixedPoint.RATE_SCALE, RoundingMode.HALF_UP),
+                FixedPoint.RATE_SCALE);
+    }
+}
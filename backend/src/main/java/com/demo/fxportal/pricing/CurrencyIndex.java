@@ -0,0 +1,94 @@
+package com.demo.fxportal.pricing;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The fixed universe of currencies the pricing engine knows about, each mapped to a
+ * small index. A currency pair maps to {@code base * STRIDE + quote}, which is the
+ * slot of that pair in {@link CrossRateMatrix}.
+ *
+ * <p>Lookups work on the characters of an {@code XXX/YYY} string and do not allocate.
+ * The order of {@link #CODES} is append-only: indices must never change once assigned.
+ */
+public final class CurrencyIndex {
+
+    public static final int STRIDE = 32;
+
+    public static final List<String> CODES = List.of(
+            "USD", "EUR", "GBP", "JPY", "CHF", "AUD", "CAD", "NZD",
+            "SEK", "NOK", "DKK", "SGD", "HKD", "CNY", "MXN", "ZAR", "PLN");
+
+    public static final int USD = 0;
+
+    private static final int NOT_FOUND = -1;
+    private static final int[] CODE_TO_INDEX = new int[26 * 26 * 26];
+
+    static {
+        if (CODES.size() > STRIDE) {
+            throw new IllegalStateException("Currency universe exceeds " + STRIDE + " entries");
+        }
+        Arrays.fill(CODE_TO_INDEX, NOT_FOUND);
+        for (int i = 0; i < CODES.size(); i++) {
+            String code = CODES.get(i);
+            CODE_TO_INDEX[packedCode(code, 0)] = i;
+        }
+    }
+
+    private CurrencyIndex() {
+    }
+
+    public static int size() {
+        return CODES.size();
+    }
+
+    public static String code(int index) {
+        return CODES.get(index);
+    }
+
+    /** Index of the three-letter code starting at {@code offset}, or -1 if unknown. */
+    public static int indexOf(CharSequence text, int offset) {
+        if (text.length() < offset + 3) {
+            return NOT_FOUND;
+        }
+        int packed = packedCode(text, offset);
+        return packed < 0 ? NOT_FOUND : CODE_TO_INDEX[packed];
+    }
+
+    /** Matrix slot for an {@code XXX/YYY} pair, or -1 if either currency is unknown. */
+    public static int pairIndex(CharSequence currencyPair) {
+        if (currencyPair == null || currencyPair.length() != 7 || currencyPair.charAt(3) != '/') {
+            return NOT_FOUND;
+        }
+        int base = indexOf(currencyPair, 0);
+        int quote = indexOf(currencyPair, 4);
+        if (base < 0 || quote < 0) {
+            return NOT_FOUND;
+        }
+        return pairIndex(base, quote);
+    }
+
+    public static int pairIndex(int base, int quote) {
+        return base * STRIDE + quote;
+    }
+
+    public static int baseOf(int pairIndex) {
+        return pairIndex / STRIDE;
+    }
+
+    public static int quoteOf(int pairIndex) {
+        return pairIndex % STRIDE;
+    }
+
+    private static int packedCode(CharSequence text, int offset) {
+        int packed = 0;
+        for (int i = offset; i < offset + 3; i++) {
+            int letter = text.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return NOT_FOUND;
+            }
+            packed = packed * 26 + letter;
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,79 @@
+package com.demo.fxportal.pricing;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free fixed-point arithmetic for rates and amounts.
+ *
+ * <p>Values are carried as unscaled {@code long}s at a fixed scale ({@link #RATE_SCALE}
+ * for rates, {@link #AMOUNT_SCALE} for amounts) matching the {@code DECIMAL} columns,
+ * and only converted to {@link BigDecimal} at the API and persistence edges.
+ * All rounding is {@link RoundingMode#HALF_UP}, the same as the former BigDecimal path.
+ */
+public final class FixedPoint {
+
+    public static final int RATE_SCALE = 6;
+    public static final int AMOUNT_SCALE = 4;
+
+    /** Spreads are expressed in parts per billion of the rate. */
+    public static final long PPB = 1_000_000_000L;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+            100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L,
+            1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    public static long pow10(int scale) {
+        return POW10[scale];
+    }
+
+    /**
+     * Applies a spread of {@code spreadPpb} parts per billion to {@code rate}:
+     * {@code rate * (1 + spreadPpb / 1e9)}, rounded HALF_UP back to the rate's scale.
+     */
+    public static long applySpread(long rate, long spreadPpb) {
+        return mulDivHalfUp(rate, PPB + spreadPpb, PPB);
+    }
+
+    /**
+     * Computes {@code a * b / divisor} rounded HALF_UP. {@code divisor} must be positive.
+     * Falls back to {@link BigInteger} only if the intermediate product overflows a long.
+     */
+    public static long mulDivHalfUp(long a, long b, long divisor) {
+        long product = a * b;
+        if (Math.multiplyHigh(a, b) != (product >> 63)) {
+            return new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                    .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+        long quotient = product / divisor;
+        long remainder = product % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += product < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /** Rescales an unscaled value between two scales, rounding HALF_UP when scale shrinks. */
+    public static long rescale(long unscaled, int fromScale, int toScale) {
+        if (toScale >= fromScale) {
+            return Math.multiplyExact(unscaled, POW10[toScale - fromScale]);
+        }
+        return mulDivHalfUp(unscaled, 1, POW10[fromScale - toScale]);
+    }
+
+    public static BigDecimal toBigDecimal(long unscaled, int scale) {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    public static long fromBigDecimal(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,47 @@
+package com.demo.fxportal.pricing;
+
+import com.demo.fxportal.model.CurrencyPair;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Prices a client quote: the triangulated mid from {@link CrossRateMatrix} plus a simulated
+ * spread. Shared by every API stack that issues quotes so they all price identically.
+ */
+@Component
+public class QuotePricer {
+
+    private static final long MAX_SPREAD_PPB = FixedPoint.PPB / 200;
+
+    private final CrossRateMatrix crossRateMatrix;
+
+    public QuotePricer(CrossRateMatrix crossRateMatrix) {
+        this.crossRateMatrix = crossRateMatrix;
+    }
+
+    /** Whether a mid rate is available for the pair, so {@link #price} will not throw. */
+    public boolean canPrice(CurrencyPair currencyPair) {
+        return crossRateMatrix.rate(currencyPair.getId()) != CrossRateMatrix.UNAVAILABLE;
+    }
+
+    public BigDecimal price(CurrencyPair currencyPair) {
+        return FixedPoint.toBigDecimal(priceUnscaled(currencyPair), FixedPoint.RATE_SCALE);
+    }
+
+    /**
+     * Prices a pair as an unscaled rate at {@link FixedPoint#RATE_SCALE} without allocating.
+     */
+    public long priceUnscaled(CurrencyPair currencyPair) {
+        long midRate = crossRateMatrix.rate(currencyPair.getId());
+        if (midRate == CrossRateMatrix.UNAVAILABLE) {
+            throw new IllegalArgumentException("Unsupported currency pair: " + currencyPair);
+        }
+
+        // Add random spread (-0.5% to +0.5%)
+        long spreadPpb = ThreadLocalRandom.current().nextLong(-MAX_SPREAD_PPB, MAX_SPREAD_PPB + 1);
+
+        return FixedPoint.applySpread(midRate, spreadPpb);
+    }
+}
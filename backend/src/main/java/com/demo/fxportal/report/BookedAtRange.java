@@ -0,0 +1,29 @@
+package com.demo.fxportal.report;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/** A half-open {@code [from, to)} interval of {@code booked_at}. */
+public record BookedAtRange(LocalDateTime from, LocalDateTime to) {
+
+    /**
+     * Splits the range into at most {@code count} ranges of equal length that together cover it
+     * exactly. Boundaries are whole microseconds from {@code from}, the precision {@code booked_at}
+     * is stored at.
+     */
+    public List<BookedAtRange> split(int count) {
+        long micros = ChronoUnit.MICROS.between(from, to);
+        List<BookedAtRange> ranges = new ArrayList<>(count);
+        LocalDateTime start = from;
+        for (int i = 1; i <= count; i++) {
+            LocalDateTime end = i == count ? to : from.plus(micros * i / count, ChronoUnit.MICROS);
+            if (end.isAfter(start)) {
+                ranges.add(new BookedAtRange(start, end));
+                start = end;
+            }
+        }
+        return ranges;
+    }
+}
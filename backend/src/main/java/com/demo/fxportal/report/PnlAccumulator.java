@@ -0,0 +1,69 @@
+package com.demo.fxportal.report;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.pricing.FixedPoint;
+
+/**
+ * Open-trade totals per currency pair and side, in flat arrays indexed by
+ * {@code pairId * 2 + (buy ? 0 : 1)} so adding a row allocates nothing. Each worker fills its own
+ * accumulator and they are {@link #merge merged} at the end; none of this is thread-safe.
+ *
+ * <p>Amounts and booked values are unscaled at {@link FixedPoint#AMOUNT_SCALE}; the booked value
+ * of a trade is {@code amount * rate} in the pair's quote currency.
+ */
+public final class PnlAccumulator {
+
+    static final int SLOTS = CurrencyPairRegistry.LEGACY_ID_START * 2;
+
+    private static final long RATE_ONE = FixedPoint.pow10(FixedPoint.RATE_SCALE);
+
+    private final long[] trades = new long[SLOTS];
+    private final long[] amounts = new long[SLOTS];
+    private final long[] bookedValues = new long[SLOTS];
+    private long legacyTrades;
+
+    public static int slot(int pairId, boolean buy) {
+        return pairId * 2 + (buy ? 0 : 1);
+    }
+
+    /** Adds one open trade; amount and rate are unscaled at the amount and rate scales. */
+    public void add(short pairId, boolean buy, long amount, long rate) {
+        if (pairId < 0 || pairId >= CurrencyPairRegistry.LEGACY_ID_START) {
+            // Legacy pairs have no rates to be marked at
+            legacyTrades++;
+            return;
+        }
+        int slot = slot(pairId, buy);
+        trades[slot]++;
+        amounts[slot] = Math.addExact(amounts[slot], amount);
+        bookedValues[slot] = Math.addExact(bookedValues[slot], FixedPoint.mulDivHalfUp(amount, rate, RATE_ONE));
+    }
+
+    /** Adds {@code other}'s totals into this one and returns this. */
+    public PnlAccumulator merge(PnlAccumulator other) {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            trades[slot] += other.trades[slot];
+            amounts[slot] = Math.addExact(amounts[slot], other.amounts[slot]);
+            bookedValues[slot] = Math.addExact(bookedValues[slot], other.bookedValues[slot]);
+        }
+        legacyTrades += other.legacyTrades;
+        return this;
+    }
+
+    public long trades(int slot) {
+        return trades[slot];
+    }
+
+    public long amount(int slot) {
+        return amounts[slot];
+    }
+
+    public long bookedValue(int slot) {
+        return bookedValues[slot];
+    }
+
+    /** Open trades on legacy pairs, which are counted but not revalued. */
+    public long legacyTrades() {
+        return legacyTrades;
+    }
+}
@@ -0,0 +1,47 @@
+package com.demo.fxportal.report;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.pricing.CurrencyIndex;
+import com.demo.fxportal.pricing.FixedPoint;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mid rates for every priced pair, copied out of the {@link CrossRateMatrix} at one instant so a
+ * whole report is marked at the same rates while ticks keep arriving. Rates are unscaled at
+ * {@link FixedPoint#RATE_SCALE}, indexed by currency pair id.
+ */
+public final class RateSnapshot {
+
+    private final long[] mids = new long[CurrencyPairRegistry.LEGACY_ID_START];
+    private final LocalDateTime capturedAt;
+
+    private RateSnapshot(LocalDateTime capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public static RateSnapshot capture(CrossRateMatrix matrix) {
+        RateSnapshot snapshot = new RateSnapshot(LocalDateTime.now());
+        for (int pairId = 0; pairId < snapshot.mids.length; pairId++) {
+            snapshot.mids[pairId] = matrix.rate(pairId);
+        }
+        return snapshot;
+    }
+
+    public LocalDateTime capturedAt() {
+        return capturedAt;
+    }
+
+    /** The mid rate of a pair, or {@link CrossRateMatrix#UNAVAILABLE} for legacy and unpriced pairs. */
+    public long mid(int pairId) {
+        return pairId >= 0 && pairId < mids.length ? mids[pairId] : CrossRateMatrix.UNAVAILABLE;
+    }
+
+    /** USD per unit of a currency, or {@link CrossRateMatrix#UNAVAILABLE}. */
+    public long usdRate(int currency) {
+        return currency == CurrencyIndex.USD
+                ? FixedPoint.pow10(FixedPoint.RATE_SCALE)
+                : mids[CurrencyIndex.pairIndex(currency, CurrencyIndex.USD)];
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the {@code currency_pairs} table and {@link CurrencyPairRegistry} in step at startup:
+ * inserts rows for supported pairs added since the last migration, fails fast if an id was
+ * reassigned, and registers legacy pairs so stored rows can still be read.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CurrencyPairDictionaryLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void synchronize() {
+        Map<Short, String> stored = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT id, symbol FROM currency_pairs",
+                    (RowCallbackHandler) rs -> stored.put(rs.getShort("id"), rs.getString("symbol")));
+        } catch (BadSqlGrammarException ex) {
+            log.info("No currency_pairs table found, using the built-in currency pair dictionary only");
+            return;
+        }
+
+        List<CurrencyPair> missing = CurrencyPairRegistry.supported().stream()
+                .filter(pair -> !stored.containsKey(pair.getId()))
+                .toList();
+        CurrencyPairRegistry.supported().forEach(pair -> {
+            String symbol = stored.get(pair.getId());
+            if (symbol != null && !symbol.equals(pair.getSymbol())) {
+                throw new IllegalStateException("currency_pairs id " + pair.getId() + " is " + symbol
+                        + " in the database but " + pair.getSymbol() + " in CurrencyIndex");
+            }
+        });
+
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO currency_pairs (id, symbol) VALUES (?, ?)", missing, missing.size(),
+                    (ps, pair) -> {
+                        ps.setShort(1, pair.getId());
+                        ps.setString(2, pair.getSymbol());
+                    });
+            log.info("Added {} new currency pairs to the dictionary", missing.size());
+        }
+
+        stored.forEach((id, symbol) -> {
+            if (id >= CurrencyPairRegistry.LEGACY_ID_START) {
+                CurrencyPairRegistry.registerLegacy(id, symbol);
+            }
+        });
+    }
+}
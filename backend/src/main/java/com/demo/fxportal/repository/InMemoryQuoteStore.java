@@ -0,0 +1,144 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Quote;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link QuoteStore} held in a concurrent map, for load tests and front-end work without a
+ * database. Callers get copies, as they would get detached entities.
+ *
+ * <p>Quotes are dropped {@code retention} after they expire, as the quote reaper would archive
+ * them. They are issued with a fixed validity, so expiry follows issue order and each save only
+ * has to look at the oldest quotes.
+ *
+ * <p>With {@code trackChanges}, saved quotes are also queued for {@link #drainChanged}, and
+ * {@link #watermark} counts them, for snapshots of the store. Evictions are not tracked: a
+ * restored quote past its retention is evicted again.
+ */
+public class InMemoryQuoteStore implements QuoteStore {
+
+    private final Duration retention;
+    private final Map<UUID, Quote> quotes = new ConcurrentHashMap<>();
+    /** Stored quotes in issue order, so roughly in expiry order. */
+    private final Queue<Quote> byExpiry = new ConcurrentLinkedQueue<>();
+    private final boolean trackChanges;
+    private final Queue<UUID> changedIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    public InMemoryQuoteStore(Duration retention) {
+        this(retention, false);
+    }
+
+    public InMemoryQuoteStore(Duration retention, boolean trackChanges) {
+        this.retention = retention;
+        this.trackChanges = trackChanges;
+    }
+
+    @Override
+    public Quote save(Quote quote) {
+        Quote stored = copy(quote);
+        if (stored.getId() == null) {
+            stored.setId(UUID.randomUUID());
+        }
+        if (stored.getCreatedAt() == null) {
+            stored.setCreatedAt(LocalDateTime.now());
+        }
+        quotes.put(stored.getId(), stored);
+        byExpiry.add(stored);
+        if (trackChanges) {
+            changedIds.add(stored.getId());
+        }
+        // Counted after it is queued, so a drain after reading the watermark sees every write it covers
+        writes.incrementAndGet();
+        evictExpired(LocalDateTime.now().minus(retention));
+        return copy(stored);
+    }
+
+    @Override
+    public Optional<Quote> findById(UUID id) {
+        Quote quote = quotes.get(id);
+        return quote == null ? Optional.empty() : Optional.of(copy(quote));
+    }
+
+    /** Quotes held, including expired ones still within {@code retention}. */
+    public int size() {
+        return quotes.size();
+    }
+
+    /** Quotes saved so far, counting those restored from a snapshot. */
+    public long watermark() {
+        return writes.get();
+    }
+
+    /** Every quote held, for a full snapshot. */
+    public List<Quote> all() {
+        return quotes.values().stream().map(InMemoryQuoteStore::copy).toList();
+    }
+
+    /** The quotes saved since the last drain, skipping those already evicted. */
+    public List<Quote> drainChanged() {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (UUID id = changedIds.poll(); id != null; id = changedIds.poll()) {
+            ids.add(id);
+        }
+        List<Quote> drained = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Quote quote = quotes.get(id);
+            if (quote != null) {
+                drained.add(copy(quote));
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Puts back quotes from a snapshot and moves the watermark up to the snapshot's. Not tracked as
+     * changes; call before the store takes traffic.
+     */
+    public void restore(List<Quote> snapshot, long watermark) {
+        List<Quote> inExpiryOrder = new ArrayList<>(snapshot);
+        inExpiryOrder.sort(Comparator.comparing(Quote::getExpiresAt));
+        for (Quote quote : inExpiryOrder) {
+            Quote stored = copy(quote);
+            quotes.put(stored.getId(), stored);
+            byExpiry.add(stored);
+        }
+        writes.accumulateAndGet(watermark, Math::max);
+    }
+
+    void evictExpired(LocalDateTime cutoff) {
+        Quote oldest;
+        while ((oldest = byExpiry.peek()) != null && oldest.getExpiresAt().isBefore(cutoff)) {
+            // Another saver may have taken the same head; only the one that removes it evicts it
+            if (byExpiry.remove(oldest)) {
+                quotes.remove(oldest.getId(), oldest);
+            }
+        }
+    }
+
+    private static Quote copy(Quote quote) {
+        return Quote.builder()
+                .id(quote.getId())
+                .currencyPair(quote.getCurrencyPair())
+                .side(quote.getSide())
+                .amount(quote.getAmount())
+                .rate(quote.getRate())
+                .expiresAt(quote.getExpiresAt())
+                .createdAt(quote.getCreatedAt())
+                .build();
+    }
+}
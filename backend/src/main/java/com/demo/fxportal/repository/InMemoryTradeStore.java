@@ -0,0 +1,276 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Trade;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link TradeStore} held in concurrent maps, for load tests and front-end work without a
+ * database. Callers get copies, as they would get detached entities.
+ *
+ * <p>Trades are indexed by id, by quote id (standing in for {@code uk_trades_quote_id}) and by
+ * {@code bookedAt}. History sorted by {@code bookedAt}, the default, walks that index within the
+ * date bounds; any other sort collects the matching trades and sorts them. Nothing here takes part
+ * in transactions: a write is visible at once and stays if the caller's transaction rolls back.
+ *
+ * <p>With {@code trackChanges}, saved and updated trades are also queued for {@link #drainChanged},
+ * and {@link #watermark} counts those writes, for snapshots of the store.
+ */
+public class InMemoryTradeStore implements TradeStore {
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAX_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final Map<UUID, Trade> trades = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> tradeIdsByQuoteId = new ConcurrentHashMap<>();
+    private final NavigableMap<BookedAtKey, Trade> byBookedAt = new ConcurrentSkipListMap<>();
+    private final boolean trackChanges;
+    private final Queue<UUID> changedIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    public InMemoryTradeStore() {
+        this(false);
+    }
+
+    public InMemoryTradeStore(boolean trackChanges) {
+        this.trackChanges = trackChanges;
+    }
+
+    @Override
+    public Trade save(Trade trade) {
+        return saveAll(List.of(trade)).get(0);
+    }
+
+    @Override
+    public List<Trade> saveAll(List<Trade> batch) {
+        List<Trade> stored = new ArrayList<>(batch.size());
+        for (Trade trade : batch) {
+            Trade copy = copy(trade);
+            if (copy.getId() == null) {
+                copy.setId(UUID.randomUUID());
+            }
+            if (copy.getBookedAt() == null) {
+                copy.setBookedAt(LocalDateTime.now());
+            }
+            if (copy.getStatus() == null) {
+                copy.setStatus(Trade.Status.BOOKED);
+            }
+            stored.add(copy);
+        }
+        reserveQuotes(stored);
+        for (Trade trade : stored) {
+            trades.put(trade.getId(), trade);
+            byBookedAt.put(new BookedAtKey(trade.getBookedAt(), trade.getId()), trade);
+            recordWrite(trade.getId());
+        }
+        return stored.stream().map(InMemoryTradeStore::copy).toList();
+    }
+
+    @Override
+    public void insertAll(List<Trade> batch) {
+        saveAll(batch);
+    }
+
+    /** Claims each trade's quote, or none of them if one is already booked. */
+    private void reserveQuotes(List<Trade> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Trade trade = batch.get(i);
+            if (trades.containsKey(trade.getId())
+                    || tradeIdsByQuoteId.putIfAbsent(trade.getQuoteId(), trade.getId()) != null) {
+                for (int j = 0; j < i; j++) {
+                    tradeIdsByQuoteId.remove(batch.get(j).getQuoteId(), batch.get(j).getId());
+                }
+                throw new DuplicateKeyException("uk_trades_quote_id: quote " + trade.getQuoteId()
+                        + " already has a trade, or trade " + trade.getId() + " exists");
+            }
+        }
+    }
+
+    @Override
+    public Optional<Trade> findById(UUID id) {
+        Trade trade = trades.get(id);
+        return trade == null ? Optional.empty() : Optional.of(copy(trade));
+    }
+
+    @Override
+    public boolean existsByQuoteId(UUID quoteId) {
+        return tradeIdsByQuoteId.containsKey(quoteId);
+    }
+
+    @Override
+    public List<UUID> findBookedQuoteIds(Collection<UUID> quoteIds) {
+        return quoteIds.stream().filter(tradeIdsByQuoteId::containsKey).toList();
+    }
+
+    @Override
+    public Map<UUID, UUID> findTradeIdsByQuoteId(Collection<UUID> quoteIds) {
+        Map<UUID, UUID> tradeIds = new HashMap<>();
+        for (UUID quoteId : quoteIds) {
+            UUID tradeId = tradeIdsByQuoteId.get(quoteId);
+            if (tradeId != null) {
+                tradeIds.put(quoteId, tradeId);
+            }
+        }
+        return tradeIds;
+    }
+
+    @Override
+    public int updateStatus(UUID id, Trade.Status from, Trade.Status to) {
+        int[] updated = {0};
+        trades.computeIfPresent(id, (key, trade) -> {
+            if (trade.getStatus() != from) {
+                return trade;
+            }
+            Trade changed = copy(trade);
+            changed.setStatus(to);
+            byBookedAt.put(new BookedAtKey(changed.getBookedAt(), key), changed);
+            updated[0] = 1;
+            return changed;
+        });
+        if (updated[0] == 1) {
+            recordWrite(id);
+        }
+        return updated[0];
+    }
+
+    private void recordWrite(UUID id) {
+        if (trackChanges) {
+            changedIds.add(id);
+        }
+        // Counted after it is queued, so a drain after reading the watermark sees every write it covers
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public Page<Trade> findHistory(TradeHistoryFilter filter, Pageable pageable) {
+        Sort.Order order = TradeHistorySort.order(pageable.getSort());
+        TradeHistorySort sort = TradeHistorySort.from(order.getProperty());
+        Collection<Trade> candidates;
+        if (sort == TradeHistorySort.BOOKED_AT) {
+            NavigableMap<BookedAtKey, Trade> range = byBookedAt;
+            if (filter.fromDate() != null) {
+                range = range.tailMap(new BookedAtKey(filter.fromDate(), MIN_ID), true);
+            }
+            if (filter.toDate() != null) {
+                range = range.headMap(new BookedAtKey(filter.toDate(), MAX_ID), true);
+            }
+            candidates = order.isDescending() ? range.descendingMap().values() : range.values();
+        } else {
+            Comparator<Trade> comparator = comparator(sort, order.getDirection());
+            List<Trade> matching = new ArrayList<>();
+            for (Trade trade : trades.values()) {
+                if (filter.matches(trade)) {
+                    matching.add(trade);
+                }
+            }
+            matching.sort(comparator);
+            candidates = matching;
+        }
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<Trade> content = new ArrayList<>(Math.min(size, 1024));
+        long total = 0;
+        for (Trade trade : candidates) {
+            if (filter.matches(trade)) {
+                if (total >= offset && content.size() < size) {
+                    content.add(copy(trade));
+                }
+                total++;
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /** Trades held. */
+    public int size() {
+        return trades.size();
+    }
+
+    /** Trades saved plus status changes so far, counting those restored from a snapshot. */
+    public long watermark() {
+        return writes.get();
+    }
+
+    /** Every trade held, for a full snapshot. */
+    public List<Trade> all() {
+        return trades.values().stream().map(InMemoryTradeStore::copy).toList();
+    }
+
+    /** The current state of the trades saved or changed since the last drain. */
+    public List<Trade> drainChanged() {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (UUID id = changedIds.poll(); id != null; id = changedIds.poll()) {
+            ids.add(id);
+        }
+        return ids.stream().map(trades::get).map(InMemoryTradeStore::copy).toList();
+    }
+
+    /**
+     * Puts back trades from a snapshot, replacing any held with the same id, and moves the
+     * watermark up to the snapshot's. Not tracked as changes; call before the store takes traffic.
+     */
+    public void restore(List<Trade> snapshot, long watermark) {
+        for (Trade trade : snapshot) {
+            Trade stored = copy(trade);
+            trades.put(stored.getId(), stored);
+            tradeIdsByQuoteId.put(stored.getQuoteId(), stored.getId());
+            byBookedAt.put(new BookedAtKey(stored.getBookedAt(), stored.getId()), stored);
+        }
+        writes.accumulateAndGet(watermark, Math::max);
+    }
+
+    /** Orders as the history statements on the {@code trades} table do, ties broken by id so pages are stable. */
+    private static Comparator<Trade> comparator(TradeHistorySort sort, Sort.Direction direction) {
+        Comparator<Trade> comparator = switch (sort) {
+            case BOOKED_AT -> Comparator.comparing(Trade::getBookedAt);
+            case AMOUNT -> Comparator.comparing(Trade::getAmount);
+            case RATE -> Comparator.comparing(Trade::getRate);
+        };
+        comparator = comparator.thenComparing(Trade::getId);
+        return direction.isAscending() ? comparator : comparator.reversed();
+    }
+
+    private static Trade copy(Trade trade) {
+        return Trade.builder()
+                .id(trade.getId())
+                .quoteId(trade.getQuoteId())
+                .currencyPair(trade.getCurrencyPair())
+                .side(trade.getSide())
+                .amount(trade.getAmount())
+                .rate(trade.getRate())
+                .status(trade.getStatus())
+                .bookedAt(trade.getBookedAt())
+                .build();
+    }
+
+    private record BookedAtKey(LocalDateTime bookedAt, UUID id) implements Comparable<BookedAtKey> {
+
+        @Override
+        public int compareTo(BookedAtKey other) {
+            int byTime = bookedAt.compareTo(other.bookedAt);
+            return byTime != 0 ? byTime : id.compareTo(other.id);
+        }
+    }
+}
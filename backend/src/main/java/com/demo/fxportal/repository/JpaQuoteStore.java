@@ -0,0 +1,24 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Quote;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/** {@link QuoteStore} on the {@code quotes} table; joins the caller's transaction. */
+@RequiredArgsConstructor
+public class JpaQuoteStore implements QuoteStore {
+
+    private final QuoteRepository quoteRepository;
+
+    @Override
+    public Quote save(Quote quote) {
+        return quoteRepository.save(quote);
+    }
+
+    @Override
+    public Optional<Quote> findById(UUID id) {
+        return quoteRepository.findById(id);
+    }
+}
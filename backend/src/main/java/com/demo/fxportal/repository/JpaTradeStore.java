@@ -0,0 +1,71 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Trade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/** {@link TradeStore} on the {@code trades} table; joins the caller's transaction. */
+@RequiredArgsConstructor
+public class JpaTradeStore implements TradeStore {
+
+    private final TradeRepository tradeRepository;
+    private final TradeInsertRepository tradeInsertRepository;
+    private final TradeHistoryRepository tradeHistoryRepository;
+
+    @Override
+    public Trade save(Trade trade) {
+        return tradeRepository.save(trade);
+    }
+
+    @Override
+    public List<Trade> saveAll(List<Trade> trades) {
+        return tradeRepository.saveAll(trades);
+    }
+
+    @Override
+    public void insertAll(List<Trade> trades) {
+        tradeInsertRepository.insertAll(trades);
+    }
+
+    @Override
+    public Optional<Trade> findById(UUID id) {
+        return tradeRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsByQuoteId(UUID quoteId) {
+        return tradeRepository.existsByQuoteId(quoteId);
+    }
+
+    @Override
+    public List<UUID> findBookedQuoteIds(Collection<UUID> quoteIds) {
+        return tradeRepository.findBookedQuoteIds(quoteIds);
+    }
+
+    @Override
+    public Map<UUID, UUID> findTradeIdsByQuoteId(Collection<UUID> quoteIds) {
+        Map<UUID, UUID> tradeIds = new HashMap<>();
+        for (Object[] row : tradeRepository.findTradeIdsByQuoteId(quoteIds)) {
+            tradeIds.put((UUID) row[0], (UUID) row[1]);
+        }
+        return tradeIds;
+    }
+
+    @Override
+    public int updateStatus(UUID id, Trade.Status from, Trade.Status to) {
+        return tradeRepository.updateStatus(id, from, to);
+    }
+
+    @Override
+    public Page<Trade> findHistory(TradeHistoryFilter filter, Pageable pageable) {
+        return tradeHistoryRepository.findHistory(filter, pageable);
+    }
+}
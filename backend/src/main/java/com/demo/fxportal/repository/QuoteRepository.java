@@ -2,10 +2,47 @@ package com.demo.fxportal.repository;
 
 import com.demo.fxportal.model.Quote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Repository
 public interface QuoteRepository extends JpaRepository<Quote, UUID> {
+
+    /**
+     * Moves up to {@code batchSize} unbooked quotes that expired before {@code cutoff}
+     * into {@code quotes_archive} in a single statement. Rows locked by a concurrent
+     * booking are skipped rather than waited on.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM quotes
+                WHERE id IN (
+                    SELECT q.id FROM quotes q
+                    WHERE q.expires_at < :cutoff
+                      AND NOT EXISTS (SELECT 1 FROM trades t WHERE t.quote_id = q.id)
+                    ORDER BY q.expires_at
+                    LIMIT :batchSize
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, currency_pair_id, side, amount, rate, expires_at, created_at
+            )
+            INSERT INTO quotes_archive (id, currency_pair_id, side, amount, rate, expires_at, created_at)
+            SELECT id, currency_pair_id, side, amount, rate, expires_at, created_at FROM moved
+            """, nativeQuery = true)
+    int archiveExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    @Query(value = """
+            SELECT count(*) FROM quotes q
+            WHERE q.expires_at < :cutoff
+              AND NOT EXISTS (SELECT 1 FROM trades t WHERE t.quote_id = q.id)
+            """, nativeQuery = true)
+    long countArchivable(@Param("cutoff") LocalDateTime cutoff);
 }
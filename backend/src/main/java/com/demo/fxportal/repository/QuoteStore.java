@@ -0,0 +1,18 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Quote;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The quote operations of the booking path. Backed by {@code quotes} through {@link JpaQuoteStore},
+ * or held in process by {@link InMemoryQuoteStore}; see {@code fxportal.storage.backend}.
+ */
+public interface QuoteStore {
+
+    /** Stores a new quote, assigning its id and {@code createdAt} if unset. */
+    Quote save(Quote quote);
+
+    Optional<Quote> findById(UUID id);
+}
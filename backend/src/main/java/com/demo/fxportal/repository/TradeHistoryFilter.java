@@ -0,0 +1,37 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+
+import java.time.LocalDateTime;
+
+/**
+ * The trade history filters. A {@code null} component matches every trade; the
+ * {@code bookedAt} bounds are inclusive.
+ */
+public record TradeHistoryFilter(
+        CurrencyPair currencyPair,
+        Side side,
+        Trade.Status status,
+        LocalDateTime fromDate,
+        LocalDateTime toDate) {
+
+    public boolean matches(Trade trade) {
+        return (currencyPair == null || trade.getCurrencyPair() == currencyPair)
+                && (side == null || trade.getSide() == side)
+                && (status == null || trade.getStatus() == status)
+                && (fromDate == null || !trade.getBookedAt().isBefore(fromDate))
+                && (toDate == null || !trade.getBookedAt().isAfter(toDate));
+    }
+
+    /** The filters set, as bits in the order of {@link TradingMetrics#historyFilterMask}. */
+    public int mask() {
+        return (currencyPair != null ? TradingMetrics.FILTER_CURRENCY_PAIR : 0)
+                | (side != null ? TradingMetrics.FILTER_SIDE : 0)
+                | (status != null ? TradingMetrics.FILTER_STATUS : 0)
+                | (fromDate != null ? TradingMetrics.FILTER_FROM_DATE : 0)
+                | (toDate != null ? TradingMetrics.FILTER_TO_DATE : 0);
+    }
+}
@@ -0,0 +1,126 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.Trade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trade history as a fixed set of JPQL statements, one per filter combination, sort field and
+ * direction, built once when the class loads. A request picks its statement by index and binds
+ * the filter values, so nothing is built per request, Hibernate finds the statement in its query
+ * plan cache, and the JDBC driver sees the same SQL for every request of one shape and can
+ * prepare it server-side.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeHistoryRepository {
+
+    private static final Sort.Direction[] DIRECTIONS = Sort.Direction.values();
+
+    /** Indexed by {@link #selectIndex}. */
+    private static final String[] SELECTS = new String[TradingMetrics.FILTER_COMBINATIONS * TradeHistorySort.values().length * DIRECTIONS.length];
+    /** Indexed by filter mask. */
+    private static final String[] COUNTS = new String[TradingMetrics.FILTER_COMBINATIONS];
+
+    static {
+        for (int mask = 0; mask < TradingMetrics.FILTER_COMBINATIONS; mask++) {
+            String where = where(mask);
+            COUNTS[mask] = "SELECT COUNT(t) FROM Trade t" + where;
+            for (TradeHistorySort sort : TradeHistorySort.values()) {
+                for (Sort.Direction direction : DIRECTIONS) {
+                    SELECTS[selectIndex(mask, sort, direction)] = "SELECT t FROM Trade t" + where
+                            + " ORDER BY t." + sort.property() + " " + direction + ", t.id " + direction;
+                }
+            }
+        }
+    }
+
+    private final EntityManager entityManager;
+
+    /**
+     * One page of the trades matching {@code filter}; counts them only when the page does not
+     * already tell how many there are.
+     *
+     * @throws IllegalArgumentException if the page is not sorted by one {@link TradeHistorySort}
+     */
+    public Page<Trade> findHistory(TradeHistoryFilter filter, Pageable pageable) {
+        TypedQuery<Trade> select = select(entityManager, filter, TradeHistorySort.order(pageable.getSort()));
+        if (pageable.isPaged()) {
+            select.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Trade> content = select.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    private long count(TradeHistoryFilter filter) {
+        TypedQuery<Long> count = entityManager.createQuery(COUNTS[filter.mask()], Long.class);
+        bind(count, filter);
+        return count.getSingleResult();
+    }
+
+    /**
+     * The statement for {@code filter} and {@code order}, with the filter values bound but not
+     * run. Public for the startup warm-up, which compiles every statement before the app is ready.
+     *
+     * @throws IllegalArgumentException if {@code order} is not on a {@link TradeHistorySort} field
+     */
+    public static TypedQuery<Trade> select(EntityManager entityManager, TradeHistoryFilter filter, Sort.Order order) {
+        TradeHistorySort sort = TradeHistorySort.from(order.getProperty());
+        TypedQuery<Trade> select = entityManager.createQuery(
+                SELECTS[selectIndex(filter.mask(), sort, order.getDirection())], Trade.class);
+        bind(select, filter);
+        return select;
+    }
+
+    private static int selectIndex(int mask, TradeHistorySort sort, Sort.Direction direction) {
+        return (mask * TradeHistorySort.values().length + sort.ordinal()) * DIRECTIONS.length + direction.ordinal();
+    }
+
+    private static String where(int mask) {
+        List<String> conditions = new ArrayList<>();
+        if ((mask & TradingMetrics.FILTER_CURRENCY_PAIR) != 0) {
+            conditions.add("t.currencyPair = :currencyPair");
+        }
+        if ((mask & TradingMetrics.FILTER_SIDE) != 0) {
+            conditions.add("t.side = :side");
+        }
+        if ((mask & TradingMetrics.FILTER_STATUS) != 0) {
+            conditions.add("t.status = :status");
+        }
+        if ((mask & TradingMetrics.FILTER_FROM_DATE) != 0) {
+            conditions.add("t.bookedAt >= :fromDate");
+        }
+        if ((mask & TradingMetrics.FILTER_TO_DATE) != 0) {
+            conditions.add("t.bookedAt <= :toDate");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void bind(TypedQuery<?> query, TradeHistoryFilter filter) {
+        if (filter.currencyPair() != null) {
+            query.setParameter("currencyPair", filter.currencyPair());
+        }
+        if (filter.side() != null) {
+            query.setParameter("side", filter.side());
+        }
+        if (filter.status() != null) {
+            query.setParameter("status", filter.status());
+        }
+        if (filter.fromDate() != null) {
+            query.setParameter("fromDate", filter.fromDate());
+        }
+        if (filter.toDate() != null) {
+            query.setParameter("toDate", filter.toDate());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.fxportal.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The fields trade history can be sorted by. Each has an index on {@code (column, id)}, and ties
+ * are broken by id in the same direction, so every sort is an index walk with a stable page order.
+ */
+public enum TradeHistorySort {
+    BOOKED_AT("bookedAt"),
+    AMOUNT("amount"),
+    RATE("rate");
+
+    /** The API default: newest first. */
+    public static final Sort.Order DEFAULT = Sort.Order.desc(BOOKED_AT.property);
+
+    private static final String SUPPORTED = Arrays.stream(values())
+            .map(TradeHistorySort::property)
+            .collect(Collectors.joining(", "));
+
+    private final String property;
+
+    TradeHistorySort(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /** @throws IllegalArgumentException if history cannot be sorted by {@code property} */
+    public static TradeHistorySort from(String property) {
+        for (TradeHistorySort sort : values()) {
+            if (sort.property.equals(property)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + property + " (supported: " + SUPPORTED + ")");
+    }
+
+    /**
+     * The one order of a history page, {@link #DEFAULT} if it is unsorted.
+     *
+     * @throws IllegalArgumentException if it sorts by more than one field or an unsupported one
+     */
+    public static Sort.Order order(Sort sort) {
+        if (sort.isUnsorted()) {
+            return DEFAULT;
+        }
+        if (sort.stream().count() > 1) {
+            throw new IllegalArgumentException("Trade history sorts by one field only: " + sort);
+        }
+        Sort.Order order = sort.iterator().next();
+        from(order.getProperty());
+        return order;
+    }
+}
@@ -0,0 +1,285 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.tradeimport.ImportedTrade;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Loads imported trades, and keeps the progress of each import in {@code trade_imports},
+ * {@code trade_import_chunks} and {@code trade_import_rejects}. The load methods must run in the
+ * transaction that records the chunk.
+ *
+ * <p>On Postgres a chunk is copied into a session-local staging table, its missing quotes are
+ * created and its trades inserted with two set-based statements. Elsewhere existing ids are looked
+ * up and the rest inserted as JDBC batches. Either way a trade whose id exists, or whose quote is
+ * already booked, is skipped and its line returned.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeImportRepository {
+
+    private static final String SKIPPED_REASON = "Trade already exists, or its quote is already booked";
+    private static final int LOOKUP_SLICE = 500;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE IF NOT EXISTS trade_import_staging (
+                line BIGINT NOT NULL,
+                id UUID NOT NULL,
+                quote_id UUID NOT NULL,
+                currency_pair_id SMALLINT NOT NULL,
+                side VARCHAR(4) NOT NULL,
+                amount DECIMAL(19, 4) NOT NULL,
+                rate DECIMAL(19, 6) NOT NULL,
+                status VARCHAR(20) NOT NULL,
+                booked_at TIMESTAMP NOT NULL
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_STAGING = "COPY trade_import_staging FROM STDIN (FORMAT csv)";
+
+    /** Quotes for staged trades that will insert, as they stood when booked: expired at booking time. */
+    private static final String INSERT_STAGED_QUOTES = """
+            INSERT INTO quotes (id, currency_pair_id, side, amount, rate, expires_at, created_at)
+            SELECT DISTINCT ON (s.quote_id) s.quote_id, s.currency_pair_id, s.side, s.amount, s.rate, s.booked_at, s.booked_at
+            FROM trade_import_staging s
+            WHERE NOT EXISTS (SELECT 1 FROM trades t WHERE t.id = s.id)
+            ORDER BY s.quote_id, s.line
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    /** Inserts the staged trades and returns the lines of those that were skipped. */
+    private static final String INSERT_STAGED_TRADES = """
+            WITH inserted AS (
+                INSERT INTO trades (id, quote_id, currency_pair_id, side, amount, rate, status, booked_at)
+                SELECT id, quote_id, currency_pair_id, side, amount, rate, status, booked_at
+                FROM trade_import_staging
+                ORDER BY line
+                ON CONFLICT DO NOTHING
+                RETURNING id
+            )
+            SELECT s.line FROM trade_import_staging s
+            WHERE NOT EXISTS (SELECT 1 FROM inserted i WHERE i.id = s.id)
+            ORDER BY s.line
+            """;
+
+    private static final String INSERT_QUOTE = """
+            INSERT INTO quotes (id, currency_pair_id, side, amount, rate, expires_at, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_TRADE = """
+            INSERT INTO trades (id, quote_id, currency_pair_id, side, amount, rate, status, booked_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A row of {@code trade_imports}. {@code fileModifiedMillis} is {@code null} for imports started
+     * before it was recorded.
+     */
+    public record ImportRecord(String id, long fileSize, Long fileModifiedMillis, int chunkBytes, int chunks,
+                               LocalDateTime startedAt, LocalDateTime completedAt) {
+    }
+
+    /** Totals over the committed chunks of an import. */
+    public record ChunkTotals(int chunks, long loaded, long rejected) {
+    }
+
+    public Optional<ImportRecord> findImport(String id) {
+        return jdbcTemplate.query("""
+                        SELECT id, file_size, file_modified_millis, chunk_bytes, chunks, started_at, completed_at
+                        FROM trade_imports WHERE id = ?
+                        """,
+                (rs, row) -> {
+                    Timestamp completedAt = rs.getTimestamp("completed_at");
+                    return new ImportRecord(
+                            rs.getString("id"),
+                            rs.getLong("file_size"),
+                            rs.getObject("file_modified_millis", Long.class),
+                            rs.getInt("chunk_bytes"),
+                            rs.getInt("chunks"),
+                            rs.getTimestamp("started_at").toLocalDateTime(),
+                            completedAt == null ? null : completedAt.toLocalDateTime());
+                },
+                id).stream().findFirst();
+    }
+
+    public void createImport(String id, long fileSize, long fileModifiedMillis, int chunkBytes, int chunks) {
+        jdbcTemplate.update("""
+                        INSERT INTO trade_imports (id, file_size, file_modified_millis, chunk_bytes, chunks, started_at)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """,
+                id, fileSize, fileModifiedMillis, chunkBytes, chunks, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public void markCompleted(String id) {
+        jdbcTemplate.update("UPDATE trade_imports SET completed_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), id);
+    }
+
+    /** Indexes of the chunks already committed. */
+    public Set<Integer> loadedChunks(String id) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT chunk FROM trade_import_chunks WHERE import_id = ?", Integer.class, id));
+    }
+
+    public ChunkTotals chunkTotals(String id) {
+        return jdbcTemplate.queryForObject("""
+                        SELECT COUNT(*), COALESCE(SUM(loaded), 0), COALESCE(SUM(rejected), 0)
+                        FROM trade_import_chunks WHERE import_id = ?
+                        """,
+                (rs, row) -> new ChunkTotals(rs.getInt(1), rs.getLong(2), rs.getLong(3)),
+                id);
+    }
+
+    public void recordChunk(String id, int chunk, int loaded, int rejected) {
+        jdbcTemplate.update(
+                "INSERT INTO trade_import_chunks (import_id, chunk, loaded, rejected, loaded_at) VALUES (?, ?, ?, ?, ?)",
+                id, chunk, loaded, rejected, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public void insertRejects(String id, List<TradeImportReject> rejects) {
+        jdbcTemplate.batchUpdate("INSERT INTO trade_import_rejects (import_id, line, reason) VALUES (?, ?, ?)",
+                rejects, rejects.size(), (ps, reject) -> {
+                    ps.setString(1, id);
+                    ps.setLong(2, reject.getLine());
+                    ps.setString(3, reject.getReason());
+                });
+    }
+
+    /** Rejected lines in line order. */
+    public List<TradeImportReject> rejects(String id, int offset, int limit) {
+        return jdbcTemplate.query(
+                "SELECT line, reason FROM trade_import_rejects WHERE import_id = ? ORDER BY line LIMIT ? OFFSET ?",
+                (rs, row) -> new TradeImportReject(rs.getLong("line"), rs.getString("reason")),
+                id, limit, offset);
+    }
+
+    /** Whether the connections are Postgres ones that {@link #copyTrades} can use. */
+    public boolean supportsCopy() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+    }
+
+    /** Loads {@code trades} through COPY; returns the skipped ones as rejects. Postgres only. */
+    public List<TradeImportReject> copyTrades(List<ImportedTrade> trades) {
+        if (trades.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.execute(CREATE_STAGING);
+        String rows = stagingCsv(trades);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING, new StringReader(rows));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        jdbcTemplate.update(INSERT_STAGED_QUOTES);
+        return jdbcTemplate.queryForList(INSERT_STAGED_TRADES, Long.class).stream()
+                .map(line -> new TradeImportReject(line, SKIPPED_REASON))
+                .toList();
+    }
+
+    /**
+     * Loads {@code trades} as JDBC batches after looking up which ids exist; returns the skipped
+     * ones as rejects. A trade or quote id repeated within {@code trades} is skipped after its first
+     * line, as the COPY path's {@code ON CONFLICT DO NOTHING} would. A trade or quote inserted by
+     * another transaction in between makes the batch fail with a constraint violation, and the
+     * caller retries the chunk.
+     */
+    public List<TradeImportReject> insertTrades(List<ImportedTrade> trades, int batchSize) {
+        if (trades.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> existingTrades = existing("SELECT id FROM trades WHERE id IN (%s)", trades, ImportedTrade::tradeId);
+        Set<UUID> bookedQuotes = existing("SELECT quote_id FROM trades WHERE quote_id IN (%s)", trades, ImportedTrade::quoteId);
+        Set<UUID> existingQuotes = existing("SELECT id FROM quotes WHERE id IN (%s)", trades, ImportedTrade::quoteId);
+
+        List<TradeImportReject> skipped = new ArrayList<>();
+        List<ImportedTrade> inserts = new ArrayList<>(trades.size());
+        List<ImportedTrade> quotes = new ArrayList<>();
+        Set<UUID> chunkTrades = new HashSet<>();
+        Set<UUID> chunkQuotes = new HashSet<>();
+        for (ImportedTrade trade : trades) {
+            if (existingTrades.contains(trade.tradeId()) || bookedQuotes.contains(trade.quoteId())
+                    || chunkTrades.contains(trade.tradeId()) || chunkQuotes.contains(trade.quoteId())) {
+                skipped.add(new TradeImportReject(trade.line(), SKIPPED_REASON));
+            } else {
+                chunkTrades.add(trade.tradeId());
+                chunkQuotes.add(trade.quoteId());
+                inserts.add(trade);
+                if (!existingQuotes.contains(trade.quoteId())) {
+                    quotes.add(trade);
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_QUOTE, quotes, batchSize, (ps, trade) -> {
+            Timestamp bookedAt = Timestamp.valueOf(trade.bookedAt());
+            ps.setObject(1, trade.quoteId());
+            ps.setShort(2, trade.currencyPairId());
+            ps.setString(3, trade.side().name());
+            ps.setBigDecimal(4, trade.amount());
+            ps.setBigDecimal(5, trade.rate());
+            ps.setTimestamp(6, bookedAt);
+            ps.setTimestamp(7, bookedAt);
+        });
+        jdbcTemplate.batchUpdate(INSERT_TRADE, inserts, batchSize, (ps, trade) -> {
+            ps.setObject(1, trade.tradeId());
+            ps.setObject(2, trade.quoteId());
+            ps.setShort(3, trade.currencyPairId());
+            ps.setString(4, trade.side().name());
+            ps.setBigDecimal(5, trade.amount());
+            ps.setBigDecimal(6, trade.rate());
+            ps.setString(7, trade.status().name());
+            ps.setTimestamp(8, Timestamp.valueOf(trade.bookedAt()));
+        });
+        return skipped;
+    }
+
+    private Set<UUID> existing(String query, List<ImportedTrade> trades, Function<ImportedTrade, UUID> id) {
+        Set<UUID> found = new HashSet<>();
+        for (int from = 0; from < trades.size(); from += LOOKUP_SLICE) {
+            List<ImportedTrade> slice = trades.subList(from, Math.min(trades.size(), from + LOOKUP_SLICE));
+            String sql = query.formatted(String.join(",", Collections.nCopies(slice.size(), "?")));
+            found.addAll(jdbcTemplate.queryForList(sql, UUID.class, slice.stream().map(id).toArray()));
+        }
+        return found;
+    }
+
+    private static String stagingCsv(List<ImportedTrade> trades) {
+        StringBuilder rows = new StringBuilder(trades.size() * 140);
+        for (ImportedTrade trade : trades) {
+            rows.append(trade.line()).append(',')
+                    .append(trade.tradeId()).append(',')
+                    .append(trade.quoteId()).append(',')
+                    .append(trade.currencyPairId()).append(',')
+                    .append(trade.side().name()).append(',')
+                    .append(trade.amount().toPlainString()).append(',')
+                    .append(trade.rate().toPlainString()).append(',')
+                    .append(trade.status().name()).append(',')
+                    .append(trade.bookedAt()).append('\n');
+        }
+        return rows.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Trade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts trades whose id was assigned before they reach the database, which
+ * {@link TradeRepository#saveAll} would treat as updates to existing rows. Used by the trade
+ * journal projector, where the id handed to the client is the one in the journal.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeInsertRepository {
+
+    private static final String INSERT = """
+            INSERT INTO trades (id, quote_id, currency_pair_id, side, amount, rate, status, booked_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** One JDBC batch; fails as a whole on a constraint violation, with the caller's transaction. */
+    public void insertAll(List<Trade> trades) {
+        jdbcTemplate.batchUpdate(INSERT, trades, trades.size(), (ps, trade) -> {
+            ps.setObject(1, trade.getId());
+            ps.setObject(2, trade.getQuoteId());
+            ps.setShort(3, trade.getCurrencyPair().getId());
+            ps.setString(4, trade.getSide().name());
+            ps.setBigDecimal(5, trade.getAmount());
+            ps.setBigDecimal(6, trade.getRate());
+            ps.setString(7, trade.getStatus().name());
+            ps.setTimestamp(8, Timestamp.valueOf(trade.getBookedAt()));
+        });
+    }
+}
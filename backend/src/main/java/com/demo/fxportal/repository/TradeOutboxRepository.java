@@ -0,0 +1,60 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.outbox.TradeEvent;
+import com.demo.fxportal.outbox.TradeEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The {@code trade_outbox} table, through JDBC so a whole booking batch's events go out as one
+ * batched insert (an identity key would make Hibernate insert them one by one).
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Adds events in list order; the {@code id} of the arguments is ignored. */
+    public void append(List<TradeEvent> events) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO trade_outbox (event_type, trade_id, payload, created_at) VALUES (?, ?, ?, ?)",
+                events, events.size(), (ps, event) -> {
+                    ps.setString(1, event.type().name());
+                    ps.setObject(2, event.tradeId());
+                    ps.setString(3, event.payload());
+                    ps.setTimestamp(4, Timestamp.valueOf(event.createdAt()));
+                });
+    }
+
+    /**
+     * The oldest {@code limit} events, locked until the transaction ends so a second relay waits
+     * instead of delivering them out of order.
+     */
+    public List<TradeEvent> lockOldest(int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, event_type, trade_id, payload, created_at FROM trade_outbox
+                        ORDER BY id
+                        LIMIT ?
+                        FOR UPDATE
+                        """,
+                (rs, row) -> new TradeEvent(
+                        rs.getLong("id"),
+                        TradeEventType.valueOf(rs.getString("event_type")),
+                        rs.getObject("trade_id", UUID.class),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                limit);
+    }
+
+    /** Deletes exactly the given events; rows committed since they were read are left alone. */
+    public void delete(List<TradeEvent> events) {
+        jdbcTemplate.batchUpdate("DELETE FROM trade_outbox WHERE id = ?", events, events.size(),
+                (ps, event) -> ps.setLong(1, event.id()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.report.BookedAtRange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Streams open trades for the end-of-day report without building entities. Amounts and rates are
+ * converted to fixed-point integers in SQL, so a row costs no {@code BigDecimal}s on this side.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeReportRepository {
+
+    private static final String SCAN = """
+            SELECT currency_pair_id, side = 'BUY', CAST(amount * 10000 AS BIGINT), CAST(rate * 1000000 AS BIGINT)
+            FROM trades
+            WHERE status = ? AND booked_at >= ? AND booked_at < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Receives one open trade, with amount and rate unscaled at the amount and rate scales. */
+    @FunctionalInterface
+    public interface OpenTradeVisitor {
+        void visit(short currencyPairId, boolean buy, long amount, long rate);
+    }
+
+    /** The smallest range holding every open trade, or empty if there are none. */
+    public Optional<BookedAtRange> openTradeBounds() {
+        return jdbcTemplate.query("SELECT MIN(booked_at), MAX(booked_at) FROM trades WHERE status = ?",
+                rs -> {
+                    Timestamp first = rs.next() ? rs.getTimestamp(1) : null;
+                    if (first == null) {
+                        return Optional.empty();
+                    }
+                    LocalDateTime last = rs.getTimestamp(2).toLocalDateTime();
+                    return Optional.of(new BookedAtRange(first.toLocalDateTime(), last.plus(1, ChronoUnit.MICROS)));
+                },
+                Trade.Status.BOOKED.name());
+    }
+
+    /**
+     * Hands every open trade booked in {@code range} to {@code visitor} and returns how many there
+     * were. Call it inside a transaction: Postgres only streams {@code fetchSize} rows at a time
+     * with auto-commit off, and otherwise reads the whole range into memory.
+     */
+    public long scanOpenTrades(BookedAtRange range, int fetchSize, OpenTradeVisitor visitor) {
+        long[] rows = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SCAN);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, Trade.Status.BOOKED.name());
+            statement.setTimestamp(2, Timestamp.valueOf(range.from()));
+            statement.setTimestamp(3, Timestamp.valueOf(range.to()));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            visitor.visit(rs.getShort(1), rs.getBoolean(2), rs.getLong(3), rs.getLong(4));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+}
@@ -2,12 +2,29 @@ package com.demo.fxportal.repository;
 
 import com.demo.fxportal.model.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface TradeRepository extends JpaRepository<Trade, UUID>, JpaSpecificationExecutor<Trade> {
+public interface TradeRepository extends JpaRepository<Trade, UUID> {
     boolean existsByQuoteId(UUID quoteId);
+
+    /** The subset of {@code quoteIds} that already have a trade; one query for a whole booking batch. */
+    @Query("SELECT t.quoteId FROM Trade t WHERE t.quoteId IN :quoteIds")
+    List<UUID> findBookedQuoteIds(@Param("quoteIds") Collection<UUID> quoteIds);
+
+    /** Quote id and trade id pairs for the subset of {@code quoteIds} that already have a trade. */
+    @Query("SELECT t.quoteId, t.id FROM Trade t WHERE t.quoteId IN :quoteIds")
+    List<Object[]> findTradeIdsByQuoteId(@Param("quoteIds") Collection<UUID> quoteIds);
+
+    /** Moves a trade from {@code from} to {@code to}; returns 0 if it was no longer in {@code from}. */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Trade t SET t.status = :to WHERE t.id = :id AND t.status = :from")
+    int updateStatus(@Param("id") UUID id, @Param("from") Trade.Status from, @Param("to") Trade.Status to);
 }
@@ -0,0 +1,46 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.Trade;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The trade operations of the booking, status and history paths. Backed by {@code trades} through
+ * {@link JpaTradeStore}, or held in process by {@link InMemoryTradeStore}; see
+ * {@code fxportal.storage.backend}.
+ *
+ * <p>Both refuse a second trade for the same quote with a {@link org.springframework.dao.DataIntegrityViolationException}.
+ */
+public interface TradeStore {
+
+    /** Stores a new trade, assigning its id, {@code bookedAt} and status if unset. */
+    Trade save(Trade trade);
+
+    /** Stores new trades, all or none; returns them in the same order. */
+    List<Trade> saveAll(List<Trade> trades);
+
+    /** Stores trades whose id was assigned before they got here, all or none. */
+    void insertAll(List<Trade> trades);
+
+    Optional<Trade> findById(UUID id);
+
+    boolean existsByQuoteId(UUID quoteId);
+
+    /** The subset of {@code quoteIds} that already have a trade. */
+    List<UUID> findBookedQuoteIds(Collection<UUID> quoteIds);
+
+    /** The trade id of each of {@code quoteIds} that already has a trade, keyed by quote id. */
+    Map<UUID, UUID> findTradeIdsByQuoteId(Collection<UUID> quoteIds);
+
+    /** Moves a trade from {@code from} to {@code to}; returns 0 if it was no longer in {@code from}. */
+    int updateStatus(UUID id, Trade.Status from, Trade.Status to);
+
+    /** One page of the trades matching {@code filter}, in the order of {@code pageable}'s sort. */
+    Page<Trade> findHistory(TradeHistoryFilter filter, Pageable pageable);
+}
@@ -0,0 +1,359 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbCapacityExceededException;
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.config.BookingSequencerProperties;
+import com.demo.fxportal.config.TradeJournalProperties;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.metrics.TradingMetrics.BookingOutcome;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.outbox.TradeOutbox;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-writer booking path, used instead of {@link TradeService#bookTrade} when
+ * {@code fxportal.booking-sequencer.enabled} is set.
+ *
+ * <p>The caller looks the quote up and hands the booking to the shard that owns the quote's
+ * currency pair (pair id modulo shard count, so the dictionary spreads evenly). Each shard is one
+ * thread draining a bounded ring: it checks expiry, rejects quotes it has already booked from its
+ * own memory, then checks the rest against {@code trades} and inserts them in one batched
+ * transaction under a single booking permit. Because a pair only ever has one writer, bookings
+ * on it never contend with each other, and per-pair state can live in the shard without locks.
+ *
+ * <p>If the batch hits the unique constraint on {@code quote_id} (a booking from another
+ * instance or from the direct path), its bookings are retried one by one through
+ * {@link TradeService#bookTrade}, so the outcome matches the direct path.
+ */
+@Service
+@Slf4j
+public class BookingSequencer implements SmartLifecycle {
+
+    private final QuoteStore quoteStore;
+    private final TradeStore tradeStore;
+    private final TradeService tradeService;
+    private final TradeOutbox tradeOutbox;
+    private final TradingMetrics tradingMetrics;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingSequencerProperties properties;
+    private final TradeJournalProperties journalProperties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Shard[] shards;
+
+    public BookingSequencer(QuoteStore quoteStore,
+                            TradeStore tradeStore,
+                            TradeService tradeService,
+                            TradeOutbox tradeOutbox,
+                            TradingMetrics tradingMetrics,
+                            DbConcurrencyLimiter dbConcurrencyLimiter,
+                            PlatformTransactionManager transactionManager,
+                            BookingSequencerProperties properties,
+                            TradeJournalProperties journalProperties,
+                            MeterRegistry meterRegistry) {
+        this.quoteStore = quoteStore;
+        this.tradeStore = tradeStore;
+        this.tradeService = tradeService;
+        this.tradeOutbox = tradeOutbox;
+        this.tradingMetrics = tradingMetrics;
+        this.dbConcurrencyLimiter = dbConcurrencyLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.journalProperties = journalProperties;
+        this.meterRegistry = meterRegistry;
+        this.batchSizes = DistributionSummary.builder("fxportal.booking.sequencer.batch")
+                .description("Bookings written per sequencer transaction")
+                .register(meterRegistry);
+    }
+
+    /** Whether bookings should go through {@link #book}; {@code false} before start and after stop. */
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Queues a booking on its pair's shard.
+     *
+     * @return completes with the booking outcome once the shard's batch has committed, or
+     * exceptionally with {@link DbCapacityExceededException} if the shard stayed full
+     */
+    public CompletableFuture<ServiceResult<TradeResponse>> submit(TradeRequest request) {
+        long start = System.nanoTime();
+        Quote quote = dbConcurrencyLimiter.call(DbOperation.BOOKING,
+                () -> quoteStore.findById(request.getQuoteId())).orElse(null);
+        if (quote == null) {
+            tradingMetrics.recordBooking(BookingOutcome.NOT_FOUND, start);
+            return CompletableFuture.completedFuture(
+                    ServiceResult.rejected(Rejection.QUOTE_NOT_FOUND, "Quote not found: " + request.getQuoteId()));
+        }
+
+        Booking booking = new Booking(quote, start, new CompletableFuture<>());
+        Shard shard = shards[quote.getCurrencyPair().getId() % shards.length];
+        try {
+            if (!shard.ring.offer(booking, properties.getSubmitTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                booking.result.completeExceptionally(new DbCapacityExceededException(DbOperation.BOOKING));
+            } else if (!running && shard.ring.remove(booking)) {
+                // Offered after stop() drained the shard, so no one else will take it
+                bookStraggler(booking);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            booking.result.completeExceptionally(new DbCapacityExceededException(DbOperation.BOOKING));
+        }
+        return booking.result;
+    }
+
+    /**
+     * {@link #submit} and wait up to {@code resultTimeout}, for callers on a request thread.
+     *
+     * @throws DbCapacityExceededException if the shard was full, or its batch took too long
+     */
+    public ServiceResult<TradeResponse> book(TradeRequest request) {
+        try {
+            return submit(request).get(properties.getResultTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Booking failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            log.warn("Booking of quote {} still queued after {}, shedding the request",
+                    request.getQuoteId(), properties.getResultTimeout());
+            throw new DbCapacityExceededException(DbOperation.BOOKING);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DbCapacityExceededException(DbOperation.BOOKING);
+        }
+    }
+
+    /** Books on the caller's thread, without the shard's memory, which only its own thread may touch. */
+    private void bookStraggler(Booking booking) {
+        try {
+            booking.result.complete(dbConcurrencyLimiter.call(DbOperation.BOOKING,
+                    () -> tradeService.bookTrade(new TradeRequest(booking.quote.getId()))));
+        } catch (RuntimeException ex) {
+            booking.result.completeExceptionally(ex);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (journalProperties.isEnabled()) {
+            log.warn("Booking sequencer not started: the trade journal is the booking commit point");
+            return;
+        }
+        int count = properties.getShards() > 0 ? properties.getShards() : Runtime.getRuntime().availableProcessors();
+        shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i);
+            Gauge.builder("fxportal.booking.sequencer.queued", shards[i].ring, BlockingQueue::size)
+                    .description("Bookings waiting in a sequencer shard")
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        running = true;
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+        log.info("Booking sequencer started with {} shards", count);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // New bookings take the direct path from here on; the shards drain what they already hold
+        running = false;
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            // Anything offered while the shard was exiting
+            List<Booking> leftovers = new ArrayList<>();
+            shard.ring.drainTo(leftovers);
+            leftovers.forEach(shard::bookDirectly);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Booking(Quote quote, long startNanos, CompletableFuture<ServiceResult<TradeResponse>> result) {
+    }
+
+    private final class Shard implements Runnable {
+
+        private final BlockingQueue<Booking> ring = new ArrayBlockingQueue<>(properties.getRingSize());
+        private final Thread thread;
+        /** Quotes this shard has booked, until they expire; an expired quote is rejected before this is consulted. */
+        private final Map<UUID, LocalDateTime> booked = new HashMap<>();
+        private long nextPrune;
+
+        Shard(int index) {
+            this.thread = new Thread(this, "booking-shard-" + index);
+        }
+
+        @Override
+        public void run() {
+            List<Booking> batch = new ArrayList<>(properties.getMaxBatchSize());
+            while (running || !ring.isEmpty()) {
+                try {
+                    Booking first = ring.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    ring.drainTo(batch, properties.getMaxBatchSize() - 1);
+                    process(batch);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException ex) {
+                    log.error("Booking batch of {} failed", batch.size(), ex);
+                    batch.forEach(booking -> booking.result.completeExceptionally(ex));
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void process(List<Booking> batch) {
+            pruneExpired();
+            List<Booking> accepted = new ArrayList<>(batch.size());
+            Set<UUID> inBatch = new HashSet<>();
+            for (Booking booking : batch) {
+                Quote quote = booking.quote;
+                if (quote.isExpired()) {
+                    reject(booking, BookingOutcome.EXPIRED, Rejection.QUOTE_EXPIRED, TradeService.EXPIRED_MESSAGE);
+                } else if (booked.containsKey(quote.getId()) || !inBatch.add(quote.getId())) {
+                    reject(booking, BookingOutcome.DUPLICATE, Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE);
+                } else {
+                    accepted.add(booking);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            List<Booking> inserted = new ArrayList<>(accepted.size());
+            List<Booking> duplicates = new ArrayList<>();
+            List<Trade> trades;
+            try {
+                trades = dbConcurrencyLimiter.call(DbOperation.BOOKING, () -> transactionTemplate.execute(tx -> {
+                    Set<UUID> alreadyBooked = new HashSet<>(tradeStore.findBookedQuoteIds(inBatch));
+                    List<Trade> toInsert = new ArrayList<>(accepted.size());
+                    for (Booking booking : accepted) {
+                        if (alreadyBooked.contains(booking.quote.getId())) {
+                            duplicates.add(booking);
+                        } else {
+                            inserted.add(booking);
+                            toInsert.add(newTrade(booking.quote));
+                        }
+                    }
+                    List<Trade> saved = tradeStore.saveAll(toInsert);
+                    tradeOutbox.tradesBooked(saved);
+                    return saved;
+                }));
+            } catch (DataIntegrityViolationException ex) {
+                log.debug("Booking batch raced another writer, retrying {} bookings one by one", accepted.size());
+                accepted.forEach(this::bookDirectly);
+                return;
+            }
+
+            batchSizes.record(trades.size());
+            for (Booking booking : duplicates) {
+                booked.put(booking.quote.getId(), booking.quote.getExpiresAt());
+                reject(booking, BookingOutcome.DUPLICATE, Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE);
+            }
+            for (int i = 0; i < trades.size(); i++) {
+                Booking booking = inserted.get(i);
+                Trade trade = trades.get(i);
+                booked.put(booking.quote.getId(), booking.quote.getExpiresAt());
+                tradingMetrics.recordBooking(BookingOutcome.BOOKED, booking.startNanos);
+                tradingMetrics.recordQuoteToBook(booking.quote.getCreatedAt(), trade.getBookedAt());
+                booking.result.complete(ServiceResult.success(TradeResponse.fromEntity(trade)));
+            }
+        }
+
+        private void bookDirectly(Booking booking) {
+            try {
+                ServiceResult<TradeResponse> result = dbConcurrencyLimiter.call(DbOperation.BOOKING,
+                        () -> tradeService.bookTrade(new TradeRequest(booking.quote.getId())));
+                if (result instanceof ServiceResult.Success<TradeResponse>
+                        || result instanceof ServiceResult.Rejected<TradeResponse> rejected
+                        && rejected.rejection() == Rejection.ALREADY_BOOKED) {
+                    booked.put(booking.quote.getId(), booking.quote.getExpiresAt());
+                }
+                booking.result.complete(result);
+            } catch (RuntimeException ex) {
+                booking.result.completeExceptionally(ex);
+            }
+        }
+
+        private void reject(Booking booking, BookingOutcome outcome, Rejection rejection, String message) {
+            tradingMetrics.recordBooking(outcome, booking.startNanos);
+            booking.result.complete(ServiceResult.rejected(rejection, message));
+        }
+
+        private void pruneExpired() {
+            long now = System.nanoTime();
+            if (now - nextPrune < 0) {
+                return;
+            }
+            nextPrune = now + TimeUnit.SECONDS.toNanos(1);
+            LocalDateTime cutoff = LocalDateTime.now();
+            booked.values().removeIf(expiresAt -> expiresAt.isBefore(cutoff));
+        }
+    }
+
+    private static Trade newTrade(Quote quote) {
+        return Trade.builder()
+                .quoteId(quote.getId())
+                .currencyPair(quote.getCurrencyPair())
+                .side(quote.getSide())
+                .amount(quote.getAmount())
+                .rate(quote.getRate())
+                .status(Trade.Status.BOOKED)
+                .build();
+    }
+}
@@ -0,0 +1,303 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.config.EodReportProperties;
+import com.demo.fxportal.config.StorageProperties;
+import com.demo.fxportal.dto.EodReportLine;
+import com.demo.fxportal.dto.EodReportResponse;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.pricing.CurrencyIndex;
+import com.demo.fxportal.pricing.FixedPoint;
+import com.demo.fxportal.report.BookedAtRange;
+import com.demo.fxportal.report.PnlAccumulator;
+import com.demo.fxportal.report.RateSnapshot;
+import com.demo.fxportal.repository.TradeReportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Revalues every open trade at one snapshot of mid rates and totals P&amp;L per currency pair and
+ * side.
+ *
+ * <p>The {@code booked_at} span of open trades is cut into several ranges per worker. A fork/join
+ * pool splits the range list down to single ranges. Each range is streamed into a
+ * {@link PnlAccumulator} in its own read-only transaction, on a pooled connection taken under a
+ * background database permit, and the partial totals are merged on the way back up. Workers that
+ * finish early steal the ranges of busy ones, which evens out days when bookings cluster. The
+ * result is written as CSV and kept as the latest summary.
+ *
+ * <p>The scan reads the {@code trades} table, so with in-memory storage there is nothing to report
+ * and {@link #run} is rejected.
+ */
+@Service
+@Slf4j
+public class EodReportService {
+
+    private static final long RATE_ONE = FixedPoint.pow10(FixedPoint.RATE_SCALE);
+    private static final String CSV_HEADER =
+            "currency_pair,side,trades,amount,average_rate,mark_rate,pnl,pnl_currency,pnl_usd";
+
+    private final TradeReportRepository tradeReportRepository;
+    private final CrossRateMatrix crossRateMatrix;
+    private final EodReportProperties properties;
+    private final StorageProperties storageProperties;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer durationTimer;
+    private final Counter tradesCounter;
+    private final AtomicReference<EodReportResponse> latest = new AtomicReference<>();
+
+    public EodReportService(TradeReportRepository tradeReportRepository,
+                            CrossRateMatrix crossRateMatrix,
+                            EodReportProperties properties,
+                            StorageProperties storageProperties,
+                            DbConcurrencyLimiter dbConcurrencyLimiter,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.tradeReportRepository = tradeReportRepository;
+        this.crossRateMatrix = crossRateMatrix;
+        this.properties = properties;
+        this.storageProperties = storageProperties;
+        this.dbConcurrencyLimiter = dbConcurrencyLimiter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.durationTimer = Timer.builder("fxportal.eod-report.duration")
+                .description("Time to revalue all open trades and write the end-of-day report")
+                .register(meterRegistry);
+        this.tradesCounter = Counter.builder("fxportal.eod-report.trades")
+                .description("Open trades read by end-of-day reports")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${fxportal.eod-report.cron:-}", zone = "${fxportal.eod-report.zone:UTC}")
+    public void runScheduled() {
+        try {
+            if (run() instanceof ServiceResult.Rejected<EodReportResponse> rejected) {
+                log.warn("Scheduled end-of-day report skipped: {}", rejected.message());
+            }
+        } catch (RuntimeException ex) {
+            log.error("End-of-day report failed", ex);
+        }
+    }
+
+    /** The summary of the last report generated by this instance, if any. */
+    public ServiceResult<EodReportResponse> latest() {
+        EodReportResponse report = latest.get();
+        return report == null
+                ? ServiceResult.rejected(Rejection.REPORT_NOT_FOUND, "No end-of-day report has been generated yet")
+                : ServiceResult.success(report);
+    }
+
+    /** Generates the report now, unless trades are not stored in the database. */
+    public ServiceResult<EodReportResponse> run() {
+        if (storageProperties.getBackend() == StorageProperties.Backend.MEMORY) {
+            return ServiceResult.rejected(Rejection.DATABASE_REQUIRED,
+                    "End-of-day reports read the trades table, which in-memory storage leaves empty");
+        }
+        return ServiceResult.success(generate());
+    }
+
+    /** Generates the report now. Runs one at a time; a second caller waits for the first. */
+    public synchronized EodReportResponse generate() {
+        long start = System.nanoTime();
+        RateSnapshot rates = RateSnapshot.capture(crossRateMatrix);
+        LocalDate businessDate = LocalDate.now(ZoneId.of(properties.getZone()));
+        int parallelism = parallelism();
+        List<BookedAtRange> ranges = dbConcurrencyLimiter.call(DbOperation.BACKGROUND,
+                        tradeReportRepository::openTradeBounds)
+                .map(bounds -> bounds.split(parallelism * Math.max(1, properties.getRangesPerWorker())))
+                .orElse(List.of());
+
+        PnlAccumulator totals = scan(ranges, parallelism);
+
+        EodReportResponse report = summarize(totals, rates);
+        report.setBusinessDate(businessDate);
+        report.setParallelism(parallelism);
+        report.setRanges(ranges.size());
+        report.setFile(write(report).toString());
+        long elapsed = System.nanoTime() - start;
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        durationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        tradesCounter.increment(report.getOpenTrades());
+        latest.set(report);
+        log.info("End-of-day report for {}: {} open trades over {} ranges on {} workers in {} ms, P&L {} USD",
+                businessDate, report.getOpenTrades(), ranges.size(), parallelism, report.getDurationMillis(),
+                report.getTotalPnlUsd());
+        return report;
+    }
+
+    int parallelism() {
+        int workers = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(workers, properties.getMaxConnections()));
+    }
+
+    private PnlAccumulator scan(List<BookedAtRange> ranges, int parallelism) {
+        // Workers block in JDBC without ForkJoinPool.managedBlock: compensating threads would take
+        // connections beyond the budget the pool is sized to
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("eod-report-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        try {
+            return pool.invoke(new RangeScan(ranges, 0, ranges.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private PnlAccumulator scanRange(BookedAtRange range) {
+        PnlAccumulator partial = new PnlAccumulator();
+        dbConcurrencyLimiter.call(DbOperation.BACKGROUND, () -> readOnlyTransaction.execute(status -> {
+            tradeReportRepository.scanOpenTrades(range, properties.getFetchSize(), partial::add);
+            return null;
+        }));
+        return partial;
+    }
+
+    /** Scans {@code ranges[from, to)}, forking halves until a task holds a single range. */
+    private class RangeScan extends RecursiveTask<PnlAccumulator> {
+
+        private final List<BookedAtRange> ranges;
+        private final int from;
+        private final int to;
+
+        RangeScan(List<BookedAtRange> ranges, int from, int to) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PnlAccumulator compute() {
+            if (to - from <= 1) {
+                return from == to ? new PnlAccumulator() : scanRange(ranges.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            RangeScan upper = new RangeScan(ranges, middle, to);
+            upper.fork();
+            PnlAccumulator lower = new RangeScan(ranges, from, middle).compute();
+            return lower.merge(upper.join());
+        }
+    }
+
+    private EodReportResponse summarize(PnlAccumulator totals, RateSnapshot rates) {
+        List<EodReportLine> lines = new ArrayList<>();
+        long openTrades = totals.legacyTrades();
+        long unpricedTrades = totals.legacyTrades();
+        long totalPnlUsd = 0;
+
+        for (int pairId = 0; pairId < CurrencyPairRegistry.LEGACY_ID_START; pairId++) {
+            for (Side side : Side.values()) {
+                int slot = PnlAccumulator.slot(pairId, side == Side.BUY);
+                long trades = totals.trades(slot);
+                if (trades == 0) {
+                    continue;
+                }
+                openTrades += trades;
+                long amount = totals.amount(slot);
+                long bookedValue = totals.bookedValue(slot);
+                int quoteCurrency = CurrencyIndex.quoteOf(pairId);
+                EodReportLine line = EodReportLine.builder()
+                        .currencyPair(CurrencyPairRegistry.fromId((short) pairId).getSymbol())
+                        .side(side)
+                        .trades(trades)
+                        .amount(FixedPoint.toBigDecimal(amount, FixedPoint.AMOUNT_SCALE))
+                        .averageRate(BigDecimal.valueOf(bookedValue)
+                                .divide(BigDecimal.valueOf(amount), FixedPoint.RATE_SCALE, RoundingMode.HALF_UP))
+                        .pnlCurrency(CurrencyIndex.code(quoteCurrency))
+                        .build();
+
+                long mark = rates.mid(pairId);
+                long usdRate = rates.usdRate(quoteCurrency);
+                if (mark == CrossRateMatrix.UNAVAILABLE || usdRate == CrossRateMatrix.UNAVAILABLE) {
+                    unpricedTrades += trades;
+                } else {
+                    long markValue = FixedPoint.mulDivHalfUp(amount, mark, RATE_ONE);
+                    long pnl = side == Side.BUY ? markValue - bookedValue : bookedValue - markValue;
+                    long pnlUsd = FixedPoint.mulDivHalfUp(pnl, usdRate, RATE_ONE);
+                    totalPnlUsd = Math.addExact(totalPnlUsd, pnlUsd);
+                    line.setMarkRate(FixedPoint.toBigDecimal(mark, FixedPoint.RATE_SCALE));
+                    line.setPnl(FixedPoint.toBigDecimal(pnl, FixedPoint.AMOUNT_SCALE));
+                    line.setPnlUsd(FixedPoint.toBigDecimal(pnlUsd, FixedPoint.AMOUNT_SCALE));
+                }
+                lines.add(line);
+            }
+        }
+
+        return EodReportResponse.builder()
+                .ratesAt(rates.capturedAt())
+                .generatedAt(LocalDateTime.now())
+                .openTrades(openTrades)
+                .unpricedTrades(unpricedTrades)
+                .totalPnlUsd(FixedPoint.toBigDecimal(totalPnlUsd, FixedPoint.AMOUNT_SCALE))
+                .lines(lines)
+                .build();
+    }
+
+    /** Writes the lines as CSV, replacing any earlier report for the same business date. */
+    private Path write(EodReportResponse report) {
+        Path directory = Path.of(properties.getDirectory());
+        Path file = directory.resolve("eod-report-" + report.getBusinessDate() + ".csv");
+        Path partial = directory.resolve(file.getFileName() + ".partial");
+        try {
+            Files.createDirectories(directory);
+            try (BufferedWriter writer = Files.newBufferedWriter(partial)) {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+                for (EodReportLine line : report.getLines()) {
+                    writer.write(String.join(",",
+                            line.getCurrencyPair(),
+                            line.getSide().name(),
+                            Long.toString(line.getTrades()),
+                            plain(line.getAmount()),
+                            plain(line.getAverageRate()),
+                            plain(line.getMarkRate()),
+                            plain(line.getPnl()),
+                            line.getPnlCurrency(),
+                            plain(line.getPnlUsd())));
+                    writer.newLine();
+                }
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write the end-of-day report to " + file, ex);
+        }
+        return file;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+}
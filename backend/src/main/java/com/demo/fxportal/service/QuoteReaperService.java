@@ -0,0 +1,108 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbCapacityExceededException;
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.config.QuoteReaperProperties;
+import com.demo.fxportal.repository.QuoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves expired, never-booked quotes from {@code quotes} into {@code quotes_archive}
+ * in small batches, pausing between batches to stay out of the way of bookings. Each query takes a
+ * background database permit.
+ */
+@Service
+@Slf4j
+public class QuoteReaperService {
+
+    private final QuoteRepository quoteRepository;
+    private final QuoteReaperProperties properties;
+    private final TradeJournalService tradeJournalService;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final Counter archivedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public QuoteReaperService(QuoteRepository quoteRepository,
+                              QuoteReaperProperties properties,
+                              TradeJournalService tradeJournalService,
+                              DbConcurrencyLimiter dbConcurrencyLimiter,
+                              MeterRegistry meterRegistry) {
+        this.quoteRepository = quoteRepository;
+        this.properties = properties;
+        this.tradeJournalService = tradeJournalService;
+        this.dbConcurrencyLimiter = dbConcurrencyLimiter;
+        this.archivedCounter = Counter.builder("fxportal.quotes.reaper.archived")
+                .description("Expired quotes moved to the archive table")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("fxportal.quotes.reaper.batch")
+                .description("Time spent archiving one batch of expired quotes")
+                .register(meterRegistry);
+        meterRegistry.gauge("fxportal.quotes.reaper.backlog", backlog);
+    }
+
+    @Scheduled(fixedDelayString = "${fxportal.quote-reaper.interval:PT1M}",
+            initialDelayString = "${fxportal.quote-reaper.initial-delay:PT1M}")
+    public void reapExpiredQuotes() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime graceCutoff = LocalDateTime.now().minus(properties.getGracePeriod());
+        // A journaled trade's quote expires after the trade was booked; keep it until the trade is in trades
+        LocalDateTime cutoff = tradeJournalService.oldestUnprojectedBookedAt()
+                .filter(bookedAt -> bookedAt.isBefore(graceCutoff))
+                .orElse(graceCutoff);
+        long archived = 0;
+
+        try {
+            backlog.set(dbConcurrencyLimiter.call(DbOperation.BACKGROUND,
+                    () -> quoteRepository.countArchivable(cutoff)));
+
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                int moved = dbConcurrencyLimiter.call(DbOperation.BACKGROUND, () -> batchTimer.record(() ->
+                        quoteRepository.archiveExpiredBatch(cutoff, properties.getBatchSize())));
+                archived += moved;
+                archivedCounter.increment(moved);
+                backlog.updateAndGet(remaining -> Math.max(0, remaining - moved));
+
+                if (moved < properties.getBatchSize()) {
+                    break;
+                }
+                pauseBetweenBatches();
+            }
+        } catch (DataAccessException | DbCapacityExceededException ex) {
+            log.warn("Quote reaper run aborted after archiving {} quotes: {}", archived, ex.getMessage());
+            return;
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} expired quotes, {} remaining", archived, backlog.get());
+        }
+    }
+
+    long getBacklog() {
+        return backlog.get();
+    }
+
+    private void pauseBetweenBatches() {
+        long pauseMillis = properties.getBatchPause().toMillis();
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
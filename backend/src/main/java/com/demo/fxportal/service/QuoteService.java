@@ -1,78 +1,68 @@
 package com.demo.fxportal.service;
 
+import com.demo.fxportal.diagnostics.ServerTiming;
 import com.demo.fxportal.dto.QuoteRequest;
 import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.metrics.TradingMetrics.QuoteOutcome;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
 import com.demo.fxportal.model.Quote;
-import com.demo.fxportal.repository.QuoteRepository;
+import com.demo.fxportal.pricing.QuotePricer;
+import com.demo.fxportal.repository.QuoteStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class QuoteService {
 
-    private final QuoteRepository quoteRepository;
+    private final QuoteStore quoteStore;
+    private final QuotePricer quotePricer;
+    private final TradingMetrics tradingMetrics;
 
     @Transactional
-    public QuoteResponse requestQuote(QuoteRequest request) {
+    public ServiceResult<QuoteResponse> requestQuote(QuoteRequest request) {
+        long start = System.nanoTime();
         log.info("Requesting quote for {} {} {}", request.getCurrencyPair(), request.getSide(), request.getAmount());
 
+        CurrencyPair currencyPair = CurrencyPairRegistry.findTradable(request.getCurrencyPair()).orElse(null);
+        if (currencyPair == null || !quotePricer.canPrice(currencyPair)) {
+            tradingMetrics.recordQuote(QuoteOutcome.UNSUPPORTED_PAIR, start);
+            return ServiceResult.rejected(Rejection.UNSUPPORTED_PAIR,
+                    "Unsupported currency pair: " + request.getCurrencyPair());
+        }
+
         // Generate a simulated rate (in real system, would fetch from market data provider)
-        BigDecimal rate = generateSimulatedRate(request.getCurrencyPair());
+        BigDecimal rate = generateSimulatedRate(currencyPair);
+
+        ServerTiming.mark("pricing");
 
-        // Quote expires in 2 minutes
-        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(2);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Quote.VALIDITY);
 
         Quote quote = Quote.builder()
-                .currencyPair(request.getCurrencyPair())
+                .currencyPair(currencyPair)
                 .side(request.getSide())
                 .amount(request.getAmount())
                 .rate(rate)
                 .expiresAt(expiresAt)
                 .build();
 
-        quote = quoteRepository.save(quote);
+        quote = quoteStore.save(quote);
+        ServerTiming.mark("insert");
         log.info("Quote created with ID: {}", quote.getId());
+        TradingMetrics.afterCommit(() -> tradingMetrics.recordQuote(QuoteOutcome.CREATED, start));
 
-        return QuoteResponse.fromEntity(quote);
+        return ServiceResult.success(QuoteResponse.fromEntity(quote));
     }
 
-    private BigDecimal generateSimulatedRate(String currencyPair) {
-        // Simulated base rates for common currency pairs
-        BigDecimal baseRate;
-        switch (currencyPair) {
-            case "EUR/USD":
-                baseRate = new BigDecimal("1.0850");
-                break;
-            case "GBP/USD":
-                baseRate = new BigDecimal("1.2650");
-                break;
-            case "USD/JPY":
-                baseRate = new BigDecimal("149.50");
-                break;
-            case "USD/CHF":
-                baseRate = new BigDecimal("0.8750");
-                break;
-            case "AUD/USD":
-                baseRate = new BigDecimal("0.6550");
-                break;
-            default:
-                baseRate = new BigDecimal("1.0000");
-                break;
-        }
-
-        // Add random spread (-0.5% to +0.5%)
-        double spreadPercent = (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.01;
-        BigDecimal spread = baseRate.multiply(BigDecimal.valueOf(spreadPercent));
-
-        return baseRate.add(spread).setScale(6, RoundingMode.HALF_UP);
+    BigDecimal generateSimulatedRate(CurrencyPair currencyPair) {
+        return quotePricer.price(currencyPair);
     }
 }
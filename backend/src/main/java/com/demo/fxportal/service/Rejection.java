@@ -0,0 +1,20 @@
+package com.demo.fxportal.service;
+
+/**
+ * Expected business reasons for turning down a quote, booking, status change, report or import request. These come back as
+ * {@link ServiceResult.Rejected} rather than exceptions; controllers map them to status codes.
+ */
+public enum Rejection {
+    UNSUPPORTED_PAIR,
+    QUOTE_NOT_FOUND,
+    QUOTE_EXPIRED,
+    ALREADY_BOOKED,
+    TRADE_NOT_FOUND,
+    TRADE_NOT_PROJECTED,
+    INVALID_STATUS_CHANGE,
+    REPORT_NOT_FOUND,
+    IMPORT_FILE_INVALID,
+    IMPORT_IN_PROGRESS,
+    IMPORT_NOT_FOUND,
+    DATABASE_REQUIRED
+}
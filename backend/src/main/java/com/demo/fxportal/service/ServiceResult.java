@@ -0,0 +1,24 @@
+package com.demo.fxportal.service;
+
+/**
+ * Outcome of a quote or booking request: the response, or a {@link Rejection} with its message.
+ *
+ * <p>Rejections are ordinary values, so an expiry storm costs no stack-trace capture or
+ * exception-handler dispatch. Exceptions stay reserved for real faults (database errors, bugs).
+ */
+public sealed interface ServiceResult<T> permits ServiceResult.Success, ServiceResult.Rejected {
+
+    record Success<T>(T value) implements ServiceResult<T> {
+    }
+
+    record Rejected<T>(Rejection rejection, String message) implements ServiceResult<T> {
+    }
+
+    static <T> ServiceResult<T> success(T value) {
+        return new Success<>(value);
+    }
+
+    static <T> ServiceResult<T> rejected(Rejection rejection, String message) {
+        return new Rejected<>(rejection, message);
+    }
+}
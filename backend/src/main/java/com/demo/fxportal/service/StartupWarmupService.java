@@ -0,0 +1,187 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.config.WarmupProperties;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.pricing.QuotePricer;
+import com.demo.fxportal.repository.TradeHistoryFilter;
+import com.demo.fxportal.repository.TradeHistoryRepository;
+import com.demo.fxportal.repository.TradeHistorySort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Runs the quote and booking hot paths against synthetic data before the app reports ready:
+ * pricing, request validation, JSON in and out, entity-to-DTO mapping and compiling the history
+ * statements of {@link TradeHistoryRepository}. Nothing is persisted or executed against the database.
+ *
+ * <p>Runs as an {@link ApplicationRunner}, and Spring Boot only publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC} after all runners return, so
+ * {@code /actuator/health/readiness} stays DOWN until the iterations finish or the budget is spent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StartupWarmupService implements ApplicationRunner {
+
+    private static final List<Sort.Order> HISTORY_SORTS = Arrays.stream(TradeHistorySort.values())
+            .flatMap(sort -> Stream.of(Sort.Order.desc(sort.property()), Sort.Order.asc(sort.property())))
+            .toList();
+
+    private final WarmupProperties properties;
+    private final QuotePricer quotePricer;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled() || properties.getIterations() <= 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + properties.getBudget().toNanos();
+        int completed = warmUp(properties.getIterations(), deadline);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if (completed < properties.getIterations()) {
+            log.warn("Warm-up budget of {} spent after {}/{} iterations, reporting ready anyway",
+                    properties.getBudget(), completed, properties.getIterations());
+        } else {
+            log.info("Warm-up finished {} iterations in {} ms", completed, elapsedMillis);
+        }
+    }
+
+    /**
+     * Runs up to {@code iterations} round trips, stopping early at {@code deadlineNanos}.
+     *
+     * @return the number of iterations completed
+     */
+    int warmUp(int iterations, long deadlineNanos) {
+        List<CurrencyPair> pairs = CurrencyPairRegistry.supported().stream()
+                .filter(quotePricer::canPrice)
+                .toList();
+        if (pairs.isEmpty()) {
+            return 0;
+        }
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<TradeResponse> page = new ArrayList<>();
+            int completed = 0;
+            while (completed < iterations && System.nanoTime() < deadlineNanos) {
+                page.add(quoteAndBook(pairs.get(completed % pairs.size()), completed));
+                if (page.size() == 20) {
+                    history(entityManager, completed, page);
+                    page.clear();
+                }
+                completed++;
+            }
+            return completed;
+        } catch (IOException | IllegalStateException ex) {
+            // Never fail startup over warm-up; the app just starts colder
+            log.warn("Warm-up stopped early", ex);
+            return 0;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private TradeResponse quoteAndBook(CurrencyPair pair, int iteration) throws IOException {
+        Side side = (iteration & 1) == 0 ? Side.BUY : Side.SELL;
+        BigDecimal amount = BigDecimal.valueOf(1_000 + iteration % 10_000, 2);
+
+        // Every eighth request is invalid so the constraint-violation path is compiled too
+        boolean invalid = iteration % 8 == 7;
+        BigDecimal requestedAmount = invalid ? amount.negate() : amount;
+        byte[] requestJson = objectMapper.writeValueAsBytes(new QuoteRequest(pair.getSymbol(), side, requestedAmount));
+        QuoteRequest quoteRequest = objectMapper.readValue(requestJson, QuoteRequest.class);
+        if (validator.validate(quoteRequest).isEmpty() == invalid) {
+            // The fixtures no longer match the constraints, so the paths warmed are not the ones requests take
+            throw new IllegalStateException("Warm-up quote request " + quoteRequest
+                    + (invalid ? " passed" : " failed") + " validation");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Quote quote = Quote.builder()
+                .id(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.findTradable(quoteRequest.getCurrencyPair()).orElse(pair))
+                .side(side)
+                .amount(amount)
+                .rate(quotePricer.price(pair))
+                .createdAt(now)
+                .expiresAt(now.plus(Quote.VALIDITY))
+                .build();
+        objectMapper.writeValueAsBytes(QuoteResponse.fromEntity(quote));
+
+        TradeRequest tradeRequest = objectMapper.readValue(
+                objectMapper.writeValueAsBytes(new TradeRequest(quote.getId())), TradeRequest.class);
+        if (!validator.validate(tradeRequest).isEmpty()) {
+            throw new IllegalStateException("Warm-up trade request " + tradeRequest + " failed validation");
+        }
+
+        Trade trade = Trade.builder()
+                .id(UUID.randomUUID())
+                .quoteId(tradeRequest.getQuoteId())
+                .currencyPair(quote.getCurrencyPair())
+                .side(quote.getSide())
+                .amount(quote.getAmount())
+                .rate(quote.getRate())
+                .status(Trade.Status.BOOKED)
+                .bookedAt(now)
+                .build();
+        TradeResponse response = TradeResponse.fromEntity(trade);
+        objectMapper.writeValueAsBytes(response);
+        return response;
+    }
+
+    /**
+     * Compiles (but does not run) the history statement for one filter combination and sort, and
+     * renders a page. The default 10,000 iterations reach every combination.
+     */
+    private void history(EntityManager entityManager, int iteration, List<TradeResponse> page)
+            throws IOException {
+        TradeResponse first = page.get(0);
+        int mask = iteration / 20 % TradingMetrics.FILTER_COMBINATIONS;
+        Sort.Order order = HISTORY_SORTS.get(
+                iteration / 20 / TradingMetrics.FILTER_COMBINATIONS % HISTORY_SORTS.size());
+        TradeHistoryFilter filter = new TradeHistoryFilter(
+                (mask & TradingMetrics.FILTER_CURRENCY_PAIR) != 0
+                        ? CurrencyPairRegistry.find(first.getCurrencyPair()).orElse(null) : null,
+                (mask & TradingMetrics.FILTER_SIDE) != 0 ? first.getSide() : null,
+                (mask & TradingMetrics.FILTER_STATUS) != 0 ? Trade.Status.BOOKED : null,
+                (mask & TradingMetrics.FILTER_FROM_DATE) != 0 ? first.getBookedAt().minusDays(1) : null,
+                (mask & TradingMetrics.FILTER_TO_DATE) != 0 ? first.getBookedAt() : null);
+        TradeHistoryRepository.select(entityManager, filter, order).setFirstResult(0).setMaxResults(page.size());
+
+        objectMapper.writeValueAsBytes(new PageImpl<>(page, PageRequest.of(0, page.size(), Sort.by(order)), page.size()));
+    }
+}
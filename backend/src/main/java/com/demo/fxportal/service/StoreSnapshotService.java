@@ -0,0 +1,259 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.config.StorageProperties;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.repository.InMemoryQuoteStore;
+import com.demo.fxportal.repository.InMemoryTradeStore;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeStore;
+import com.demo.fxportal.snapshot.StoreSnapshot;
+import com.demo.fxportal.snapshot.StoreSnapshotCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory stores across restarts. Every {@code interval} the quotes and trades
+ * written since the last snapshot go to a delta file; every {@code fullEvery} deltas, a full
+ * snapshot replaces the chain. Each file carries the stores' write watermarks at the time it was
+ * taken. On startup the newest full snapshot is loaded and only the deltas after it are replayed,
+ * so a restart reads the state once rather than every change made to it.
+ *
+ * <p>A last delta is written on shutdown. After a crash, what was written since the last snapshot
+ * is lost. Does nothing unless {@code fxportal.storage.backend} is {@code memory} and snapshots are
+ * enabled.
+ */
+@Service
+@Slf4j
+public class StoreSnapshotService {
+
+    private static final Pattern FILE_NAME = Pattern.compile("snapshot-(\\d{12})-(full|delta)\\.bin");
+
+    private final QuoteStore quoteStore;
+    private final TradeStore tradeStore;
+    private final StorageProperties.Snapshot properties;
+    private final Timer fullTimer;
+    private final Timer deltaTimer;
+
+    private long generation;
+    private int deltasSinceFull;
+    /** Set when a write failed after its changes were drained, so only a full snapshot has them all. */
+    private boolean fullNeeded = true;
+
+    public StoreSnapshotService(QuoteStore quoteStore,
+                                TradeStore tradeStore,
+                                StorageProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.quoteStore = quoteStore;
+        this.tradeStore = tradeStore;
+        this.properties = properties.getSnapshot();
+        this.fullTimer = snapshotTimer(StoreSnapshot.Kind.FULL, meterRegistry);
+        this.deltaTimer = snapshotTimer(StoreSnapshot.Kind.DELTA, meterRegistry);
+    }
+
+    private static Timer snapshotTimer(StoreSnapshot.Kind kind, MeterRegistry meterRegistry) {
+        return Timer.builder("fxportal.storage.snapshot")
+                .description("Time to write one snapshot of the in-memory stores")
+                .tag("kind", kind == StoreSnapshot.Kind.FULL ? "full" : "delta")
+                .register(meterRegistry);
+    }
+
+    /** Loads the newest full snapshot and the deltas after it; runs before the stores take traffic. */
+    @PostConstruct
+    public synchronized void restore() {
+        if (!enabled()) {
+            if (properties.isEnabled()) {
+                log.warn("Store snapshots only apply to fxportal.storage.backend=memory, ignoring them");
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        List<SnapshotFile> files = list();
+        // New files must sort after every existing one, even unreadable ones
+        generation = files.isEmpty() ? 0 : files.get(files.size() - 1).generation();
+        SnapshotFile full = null;
+        StoreSnapshot base = null;
+        for (int i = files.size() - 1; i >= 0 && base == null; i--) {
+            if (files.get(i).full()) {
+                try {
+                    base = StoreSnapshotCodec.read(files.get(i).path());
+                    full = files.get(i);
+                } catch (IOException ex) {
+                    log.error("Skipping unreadable store snapshot: {}", ex.getMessage());
+                }
+            }
+        }
+        if (base == null) {
+            log.info("No store snapshot in {}, starting empty", directory().toAbsolutePath());
+            return;
+        }
+
+        apply(base);
+        long fullGeneration = full.generation();
+        int deltas = 0;
+        for (SnapshotFile file : files) {
+            if (file.full() || file.generation() <= fullGeneration) {
+                continue;
+            }
+            try {
+                apply(StoreSnapshotCodec.read(file.path()));
+                deltas++;
+            } catch (IOException ex) {
+                // Later deltas build on this one, so stop here; the next full snapshot supersedes them
+                log.error("Store snapshot replay stopped at an unreadable delta: {}", ex.getMessage());
+                break;
+            }
+        }
+        deltasSinceFull = deltas;
+        // A delta that could not be replayed leaves a gap the next deltas would build on
+        fullNeeded = deltas < files.stream().filter(file -> file.generation() > fullGeneration).count();
+
+        InMemoryQuoteStore quotes = (InMemoryQuoteStore) quoteStore;
+        InMemoryTradeStore trades = (InMemoryTradeStore) tradeStore;
+        log.info("Restored {} quotes and {} trades from store snapshot {} and {} deltas after it "
+                        + "(watermarks: {} quote writes, {} trade writes) in {} ms",
+                quotes.size(), trades.size(), fullGeneration, deltas, quotes.watermark(), trades.watermark(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Scheduled(fixedDelayString = "${fxportal.storage.snapshot.interval:PT30S}",
+            initialDelayString = "${fxportal.storage.snapshot.interval:PT30S}")
+    public void runScheduled() {
+        if (!enabled()) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (RuntimeException ex) {
+            log.error("Store snapshot failed, the next one will be full", ex);
+        }
+    }
+
+    /** Writes the last delta once bookings have stopped. */
+    @PreDestroy
+    public void shutdown() {
+        runScheduled();
+    }
+
+    /**
+     * Writes a delta of what changed since the last snapshot, or a full snapshot when one is due.
+     *
+     * @return the snapshot written, or {@code null} if nothing had changed
+     */
+    synchronized StoreSnapshot snapshot() {
+        long start = System.nanoTime();
+        InMemoryQuoteStore quotes = (InMemoryQuoteStore) quoteStore;
+        InMemoryTradeStore trades = (InMemoryTradeStore) tradeStore;
+        // Read before draining: every write these count has been queued by then
+        long quoteWatermark = quotes.watermark();
+        long tradeWatermark = trades.watermark();
+        List<Quote> changedQuotes = quotes.drainChanged();
+        List<Trade> changedTrades = trades.drainChanged();
+
+        boolean full = fullNeeded || deltasSinceFull >= properties.getFullEvery();
+        if (!full && changedQuotes.isEmpty() && changedTrades.isEmpty()) {
+            return null;
+        }
+        StoreSnapshot snapshot = full
+                ? new StoreSnapshot(StoreSnapshot.Kind.FULL, generation + 1, quoteWatermark, tradeWatermark,
+                        quotes.all(), trades.all())
+                : new StoreSnapshot(StoreSnapshot.Kind.DELTA, generation + 1, quoteWatermark, tradeWatermark,
+                        changedQuotes, changedTrades);
+
+        Path file = directory().resolve(fileName(snapshot));
+        try {
+            Files.createDirectories(directory());
+            StoreSnapshotCodec.write(file, snapshot);
+        } catch (IOException ex) {
+            fullNeeded = true;
+            throw new UncheckedIOException("Could not write store snapshot " + file, ex);
+        }
+        generation = snapshot.generation();
+        if (full) {
+            fullNeeded = false;
+            deltasSinceFull = 0;
+            deleteBefore(generation);
+        } else {
+            deltasSinceFull++;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        (full ? fullTimer : deltaTimer).record(elapsed, TimeUnit.NANOSECONDS);
+        log.debug("Wrote {} store snapshot {}: {} quotes, {} trades in {} ms", snapshot.kind(), generation,
+                snapshot.quotes().size(), snapshot.trades().size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return snapshot;
+    }
+
+    private void apply(StoreSnapshot snapshot) {
+        ((InMemoryQuoteStore) quoteStore).restore(snapshot.quotes(), snapshot.quoteWatermark());
+        ((InMemoryTradeStore) tradeStore).restore(snapshot.trades(), snapshot.tradeWatermark());
+    }
+
+    /** The full snapshot at {@code generation} holds everything, so older files are no longer needed. */
+    private void deleteBefore(long generation) {
+        for (SnapshotFile file : list()) {
+            if (file.generation() < generation) {
+                try {
+                    Files.deleteIfExists(file.path());
+                } catch (IOException ex) {
+                    log.warn("Could not delete old store snapshot {}: {}", file.path(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /** The snapshot files in the directory, oldest first. */
+    private List<SnapshotFile> list() {
+        if (!Files.isDirectory(directory())) {
+            return List.of();
+        }
+        List<SnapshotFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory())) {
+            paths.forEach(path -> {
+                Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    files.add(new SnapshotFile(path, Long.parseLong(matcher.group(1)), matcher.group(2).equals("full")));
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list store snapshots in " + directory(), ex);
+        }
+        files.sort(Comparator.comparingLong(SnapshotFile::generation));
+        return files;
+    }
+
+    private static String fileName(StoreSnapshot snapshot) {
+        return String.format("snapshot-%012d-%s.bin", snapshot.generation(),
+                snapshot.kind() == StoreSnapshot.Kind.FULL ? "full" : "delta");
+    }
+
+    private Path directory() {
+        return Path.of(properties.getDirectory());
+    }
+
+    private boolean enabled() {
+        return properties.isEnabled()
+                && quoteStore instanceof InMemoryQuoteStore
+                && tradeStore instanceof InMemoryTradeStore;
+    }
+
+    private record SnapshotFile(Path path, long generation, boolean full) {
+    }
+}
@@ -0,0 +1,392 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.config.StorageProperties;
+import com.demo.fxportal.config.TradeImportProperties;
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.dto.TradeImportStatus;
+import com.demo.fxportal.repository.TradeImportRepository;
+import com.demo.fxportal.repository.TradeImportRepository.ChunkTotals;
+import com.demo.fxportal.repository.TradeImportRepository.ImportRecord;
+import com.demo.fxportal.tradeimport.ChunkPlanner;
+import com.demo.fxportal.tradeimport.ImportChunk;
+import com.demo.fxportal.tradeimport.TradeImportFormat;
+import com.demo.fxportal.tradeimport.TradeImportParser;
+import com.demo.fxportal.tradeimport.TradeImportParser.ParsedChunk;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Path.Node;
+import jakarta.validation.TraversableResolver;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk-loads historical trades from CSV or NDJSON files in the import directory.
+ *
+ * <p>A file is cut into chunks of whole lines, which a pool of workers parses, validates and loads
+ * in parallel, each chunk in one transaction on its own pooled connection, under a background database permit.
+ * The transaction also
+ * records the chunk and its rejected lines, so every chunk is loaded exactly once: starting an
+ * interrupted import again plans the same chunks and loads only those without a record. Imported
+ * trades are history, not new bookings: they add no outbox events and no trading metrics.
+ */
+@Service
+@Slf4j
+public class TradeImportService {
+
+    /** A chunk that loses a race with another chunk's quote or trade is retried this often. */
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    private static final TraversableResolver EVERYTHING_REACHABLE = new TraversableResolver() {
+        @Override
+        public boolean isReachable(Object bean, Node property, Class<?> rootBeanType, jakarta.validation.Path path,
+                                   ElementType elementType) {
+            return true;
+        }
+
+        @Override
+        public boolean isCascadable(Object bean, Node property, Class<?> rootBeanType, jakarta.validation.Path path,
+                                    ElementType elementType) {
+            return true;
+        }
+    };
+
+    private final TradeImportRepository repository;
+    private final TradeImportProperties properties;
+    private final StorageProperties storageProperties;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transaction;
+    private final Counter loadedCounter;
+    private final Counter rejectedCounter;
+    private final Timer chunkTimer;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    public TradeImportService(TradeImportRepository repository,
+                              TradeImportProperties properties,
+                              StorageProperties storageProperties,
+                              DbConcurrencyLimiter dbConcurrencyLimiter,
+                              ObjectMapper objectMapper,
+                              ValidatorFactory validatorFactory,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.storageProperties = storageProperties;
+        this.dbConcurrencyLimiter = dbConcurrencyLimiter;
+        this.objectMapper = objectMapper;
+        // Rows are plain objects: skip the JPA load-state check Hibernate Validator makes per property
+        this.validator = validatorFactory.usingContext().traversableResolver(EVERYTHING_REACHABLE).getValidator();
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.loadedCounter = Counter.builder("fxportal.trade-import.rows")
+                .description("Import file rows loaded or rejected")
+                .tag("outcome", "loaded")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("fxportal.trade-import.rows")
+                .description("Import file rows loaded or rejected")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("fxportal.trade-import.chunk")
+                .description("Time to read, validate and load one import chunk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts loading {@code file}, or resumes it where an earlier run stopped, and returns at once.
+     * A completed import is not loaded again, and nothing is loaded with in-memory storage.
+     */
+    public synchronized ServiceResult<TradeImportStatus> start(String file) {
+        if (storageProperties.getBackend() == StorageProperties.Backend.MEMORY) {
+            return ServiceResult.rejected(Rejection.DATABASE_REQUIRED,
+                    "Imports load the trades table, which in-memory storage does not read");
+        }
+        Path path = resolve(file);
+        if (path == null || !Files.isRegularFile(path)) {
+            return ServiceResult.rejected(Rejection.IMPORT_FILE_INVALID, "No import file " + file);
+        }
+        Optional<TradeImportFormat> format = TradeImportFormat.of(path);
+        if (format.isEmpty()) {
+            return ServiceResult.rejected(Rejection.IMPORT_FILE_INVALID,
+                    "Import files must end in .csv or .ndjson: " + file);
+        }
+        String id = importId(path);
+        Job running = jobs.get(id);
+        if (running != null && running.running) {
+            return ServiceResult.rejected(Rejection.IMPORT_IN_PROGRESS, "Import of " + id + " is already running");
+        }
+
+        long size;
+        long modifiedMillis;
+        TradeImportParser parser;
+        try {
+            size = Files.size(path);
+            modifiedMillis = Files.getLastModifiedTime(path).toMillis();
+            parser = TradeImportParser.open(id, path, format.get(), objectMapper, validator);
+        } catch (IOException | IllegalArgumentException ex) {
+            return ServiceResult.rejected(Rejection.IMPORT_FILE_INVALID, "Cannot import " + id + ": " + ex.getMessage());
+        }
+        Optional<ImportRecord> record = repository.findImport(id);
+        if (record.isPresent()) {
+            if (record.get().completedAt() != null) {
+                return ServiceResult.success(status(id, record.get()));
+            }
+            Long startedModified = record.get().fileModifiedMillis();
+            if (record.get().fileSize() != size || (startedModified != null && startedModified != modifiedMillis)
+                    || record.get().chunkBytes() != properties.getChunkBytes()) {
+                return ServiceResult.rejected(Rejection.IMPORT_FILE_INVALID, "Cannot resume the import of " + id
+                        + ": the file or the chunk size changed since it started");
+            }
+        }
+
+        Job job = new Job(id, path, format.get(), parser, size, modifiedMillis, record.orElse(null));
+        jobs.put(id, job);
+        Thread coordinator = new Thread(() -> run(job), "trade-import");
+        coordinator.setDaemon(true);
+        job.coordinator = coordinator;
+        coordinator.start();
+        return ServiceResult.success(status(id, record.orElse(null)));
+    }
+
+    public ServiceResult<TradeImportStatus> status(String file) {
+        String id = importId(file);
+        Optional<ImportRecord> record = id == null ? Optional.empty() : repository.findImport(id);
+        if (record.isEmpty() && (id == null || !jobs.containsKey(id))) {
+            return ServiceResult.rejected(Rejection.IMPORT_NOT_FOUND, "No import of " + file);
+        }
+        return ServiceResult.success(status(id, record.orElse(null)));
+    }
+
+    /** A page of the lines rejected so far, in line order. */
+    public ServiceResult<List<TradeImportReject>> rejects(String file, int page, int size) {
+        String id = importId(file);
+        if (id == null || repository.findImport(id).isEmpty()) {
+            return ServiceResult.rejected(Rejection.IMPORT_NOT_FOUND, "No import of " + file);
+        }
+        return ServiceResult.success(repository.rejects(id, page * size, size));
+    }
+
+    /** Stops taking new chunks; chunks being loaded commit or roll back as a whole. */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        for (Job job : jobs.values()) {
+            Thread coordinator = job.coordinator;
+            if (coordinator != null) {
+                coordinator.join(TimeUnit.SECONDS.toMillis(30));
+            }
+        }
+    }
+
+    int parallelism() {
+        int workers = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(workers, properties.getMaxConnections()));
+    }
+
+    private void run(Job job) {
+        long start = System.nanoTime();
+        try {
+            List<ImportChunk> chunks = ChunkPlanner.plan(job.path, properties.getChunkBytes(), job.format.hasHeader());
+            if (job.record == null) {
+                repository.createImport(job.id, job.size, job.modifiedMillis, properties.getChunkBytes(), chunks.size());
+            } else if (job.record.chunks() != chunks.size()) {
+                throw new IllegalStateException("The file changed since its import started: it now has "
+                        + chunks.size() + " chunks instead of " + job.record.chunks());
+            }
+            Set<Integer> loaded = repository.loadedChunks(job.id);
+            List<ImportChunk> pending = chunks.stream().filter(chunk -> !loaded.contains(chunk.index())).toList();
+            boolean copy = properties.isCopyEnabled() && repository.supportsCopy();
+            int parallelism = parallelism();
+            log.info("Importing {}: {} of {} chunks to load on {} workers through {}", job.id, pending.size(),
+                    chunks.size(), parallelism, copy ? "COPY" : "JDBC batches");
+
+            loadChunks(job, pending, parallelism, copy);
+
+            if (!stopping && repository.loadedChunks(job.id).size() == chunks.size()) {
+                repository.markCompleted(job.id);
+                ChunkTotals totals = repository.chunkTotals(job.id);
+                log.info("Imported {}: {} rows loaded, {} rejected in {} ms", job.id, totals.loaded(),
+                        totals.rejected(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } else {
+                log.info("Import of {} stopped; starting it again loads the remaining chunks", job.id);
+            }
+        } catch (Exception ex) {
+            job.error = ex.getMessage();
+            log.error("Import of {} failed; starting it again resumes it", job.id, ex);
+        } finally {
+            job.running = false;
+        }
+    }
+
+    private void loadChunks(Job job, List<ImportChunk> pending, int parallelism, boolean copy) throws Exception {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "trade-import-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(job.path, StandardOpenOption.READ)) {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (ImportChunk chunk : pending) {
+                futures.add(workers.submit(() -> {
+                    try {
+                        loadChunk(job, channel, chunk, copy);
+                    } catch (Exception ex) {
+                        // The first failure stops the import; chunks already queued see the flag and skip
+                        job.failed = true;
+                        throw ex;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    throw ex.getCause() instanceof Exception cause ? cause : ex;
+                }
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private void loadChunk(Job job, FileChannel channel, ImportChunk chunk, boolean copy) throws IOException {
+        if (stopping || job.failed) {
+            return;
+        }
+        long start = System.nanoTime();
+        ParsedChunk parsed = job.parser.parse(ChunkPlanner.read(channel, chunk), chunk.firstLine());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int[] counts = dbConcurrencyLimiter.call(DbOperation.BACKGROUND, () -> transaction.execute(status -> {
+                    List<TradeImportReject> rejects = new ArrayList<>(parsed.rejects());
+                    List<TradeImportReject> skipped = copy
+                            ? repository.copyTrades(parsed.trades())
+                            : repository.insertTrades(parsed.trades(), properties.getBatchSize());
+                    rejects.addAll(skipped);
+                    rejects.sort(Comparator.comparingLong(TradeImportReject::getLine));
+                    int loaded = parsed.trades().size() - skipped.size();
+                    repository.insertRejects(job.id, rejects);
+                    repository.recordChunk(job.id, chunk.index(), loaded, rejects.size());
+                    return new int[]{loaded, rejects.size()};
+                }));
+                loadedCounter.increment(counts[0]);
+                rejectedCounter.increment(counts[1]);
+                chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt == CHUNK_ATTEMPTS) {
+                    throw ex;
+                }
+                log.debug("Chunk {} of {} collided with a concurrent chunk, retrying", chunk.index(), job.id, ex);
+            }
+        }
+    }
+
+    private TradeImportStatus status(String id, ImportRecord record) {
+        Job job = jobs.get(id);
+        TradeImportStatus.TradeImportStatusBuilder status = TradeImportStatus.builder().file(id);
+        if (record != null) {
+            ChunkTotals totals = repository.chunkTotals(id);
+            status.fileSize(record.fileSize())
+                    .chunks(record.chunks())
+                    .chunksLoaded(totals.chunks())
+                    .rowsLoaded(totals.loaded())
+                    .rowsRejected(totals.rejected())
+                    .startedAt(record.startedAt())
+                    .completedAt(record.completedAt());
+        } else {
+            status.fileSize(job.size).startedAt(job.startedAt);
+        }
+        if (job != null && job.running) {
+            status.state(TradeImportStatus.State.RUNNING);
+        } else {
+            status.state(record != null && record.completedAt() != null
+                    ? TradeImportStatus.State.COMPLETED
+                    : TradeImportStatus.State.INCOMPLETE);
+        }
+        return status.error(job != null ? job.error : null).build();
+    }
+
+    /** The file under the import directory, or {@code null} if {@code file} points outside it. */
+    private Path resolve(String file) {
+        Path directory = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+        Path path = directory.resolve(file).normalize();
+        return path.startsWith(directory) && !path.equals(directory) ? path : null;
+    }
+
+    private String importId(String file) {
+        Path path = resolve(file);
+        return path == null ? null : importId(path);
+    }
+
+    /** The path relative to the import directory, with {@code /} separators on every platform. */
+    private String importId(Path path) {
+        Path directory = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+        return directory.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    /** One run of an import on this instance, kept after it ends for its status and error. */
+    private static final class Job {
+
+        final String id;
+        final Path path;
+        final TradeImportFormat format;
+        final TradeImportParser parser;
+        final long size;
+        final long modifiedMillis;
+        final ImportRecord record;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        volatile Thread coordinator;
+        volatile boolean running = true;
+        volatile boolean failed;
+        volatile String error;
+
+        Job(String id, Path path, TradeImportFormat format, TradeImportParser parser, long size, long modifiedMillis,
+            ImportRecord record) {
+            this.id = id;
+            this.path = path;
+            this.format = format;
+            this.parser = parser;
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+            this.record = record;
+        }
+    }
+}
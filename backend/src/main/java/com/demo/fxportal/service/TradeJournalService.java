@@ -0,0 +1,419 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.config.TradeJournalProperties;
+import com.demo.fxportal.diagnostics.ServerTiming;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.journal.JournalRecord;
+import com.demo.fxportal.journal.TradeJournal;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.metrics.TradingMetrics.BookingOutcome;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.outbox.TradeOutbox;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal-first booking path, used instead of {@link TradeService#bookTrade} when
+ * {@code fxportal.trade-journal.enabled} is set.
+ *
+ * <p>A booking is committed once its record is synced to the {@link TradeJournal}; the response
+ * does not wait for Postgres. A projector thread copies journaled trades into {@code trades} in
+ * batches, skipping trades that already have their row there, so replaying records after a restart
+ * (or after a lost checkpoint) inserts nothing twice.
+ *
+ * <p>Until a trade is projected, the database cannot see it, so this service keeps the quote ids
+ * of journaled-but-unprojected trades in memory. A booking reserves its quote id there before
+ * checking {@code trades}, and the projector releases it only after the row is committed. A
+ * quote is therefore always visible in one place or the other. The trade ids are kept alongside, so
+ * a status change for a trade that is not in {@code trades} yet is told to retry rather than that
+ * the trade does not exist. Expiry needs nothing extra: it is
+ * checked against the quote row, which bookings never change. The quote reaper holds back from
+ * quotes that unprojected trades still reference, see {@link #oldestUnprojectedBookedAt}.
+ *
+ * <p>The journal is local to one instance. Booking the same quotes through another instance's
+ * direct path is only caught when the projector gets there, either because {@code trades} already
+ * holds a different trade for the quote or because the unique constraint refuses the insert. A
+ * trade found like that is {@link TradeJournal#park parked} rather than dropped: it stays in the
+ * journal directory, counted by {@code fxportal.trade-journal.parked}, for an operator to resolve.
+ */
+@Service
+@Slf4j
+public class TradeJournalService implements SmartLifecycle {
+
+    /** Placeholder for a quote whose booking is between its duplicate check and its append. */
+    private static final Long RESERVED = 0L;
+
+    private final QuoteStore quoteStore;
+    private final TradeStore tradeStore;
+    private final TradeService tradeService;
+    private final TradeOutbox tradeOutbox;
+    private final TradingMetrics tradingMetrics;
+    private final DbConcurrencyLimiter dbConcurrencyLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final TradeJournalProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer commitTimer;
+    private final Counter projectedCounter;
+    private final Counter skippedCounter;
+    private final Counter parkedCounter;
+
+    /** Quote id to journal sequence, for every journaled trade not yet projected. */
+    private final Map<UUID, Long> journaledQuotes = new ConcurrentHashMap<>();
+    /** Ids of the same trades. */
+    private final Set<UUID> journaledTrades = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private volatile TradeJournal journal;
+    private Thread projector;
+
+    public TradeJournalService(QuoteStore quoteStore,
+                               TradeStore tradeStore,
+                               TradeService tradeService,
+                               TradeOutbox tradeOutbox,
+                               TradingMetrics tradingMetrics,
+                               DbConcurrencyLimiter dbConcurrencyLimiter,
+                               PlatformTransactionManager transactionManager,
+                               TradeJournalProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.quoteStore = quoteStore;
+        this.tradeStore = tradeStore;
+        this.tradeService = tradeService;
+        this.tradeOutbox = tradeOutbox;
+        this.tradingMetrics = tradingMetrics;
+        this.dbConcurrencyLimiter = dbConcurrencyLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.commitTimer = Timer.builder("fxportal.trade-journal.commit")
+                .description("Time a booking waits for its journal record to be synced")
+                .register(meterRegistry);
+        this.projectedCounter = projectionCounter("inserted", meterRegistry);
+        this.skippedCounter = projectionCounter("skipped", meterRegistry);
+        this.parkedCounter = projectionCounter("parked", meterRegistry);
+    }
+
+    /** Whether bookings should go through {@link #bookTrade}; {@code false} before start and after stop. */
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /** Books a trade with the journal as the commit point. Callers do not take a booking permit. */
+    public ServiceResult<TradeResponse> bookTrade(TradeRequest request) {
+        long start = System.nanoTime();
+        UUID quoteId = request.getQuoteId();
+
+        Quote quote = dbConcurrencyLimiter.call(DbOperation.BOOKING,
+                () -> quoteStore.findById(quoteId)).orElse(null);
+        ServerTiming.mark("quote-lookup");
+        if (quote == null) {
+            tradingMetrics.recordBooking(BookingOutcome.NOT_FOUND, start);
+            return ServiceResult.rejected(Rejection.QUOTE_NOT_FOUND, "Quote not found: " + quoteId);
+        }
+        if (quote.isExpired()) {
+            tradingMetrics.recordBooking(BookingOutcome.EXPIRED, start);
+            return ServiceResult.rejected(Rejection.QUOTE_EXPIRED, TradeService.EXPIRED_MESSAGE);
+        }
+        if (!JournalRecord.fits(quote.getAmount())) {
+            // Too large for the record layout; a given quote always lands here, so it cannot race the journal
+            return dbConcurrencyLimiter.call(DbOperation.BOOKING, () -> tradeService.bookTrade(request));
+        }
+
+        if (journaledQuotes.putIfAbsent(quoteId, RESERVED) != null) {
+            tradingMetrics.recordBooking(BookingOutcome.DUPLICATE, start);
+            return ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE);
+        }
+        UUID tradeId = UUID.randomUUID();
+        Trade trade;
+        try {
+            if (dbConcurrencyLimiter.call(DbOperation.BOOKING, () -> tradeStore.existsByQuoteId(quoteId))) {
+                journaledQuotes.remove(quoteId, RESERVED);
+                tradingMetrics.recordBooking(BookingOutcome.DUPLICATE, start);
+                return ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE);
+            }
+            ServerTiming.mark("duplicate-check");
+
+            trade = Trade.builder()
+                    .id(tradeId)
+                    .quoteId(quoteId)
+                    .currencyPair(quote.getCurrencyPair())
+                    .side(quote.getSide())
+                    .amount(quote.getAmount())
+                    .rate(quote.getRate())
+                    .status(Trade.Status.BOOKED)
+                    .bookedAt(JournalRecord.truncate(LocalDateTime.now()))
+                    .build();
+            journaledTrades.add(tradeId);
+            long sequence = journal.append(JournalRecord.of(trade, quote.getExpiresAt()));
+            // Unless the projector has already been and gone
+            journaledQuotes.replace(quoteId, RESERVED, sequence);
+            ServerTiming.mark("journal-append");
+
+            long syncStart = System.nanoTime();
+            journal.awaitDurable(sequence);
+            commitTimer.record(System.nanoTime() - syncStart, TimeUnit.NANOSECONDS);
+            ServerTiming.mark("journal-sync");
+        } catch (RuntimeException ex) {
+            // If the record was appended, the quote stays reserved: it may yet be projected
+            if (journaledQuotes.remove(quoteId, RESERVED)) {
+                journaledTrades.remove(tradeId);
+            }
+            throw ex;
+        }
+
+        tradingMetrics.recordBooking(BookingOutcome.BOOKED, start);
+        tradingMetrics.recordQuoteToBook(quote.getCreatedAt(), trade.getBookedAt());
+        return ServiceResult.success(TradeResponse.fromEntity(trade));
+    }
+
+    /**
+     * Changes a trade's status through {@link TradeService#changeStatus}, unless the trade is still
+     * only in the journal: that is rejected with {@link Rejection#TRADE_NOT_PROJECTED}, to retry.
+     */
+    public ServiceResult<TradeResponse> changeStatus(UUID tradeId, Trade.Status status) {
+        if (journaledTrades.contains(tradeId)) {
+            return ServiceResult.rejected(Rejection.TRADE_NOT_PROJECTED,
+                    "Trade " + tradeId + " is booked but not yet stored, retry shortly");
+        }
+        return dbConcurrencyLimiter.call(DbOperation.BOOKING, () -> tradeService.changeStatus(tradeId, status));
+    }
+
+    /**
+     * When the oldest trade still waiting for projection was booked. Its quote expires after that,
+     * so no quote expiring earlier can be referenced by a trade that is not yet in {@code trades}.
+     */
+    public Optional<LocalDateTime> oldestUnprojectedBookedAt() {
+        TradeJournal current = journal;
+        if (!running || current == null) {
+            return Optional.empty();
+        }
+        return current.read(current.getProjectedSequence() + 1, 1).stream()
+                .findFirst()
+                .map(JournalRecord::bookedAt);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path directory = Path.of(properties.getDirectory());
+        try {
+            journal = TradeJournal.open(directory, properties.getSegmentRecords(),
+                    properties.getSyncInterval(), properties.getSyncBatchSize());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not open the trade journal in " + directory.toAbsolutePath(), ex);
+        }
+
+        // Trades journaled before a restart count as booked before the first new booking is taken
+        long next = journal.getProjectedSequence() + 1;
+        for (List<JournalRecord> records = journal.read(next, properties.getProjectorBatchSize());
+             !records.isEmpty();
+             records = journal.read(next, properties.getProjectorBatchSize())) {
+            records.forEach(record -> {
+                journaledQuotes.put(record.quoteId(), record.sequence());
+                journaledTrades.add(record.tradeId());
+            });
+            next = records.get(records.size() - 1).sequence() + 1;
+        }
+
+        TradeJournal opened = journal;
+        Gauge.builder("fxportal.trade-journal.lag", opened,
+                        j -> j.getDurableSequence() - j.getProjectedSequence())
+                .description("Journaled trades not yet projected into the trades table")
+                .register(meterRegistry);
+        FunctionCounter.builder("fxportal.trade-journal.syncs", opened, TradeJournal::getSyncCount)
+                .description("Journal syncs; bookings per sync is the fsync batching achieved")
+                .register(meterRegistry);
+        Gauge.builder("fxportal.trade-journal.parked", opened, TradeJournal::getParkedCount)
+                .description("Acknowledged bookings the database refused, waiting in the parked file; alert above 0")
+                .register(meterRegistry);
+
+        running = true;
+        projector = new Thread(this::projectLoop, "trade-journal-projector");
+        projector.start();
+        log.info("Trade journal bookings enabled, {} trades to replay", journaledQuotes.size());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // The projector catches up with what is already journaled, then exits
+        running = false;
+        try {
+            projector.join(TimeUnit.SECONDS.toMillis(30));
+            journal.close();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            log.warn("Could not close the trade journal cleanly", ex);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server and the gateway. Once {@link #isEnabled} turns
+     * false, bookings go to the direct path, which cannot see the trades still being projected.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    /**
+     * Projects the next batch of durable journal records into {@code trades}.
+     *
+     * @return the number of records projected; {@code 0} if there were none
+     */
+    int projectBatch() {
+        List<JournalRecord> records = journal.read(journal.getProjectedSequence() + 1,
+                properties.getProjectorBatchSize());
+        if (records.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<JournalRecord> taken = dbConcurrencyLimiter.call(DbOperation.BOOKING,
+                    () -> transactionTemplate.execute(tx -> insertUnprojected(records)));
+            taken.forEach(record -> park(record, "its quote is booked by another trade"));
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Journal projection batch hit a constraint, projecting {} trades one by one", records.size());
+            for (JournalRecord record : records) {
+                projectOne(record);
+            }
+        }
+
+        try {
+            journal.markProjected(records.get(records.size() - 1).sequence());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write the trade journal checkpoint", ex);
+        }
+        // The rows are committed, so the duplicate check in bookTrade now finds them
+        records.forEach(record -> {
+            journaledQuotes.remove(record.quoteId());
+            journaledTrades.remove(record.tradeId());
+        });
+        return records.size();
+    }
+
+    private void projectLoop() {
+        while (true) {
+            try {
+                if (projectBatch() == 0) {
+                    if (!running) {
+                        return;
+                    }
+                    journal.awaitDurableAfter(journal.getProjectedSequence(), properties.getProjectorRetryDelay());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    log.warn("Trade journal projection stopped behind the journal, the rest is replayed on restart: {}",
+                            ex.getMessage());
+                    return;
+                }
+                log.warn("Trade journal projection failed, retrying in {}: {}",
+                        properties.getProjectorRetryDelay(), ex.getMessage());
+                try {
+                    Thread.sleep(properties.getProjectorRetryDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the records whose quotes have no row yet, and skips those whose own trade is there already
+     * because it was projected before a restart.
+     *
+     * @return the records whose quote has a row for a different trade, to be parked once this commits
+     */
+    private List<JournalRecord> insertUnprojected(List<JournalRecord> records) {
+        Map<UUID, UUID> stored = tradeStore.findTradeIdsByQuoteId(
+                records.stream().map(JournalRecord::quoteId).toList());
+        List<Trade> missing = new ArrayList<>();
+        List<JournalRecord> taken = new ArrayList<>();
+        for (JournalRecord record : records) {
+            UUID tradeId = stored.get(record.quoteId());
+            if (tradeId == null) {
+                missing.add(record.toTrade());
+            } else if (!tradeId.equals(record.tradeId())) {
+                taken.add(record);
+            }
+        }
+        if (!missing.isEmpty()) {
+            tradeStore.insertAll(missing);
+            tradeOutbox.tradesBooked(missing);
+        }
+        projectedCounter.increment(missing.size());
+        skippedCounter.increment(records.size() - missing.size() - taken.size());
+        return taken;
+    }
+
+    /** Projects one record, parking it if the database refuses it so the checkpoint can move past. */
+    private void projectOne(JournalRecord record) {
+        try {
+            List<JournalRecord> taken = dbConcurrencyLimiter.call(DbOperation.BOOKING,
+                    () -> transactionTemplate.execute(tx -> insertUnprojected(List.of(record))));
+            taken.forEach(conflict -> park(conflict, "its quote is booked by another trade"));
+        } catch (DataIntegrityViolationException ex) {
+            park(record, ex.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void park(JournalRecord record, String reason) {
+        try {
+            journal.park(record);
+        } catch (IOException parkFailure) {
+            // Leave the checkpoint where it is; the batch is retried instead of losing the trade
+            throw new UncheckedIOException("Could not park journaled trade " + record.tradeId(), parkFailure);
+        }
+        parkedCounter.increment();
+        log.error("Journaled trade {} for quote {} could not be projected and was parked at sequence {}: {}",
+                record.tradeId(), record.quoteId(), record.sequence(), reason);
+    }
+
+    private static Counter projectionCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("fxportal.trade-journal.projected")
+                .description("Journaled trades handled by the projector")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
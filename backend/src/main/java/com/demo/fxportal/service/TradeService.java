@@ -1,48 +1,66 @@
 package com.demo.fxportal.service;
 
+import com.demo.fxportal.diagnostics.ServerTiming;
 import com.demo.fxportal.dto.TradeRequest;
 import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.metrics.TradingMetrics.BookingOutcome;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
 import com.demo.fxportal.model.Quote;
 import com.demo.fxportal.model.Side;
 import com.demo.fxportal.model.Trade;
-import com.demo.fxportal.repository.QuoteRepository;
-import com.demo.fxportal.repository.TradeRepository;
-import jakarta.persistence.criteria.Predicate;
+import com.demo.fxportal.outbox.TradeOutbox;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeHistoryFilter;
+import com.demo.fxportal.repository.TradeStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TradeService {
 
-    private final TradeRepository tradeRepository;
-    private final QuoteRepository quoteRepository;
+    private final TradeStore tradeStore;
+    private final QuoteStore quoteStore;
+    private final TradingMetrics tradingMetrics;
+    private final TradeOutbox tradeOutbox;
+
+    static final String EXPIRED_MESSAGE = "Quote has expired";
+    static final String ALREADY_BOOKED_MESSAGE = "A trade has already been booked for this quote";
 
     @Transactional
-    public TradeResponse bookTrade(TradeRequest request) {
+    public ServiceResult<TradeResponse> bookTrade(TradeRequest request) {
+        long start = System.nanoTime();
         log.info("Booking trade for quote ID: {}", request.getQuoteId());
 
-        Quote quote = quoteRepository.findById(request.getQuoteId())
-                .orElseThrow(() -> new IllegalArgumentException("Quote not found: " + request.getQuoteId()));
+        Quote quote = quoteStore.findById(request.getQuoteId()).orElse(null);
+        ServerTiming.mark("quote-lookup");
+        if (quote == null) {
+            tradingMetrics.recordBooking(BookingOutcome.NOT_FOUND, start);
+            return ServiceResult.rejected(Rejection.QUOTE_NOT_FOUND, "Quote not found: " + request.getQuoteId());
+        }
 
         if (quote.isExpired()) {
-            throw new IllegalStateException("Quote has expired");
+            tradingMetrics.recordBooking(BookingOutcome.EXPIRED, start);
+            return ServiceResult.rejected(Rejection.QUOTE_EXPIRED, EXPIRED_MESSAGE);
         }
 
-        if (tradeRepository.existsByQuoteId(request.getQuoteId())) {
-            throw new IllegalStateException("A trade has already been booked for this quote");
+        if (tradeStore.existsByQuoteId(request.getQuoteId())) {
+            tradingMetrics.recordBooking(BookingOutcome.DUPLICATE, start);
+            return ServiceResult.rejected(Rejection.ALREADY_BOOKED, ALREADY_BOOKED_MESSAGE);
         }
+        ServerTiming.mark("duplicate-check");
 
         Trade trade = Trade.builder()
                 .quoteId(quote.getId())
@@ -53,10 +71,40 @@ public class TradeService {
                 .status(Trade.Status.BOOKED)
                 .build();
 
-        trade = tradeRepository.save(trade);
+        trade = tradeStore.save(trade);
+        tradeOutbox.tradesBooked(List.of(trade));
+        // The INSERT itself is flushed at commit, so it shows up in the controller's "commit" stage
+        ServerTiming.mark("insert");
         log.info("Trade booked with ID: {}", trade.getId());
+        LocalDateTime quoteCreatedAt = quote.getCreatedAt();
+        LocalDateTime bookedAt = trade.getBookedAt();
+        TradingMetrics.afterCommit(() -> {
+            tradingMetrics.recordBooking(BookingOutcome.BOOKED, start);
+            tradingMetrics.recordQuoteToBook(quoteCreatedAt, bookedAt);
+        });
+
+        return ServiceResult.success(TradeResponse.fromEntity(trade));
+    }
+
+    /** Settles or cancels a booked trade. Any other change, or a trade already moved on, is rejected. */
+    @Transactional
+    public ServiceResult<TradeResponse> changeStatus(UUID tradeId, Trade.Status status) {
+        Trade trade = tradeStore.findById(tradeId).orElse(null);
+        if (trade == null) {
+            return ServiceResult.rejected(Rejection.TRADE_NOT_FOUND, "Trade not found: " + tradeId);
+        }
 
-        return TradeResponse.fromEntity(trade);
+        Trade.Status previous = trade.getStatus();
+        // Conditional on the status just read, so of two concurrent changes only one wins
+        if (previous != Trade.Status.BOOKED || status == Trade.Status.BOOKED
+                || tradeStore.updateStatus(tradeId, previous, status) == 0) {
+            return ServiceResult.rejected(Rejection.INVALID_STATUS_CHANGE,
+                    "Trade cannot change from " + previous + " to " + status);
+        }
+        trade.setStatus(status);
+        tradeOutbox.statusChanged(trade, previous);
+        log.info("Trade {} changed from {} to {}", tradeId, previous, status);
+        return ServiceResult.success(TradeResponse.fromEntity(trade));
     }
 
     @Transactional(readOnly = true)
@@ -68,28 +116,23 @@ public class TradeService {
             Optional<LocalDateTime> toDate,
             Pageable pageable) {
 
-        Specification<Trade> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            currencyPair.ifPresent(cp ->
-                    predicates.add(criteriaBuilder.equal(root.get("currencyPair"), cp)));
-
-            side.ifPresent(s ->
-                    predicates.add(criteriaBuilder.equal(root.get("side"), s)));
+        long start = System.nanoTime();
+        int filterMask = TradingMetrics.historyFilterMask(currencyPair, side, status, fromDate, toDate);
 
-            status.ifPresent(st ->
-                    predicates.add(criteriaBuilder.equal(root.get("status"), st)));
-
-            fromDate.ifPresent(fd ->
-                    predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("bookedAt"), fd)));
-
-            toDate.ifPresent(td ->
-                    predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("bookedAt"), td)));
+        Optional<CurrencyPair> pair = currencyPair.flatMap(CurrencyPairRegistry::find);
+        if (currencyPair.isPresent() && pair.isEmpty()) {
+            // No trade can reference a pair that is not in the dictionary
+            tradingMetrics.recordHistoryQuery(filterMask, start);
+            return Page.empty(pageable);
+        }
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+        TradeHistoryFilter filter = new TradeHistoryFilter(pair.orElse(null), side.orElse(null),
+                status.orElse(null), fromDate.orElse(null), toDate.orElse(null));
 
-        return tradeRepository.findAll(spec, pageable)
+        Page<TradeResponse> trades = tradeStore.findHistory(filter, pageable)
                 .map(TradeResponse::fromEntity);
+        ServerTiming.mark("query");
+        tradingMetrics.recordHistoryQuery(filterMask, start);
+        return trades;
     }
 }
@@ -0,0 +1,27 @@
+package com.demo.fxportal.snapshot;
+
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Trade;
+
+import java.util.List;
+
+/**
+ * The quotes and trades of the in-memory stores at one point. A {@link Kind#FULL} snapshot holds
+ * everything; a {@link Kind#DELTA} holds what was saved or changed since the snapshot before it.
+ *
+ * @param generation     position in the snapshot chain, from 1
+ * @param quoteWatermark quote writes covered: every write the store had counted when it was taken
+ * @param tradeWatermark trade writes (bookings and status changes) covered, likewise
+ */
+public record StoreSnapshot(
+        Kind kind,
+        long generation,
+        long quoteWatermark,
+        long tradeWatermark,
+        List<Quote> quotes,
+        List<Trade> trades) {
+
+    public enum Kind {
+        FULL, DELTA
+    }
+}
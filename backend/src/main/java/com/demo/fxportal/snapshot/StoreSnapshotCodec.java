@@ -0,0 +1,190 @@
+package com.demo.fxportal.snapshot;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes {@link StoreSnapshot} files. All numbers are big-endian:
+ *
+ * <pre>
+ * header   i32 magic "FXSS", u8 version, u8 kind ordinal, i64 generation,
+ *          i64 quote watermark, i64 trade watermark, i32 quote count, i32 trade count
+ * quote    uuid id, i16 pair id, u8 side ordinal, decimal amount, decimal rate,
+ *          timestamp expires at, timestamp created at
+ * trade    uuid id, uuid quote id, i16 pair id, u8 side ordinal, u8 status ordinal,
+ *          decimal amount, decimal rate, timestamp booked at
+ * trailer  i64 CRC32C of everything before it
+ *
+ * decimal   i8 scale, u8 length, then the unscaled value in that many two's-complement bytes
+ * timestamp i64 epoch seconds, i32 nanos (the entities' wall-clock time, read as UTC)
+ * </pre>
+ *
+ * Decimals keep their scale and timestamps their nanos, so a restored entity equals the one
+ * written. The enum ordinals are part of the layout, as in the trade journal.
+ */
+public final class StoreSnapshotCodec {
+
+    private static final int MAGIC = 0x46585353;
+    private static final int VERSION = 1;
+
+    private StoreSnapshotCodec() {
+    }
+
+    /** Writes {@code snapshot} next to {@code file}, syncs it, and moves it into place. */
+    public static void write(Path file, StoreSnapshot snapshot) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        try (FileOutputStream stream = new FileOutputStream(partial.toFile())) {
+            CheckedOutputStream checked =
+                    new CheckedOutputStream(new BufferedOutputStream(stream, 1 << 16), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(snapshot.kind().ordinal());
+            out.writeLong(snapshot.generation());
+            out.writeLong(snapshot.quoteWatermark());
+            out.writeLong(snapshot.tradeWatermark());
+            out.writeInt(snapshot.quotes().size());
+            out.writeInt(snapshot.trades().size());
+            for (Quote quote : snapshot.quotes()) {
+                writeUuid(out, quote.getId());
+                out.writeShort(quote.getCurrencyPair().getId());
+                out.writeByte(quote.getSide().ordinal());
+                writeDecimal(out, quote.getAmount());
+                writeDecimal(out, quote.getRate());
+                writeTimestamp(out, quote.getExpiresAt());
+                writeTimestamp(out, quote.getCreatedAt());
+            }
+            for (Trade trade : snapshot.trades()) {
+                writeUuid(out, trade.getId());
+                writeUuid(out, trade.getQuoteId());
+                out.writeShort(trade.getCurrencyPair().getId());
+                out.writeByte(trade.getSide().ordinal());
+                out.writeByte(trade.getStatus().ordinal());
+                writeDecimal(out, trade.getAmount());
+                writeDecimal(out, trade.getRate());
+                writeTimestamp(out, trade.getBookedAt());
+            }
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            stream.getFD().sync();
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** @throws IOException if the file is not a snapshot, or is truncated or corrupt */
+    public static StoreSnapshot read(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            CheckedInputStream checked =
+                    new CheckedInputStream(new BufferedInputStream(stream, 1 << 16), new CRC32C());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a store snapshot");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException(file + " has snapshot version " + version + ", expected " + VERSION);
+            }
+            StoreSnapshot.Kind kind = StoreSnapshot.Kind.values()[in.readUnsignedByte()];
+            long generation = in.readLong();
+            long quoteWatermark = in.readLong();
+            long tradeWatermark = in.readLong();
+            int quoteCount = in.readInt();
+            int tradeCount = in.readInt();
+
+            List<Quote> quotes = new ArrayList<>(quoteCount);
+            for (int i = 0; i < quoteCount; i++) {
+                quotes.add(Quote.builder()
+                        .id(readUuid(in))
+                        .currencyPair(CurrencyPairRegistry.fromId(in.readShort()))
+                        .side(Side.values()[in.readUnsignedByte()])
+                        .amount(readDecimal(in))
+                        .rate(readDecimal(in))
+                        .expiresAt(readTimestamp(in))
+                        .createdAt(readTimestamp(in))
+                        .build());
+            }
+            List<Trade> trades = new ArrayList<>(tradeCount);
+            for (int i = 0; i < tradeCount; i++) {
+                trades.add(Trade.builder()
+                        .id(readUuid(in))
+                        .quoteId(readUuid(in))
+                        .currencyPair(CurrencyPairRegistry.fromId(in.readShort()))
+                        .side(Side.values()[in.readUnsignedByte()])
+                        .status(Trade.Status.values()[in.readUnsignedByte()])
+                        .amount(readDecimal(in))
+                        .rate(readDecimal(in))
+                        .bookedAt(readTimestamp(in))
+                        .build());
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException(file + " fails its checksum");
+            }
+            return new StoreSnapshot(kind, generation, quoteWatermark, tradeWatermark, quotes, trades);
+        } catch (EOFException ex) {
+            throw new IOException(file + " is truncated", ex);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException ex) {
+            throw new IOException(file + " is corrupt: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (value.scale() != (byte) value.scale() || unscaled.length > 255) {
+            throw new IllegalArgumentException("Decimal out of snapshot range: " + value);
+        }
+        out.writeByte(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readByte();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
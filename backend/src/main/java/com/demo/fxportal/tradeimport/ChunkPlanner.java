@@ -0,0 +1,80 @@
+package com.demo.fxportal.tradeimport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuts an import file into chunks of whole lines. A chunk ends at the first line break at or after
+ * {@code chunkBytes} past its start, so the cut is the same every time the same file is planned,
+ * which is what lets an interrupted import skip the chunks it already committed.
+ *
+ * <p>Planning reads the file once, sequentially, to number the lines: rejects are reported by line,
+ * and each chunk needs the number of its first one before the chunks are parsed in parallel.
+ */
+public final class ChunkPlanner {
+
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    private ChunkPlanner() {
+    }
+
+    /** Plans {@code file}, leaving out its first line when it is a header. */
+    public static List<ImportChunk> plan(Path file, int chunkBytes, boolean header) throws IOException {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        }
+        List<ImportChunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            byte[] bytes = buffer.array();
+            boolean inHeader = header;
+            long chunkStart = 0;
+            long chunkFirstLine = 1;
+            long target = header ? Long.MAX_VALUE : chunkBytes;
+            long line = 1;
+            long position = 0;
+            int read;
+            while ((read = channel.read(buffer.clear())) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] != '\n') {
+                        continue;
+                    }
+                    line++;
+                    long next = position + i + 1;
+                    if (inHeader) {
+                        inHeader = false;
+                        chunkStart = next;
+                        chunkFirstLine = line;
+                        target = next + chunkBytes;
+                    } else if (next >= target) {
+                        chunks.add(new ImportChunk(chunks.size(), chunkStart, next, chunkFirstLine));
+                        chunkStart = next;
+                        chunkFirstLine = line;
+                        target = next + chunkBytes;
+                    }
+                }
+                position += read;
+            }
+            if (!inHeader && position > chunkStart) {
+                chunks.add(new ImportChunk(chunks.size(), chunkStart, position, chunkFirstLine));
+            }
+        }
+        return chunks;
+    }
+
+    /** Reads the bytes of {@code chunk}; safe to call from several threads on one channel. */
+    public static byte[] read(FileChannel channel, ImportChunk chunk) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(chunk.length());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, chunk.start() + buffer.position()) < 0) {
+                throw new IOException("Import file ended inside chunk " + chunk.index());
+            }
+        }
+        return buffer.array();
+    }
+}
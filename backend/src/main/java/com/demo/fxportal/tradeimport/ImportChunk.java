@@ -0,0 +1,12 @@
+package com.demo.fxportal.tradeimport;
+
+/**
+ * Bytes {@code [start, end)} of an import file: whole lines, the first of which is line
+ * {@code firstLine} of the file, counting from 1.
+ */
+public record ImportChunk(int index, long start, long end, long firstLine) {
+
+    public int length() {
+        return Math.toIntExact(end - start);
+    }
+}
@@ -0,0 +1,20 @@
+package com.demo.fxportal.tradeimport;
+
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** A validated import line, ready to load, with the file line it came from. */
+public record ImportedTrade(long line,
+                            UUID tradeId,
+                            UUID quoteId,
+                            short currencyPairId,
+                            Side side,
+                            BigDecimal amount,
+                            BigDecimal rate,
+                            Trade.Status status,
+                            LocalDateTime bookedAt) {
+}
@@ -0,0 +1,29 @@
+package com.demo.fxportal.tradeimport;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+
+/** Import file formats, told apart by extension. Both hold one trade per line. */
+public enum TradeImportFormat {
+
+    /** Comma-separated values under a header line naming the columns. */
+    CSV,
+    /** One JSON object per line, with the field names of the API. */
+    NDJSON;
+
+    public static Optional<TradeImportFormat> of(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return Optional.of(CSV);
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return Optional.of(NDJSON);
+        }
+        return Optional.empty();
+    }
+
+    public boolean hasHeader() {
+        return this == CSV;
+    }
+}
@@ -0,0 +1,311 @@
+package com.demo.fxportal.tradeimport;
+
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.dto.TradeImportRow;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the lines of one import file into validated trades. Rows are checked with the same bean
+ * validation limits as quote requests and the {@code quotes} and {@code trades} columns, and the
+ * pair must be known to {@link CurrencyPairRegistry}. Thread-safe: workers share one parser.
+ *
+ * <p>A row without a trade or quote id gets one derived from the file and line, so loading the same
+ * line again, as a resumed import does, finds the trade it loaded before.
+ */
+public final class TradeImportParser {
+
+    private static final int MAX_REASON_LENGTH = 1000;
+    private static final List<String> REQUIRED_COLUMNS = List.of("currencyPair", "side", "amount", "rate", "bookedAt");
+
+    private final String importId;
+    private final TradeImportFormat format;
+    private final ObjectReader jsonReader;
+    private final Validator validator;
+    /** CSV only: the field of each column, {@code null} for columns that are ignored. */
+    private final String[] columns;
+
+    private TradeImportParser(String importId, TradeImportFormat format, String[] columns,
+                              ObjectMapper objectMapper, Validator validator) {
+        this.importId = importId;
+        this.format = format;
+        this.columns = columns;
+        this.jsonReader = objectMapper.readerFor(TradeImportRow.class);
+        this.validator = validator;
+    }
+
+    /**
+     * A parser for {@code file}, reading the header of a CSV file.
+     *
+     * @throws IllegalArgumentException if the CSV header lacks a required column
+     */
+    public static TradeImportParser open(String importId, Path file, TradeImportFormat format,
+                                         ObjectMapper objectMapper, Validator validator) throws IOException {
+        String[] columns = null;
+        if (format.hasHeader()) {
+            String header;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                header = reader.readLine();
+            }
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file has no header line");
+            }
+            columns = columns(header);
+        }
+        return new TradeImportParser(importId, format, columns, objectMapper, validator);
+    }
+
+    static String[] columns(String header) {
+        List<String> names = splitCsv(stripBom(header));
+        String[] columns = new String[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = field(names.get(i));
+        }
+        Set<String> present = Arrays.stream(columns).filter(Objects::nonNull).collect(Collectors.toSet());
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !present.contains(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header has no column for " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    /** Maps {@code trade_id}, {@code tradeId}, {@code Trade ID} and so on to the row field. */
+    private static String field(String column) {
+        String key = column.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+        return switch (key) {
+            case "tradeid", "id" -> "tradeId";
+            case "quoteid" -> "quoteId";
+            case "currencypair", "pair" -> "currencyPair";
+            case "side" -> "side";
+            case "amount" -> "amount";
+            case "rate" -> "rate";
+            case "status" -> "status";
+            case "bookedat" -> "bookedAt";
+            default -> null;
+        };
+    }
+
+    /** The trades of a chunk, and the lines rejected, with duplicates after the first rejected. */
+    public ParsedChunk parse(byte[] chunk, long firstLine) {
+        String text = new String(chunk, StandardCharsets.UTF_8);
+        List<ImportedTrade> trades = new ArrayList<>();
+        List<TradeImportReject> rejects = new ArrayList<>();
+        Map<UUID, Long> tradeLines = new HashMap<>();
+        Map<UUID, Long> quoteLines = new HashMap<>();
+        long line = firstLine;
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            String content = text.substring(start, end > start && text.charAt(end - 1) == '\r' ? end - 1 : end);
+            if (!content.isBlank()) {
+                try {
+                    ImportedTrade trade = toTrade(parseLine(content), line);
+                    Long earlier = tradeLines.putIfAbsent(trade.tradeId(), line);
+                    if (earlier != null) {
+                        rejects.add(new TradeImportReject(line, "Trade " + trade.tradeId() + " is already on line " + earlier));
+                    } else if ((earlier = quoteLines.putIfAbsent(trade.quoteId(), line)) != null) {
+                        rejects.add(new TradeImportReject(line, "Quote " + trade.quoteId() + " is already booked on line " + earlier));
+                    } else {
+                        trades.add(trade);
+                    }
+                } catch (IllegalArgumentException ex) {
+                    rejects.add(new TradeImportReject(line, truncate(ex.getMessage())));
+                }
+            }
+            line++;
+            start = end + 1;
+        }
+        return new ParsedChunk(trades, rejects);
+    }
+
+    /** @throws IllegalArgumentException with the reason the line cannot be read */
+    TradeImportRow parseLine(String line) {
+        return format == TradeImportFormat.CSV ? parseCsv(stripBom(line)) : parseJson(stripBom(line));
+    }
+
+    private TradeImportRow parseJson(String line) {
+        try {
+            TradeImportRow row = jsonReader.readValue(line);
+            if (row == null) {
+                throw new IllegalArgumentException("Malformed JSON: expected an object");
+            }
+            return row;
+        } catch (JsonMappingException ex) {
+            String path = ex.getPath().stream()
+                    .map(JsonMappingException.Reference::getFieldName)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining("."));
+            throw new IllegalArgumentException((path.isEmpty() ? "Malformed JSON: " : path + ": ") + ex.getOriginalMessage());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private TradeImportRow parseCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " columns but found " + values.size());
+        }
+        TradeImportRow row = new TradeImportRow();
+        for (int i = 0; i < columns.length; i++) {
+            String value = values.get(i).strip();
+            if (columns[i] == null || value.isEmpty()) {
+                continue;
+            }
+            switch (columns[i]) {
+                case "tradeId" -> row.setTradeId(uuid("tradeId", value));
+                case "quoteId" -> row.setQuoteId(uuid("quoteId", value));
+                case "currencyPair" -> row.setCurrencyPair(value);
+                case "side" -> row.setSide(side(value));
+                case "amount" -> row.setAmount(decimal("amount", value));
+                case "rate" -> row.setRate(decimal("rate", value));
+                case "status" -> row.setStatus(status(value));
+                case "bookedAt" -> row.setBookedAt(dateTime(value));
+                default -> throw new IllegalStateException("Unmapped column " + columns[i]);
+            }
+        }
+        return row;
+    }
+
+    private ImportedTrade toTrade(TradeImportRow row, long line) {
+        Set<ConstraintViolation<TradeImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.joining("; ")));
+        }
+        CurrencyPair pair = CurrencyPairRegistry.lookup(row.getCurrencyPair());
+        if (pair == null) {
+            throw new IllegalArgumentException("currencyPair: Unsupported currency pair: " + row.getCurrencyPair());
+        }
+        return new ImportedTrade(line,
+                row.getTradeId() != null ? row.getTradeId() : derivedId(line, "trade"),
+                row.getQuoteId() != null ? row.getQuoteId() : derivedId(line, "quote"),
+                pair.getId(),
+                row.getSide(),
+                row.getAmount(),
+                row.getRate(),
+                row.getStatus() != null ? row.getStatus() : Trade.Status.BOOKED,
+                row.getBookedAt());
+    }
+
+    private UUID derivedId(long line, String kind) {
+        return UUID.nameUUIDFromBytes((importId + ':' + line + ':' + kind).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Splits one CSV record; fields may be double-quoted, with {@code ""} for a quote inside. */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static UUID uuid(String field, String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(field + ": Not a UUID: " + value);
+        }
+    }
+
+    private static BigDecimal decimal(String field, String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(field + ": Not a number: " + value);
+        }
+    }
+
+    private static Side side(String value) {
+        try {
+            return Side.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("side: Side must be BUY or SELL: " + value);
+        }
+    }
+
+    private static Trade.Status status(String value) {
+        try {
+            return Trade.Status.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("status: Status must be BOOKED, SETTLED or CANCELLED: " + value);
+        }
+    }
+
+    private static LocalDateTime dateTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("bookedAt: Not an ISO date-time (yyyy-MM-dd'T'HH:mm:ss): " + value);
+        }
+    }
+
+    private static String stripBom(String text) {
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+
+    private static String truncate(String reason) {
+        return reason.length() <= MAX_REASON_LENGTH ? reason : reason.substring(0, MAX_REASON_LENGTH);
+    }
+
+    /** What {@link #parse} made of a chunk. */
+    public record ParsedChunk(List<ImportedTrade> trades, List<TradeImportReject> rejects) {
+    }
+}
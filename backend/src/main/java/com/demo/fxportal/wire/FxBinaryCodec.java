@@ -0,0 +1,277 @@
+package com.demo.fxportal.wire;
+
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ValidationErrorResponse;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.demo.fxportal.pricing.FixedPoint.AMOUNT_SCALE;
+import static com.demo.fxportal.pricing.FixedPoint.RATE_SCALE;
+
+/**
+ * Compact binary encoding of the API payloads, the alternative to JSON for high-volume clients.
+ *
+ * <p>A message is a schema version byte, a message type byte, then records. A record is a
+ * {@code u16} length, a presence bitmask of its non-null fields, and those fields in schema order:
+ * <ul>
+ *   <li>UUIDs as two longs; strings as a {@code u16} byte length plus UTF-8</li>
+ *   <li>enums by ordinal, so constants may only be appended</li>
+ *   <li>amounts and rates as unscaled longs at {@link com.demo.fxportal.pricing.FixedPoint#AMOUNT_SCALE}
+ *       and {@link com.demo.fxportal.pricing.FixedPoint#RATE_SCALE}, the column scales</li>
+ *   <li>timestamps as epoch microseconds of the local date-time read as UTC</li>
+ * </ul>
+ * Readers skip what is left of a record after the fields they know, so fields can be appended
+ * without bumping {@link #VERSION}. A trade page is a header record (page number, page size, total
+ * elements), a {@code i32} row count and one record per row. Integers are big-endian.
+ */
+public final class FxBinaryCodec {
+
+    public static final int VERSION = 1;
+
+    static final int QUOTE_REQUEST = 1;
+    static final int TRADE_REQUEST = 2;
+    static final int QUOTE_RESPONSE = 3;
+    static final int TRADE_RESPONSE = 4;
+    static final int TRADE_PAGE = 5;
+    static final int ERROR = 6;
+    static final int VALIDATION_ERROR = 7;
+
+    private static final Side[] SIDES = Side.values();
+    private static final Trade.Status[] STATUSES = Trade.Status.values();
+
+    private FxBinaryCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return type == QuoteRequest.class || type == TradeRequest.class
+                || type == QuoteResponse.class || type == TradeResponse.class
+                || Page.class.isAssignableFrom(type)
+                || type == ErrorResponse.class || type == ValidationErrorResponse.class;
+    }
+
+    /**
+     * Encodes one of the {@link #supports supported} payloads. Pages must hold {@link TradeResponse}s.
+     *
+     * @throws IllegalArgumentException if the payload is not supported
+     * @throws ArithmeticException if an amount or rate does not fit its fixed-point scale
+     */
+    public static byte[] encode(Object message) {
+        WireWriter out = new WireWriter(message instanceof Page<?> page ? 16 + page.getNumberOfElements() * 96 : 128);
+        out.u8(VERSION);
+        if (message instanceof QuoteRequest request) {
+            out.u8(QUOTE_REQUEST);
+            writeQuoteRequest(out, request);
+        } else if (message instanceof TradeRequest request) {
+            out.u8(TRADE_REQUEST);
+            out.beginRecord();
+            out.uuidField(request.getQuoteId());
+            out.endRecord();
+        } else if (message instanceof QuoteResponse response) {
+            out.u8(QUOTE_RESPONSE);
+            writeQuoteResponse(out, response);
+        } else if (message instanceof TradeResponse response) {
+            out.u8(TRADE_RESPONSE);
+            writeTradeResponse(out, response);
+        } else if (message instanceof Page<?> page) {
+            out.u8(TRADE_PAGE);
+            writeTradePage(out, page);
+        } else if (message instanceof ValidationErrorResponse error) {
+            out.u8(VALIDATION_ERROR);
+            writeValidationError(out, error);
+        } else if (message instanceof ErrorResponse error) {
+            out.u8(ERROR);
+            out.beginRecord();
+            out.intField(error.getStatus());
+            out.stringField(error.getMessage());
+            out.timestampField(error.getTimestamp());
+            out.endRecord();
+        } else {
+            throw new IllegalArgumentException("No binary encoding for " + message.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a message and checks it is of {@code type}.
+     *
+     * @throws IllegalArgumentException if the message is malformed, of another type or another version
+     * @throws java.nio.BufferUnderflowException if the message is truncated
+     */
+    public static <T> T decode(ByteBuffer in, Class<T> type) {
+        Object message = decode(in);
+        if (!type.isInstance(message)) {
+            throw new IllegalArgumentException("Expected " + type.getSimpleName()
+                    + " but the message holds " + message.getClass().getSimpleName());
+        }
+        return type.cast(message);
+    }
+
+    public static Object decode(ByteBuffer in) {
+        int version = Byte.toUnsignedInt(in.get());
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported schema version " + version);
+        }
+        int messageType = Byte.toUnsignedInt(in.get());
+        WireReader reader = new WireReader(in);
+        return switch (messageType) {
+            case QUOTE_REQUEST -> readQuoteRequest(reader);
+            case TRADE_REQUEST -> {
+                reader.beginRecord();
+                TradeRequest request = new TradeRequest(reader.uuidField());
+                reader.endRecord();
+                yield request;
+            }
+            case QUOTE_RESPONSE -> readQuoteResponse(reader);
+            case TRADE_RESPONSE -> readTradeResponse(reader);
+            case TRADE_PAGE -> readTradePage(reader);
+            case ERROR -> {
+                reader.beginRecord();
+                ErrorResponse error = new ErrorResponse(reader.intField(0), reader.stringField(),
+                        reader.timestampField());
+                reader.endRecord();
+                yield error;
+            }
+            case VALIDATION_ERROR -> readValidationError(reader);
+            default -> throw new IllegalArgumentException("Unknown message type " + messageType);
+        };
+    }
+
+    private static void writeQuoteRequest(WireWriter out, QuoteRequest request) {
+        out.beginRecord();
+        out.stringField(request.getCurrencyPair());
+        out.enumField(request.getSide());
+        out.fixedField(request.getAmount(), AMOUNT_SCALE);
+        out.endRecord();
+    }
+
+    private static QuoteRequest readQuoteRequest(WireReader in) {
+        in.beginRecord();
+        QuoteRequest request = new QuoteRequest(in.stringField(), in.enumField(SIDES), in.fixedField(AMOUNT_SCALE));
+        in.endRecord();
+        return request;
+    }
+
+    private static void writeQuoteResponse(WireWriter out, QuoteResponse response) {
+        out.beginRecord();
+        out.uuidField(response.getQuoteId());
+        out.stringField(response.getCurrencyPair());
+        out.enumField(response.getSide());
+        out.fixedField(response.getAmount(), AMOUNT_SCALE);
+        out.fixedField(response.getRate(), RATE_SCALE);
+        out.timestampField(response.getExpiresAt());
+        out.timestampField(response.getCreatedAt());
+        out.endRecord();
+    }
+
+    private static QuoteResponse readQuoteResponse(WireReader in) {
+        in.beginRecord();
+        QuoteResponse response = new QuoteResponse(in.uuidField(), in.stringField(), in.enumField(SIDES),
+                in.fixedField(AMOUNT_SCALE), in.fixedField(RATE_SCALE), in.timestampField(), in.timestampField());
+        in.endRecord();
+        return response;
+    }
+
+    private static void writeTradeResponse(WireWriter out, TradeResponse response) {
+        out.beginRecord();
+        out.uuidField(response.getTradeId());
+        out.uuidField(response.getQuoteId());
+        out.stringField(response.getCurrencyPair());
+        out.enumField(response.getSide());
+        out.fixedField(response.getAmount(), AMOUNT_SCALE);
+        out.fixedField(response.getRate(), RATE_SCALE);
+        out.enumField(response.getStatus());
+        out.timestampField(response.getBookedAt());
+        out.endRecord();
+    }
+
+    private static TradeResponse readTradeResponse(WireReader in) {
+        in.beginRecord();
+        TradeResponse response = new TradeResponse(in.uuidField(), in.uuidField(), in.stringField(),
+                in.enumField(SIDES), in.fixedField(AMOUNT_SCALE), in.fixedField(RATE_SCALE),
+                in.enumField(STATUSES), in.timestampField());
+        in.endRecord();
+        return response;
+    }
+
+    private static void writeTradePage(WireWriter out, Page<?> page) {
+        out.beginRecord();
+        out.intField(page.getPageable().isPaged() ? page.getNumber() : 0);
+        out.intField(page.getPageable().isPaged() ? page.getSize() : 0);
+        out.longField(page.getTotalElements());
+        out.endRecord();
+        List<?> rows = page.getContent();
+        out.i32(rows.size());
+        for (Object row : rows) {
+            if (!(row instanceof TradeResponse trade)) {
+                throw new IllegalArgumentException("No binary encoding for a page of "
+                        + row.getClass().getName());
+            }
+            writeTradeResponse(out, trade);
+        }
+    }
+
+    private static Page<TradeResponse> readTradePage(WireReader in) {
+        in.beginRecord();
+        int number = in.intField(0);
+        int size = in.intField(0);
+        long totalElements = in.longField(0);
+        in.endRecord();
+        int count = in.i32();
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative row count " + count);
+        }
+        List<TradeResponse> rows = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            rows.add(readTradeResponse(in));
+        }
+        Pageable pageable = size > 0 ? PageRequest.of(number, size) : Pageable.unpaged();
+        return new PageImpl<>(rows, pageable, totalElements);
+    }
+
+    private static void writeValidationError(WireWriter out, ValidationErrorResponse error) {
+        out.beginRecord();
+        out.intField(error.getStatus());
+        out.stringField(error.getMessage());
+        out.timestampField(error.getTimestamp());
+        out.endRecord();
+        Map<String, String> errors = error.getErrors() == null ? Map.of() : error.getErrors();
+        out.i32(errors.size());
+        for (Map.Entry<String, String> entry : errors.entrySet()) {
+            out.beginRecord();
+            out.stringField(entry.getKey());
+            out.stringField(entry.getValue());
+            out.endRecord();
+        }
+    }
+
+    private static ValidationErrorResponse readValidationError(WireReader in) {
+        in.beginRecord();
+        int status = in.intField(0);
+        String message = in.stringField();
+        LocalDateTime timestamp = in.timestampField();
+        in.endRecord();
+        int count = in.i32();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            in.beginRecord();
+            errors.put(in.stringField(), in.stringField());
+            in.endRecord();
+        }
+        return new ValidationErrorResponse(status, message, timestamp, errors);
+    }
+}
@@ -0,0 +1,55 @@
+package com.demo.fxportal.wire;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes {@link FxBinaryCodec} payloads as {@value #MEDIA_TYPE_VALUE}. Registered after
+ * the JSON converter, so clients get binary only when they ask for it in {@code Accept} or send it
+ * as {@code Content-Type}.
+ */
+public class FxBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-fx-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public FxBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return FxBinaryCodec.supports(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = inputMessage.getBody().readAllBytes();
+        try {
+            return FxBinaryCodec.decode(ByteBuffer.wrap(body), clazz);
+        } catch (IllegalArgumentException | BufferUnderflowException ex) {
+            throw new HttpMessageNotReadableException("Malformed " + MEDIA_TYPE_VALUE + " payload", ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object message, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body;
+        try {
+            body = FxBinaryCodec.encode(message);
+        } catch (IllegalArgumentException | ArithmeticException ex) {
+            throw new HttpMessageNotWritableException("Cannot encode " + message.getClass().getSimpleName()
+                    + " as " + MEDIA_TYPE_VALUE, ex);
+        }
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
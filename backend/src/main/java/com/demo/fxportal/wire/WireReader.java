@@ -0,0 +1,120 @@
+package com.demo.fxportal.wire;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Reads {@link FxBinaryCodec} records written by {@link WireWriter}. Absent fields read as
+ * {@code null}, and whatever follows the known fields of a record is skipped.
+ */
+final class WireReader {
+
+    private final ByteBuffer in;
+    private int recordEnd = -1;
+    private int field;
+    private int mask;
+
+    WireReader(ByteBuffer in) {
+        this.in = in;
+    }
+
+    void beginRecord() {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length < 1 || length > in.remaining()) {
+            throw new IllegalArgumentException("Record length " + length + " does not fit the "
+                    + in.remaining() + " remaining bytes");
+        }
+        recordEnd = in.position() + length;
+        mask = Byte.toUnsignedInt(in.get());
+        field = 0;
+    }
+
+    void endRecord() {
+        if (in.position() > recordEnd) {
+            throw new IllegalArgumentException("Record fields overran the record length");
+        }
+        in.position(recordEnd);
+        recordEnd = -1;
+    }
+
+    int u8() {
+        return Byte.toUnsignedInt(in.get());
+    }
+
+    int i32() {
+        return in.getInt();
+    }
+
+    long i64() {
+        return in.getLong();
+    }
+
+    int intField(int absent) {
+        return present() ? in.getInt() : absent;
+    }
+
+    long longField(long absent) {
+        return present() ? in.getLong() : absent;
+    }
+
+    UUID uuidField() {
+        return present() ? new UUID(in.getLong(), in.getLong()) : null;
+    }
+
+    String stringField() {
+        if (!present()) {
+            return null;
+        }
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds the remaining bytes");
+        }
+        if (!in.hasArray()) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    <E extends Enum<E>> E enumField(E[] values) {
+        if (!present()) {
+            return null;
+        }
+        int ordinal = u8();
+        if (ordinal >= values.length) {
+            throw new IllegalArgumentException("Unknown " + values.getClass().getComponentType().getSimpleName()
+                    + " ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    BigDecimal fixedField(int scale) {
+        return present() ? BigDecimal.valueOf(in.getLong(), scale) : null;
+    }
+
+    LocalDateTime timestampField() {
+        if (!present()) {
+            return null;
+        }
+        long micros = in.getLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    boolean hasRemaining() {
+        return in.hasRemaining();
+    }
+
+    private boolean present() {
+        boolean present = (mask & (1 << field)) != 0;
+        field++;
+        return present;
+    }
+}
@@ -0,0 +1,138 @@
+package com.demo.fxportal.wire;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Growable big-endian buffer that writes {@link FxBinaryCodec} records. Each field writer takes
+ * the next slot of the current record's presence mask and writes nothing for a {@code null}.
+ */
+final class WireWriter {
+
+    private byte[] buf;
+    private int pos;
+    private int recordStart = -1;
+    private int field;
+    private int mask;
+
+    WireWriter(int initialCapacity) {
+        buf = new byte[initialCapacity];
+    }
+
+    void beginRecord() {
+        if (recordStart >= 0) {
+            throw new IllegalStateException("Records do not nest");
+        }
+        ensure(3);
+        recordStart = pos;
+        pos += 3;
+        field = 0;
+        mask = 0;
+    }
+
+    void endRecord() {
+        int length = pos - recordStart - 2;
+        if (length > 0xFFFF) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds the u16 length prefix");
+        }
+        buf[recordStart] = (byte) (length >>> 8);
+        buf[recordStart + 1] = (byte) length;
+        buf[recordStart + 2] = (byte) mask;
+        recordStart = -1;
+    }
+
+    void u8(int value) {
+        ensure(1);
+        buf[pos++] = (byte) value;
+    }
+
+    void i32(int value) {
+        ensure(4);
+        buf[pos++] = (byte) (value >>> 24);
+        buf[pos++] = (byte) (value >>> 16);
+        buf[pos++] = (byte) (value >>> 8);
+        buf[pos++] = (byte) value;
+    }
+
+    void i64(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buf[pos++] = (byte) (value >>> shift);
+        }
+    }
+
+    void intField(int value) {
+        present(true);
+        i32(value);
+    }
+
+    void longField(long value) {
+        present(true);
+        i64(value);
+    }
+
+    void uuidField(UUID value) {
+        if (present(value != null)) {
+            i64(value.getMostSignificantBits());
+            i64(value.getLeastSignificantBits());
+        }
+    }
+
+    void stringField(String value) {
+        if (present(value != null)) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("String of " + bytes.length + " bytes exceeds the u16 length prefix");
+            }
+            ensure(2 + bytes.length);
+            buf[pos++] = (byte) (bytes.length >>> 8);
+            buf[pos++] = (byte) bytes.length;
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+    }
+
+    void enumField(Enum<?> value) {
+        if (present(value != null)) {
+            u8(value.ordinal());
+        }
+    }
+
+    /** Writes {@code value} as an unscaled long; throws {@link ArithmeticException} if it does not fit {@code scale}. */
+    void fixedField(BigDecimal value, int scale) {
+        if (present(value != null)) {
+            i64(value.movePointRight(scale).longValueExact());
+        }
+    }
+
+    void timestampField(LocalDateTime value) {
+        if (present(value != null)) {
+            i64(value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000);
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    private boolean present(boolean present) {
+        if (field == 8) {
+            throw new IllegalStateException("A record holds at most 8 fields");
+        }
+        if (present) {
+            mask |= 1 << field;
+        }
+        field++;
+        return present;
+    }
+
+    private void ensure(int bytes) {
+        if (pos + bytes > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + bytes));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Archive for expired quotes that were never booked.
+-- Rows are moved here by the quote reaper so the hot quotes table only holds
+-- live or booked quotes.
+CREATE TABLE quotes_archive (
+    id UUID PRIMARY KEY,
+    currency_pair VARCHAR(10) NOT NULL,
+    side VARCHAR(4) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    rate DECIMAL(19, 6) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_quotes_archive_archived_at ON quotes_archive(archived_at);
@@ -0,0 +1,91 @@
+-- Dictionary-encode currency pairs: quotes, trades and the archive store a SMALLINT id
+-- instead of the XXX/YYY string. Ids of supported pairs are base * 32 + quote, where
+-- base and quote are positions in CurrencyIndex.CODES, and must never change.
+CREATE TABLE currency_pairs (
+    id SMALLINT PRIMARY KEY,
+    symbol VARCHAR(10) NOT NULL UNIQUE
+);
+
+INSERT INTO currency_pairs (id, symbol) VALUES
+    (1, 'USD/EUR'), (2, 'USD/GBP'), (3, 'USD/JPY'), (4, 'USD/CHF'), (5, 'USD/AUD'), (6, 'USD/CAD'),
+    (7, 'USD/NZD'), (8, 'USD/SEK'), (9, 'USD/NOK'), (10, 'USD/DKK'), (11, 'USD/SGD'), (12, 'USD/HKD'),
+    (13, 'USD/CNY'), (14, 'USD/MXN'), (15, 'USD/ZAR'), (16, 'USD/PLN'), (32, 'EUR/USD'), (34, 'EUR/GBP'),
+    (35, 'EUR/JPY'), (36, 'EUR/CHF'), (37, 'EUR/AUD'), (38, 'EUR/CAD'), (39, 'EUR/NZD'), (40, 'EUR/SEK'),
+    (41, 'EUR/NOK'), (42, 'EUR/DKK'), (43, 'EUR/SGD'), (44, 'EUR/HKD'), (45, 'EUR/CNY'), (46, 'EUR/MXN'),
+    (47, 'EUR/ZAR'), (48, 'EUR/PLN'), (64, 'GBP/USD'), (65, 'GBP/EUR'), (67, 'GBP/JPY'), (68, 'GBP/CHF'),
+    (69, 'GBP/AUD'), (70, 'GBP/CAD'), (71, 'GBP/NZD'), (72, 'GBP/SEK'), (73, 'GBP/NOK'), (74, 'GBP/DKK'),
+    (75, 'GBP/SGD'), (76, 'GBP/HKD'), (77, 'GBP/CNY'), (78, 'GBP/MXN'), (79, 'GBP/ZAR'), (80, 'GBP/PLN'),
+    (96, 'JPY/USD'), (97, 'JPY/EUR'), (98, 'JPY/GBP'), (100, 'JPY/CHF'), (101, 'JPY/AUD'), (102, 'JPY/CAD'),
+    (103, 'JPY/NZD'), (104, 'JPY/SEK'), (105, 'JPY/NOK'), (106, 'JPY/DKK'), (107, 'JPY/SGD'), (108, 'JPY/HKD'),
+    (109, 'JPY/CNY'), (110, 'JPY/MXN'), (111, 'JPY/ZAR'), (112, 'JPY/PLN'), (128, 'CHF/USD'), (129, 'CHF/EUR'),
+    (130, 'CHF/GBP'), (131, 'CHF/JPY'), (133, 'CHF/AUD'), (134, 'CHF/CAD'), (135, 'CHF/NZD'), (136, 'CHF/SEK'),
+    (137, 'CHF/NOK'), (138, 'CHF/DKK'), (139, 'CHF/SGD'), (140, 'CHF/HKD'), (141, 'CHF/CNY'), (142, 'CHF/MXN'),
+    (143, 'CHF/ZAR'), (144, 'CHF/PLN'), (160, 'AUD/USD'), (161, 'AUD/EUR'), (162, 'AUD/GBP'), (163, 'AUD/JPY'),
+    (164, 'AUD/CHF'), (166, 'AUD/CAD'), (167, 'AUD/NZD'), (168, 'AUD/SEK'), (169, 'AUD/NOK'), (170, 'AUD/DKK'),
+    (171, 'AUD/SGD'), (172, 'AUD/HKD'), (173, 'AUD/CNY'), (174, 'AUD/MXN'), (175, 'AUD/ZAR'), (176, 'AUD/PLN'),
+    (192, 'CAD/USD'), (193, 'CAD/EUR'), (194, 'CAD/GBP'), (195, 'CAD/JPY'), (196, 'CAD/CHF'), (197, 'CAD/AUD'),
+    (199, 'CAD/NZD'), (200, 'CAD/SEK'), (201, 'CAD/NOK'), (202, 'CAD/DKK'), (203, 'CAD/SGD'), (204, 'CAD/HKD'),
+    (205, 'CAD/CNY'), (206, 'CAD/MXN'), (207, 'CAD/ZAR'), (208, 'CAD/PLN'), (224, 'NZD/USD'), (225, 'NZD/EUR'),
+    (226, 'NZD/GBP'), (227, 'NZD/JPY'), (228, 'NZD/CHF'), (229, 'NZD/AUD'), (230, 'NZD/CAD'), (232, 'NZD/SEK'),
+    (233, 'NZD/NOK'), (234, 'NZD/DKK'), (235, 'NZD/SGD'), (236, 'NZD/HKD'), (237, 'NZD/CNY'), (238, 'NZD/MXN'),
+    (239, 'NZD/ZAR'), (240, 'NZD/PLN'), (256, 'SEK/USD'), (257, 'SEK/EUR'), (258, 'SEK/GBP'), (259, 'SEK/JPY'),
+    (260, 'SEK/CHF'), (261, 'SEK/AUD'), (262, 'SEK/CAD'), (263, 'SEK/NZD'), (265, 'SEK/NOK'), (266, 'SEK/DKK'),
+    (267, 'SEK/SGD'), (268, 'SEK/HKD'), (269, 'SEK/CNY'), (270, 'SEK/MXN'), (271, 'SEK/ZAR'), (272, 'SEK/PLN'),
+    (288, 'NOK/USD'), (289, 'NOK/EUR'), (290, 'NOK/GBP'), (291, 'NOK/JPY'), (292, 'NOK/CHF'), (293, 'NOK/AUD'),
+    (294, 'NOK/CAD'), (295, 'NOK/NZD'), (296, 'NOK/SEK'), (298, 'NOK/DKK'), (299, 'NOK/SGD'), (300, 'NOK/HKD'),
+    (301, 'NOK/CNY'), (302, 'NOK/MXN'), (303, 'NOK/ZAR'), (304, 'NOK/PLN'), (320, 'DKK/USD'), (321, 'DKK/EUR'),
+    (322, 'DKK/GBP'), (323, 'DKK/JPY'), (324, 'DKK/CHF'), (325, 'DKK/AUD'), (326, 'DKK/CAD'), (327, 'DKK/NZD'),
+    (328, 'DKK/SEK'), (329, 'DKK/NOK'), (331, 'DKK/SGD'), (332, 'DKK/HKD'), (333, 'DKK/CNY'), (334, 'DKK/MXN'),
+    (335, 'DKK/ZAR'), (336, 'DKK/PLN'), (352, 'SGD/USD'), (353, 'SGD/EUR'), (354, 'SGD/GBP'), (355, 'SGD/JPY'),
+    (356, 'SGD/CHF'), (357, 'SGD/AUD'), (358, 'SGD/CAD'), (359, 'SGD/NZD'), (360, 'SGD/SEK'), (361, 'SGD/NOK'),
+    (362, 'SGD/DKK'), (364, 'SGD/HKD'), (365, 'SGD/CNY'), (366, 'SGD/MXN'), (367, 'SGD/ZAR'), (368, 'SGD/PLN'),
+    (384, 'HKD/USD'), (385, 'HKD/EUR'), (386, 'HKD/GBP'), (387, 'HKD/JPY'), (388, 'HKD/CHF'), (389, 'HKD/AUD'),
+    (390, 'HKD/CAD'), (391, 'HKD/NZD'), (392, 'HKD/SEK'), (393, 'HKD/NOK'), (394, 'HKD/DKK'), (395, 'HKD/SGD'),
+    (397, 'HKD/CNY'), (398, 'HKD/MXN'), (399, 'HKD/ZAR'), (400, 'HKD/PLN'), (416, 'CNY/USD'), (417, 'CNY/EUR'),
+    (418, 'CNY/GBP'), (419, 'CNY/JPY'), (420, 'CNY/CHF'), (421, 'CNY/AUD'), (422, 'CNY/CAD'), (423, 'CNY/NZD'),
+    (424, 'CNY/SEK'), (425, 'CNY/NOK'), (426, 'CNY/DKK'), (427, 'CNY/SGD'), (428, 'CNY/HKD'), (430, 'CNY/MXN'),
+    (431, 'CNY/ZAR'), (432, 'CNY/PLN'), (448, 'MXN/USD'), (449, 'MXN/EUR'), (450, 'MXN/GBP'), (451, 'MXN/JPY'),
+    (452, 'MXN/CHF'), (453, 'MXN/AUD'), (454, 'MXN/CAD'), (455, 'MXN/NZD'), (456, 'MXN/SEK'), (457, 'MXN/NOK'),
+    (458, 'MXN/DKK'), (459, 'MXN/SGD'), (460, 'MXN/HKD'), (461, 'MXN/CNY'), (463, 'MXN/ZAR'), (464, 'MXN/PLN'),
+    (480, 'ZAR/USD'), (481, 'ZAR/EUR'), (482, 'ZAR/GBP'), (483, 'ZAR/JPY'), (484, 'ZAR/CHF'), (485, 'ZAR/AUD'),
+    (486, 'ZAR/CAD'), (487, 'ZAR/NZD'), (488, 'ZAR/SEK'), (489, 'ZAR/NOK'), (490, 'ZAR/DKK'), (491, 'ZAR/SGD'),
+    (492, 'ZAR/HKD'), (493, 'ZAR/CNY'), (494, 'ZAR/MXN'), (496, 'ZAR/PLN'), (512, 'PLN/USD'), (513, 'PLN/EUR'),
+    (514, 'PLN/GBP'), (515, 'PLN/JPY'), (516, 'PLN/CHF'), (517, 'PLN/AUD'), (518, 'PLN/CAD'), (519, 'PLN/NZD'),
+    (520, 'PLN/SEK'), (521, 'PLN/NOK'), (522, 'PLN/DKK'), (523, 'PLN/SGD'), (524, 'PLN/HKD'), (525, 'PLN/CNY'),
+    (526, 'PLN/MXN'), (527, 'PLN/ZAR');
+
+-- Pairs already stored that are outside the supported universe keep an id from 1024 up
+INSERT INTO currency_pairs (id, symbol)
+SELECT 1023 + ROW_NUMBER() OVER (ORDER BY legacy.symbol), legacy.symbol
+FROM (
+    SELECT currency_pair AS symbol FROM quotes
+    UNION
+    SELECT currency_pair FROM trades
+    UNION
+    SELECT currency_pair FROM quotes_archive
+) legacy
+WHERE legacy.symbol NOT IN (SELECT symbol FROM currency_pairs);
+
+-- quotes
+ALTER TABLE quotes ADD COLUMN currency_pair_id SMALLINT;
+UPDATE quotes q SET currency_pair_id = cp.id FROM currency_pairs cp WHERE cp.symbol = q.currency_pair;
+ALTER TABLE quotes ALTER COLUMN currency_pair_id SET NOT NULL;
+ALTER TABLE quotes ADD CONSTRAINT fk_quotes_currency_pair
+    FOREIGN KEY (currency_pair_id) REFERENCES currency_pairs(id);
+ALTER TABLE quotes DROP COLUMN currency_pair;
+
+-- trades
+ALTER TABLE trades ADD COLUMN currency_pair_id SMALLINT;
+UPDATE trades t SET currency_pair_id = cp.id FROM currency_pairs cp WHERE cp.symbol = t.currency_pair;
+ALTER TABLE trades ALTER COLUMN currency_pair_id SET NOT NULL;
+ALTER TABLE trades ADD CONSTRAINT fk_trades_currency_pair
+    FOREIGN KEY (currency_pair_id) REFERENCES currency_pairs(id);
+DROP INDEX idx_trades_currency_pair;
+ALTER TABLE trades DROP COLUMN currency_pair;
+CREATE INDEX idx_trades_currency_pair_id ON trades(currency_pair_id);
+
+-- quotes_archive
+ALTER TABLE quotes_archive ADD COLUMN currency_pair_id SMALLINT;
+UPDATE quotes_archive a SET currency_pair_id = cp.id FROM currency_pairs cp WHERE cp.symbol = a.currency_pair;
+ALTER TABLE quotes_archive ALTER COLUMN currency_pair_id SET NOT NULL;
+ALTER TABLE quotes_archive DROP COLUMN currency_pair;
@@ -0,0 +1,10 @@
+-- Trade events waiting for the outbox relay. Rows are written in the same transaction as the
+-- trade change they describe and deleted once the publisher has accepted them. Events of one
+-- trade commit one after another, so id order is their publication order.
+CREATE TABLE trade_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    trade_id UUID NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
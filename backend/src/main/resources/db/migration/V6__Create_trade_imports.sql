@@ -0,0 +1,27 @@
+-- Bulk trade imports. A file is loaded in chunks of whole lines; each chunk commits together with
+-- its row in trade_import_chunks and its rejected lines, so an interrupted import resumes at the
+-- first chunk without a row.
+CREATE TABLE trade_imports (
+    id VARCHAR(255) PRIMARY KEY,
+    file_size BIGINT NOT NULL,
+    chunk_bytes INTEGER NOT NULL,
+    chunks INTEGER NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
+CREATE TABLE trade_import_chunks (
+    import_id VARCHAR(255) NOT NULL REFERENCES trade_imports(id),
+    chunk INTEGER NOT NULL,
+    loaded INTEGER NOT NULL,
+    rejected INTEGER NOT NULL,
+    loaded_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (import_id, chunk)
+);
+
+CREATE TABLE trade_import_rejects (
+    import_id VARCHAR(255) NOT NULL REFERENCES trade_imports(id),
+    line BIGINT NOT NULL,
+    reason VARCHAR(1000) NOT NULL,
+    PRIMARY KEY (import_id, line)
+);
@@ -0,0 +1,10 @@
+-- One index per sort field trade history accepts (TradeHistorySort), on the field and then id,
+-- the tie-breaker every history statement orders by, so a page is read in index order.
+-- Built CONCURRENTLY so bookings keep writing to trades meanwhile, which Postgres only allows
+-- outside a transaction (see the .conf file). The booked_at index replaces idx_trades_booked_at
+-- only once it exists, so the default history sort is never left without one. A failed build
+-- leaves an INVALID index behind: drop it and repair the schema history before migrating again.
+CREATE INDEX CONCURRENTLY idx_trades_booked_at_id ON trades(booked_at, id);
+CREATE INDEX CONCURRENTLY idx_trades_amount_id ON trades(amount, id);
+CREATE INDEX CONCURRENTLY idx_trades_rate_id ON trades(rate, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_trades_booked_at;
@@ -0,0 +1,3 @@
+-- The import file's last-modified time when its import started, in epoch millis. A resume refuses
+-- a file whose size or modification time has changed. Imports started before this column have none.
+ALTER TABLE trade_imports ADD COLUMN file_modified_millis BIGINT;
@@ -0,0 +1,163 @@
+package com.demo.fxportal.concurrency;
+
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class DbConcurrencyLimiterTest {
+
+    private DbConcurrencyProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DbConcurrencyProperties();
+        properties.setPermits(1);
+        properties.setBookingMaxQueueTime(Duration.ofMillis(50));
+        properties.setQuoteInsertMaxQueueTime(Duration.ofMillis(50));
+        properties.setHistoryReadMaxQueueTime(Duration.ofMillis(50));
+        properties.setBackgroundMaxQueueTime(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void call_whenPermitsExhausted_shouldShedAfterMaxQueueTime() throws Exception {
+        // Given
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(properties, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = hold(limiter, DbOperation.BOOKING, release);
+
+        // When & Then
+        assertThatThrownBy(() -> limiter.call(DbOperation.BOOKING, () -> "booked"))
+                .isInstanceOf(DbCapacityExceededException.class)
+                .extracting("operation").isEqualTo(DbOperation.BOOKING);
+        assertThat(meterRegistry.get("fxportal.admission.shed")
+                .tags("operation", "booking", "reason", "queue-time").counter().count())
+                .isEqualTo(1.0);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(limiter.call(DbOperation.BOOKING, () -> "booked")).isEqualTo("booked");
+    }
+
+    @Test
+    void call_whenPermitFrees_shouldGrantQueuedBookingBeforeEarlierQuoteHistoryAndBackground() throws Exception {
+        // Given
+        properties.setBookingMaxQueueTime(Duration.ofSeconds(5));
+        properties.setQuoteInsertMaxQueueTime(Duration.ofSeconds(5));
+        properties.setHistoryReadMaxQueueTime(Duration.ofSeconds(5));
+        properties.setBackgroundMaxQueueTime(Duration.ofSeconds(5));
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(properties, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = hold(limiter, DbOperation.HISTORY_READ, release);
+
+        List<DbOperation> admitted = new CopyOnWriteArrayList<>();
+        Future<?> background = executor.submit(() -> limiter.call(DbOperation.BACKGROUND, () -> admitted.add(DbOperation.BACKGROUND)));
+        awaitQueued("background");
+        Future<?> history = executor.submit(() -> limiter.call(DbOperation.HISTORY_READ, () -> admitted.add(DbOperation.HISTORY_READ)));
+        awaitQueued("history_read");
+        Future<?> quote = executor.submit(() -> limiter.call(DbOperation.QUOTE_INSERT, () -> admitted.add(DbOperation.QUOTE_INSERT)));
+        awaitQueued("quote_insert");
+        Future<?> booking = executor.submit(() -> limiter.call(DbOperation.BOOKING, () -> admitted.add(DbOperation.BOOKING)));
+        awaitQueued("booking");
+
+        // When
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        booking.get(5, TimeUnit.SECONDS);
+        quote.get(5, TimeUnit.SECONDS);
+        history.get(5, TimeUnit.SECONDS);
+        background.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(admitted).containsExactly(DbOperation.BOOKING, DbOperation.QUOTE_INSERT, DbOperation.HISTORY_READ,
+                DbOperation.BACKGROUND);
+    }
+
+    @Test
+    void call_whenOperationAtItsCap_shouldStillAdmitOtherOperations() throws Exception {
+        // Given
+        properties.setPermits(2);
+        properties.setHistoryReads(1);
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(properties, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = hold(limiter, DbOperation.HISTORY_READ, release);
+
+        // When & Then
+        assertThatThrownBy(() -> limiter.call(DbOperation.HISTORY_READ, () -> "history"))
+                .isInstanceOf(DbCapacityExceededException.class);
+        assertThat(limiter.call(DbOperation.BOOKING, () -> "booked")).isEqualTo("booked");
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void call_whenWorkThrows_shouldReleasePermit() {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(properties, meterRegistry);
+
+        assertThatThrownBy(() -> limiter.call(DbOperation.BOOKING, () -> {
+            throw new IllegalStateException("Quote has expired");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(limiter.call(DbOperation.BOOKING, () -> "booked")).isEqualTo("booked");
+        assertThat(meterRegistry.get("fxportal.db.permit.available").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void call_whenDisabled_shouldNotLimit() {
+        properties.setEnabled(false);
+        properties.setPermits(0);
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(properties, meterRegistry);
+
+        assertThat(limiter.call(DbOperation.BOOKING, () -> "booked")).isEqualTo("booked");
+    }
+
+    private Future<?> hold(DbConcurrencyLimiter limiter, DbOperation operation, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch holding = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> limiter.call(operation, () -> {
+            holding.countDown();
+            awaitLatch(release);
+            return null;
+        }));
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+        return holder;
+    }
+
+    private void awaitQueued(String operation) {
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("fxportal.db.permit.queued").tag("operation", operation).gauge().value() == 1.0);
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.demo.fxportal.concurrency;
+
+import com.demo.fxportal.config.QuoteRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuoteRateLimiterTest {
+
+    private QuoteRateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new QuoteRateLimitProperties();
+        properties.setCapacity(2);
+        properties.setRefillPerSecond(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void preHandle_whenBucketEmpty_shouldRejectWithTimeUntilNextToken() {
+        // Given
+        QuoteRateLimiter limiter = new QuoteRateLimiter(properties, meterRegistry);
+
+        // When
+        limiter.preHandle(quoteRequest("10.0.0.1"), new MockHttpServletResponse(), new Object());
+        limiter.preHandle(quoteRequest("10.0.0.1"), new MockHttpServletResponse(), new Object());
+
+        // Then
+        assertThatThrownBy(() -> limiter.preHandle(quoteRequest("10.0.0.1"), new MockHttpServletResponse(), new Object()))
+                .isInstanceOf(RateLimitExceededException.class)
+                .satisfies(ex -> assertThat(((RateLimitExceededException) ex).getRetryAfter())
+                        .isPositive()
+                        .isLessThanOrEqualTo(Duration.ofSeconds(1)));
+        assertThat(meterRegistry.get("fxportal.admission.shed")
+                .tags("operation", "quote_insert", "reason", "rate-limit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void preHandle_shouldKeepSeparateBucketsPerRemoteAddressAndPrincipal() {
+        QuoteRateLimiter limiter = new QuoteRateLimiter(properties, meterRegistry);
+        for (int i = 0; i < 2; i++) {
+            limiter.preHandle(quoteRequest("10.0.0.1"), new MockHttpServletResponse(), new Object());
+        }
+
+        MockHttpServletRequest authenticated = quoteRequest("10.0.0.1");
+        authenticated.setUserPrincipal(() -> "desk-1");
+
+        assertThat(limiter.preHandle(quoteRequest("10.0.0.2"), new MockHttpServletResponse(), new Object())).isTrue();
+        assertThat(limiter.preHandle(authenticated, new MockHttpServletResponse(), new Object())).isTrue();
+    }
+
+    @Test
+    void preHandle_shouldNotLetAClientPickItsBucketWithAHeader() {
+        // Given
+        QuoteRateLimiter limiter = new QuoteRateLimiter(properties, meterRegistry);
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = quoteRequest("10.0.0.1");
+            request.addHeader("X-Client-Id", "desk-" + i);
+            limiter.preHandle(request, new MockHttpServletResponse(), new Object());
+        }
+        MockHttpServletRequest rotated = quoteRequest("10.0.0.1");
+        rotated.addHeader("X-Client-Id", "desk-2");
+
+        // Then
+        assertThatThrownBy(() -> limiter.preHandle(rotated, new MockHttpServletResponse(), new Object()))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void acquire_shouldDropTheLeastRecentlySeenClientPastTheCap() {
+        // Given
+        properties.setMaxClients(2);
+        QuoteRateLimiter limiter = new QuoteRateLimiter(properties, meterRegistry);
+        limiter.acquire("10.0.0.1");
+        limiter.acquire("10.0.0.1");
+        limiter.acquire("10.0.0.2");
+        assertThatThrownBy(() -> limiter.acquire("10.0.0.1")).isInstanceOf(RateLimitExceededException.class);
+
+        // When
+        limiter.acquire("10.0.0.3");
+
+        // Then 10.0.0.2 was seen least recently, so 10.0.0.1 keeps its empty bucket
+        assertThatThrownBy(() -> limiter.acquire("10.0.0.1")).isInstanceOf(RateLimitExceededException.class);
+        for (int i = 4; i < 100; i++) {
+            limiter.acquire("10.0.0." + i);
+        }
+        assertThat(limiter.trackedClients()).isEqualTo(2);
+        assertThat(limiter.preHandle(quoteRequest("10.0.0.1"), new MockHttpServletResponse(), new Object())).isTrue();
+    }
+
+    @Test
+    void preHandle_shouldIgnoreNonPostRequestsAndDisabledLimiter() {
+        QuoteRateLimiter limiter = new QuoteRateLimiter(properties, meterRegistry);
+        MockHttpServletRequest options = quoteRequest("10.0.0.1");
+        options.setMethod("OPTIONS");
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.preHandle(options, new MockHttpServletResponse(), new Object())).isTrue();
+        }
+
+        properties.setEnabled(false);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.preHandle(quoteRequest("10.0.0.1"), new MockHttpServletResponse(), new Object())).isTrue();
+        }
+    }
+
+    @Test
+    void tokenBucket_shouldRefillOverTime() {
+        long start = 0;
+        TokenBucket bucket = new TokenBucket(1, 10, start);
+
+        assertThat(bucket.tryConsume(start)).isZero();
+        assertThat(bucket.tryConsume(start)).isEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(bucket.tryConsume(start + Duration.ofMillis(100).toNanos())).isZero();
+        assertThat(bucket.tryConsume(start + Duration.ofSeconds(10).toNanos())).isZero();
+        assertThat(bucket.tryConsume(start + Duration.ofSeconds(10).toNanos())).isPositive();
+    }
+
+    private static MockHttpServletRequest quoteRequest(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/quotes");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
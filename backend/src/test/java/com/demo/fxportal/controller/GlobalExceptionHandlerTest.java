@@ -1,5 +1,8 @@
 package com.demo.fxportal.controller;
 
+import com.demo.fxportal.concurrency.DbCapacityExceededException;
+import com.demo.fxportal.concurrency.DbOperation;
+import com.demo.fxportal.concurrency.RateLimitExceededException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.web.servlet.MockMvc;
@@ -7,6 +10,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -35,6 +40,16 @@ class GlobalExceptionHandlerTest {
             throw new IllegalStateException("Quote has expired");
         }
 
+        @GetMapping("/test/db-capacity")
+        public void throwDbCapacityExceeded() {
+            throw new DbCapacityExceededException(DbOperation.BOOKING);
+        }
+
+        @GetMapping("/test/rate-limited")
+        public void throwRateLimitExceeded() {
+            throw new RateLimitExceededException(Duration.ofMillis(1500));
+        }
+
         @GetMapping("/test/server-error")
         public void throwGenericException() {
             throw new RuntimeException("Unexpected database error");
@@ -50,6 +65,15 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @Test
+    void handleDbCapacityExceededException_shouldReturn503WithRetryAfter() throws Exception {
+        mockMvc.perform(get("/test/db-capacity"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.message").value("Too many concurrent booking requests, try again shortly"));
+    }
+
     @Test
     void handleIllegalStateException_shouldReturn409WithMessage() throws Exception {
         mockMvc.perform(get("/test/conflict"))
@@ -75,4 +99,12 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.message").value("An unexpected error occurred"));
         // Ensures the actual exception message ("Unexpected database error") is not exposed
     }
+
+    @Test
+    void handleRateLimitExceededException_shouldReturn429WithRetryAfterRoundedUp() throws Exception {
+        mockMvc.perform(get("/test/rate-limited"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value(429));
+    }
 }
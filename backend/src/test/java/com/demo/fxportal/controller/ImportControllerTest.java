@@ -0,0 +1,142 @@
+package com.demo.fxportal.controller;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.QuoteRateLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.QuoteRateLimitProperties;
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.dto.TradeImportStatus;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import com.demo.fxportal.service.TradeImportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+@Import({DbConcurrencyLimiter.class, QuoteRateLimiter.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties({DbConcurrencyProperties.class, QuoteRateLimitProperties.class})
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TradeImportService tradeImportService;
+
+    private TradeImportStatus buildStatus(TradeImportStatus.State state) {
+        return TradeImportStatus.builder()
+                .file("2025/history.csv")
+                .state(state)
+                .fileSize(27_581_540)
+                .chunks(4)
+                .chunksLoaded(2)
+                .rowsLoaded(99_970)
+                .rowsRejected(30)
+                .startedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void importTrades_shouldReturn202WithTheProgress() throws Exception {
+        when(tradeImportService.start("2025/history.csv"))
+                .thenReturn(ServiceResult.success(buildStatus(TradeImportStatus.State.RUNNING)));
+
+        mockMvc.perform(post("/api/imports/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"file\":\"2025/history.csv\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.chunksLoaded").value(2));
+    }
+
+    @Test
+    void importTrades_withoutFile_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/imports/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.file").value("File is required"));
+
+        verify(tradeImportService, never()).start(anyString());
+    }
+
+    @Test
+    void importTrades_whileRunning_shouldReturn409() throws Exception {
+        when(tradeImportService.start("history.csv")).thenReturn(ServiceResult.rejected(
+                Rejection.IMPORT_IN_PROGRESS, "Import of history.csv is already running"));
+
+        mockMvc.perform(post("/api/imports/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"file\":\"history.csv\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Import of history.csv is already running"));
+    }
+
+    @Test
+    void importTrades_withUnreadableFile_shouldReturn400() throws Exception {
+        when(tradeImportService.start("../etc/passwd")).thenReturn(ServiceResult.rejected(
+                Rejection.IMPORT_FILE_INVALID, "No import file ../etc/passwd"));
+
+        mockMvc.perform(post("/api/imports/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"file\":\"../etc/passwd\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("No import file ../etc/passwd"));
+    }
+
+    @Test
+    void importStatus_shouldReturn200OrNotFound() throws Exception {
+        when(tradeImportService.status("2025/history.csv"))
+                .thenReturn(ServiceResult.success(buildStatus(TradeImportStatus.State.INCOMPLETE)));
+        when(tradeImportService.status("never.csv"))
+                .thenReturn(ServiceResult.rejected(Rejection.IMPORT_NOT_FOUND, "No import of never.csv"));
+
+        mockMvc.perform(get("/api/imports/trades").param("file", "2025/history.csv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("INCOMPLETE"))
+                .andExpect(jsonPath("$.rowsRejected").value(30));
+        mockMvc.perform(get("/api/imports/trades").param("file", "never.csv"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void importRejects_shouldReturnAPageOfLines() throws Exception {
+        when(tradeImportService.rejects("history.csv", 1, 2)).thenReturn(ServiceResult.success(List.of(
+                new TradeImportReject(7, "currencyPair: Unsupported currency pair: XXX/YYY"),
+                new TradeImportReject(8, "amount: Amount must be greater than 0"))));
+
+        mockMvc.perform(get("/api/imports/trades/rejects")
+                        .param("file", "history.csv")
+                        .param("page", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].line").value(7))
+                .andExpect(jsonPath("$[1].reason").value("amount: Amount must be greater than 0"));
+    }
+
+    @Test
+    void importRejects_withPageSizeOverTheLimit_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/imports/trades/rejects")
+                        .param("file", "history.csv")
+                        .param("size", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+}
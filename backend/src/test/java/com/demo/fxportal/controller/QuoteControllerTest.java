@@ -1,27 +1,47 @@
 package com.demo.fxportal.controller;
 
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.QuoteRateLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.QuoteRateLimitProperties;
 import com.demo.fxportal.dto.QuoteRequest;
 import com.demo.fxportal.dto.QuoteResponse;
 import com.demo.fxportal.model.Side;
 import com.demo.fxportal.service.QuoteService;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import com.demo.fxportal.wire.FxBinaryHttpMessageConverter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(QuoteController.class)
+@Import({DbConcurrencyLimiter.class, QuoteRateLimiter.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties({DbConcurrencyProperties.class, QuoteRateLimitProperties.class})
+// Slow refill so the rate-limit test does not depend on how fast the requests run
+@TestPropertySource(properties = "fxportal.quote-rate-limit.refill-per-second=0.1")
 class QuoteControllerTest {
 
     @Autowired
@@ -33,6 +53,13 @@ class QuoteControllerTest {
     @MockBean
     private QuoteService quoteService;
 
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
     private QuoteResponse buildQuoteResponse() {
         return QuoteResponse.builder()
                 .quoteId(UUID.randomUUID())
@@ -53,7 +80,7 @@ class QuoteControllerTest {
                 .amount(new BigDecimal("10000.00"))
                 .build();
 
-        when(quoteService.requestQuote(any())).thenReturn(buildQuoteResponse());
+        when(quoteService.requestQuote(any())).thenReturn(ServiceResult.success(buildQuoteResponse()));
 
         mockMvc.perform(post("/api/quotes")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -118,6 +145,21 @@ class QuoteControllerTest {
                 .andExpect(jsonPath("$.errors.side").exists());
     }
 
+    @Test
+    void requestQuote_whenPairRejected_shouldReturn400() throws Exception {
+        String body = "{\"currencyPair\":\"ABC/XYZ\",\"side\":\"BUY\",\"amount\":10000}";
+
+        when(quoteService.requestQuote(any()))
+                .thenReturn(ServiceResult.rejected(Rejection.UNSUPPORTED_PAIR, "Unsupported currency pair: ABC/XYZ"));
+
+        mockMvc.perform(post("/api/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Unsupported currency pair: ABC/XYZ"));
+    }
+
     @Test
     void requestQuote_whenServiceThrowsIllegalArgumentException_shouldReturn400() throws Exception {
         QuoteRequest request = QuoteRequest.builder()
@@ -154,7 +196,7 @@ class QuoteControllerTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(quoteService.requestQuote(any())).thenReturn(response);
+        when(quoteService.requestQuote(any())).thenReturn(ServiceResult.success(response));
 
         mockMvc.perform(post("/api/quotes")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -163,4 +205,73 @@ class QuoteControllerTest {
                 .andExpect(jsonPath("$.side").value("SELL"))
                 .andExpect(jsonPath("$.currencyPair").value("GBP/USD"));
     }
+
+    @Test
+    void requestQuote_whenClientExceedsItsBucket_shouldReturn429WithRetryAfter() throws Exception {
+        String body = "{\"currencyPair\":\"EUR/USD\",\"side\":\"BUY\",\"amount\":10000}";
+        when(quoteService.requestQuote(any())).thenReturn(ServiceResult.success(buildQuoteResponse()));
+
+        // The default burst is 20 quotes per client
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(post("/api/quotes")
+                            .with(remoteAddr("10.0.0.1"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(post("/api/quotes")
+                        .with(remoteAddr("10.0.0.1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.message").value("Too many quote requests, try again shortly"));
+
+        mockMvc.perform(post("/api/quotes")
+                        .with(remoteAddr("10.0.0.2"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void requestQuote_withBinaryBody_shouldDecodeRequestAndReturnBinaryQuote() throws Exception {
+        QuoteResponse quote = QuoteResponse.builder()
+                .quoteId(UUID.randomUUID())
+                .currencyPair("EUR/USD")
+                .side(Side.BUY)
+                .amount(new BigDecimal("10000.0000"))
+                .rate(new BigDecimal("1.085000"))
+                .expiresAt(LocalDateTime.now().plusSeconds(30))
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(quoteService.requestQuote(argThat(r -> "EUR/USD".equals(r.getCurrencyPair())
+                && r.getAmount().compareTo(new BigDecimal("10000")) == 0)))
+                .thenReturn(ServiceResult.success(quote));
+
+        byte[] body = mockMvc.perform(post("/api/quotes")
+                        .contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .accept(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .content(FxBinaryCodec.encode(new QuoteRequest("EUR/USD", Side.BUY, new BigDecimal("10000")))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(FxBinaryCodec.decode(ByteBuffer.wrap(body), QuoteResponse.class).getQuoteId())
+                .isEqualTo(quote.getQuoteId());
+    }
+
+    @Test
+    void requestQuote_withInvalidBinaryBody_shouldReturnBinaryValidationErrors() throws Exception {
+        byte[] body = mockMvc.perform(post("/api/quotes")
+                        .contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .accept(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .content(FxBinaryCodec.encode(new QuoteRequest("EURUSD", Side.BUY, new BigDecimal("10000")))))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(FxBinaryCodec.decode(ByteBuffer.wrap(body), GlobalExceptionHandler.ValidationErrorResponse.class)
+                .getErrors()).containsKey("currencyPair");
+    }
 }
@@ -0,0 +1,108 @@
+package com.demo.fxportal.controller;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.QuoteRateLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.QuoteRateLimitProperties;
+import com.demo.fxportal.dto.EodReportLine;
+import com.demo.fxportal.dto.EodReportResponse;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.service.EodReportService;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReportController.class)
+@Import({DbConcurrencyLimiter.class, QuoteRateLimiter.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties({DbConcurrencyProperties.class, QuoteRateLimitProperties.class})
+class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EodReportService eodReportService;
+
+    private EodReportResponse buildReport() {
+        return EodReportResponse.builder()
+                .businessDate(LocalDate.of(2026, 3, 2))
+                .ratesAt(LocalDateTime.now())
+                .generatedAt(LocalDateTime.now())
+                .openTrades(2)
+                .totalPnlUsd(new BigDecimal("5000.0000"))
+                .parallelism(4)
+                .ranges(16)
+                .file("data/eod-reports/eod-report-2026-03-02.csv")
+                .lines(List.of(EodReportLine.builder()
+                        .currencyPair("EUR/USD")
+                        .side(Side.BUY)
+                        .trades(2)
+                        .amount(new BigDecimal("1000000.0000"))
+                        .averageRate(new BigDecimal("1.080000"))
+                        .markRate(new BigDecimal("1.085000"))
+                        .pnl(new BigDecimal("5000.0000"))
+                        .pnlCurrency("USD")
+                        .pnlUsd(new BigDecimal("5000.0000"))
+                        .build()))
+                .build();
+    }
+
+    @Test
+    void latestEodReport_shouldReturn200WithSummary() throws Exception {
+        when(eodReportService.latest()).thenReturn(ServiceResult.success(buildReport()));
+
+        mockMvc.perform(get("/api/reports/eod"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.businessDate").value("2026-03-02"))
+                .andExpect(jsonPath("$.openTrades").value(2))
+                .andExpect(jsonPath("$.totalPnlUsd").value(5000.0))
+                .andExpect(jsonPath("$.lines[0].currencyPair").value("EUR/USD"))
+                .andExpect(jsonPath("$.lines[0].pnlCurrency").value("USD"));
+    }
+
+    @Test
+    void latestEodReport_beforeAnyRun_shouldReturn404() throws Exception {
+        when(eodReportService.latest()).thenReturn(ServiceResult.rejected(Rejection.REPORT_NOT_FOUND,
+                "No end-of-day report has been generated yet"));
+
+        mockMvc.perform(get("/api/reports/eod"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No end-of-day report has been generated yet"));
+    }
+
+    @Test
+    void runEodReport_shouldReturn200WithTheNewSummary() throws Exception {
+        when(eodReportService.run()).thenReturn(ServiceResult.success(buildReport()));
+
+        mockMvc.perform(post("/api/reports/eod"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ranges").value(16))
+                .andExpect(jsonPath("$.file").value("data/eod-reports/eod-report-2026-03-02.csv"));
+    }
+
+    @Test
+    void runEodReport_withInMemoryStorage_shouldReturn501() throws Exception {
+        when(eodReportService.run()).thenReturn(ServiceResult.rejected(Rejection.DATABASE_REQUIRED,
+                "End-of-day reports read the trades table, which in-memory storage leaves empty"));
+
+        mockMvc.perform(post("/api/reports/eod"))
+                .andExpect(status().isNotImplemented());
+    }
+}
@@ -1,31 +1,52 @@
 package com.demo.fxportal.controller;
 
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.QuoteRateLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.QuoteRateLimitProperties;
 import com.demo.fxportal.dto.TradeRequest;
 import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.dto.TradeStatusRequest;
 import com.demo.fxportal.model.Side;
 import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.service.BookingSequencer;
+import com.demo.fxportal.service.TradeJournalService;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
 import com.demo.fxportal.service.TradeService;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import com.demo.fxportal.wire.FxBinaryHttpMessageConverter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TradeController.class)
+@Import({DbConcurrencyLimiter.class, QuoteRateLimiter.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties({DbConcurrencyProperties.class, QuoteRateLimitProperties.class})
 class TradeControllerTest {
 
     @Autowired
@@ -37,6 +58,12 @@ class TradeControllerTest {
     @MockBean
     private TradeService tradeService;
 
+    @MockBean
+    private BookingSequencer bookingSequencer;
+
+    @MockBean
+    private TradeJournalService tradeJournalService;
+
     private TradeResponse buildTradeResponse() {
         return TradeResponse.builder()
                 .tradeId(UUID.randomUUID())
@@ -56,7 +83,7 @@ class TradeControllerTest {
                 .quoteId(UUID.randomUUID())
                 .build();
 
-        when(tradeService.bookTrade(any())).thenReturn(buildTradeResponse());
+        when(tradeService.bookTrade(any())).thenReturn(ServiceResult.success(buildTradeResponse()));
 
         mockMvc.perform(post("/api/trades")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -68,6 +95,32 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.quoteId").exists());
     }
 
+    @Test
+    void bookTrade_withSequencerEnabled_shouldBookThroughTheSequencer() throws Exception {
+        when(bookingSequencer.isEnabled()).thenReturn(true);
+        when(bookingSequencer.book(any())).thenReturn(ServiceResult.success(buildTradeResponse()));
+
+        mockMvc.perform(post("/api/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quoteId\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("BOOKED"));
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void bookTrade_withJournalEnabled_shouldBookThroughTheJournal() throws Exception {
+        when(tradeJournalService.isEnabled()).thenReturn(true);
+        when(tradeJournalService.bookTrade(any())).thenReturn(ServiceResult.success(buildTradeResponse()));
+
+        mockMvc.perform(post("/api/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quoteId\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("BOOKED"));
+        verifyNoInteractions(tradeService, bookingSequencer);
+    }
+
     @Test
     void bookTrade_withMissingQuoteId_shouldReturn400() throws Exception {
         mockMvc.perform(post("/api/trades")
@@ -84,7 +137,7 @@ class TradeControllerTest {
                 .build();
 
         when(tradeService.bookTrade(any()))
-                .thenThrow(new IllegalArgumentException("Quote not found: " + UUID.randomUUID()));
+                .thenReturn(ServiceResult.rejected(Rejection.QUOTE_NOT_FOUND, "Quote not found: " + request.getQuoteId()));
 
         mockMvc.perform(post("/api/trades")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -100,14 +153,15 @@ class TradeControllerTest {
                 .build();
 
         when(tradeService.bookTrade(any()))
-                .thenThrow(new IllegalStateException("Quote has expired"));
+                .thenReturn(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, "Quote has expired"));
 
         mockMvc.perform(post("/api/trades")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.status").value(409))
-                .andExpect(jsonPath("$.message").value("Quote has expired"));
+                .andExpect(jsonPath("$.message").value("Quote has expired"))
+                .andExpect(jsonPath("$.timestamp").exists());
     }
 
     @Test
@@ -117,7 +171,7 @@ class TradeControllerTest {
                 .build();
 
         when(tradeService.bookTrade(any()))
-                .thenThrow(new IllegalStateException("A trade has already been booked for this quote"));
+                .thenReturn(ServiceResult.rejected(Rejection.ALREADY_BOOKED, "A trade has already been booked for this quote"));
 
         mockMvc.perform(post("/api/trades")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -126,6 +180,74 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.message").value("A trade has already been booked for this quote"));
     }
 
+    @Test
+    void changeStatus_withValidRequest_shouldReturn200() throws Exception {
+        TradeResponse settled = buildTradeResponse();
+        settled.setStatus(Trade.Status.SETTLED);
+        when(tradeService.changeStatus(settled.getTradeId(), Trade.Status.SETTLED))
+                .thenReturn(ServiceResult.success(settled));
+
+        mockMvc.perform(patch("/api/trades/{tradeId}/status", settled.getTradeId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TradeStatusRequest(Trade.Status.SETTLED))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId").value(settled.getTradeId().toString()))
+                .andExpect(jsonPath("$.status").value("SETTLED"));
+    }
+
+    @Test
+    void changeStatus_whenTradeNotFound_shouldReturn404() throws Exception {
+        UUID tradeId = UUID.randomUUID();
+        when(tradeService.changeStatus(tradeId, Trade.Status.CANCELLED))
+                .thenReturn(ServiceResult.rejected(Rejection.TRADE_NOT_FOUND, "Trade not found: " + tradeId));
+
+        mockMvc.perform(patch("/api/trades/{tradeId}/status", tradeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TradeStatusRequest(Trade.Status.CANCELLED))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Trade not found: " + tradeId));
+    }
+
+    @Test
+    void changeStatus_whenAlreadySettled_shouldReturn409() throws Exception {
+        UUID tradeId = UUID.randomUUID();
+        when(tradeService.changeStatus(tradeId, Trade.Status.CANCELLED))
+                .thenReturn(ServiceResult.rejected(Rejection.INVALID_STATUS_CHANGE,
+                        "Trade cannot change from SETTLED to CANCELLED"));
+
+        mockMvc.perform(patch("/api/trades/{tradeId}/status", tradeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TradeStatusRequest(Trade.Status.CANCELLED))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Trade cannot change from SETTLED to CANCELLED"));
+    }
+
+    @Test
+    void changeStatus_whenTheJournaledTradeIsNotStoredYet_shouldReturn503WithRetryAfter() throws Exception {
+        UUID tradeId = UUID.randomUUID();
+        when(tradeJournalService.isEnabled()).thenReturn(true);
+        when(tradeJournalService.changeStatus(tradeId, Trade.Status.SETTLED))
+                .thenReturn(ServiceResult.rejected(Rejection.TRADE_NOT_PROJECTED, "Trade not stored yet"));
+
+        mockMvc.perform(patch("/api/trades/{tradeId}/status", tradeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TradeStatusRequest(Trade.Status.SETTLED))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void changeStatus_withMissingStatus_shouldReturn400() throws Exception {
+        mockMvc.perform(patch("/api/trades/{tradeId}/status", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(tradeService);
+    }
+
     @Test
     void getTradeHistory_noFilters_shouldReturn200WithPage() throws Exception {
         Page<TradeResponse> page = new PageImpl<>(List.of(buildTradeResponse()));
@@ -179,4 +301,84 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
     }
+
+    @Test
+    void getTradeHistory_withUnsupportedSortField_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/trades")
+                        .param("sortBy", "quoteId"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported sort field: quoteId (supported: bookedAt, amount, rate)"));
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void bookTrade_withBinaryBody_shouldReturnBinaryTrade() throws Exception {
+        TradeResponse trade = buildTradeResponse();
+        when(tradeService.bookTrade(any())).thenReturn(ServiceResult.success(trade));
+
+        byte[] body = mockMvc.perform(post("/api/trades")
+                        .contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .accept(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .content(FxBinaryCodec.encode(new TradeRequest(trade.getQuoteId()))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(FxBinaryCodec.decode(ByteBuffer.wrap(body), TradeResponse.class).getTradeId())
+                .isEqualTo(trade.getTradeId());
+    }
+
+    @Test
+    void bookTrade_withTruncatedBinaryBody_shouldReturn400() throws Exception {
+        byte[] encoded = FxBinaryCodec.encode(new TradeRequest(UUID.randomUUID()));
+
+        mockMvc.perform(post("/api/trades")
+                        .contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .content(Arrays.copyOf(encoded, encoded.length - 4)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Malformed request")));
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void bookTrade_whenQuoteExpiredAndBinaryAccepted_shouldReturnBinaryError() throws Exception {
+        when(tradeService.bookTrade(any()))
+                .thenReturn(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, "Quote has expired"));
+
+        byte[] body = mockMvc.perform(post("/api/trades")
+                        .contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .accept(FxBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .content(FxBinaryCodec.encode(new TradeRequest(UUID.randomUUID()))))
+                .andExpect(status().isConflict())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(FxBinaryCodec.decode(ByteBuffer.wrap(body), GlobalExceptionHandler.ErrorResponse.class).getMessage())
+                .isEqualTo("Quote has expired");
+    }
+
+    @Test
+    void getTradeHistory_whenBinaryAccepted_shouldReturnBinaryPage() throws Exception {
+        Page<TradeResponse> page = new PageImpl<>(List.of(buildTradeResponse(), buildTradeResponse()));
+        when(tradeService.getTradeHistory(any(), any(), any(), any(), any(), any()))
+                .thenReturn(page);
+
+        byte[] body = mockMvc.perform(get("/api/trades").accept(FxBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(FxBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Page<?> decoded = FxBinaryCodec.decode(ByteBuffer.wrap(body), Page.class);
+        assertThat(decoded.getTotalElements()).isEqualTo(2);
+        assertThat(decoded.getContent()).hasSize(2);
+    }
+
+    @Test
+    void getTradeHistory_withoutAcceptHeader_shouldDefaultToJson() throws Exception {
+        when(tradeService.getTradeHistory(any(), any(), any(), any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/trades"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
 }
@@ -0,0 +1,97 @@
+package com.demo.fxportal.diagnostics;
+
+import com.demo.fxportal.config.FlightRecorderProperties;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class FlightRecorderEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecorderEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setMaxDuration(Duration.ofSeconds(1));
+        endpoint = new FlightRecorderEndpoint(properties);
+    }
+
+    @Test
+    void start_shouldClampDurationAndServeFileOnceFinished() {
+        // When
+        WebEndpointResponse<Object> started = endpoint.start(Duration.ofHours(1));
+
+        // Then
+        assertThat(started.getStatus()).isEqualTo(200);
+        FlightRecorderEndpoint.RecordingStatus status = (FlightRecorderEndpoint.RecordingStatus) started.getBody();
+        assertThat(status.duration()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(endpoint.recording(status.id()).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        await().atMost(Duration.ofSeconds(15)).until(() -> endpoint.recording(status.id()).getStatus() == 200);
+        Resource file = endpoint.recording(status.id()).getBody();
+        assertThat(file.getFilename()).endsWith(".jfr");
+    }
+
+    @Test
+    void recording_shouldLeaveOutTheEnvironmentAndSystemProperties() throws Exception {
+        // Given
+        long id = ((FlightRecorderEndpoint.RecordingStatus) endpoint.start(Duration.ofSeconds(1)).getBody()).id();
+        await().atMost(Duration.ofSeconds(15)).until(() -> endpoint.recording(id).getStatus() == 200);
+
+        // When
+        List<RecordedEvent> events = RecordingFile.readAllEvents(endpoint.recording(id).getBody().getFile().toPath());
+
+        // Then
+        assertThat(events).isNotEmpty();
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+    }
+
+    @Test
+    void start_whileRecording_shouldBeRejected() {
+        endpoint.start(Duration.ofSeconds(1));
+
+        assertThat(endpoint.start(Duration.ofSeconds(1)).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void summary_shouldReadFinishedRecording() throws Exception {
+        long id = ((FlightRecorderEndpoint.RecordingStatus) endpoint.start(Duration.ofSeconds(1)).getBody()).id();
+        await().atMost(Duration.ofSeconds(15)).until(() -> endpoint.recording(id).getStatus() == 200);
+
+        WebEndpointResponse<FlightRecordingSummary> summary = endpoint.summary(id, "summary");
+
+        assertThat(summary.getStatus()).isEqualTo(200);
+        assertThat(summary.getBody().hottestMethods()).hasSizeLessThanOrEqualTo(FlightRecorderEndpoint.SUMMARY_LIMIT);
+        assertThat(endpoint.summary(id, "other").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void operations_whenDisabled_shouldAnswerNotFound() {
+        // Given
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setDirectory(directory);
+        FlightRecorderEndpoint disabled = new FlightRecorderEndpoint(properties);
+
+        // When & Then
+        assertThat(disabled.start(Duration.ofSeconds(1)).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(disabled.recordings().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(disabled.recording(1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.fxportal.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingBuffer buffer = new ServerTimingBuffer(8);
+
+    @Test
+    void doFilter_shouldReportStagesInOrderWithRenderAndTotal() throws Exception {
+        // Given
+        ServerTimingFilter filter = new ServerTimingFilter(buffer, 1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/trades");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+            ServerTiming.mark("validate");
+            ServerTiming.mark("quote-lookup");
+            res.getWriter().write("{}");
+        });
+
+        // Then
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .matches("validate;dur=[0-9.]+, quote-lookup;dur=[0-9.]+, render;dur=[0-9.]+, total;dur=[0-9.]+");
+        assertThat(response.getContentAsString()).isEqualTo("{}");
+        assertThat(buffer.snapshot()).singleElement().satisfies(sample -> {
+            assertThat(sample.path()).isEqualTo("/api/trades");
+            assertThat(sample.stagesMillis()).containsOnlyKeys("validate", "quote-lookup", "render", "total");
+        });
+    }
+
+    @Test
+    void doFilter_withZeroSampleRate_shouldStillSetHeaderButNotSample() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(buffer, 0.0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/trades"), response, (req, res) -> { });
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("render;dur=");
+        assertThat(buffer.snapshot()).isEmpty();
+    }
+
+    @Test
+    void mark_outsideTimedRequest_shouldBeNoOp() throws Exception {
+        ServerTiming.mark("validate");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingFilter(buffer, 0.0).doFilter(new MockHttpServletRequest(), response, (req, res) -> { });
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).doesNotContain("validate");
+    }
+
+    @Test
+    void buffer_shouldKeepMostRecentSamplesNewestFirst() {
+        ServerTimingBuffer small = new ServerTimingBuffer(2);
+        for (int status = 200; status < 203; status++) {
+            small.add(new ServerTimingSample(null, "GET", "/api/trades", status, Map.of()));
+        }
+
+        assertThat(small.snapshot()).extracting(ServerTimingSample::status).containsExactly(202, 201);
+    }
+}
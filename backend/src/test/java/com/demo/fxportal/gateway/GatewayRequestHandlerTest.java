@@ -0,0 +1,169 @@
+package com.demo.fxportal.gateway;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.concurrency.QuoteRateLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.QuoteRateLimitProperties;
+import com.demo.fxportal.controller.GlobalExceptionHandler;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ValidationErrorResponse;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.service.BookingSequencer;
+import com.demo.fxportal.service.QuoteService;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import com.demo.fxportal.service.TradeJournalService;
+import com.demo.fxportal.service.TradeService;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayRequestHandlerTest {
+
+    @Mock
+    private QuoteService quoteService;
+
+    @Mock
+    private TradeService tradeService;
+
+    @Mock
+    private BookingSequencer bookingSequencer;
+
+    @Mock
+    private TradeJournalService tradeJournalService;
+
+    private QuoteRateLimitProperties rateLimitProperties;
+    private GatewayRequestHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        DbConcurrencyProperties dbProperties = new DbConcurrencyProperties();
+        dbProperties.setEnabled(false);
+        rateLimitProperties = new QuoteRateLimitProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        handler = new GatewayRequestHandler(quoteService, tradeService, bookingSequencer, tradeJournalService,
+                new DbConcurrencyLimiter(dbProperties, meterRegistry),
+                new QuoteRateLimiter(rateLimitProperties, meterRegistry),
+                new GlobalExceptionHandler(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    private static ByteBuffer message(Object request) {
+        return ByteBuffer.wrap(FxBinaryCodec.encode(request));
+    }
+
+    @Test
+    void handle_quoteRequest_shouldReturnTheServiceQuote() {
+        // Given
+        QuoteResponse quote = QuoteResponse.builder().quoteId(UUID.randomUUID()).currencyPair("EUR/USD").build();
+        when(quoteService.requestQuote(any())).thenReturn(ServiceResult.success(quote));
+
+        // When
+        Object response = handler.handle(message(new QuoteRequest("EUR/USD", Side.BUY, new BigDecimal("1000"))), "desk-1");
+
+        // Then
+        assertThat(response).isSameAs(quote);
+    }
+
+    @Test
+    void handle_invalidQuoteRequest_shouldReturnValidationErrorsWithoutCallingTheService() {
+        Object response = handler.handle(message(new QuoteRequest("EURUSD", Side.BUY, null)), "desk-1");
+
+        assertThat(response).isInstanceOfSatisfying(ValidationErrorResponse.class, error -> {
+            assertThat(error.getStatus()).isEqualTo(400);
+            assertThat(error.getErrors()).containsKeys("currencyPair", "amount");
+        });
+        verifyNoInteractions(quoteService);
+    }
+
+    @Test
+    void handle_expiredQuote_shouldReturnTheSameConflictAsRest() {
+        when(tradeService.bookTrade(any()))
+                .thenReturn(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, "Quote has expired"));
+
+        Object response = handler.handle(message(new TradeRequest(UUID.randomUUID())), "desk-1");
+
+        assertThat(response).isInstanceOfSatisfying(ErrorResponse.class, error -> {
+            assertThat(error.getStatus()).isEqualTo(409);
+            assertThat(error.getMessage()).isEqualTo("Quote has expired");
+        });
+    }
+
+    @Test
+    void handle_quoteOverTheRateLimit_shouldReturn429() {
+        rateLimitProperties.setCapacity(1);
+        rateLimitProperties.setRefillPerSecond(0.1);
+        when(quoteService.requestQuote(any())).thenReturn(ServiceResult.success(new QuoteResponse()));
+        QuoteRequest request = new QuoteRequest("EUR/USD", Side.BUY, new BigDecimal("1000"));
+
+        handler.handle(message(request), "desk-1");
+        Object response = handler.handle(message(request), "desk-1");
+
+        assertThat(response).isInstanceOfSatisfying(ErrorResponse.class,
+                error -> assertThat(error.getStatus()).isEqualTo(429));
+        verify(quoteService, times(1)).requestQuote(any());
+    }
+
+    @Test
+    void handle_malformedMessage_shouldReturn400() {
+        Object response = handler.handle(ByteBuffer.wrap(new byte[]{1, 9, 0}), "desk-1");
+
+        assertThat(response).isInstanceOfSatisfying(ErrorResponse.class,
+                error -> assertThat(error.getStatus()).isEqualTo(400));
+    }
+
+    @Test
+    void handle_serviceFailure_shouldReturnTheGenericError() {
+        when(tradeService.bookTrade(any())).thenThrow(new IllegalStateException("connection reset"));
+
+        Object response = handler.handle(message(new TradeRequest(UUID.randomUUID())), "desk-1");
+
+        assertThat(response).isInstanceOfSatisfying(ErrorResponse.class, error -> {
+            assertThat(error.getStatus()).isEqualTo(500);
+            assertThat(error.getMessage()).isEqualTo("An unexpected error occurred");
+        });
+    }
+
+    @Test
+    void handle_tradeRequestWithSequencerEnabled_shouldBookThroughTheSequencer() {
+        when(bookingSequencer.isEnabled()).thenReturn(true);
+        when(bookingSequencer.book(any()))
+                .thenReturn(ServiceResult.rejected(Rejection.ALREADY_BOOKED, "A trade has already been booked for this quote"));
+
+        Object response = handler.handle(message(new TradeRequest(UUID.randomUUID())), "desk-1");
+
+        assertThat(response).isInstanceOfSatisfying(ErrorResponse.class,
+                error -> assertThat(error.getStatus()).isEqualTo(409));
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void handle_tradeRequestWithJournalEnabled_shouldBookThroughTheJournal() {
+        TradeResponse trade = TradeResponse.builder().tradeId(UUID.randomUUID()).currencyPair("EUR/USD").build();
+        when(tradeJournalService.isEnabled()).thenReturn(true);
+        when(tradeJournalService.bookTrade(any())).thenReturn(ServiceResult.success(trade));
+
+        Object response = handler.handle(message(new TradeRequest(UUID.randomUUID())), "desk-1");
+
+        assertThat(response).isSameAs(trade);
+        verifyNoInteractions(tradeService, bookingSequencer);
+    }
+}
@@ -0,0 +1,106 @@
+package com.demo.fxportal.gateway;
+
+import com.demo.fxportal.config.GatewayProperties;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GatewayServerTest {
+
+    private GatewayServer server;
+
+    @BeforeEach
+    void setUp() {
+        GatewayRequestHandler handler = mock(GatewayRequestHandler.class);
+        // Echo the pair back, or reject bookings, so every response can be matched to its request
+        when(handler.handle(any(), anyString())).thenAnswer(invocation -> {
+            Object request = FxBinaryCodec.decode(invocation.getArgument(0, ByteBuffer.class));
+            if (request instanceof QuoteRequest quote) {
+                return QuoteResponse.builder().quoteId(UUID.randomUUID()).currencyPair(quote.getCurrencyPair()).build();
+            }
+            return new ErrorResponse(409, "Quote has expired", LocalDateTime.now());
+        });
+        GatewayProperties properties = new GatewayProperties();
+        properties.setEnabled(true);
+        properties.setBindAddress("127.0.0.1");
+        properties.setPort(0);
+        properties.setMaxFrameLength(1024);
+        properties.setMaxInFlightPerSession(8);
+        properties.setWorkerThreads(4);
+        server = new GatewayServer(properties, handler, new SimpleMeterRegistry());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void client_shouldPipelineRequestsOverOneSession() throws Exception {
+        try (FxGatewayClient client = FxGatewayClient.connect("127.0.0.1", server.getLocalPort())) {
+            // More outstanding requests than the in-flight limit, so reading pauses and resumes
+            List<CompletableFuture<QuoteResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                responses.add(client.requestQuote(new QuoteRequest(pair(i), Side.BUY, BigDecimal.ONE)));
+            }
+
+            for (int i = 0; i < responses.size(); i++) {
+                assertThat(responses.get(i).get(5, TimeUnit.SECONDS).getCurrencyPair()).isEqualTo(pair(i));
+            }
+        }
+    }
+
+    @Test
+    void client_shouldFailTheFutureWithTheRejection() throws Exception {
+        try (FxGatewayClient client = FxGatewayClient.connect("127.0.0.1", server.getLocalPort())) {
+            CompletableFuture<?> booking = client.bookTrade(new TradeRequest(UUID.randomUUID()));
+
+            assertThatThrownBy(() -> booking.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(GatewayRejectedException.class)
+                    .cause()
+                    .satisfies(ex -> assertThat(((GatewayRejectedException) ex).getStatus()).isEqualTo(409));
+        }
+    }
+
+    @Test
+    void server_shouldCloseTheSessionOnAnOversizedFrame() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", server.getLocalPort())) {
+            socket.setSoTimeout(5000);
+            new DataOutputStream(socket.getOutputStream()).writeInt(1_000_000);
+            InputStream in = socket.getInputStream();
+
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    private static String pair(int i) {
+        return i % 2 == 0 ? "EUR/USD" : "USD/JPY";
+    }
+}
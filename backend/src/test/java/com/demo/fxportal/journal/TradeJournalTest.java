@@ -0,0 +1,191 @@
+package com.demo.fxportal.journal;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradeJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TradeJournal open(int segmentRecords) throws IOException {
+        return TradeJournal.open(directory, segmentRecords, Duration.ZERO, 256);
+    }
+
+    private static JournalRecord record(String pair) {
+        Trade trade = Trade.builder()
+                .id(UUID.randomUUID())
+                .quoteId(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.of(pair))
+                .side(Side.SELL)
+                .status(Trade.Status.BOOKED)
+                .amount(new BigDecimal("1250000.5000"))
+                .rate(new BigDecimal("1.085123"))
+                .bookedAt(JournalRecord.truncate(LocalDateTime.now()))
+                .build();
+        return JournalRecord.of(trade, LocalDateTime.now().plusSeconds(30).withNano(0));
+    }
+
+    private List<String> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".journal"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Test
+    void append_shouldRoundTripEveryField() throws IOException {
+        // Given
+        JournalRecord record = record("USD/JPY");
+
+        // When
+        List<JournalRecord> read;
+        try (TradeJournal journal = open(16)) {
+            long sequence = journal.append(record);
+            journal.awaitDurable(sequence);
+            read = journal.read(1, 10);
+        }
+
+        // Then
+        assertThat(read).containsExactly(new JournalRecord(1, record.tradeId(), record.quoteId(),
+                record.currencyPair(), record.side(), record.status(), record.amount(), record.rate(),
+                record.bookedAt(), record.quoteExpiresAt()));
+    }
+
+    @Test
+    void awaitDurable_shouldShareOneSyncAcrossABatch() throws IOException {
+        // Given a sync interval long enough that only the batch size can trigger the sync
+        try (TradeJournal journal = TradeJournal.open(directory, 16, Duration.ofMinutes(1), 5)) {
+            // When
+            long last = 0;
+            for (int i = 0; i < 5; i++) {
+                last = journal.append(record("EUR/USD"));
+            }
+            journal.awaitDurable(last);
+
+            // Then
+            assertThat(journal.getDurableSequence()).isEqualTo(5);
+            assertThat(journal.getSyncCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void read_shouldOnlyReturnDurableRecords() throws IOException {
+        try (TradeJournal journal = TradeJournal.open(directory, 16, Duration.ofMinutes(1), 100)) {
+            journal.append(record("EUR/USD"));
+
+            assertThat(journal.read(1, 10)).isEmpty();
+        }
+    }
+
+    @Test
+    void open_shouldReplayRecordsAfterTheProjectedCheckpoint() throws IOException {
+        // Given
+        try (TradeJournal journal = open(4)) {
+            long last = 0;
+            for (int i = 0; i < 10; i++) {
+                last = journal.append(record("GBP/USD"));
+            }
+            journal.awaitDurable(last);
+            journal.markProjected(6);
+        }
+
+        // When
+        try (TradeJournal journal = open(4)) {
+            // Then
+            assertThat(journal.getProjectedSequence()).isEqualTo(6);
+            assertThat(journal.getLastSequence()).isEqualTo(10);
+            assertThat(journal.read(7, 10)).extracting(JournalRecord::sequence).containsExactly(7L, 8L, 9L, 10L);
+            assertThat(journal.append(record("GBP/USD"))).isEqualTo(11);
+        }
+    }
+
+    @Test
+    void markProjected_shouldDeleteSegmentsThatAreFullyProjected() throws IOException {
+        try (TradeJournal journal = open(4)) {
+            long last = 0;
+            for (int i = 0; i < 10; i++) {
+                last = journal.append(record("EUR/JPY"));
+            }
+            journal.awaitDurable(last);
+
+            journal.markProjected(8);
+
+            assertThat(segmentFiles()).containsExactly("00000000000000000009.journal");
+        }
+    }
+
+    @Test
+    void park_shouldKeepTheRecordAfterItsSegmentIsDeleted() throws IOException {
+        // Given
+        JournalRecord parked;
+        try (TradeJournal journal = open(2)) {
+            for (int i = 0; i < 3; i++) {
+                journal.awaitDurable(journal.append(record("USD/JPY")));
+            }
+            parked = journal.read(2, 1).get(0);
+
+            // When
+            journal.park(parked);
+            journal.markProjected(3);
+        }
+
+        // Then
+        assertThat(segmentFiles()).containsExactly("00000000000000000003.journal");
+        try (TradeJournal journal = open(2)) {
+            assertThat(journal.getParkedCount()).isEqualTo(1);
+            assertThat(journal.readParked()).containsExactly(parked);
+        }
+    }
+
+    @Test
+    void open_withTornRecord_shouldDiscardItAndEverythingAfter() throws IOException {
+        // Given three records, the last of which was only partly written
+        try (TradeJournal journal = open(16)) {
+            long last = 0;
+            for (int i = 0; i < 3; i++) {
+                last = journal.append(record("EUR/USD"));
+            }
+            journal.awaitDurable(last);
+        }
+        try (FileChannel segment = FileChannel.open(directory.resolve(segmentFiles().get(0)), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.wrap(new byte[]{0x7f}), 2L * JournalRecord.SIZE + 50);
+        }
+
+        // When
+        try (TradeJournal journal = open(16)) {
+            // Then
+            assertThat(journal.getLastSequence()).isEqualTo(2);
+            long sequence = journal.append(record("EUR/USD"));
+            journal.awaitDurable(sequence);
+            assertThat(sequence).isEqualTo(3);
+            assertThat(journal.read(1, 10)).hasSize(3);
+        }
+    }
+
+    @Test
+    void fits_shouldRejectAmountsBeyondTheFixedPointRange() {
+        assertThat(JournalRecord.fits(new BigDecimal("999999999999999.9999"))).isFalse();
+        assertThat(JournalRecord.fits(new BigDecimal("900000000000000.0000"))).isTrue();
+    }
+}
@@ -0,0 +1,169 @@
+package com.demo.fxportal.loadtest;
+
+import com.demo.fxportal.FxPortalApplication;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.repository.QuoteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Booking throughput with and without the single-writer sequencer. For each client count the
+ * embedded {@link FxPortalApplication} gets fresh quotes spread over {@code loadtest.pairs}, then
+ * that many clients book their share of them back to back through {@code POST /api/trades}.
+ *
+ * <p>Runs on in-memory H2 unless {@code loadtest.databaseUrl} points at Postgres, which is where
+ * index contention, and so the sequencer's effect, is representative. Run from Maven with
+ * {@code ./mvnw test -Dtest=BookingSequencerLoadTest -Dloadtest=true}.
+ */
+public class BookingSequencerHarness {
+
+    private final int[] clientCounts = Arrays.stream(System.getProperty("loadtest.sequencer.clients", "16,32,64")
+            .split(",")).mapToInt(Integer::parseInt).toArray();
+    private final int bookingsPerClient = Integer.getInteger("loadtest.sequencer.bookingsPerClient", 200);
+    private final String databaseUrl = System.getProperty("loadtest.databaseUrl", "");
+    private final List<String> currencyPairs =
+            List.of(System.getProperty("loadtest.pairs", "EUR/USD,GBP/USD,USD/JPY,EUR/JPY,GBP/CHF").split(","));
+    private final String reportDirectory = System.getProperty("loadtest.reportDir", "target/loadtest");
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        Path report = new BookingSequencerHarness().run();
+        System.out.println("Booking sequencer report written to " + report.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /** Measures both booking paths at every client count and returns the path of the written report. */
+    public Path run() throws Exception {
+        Map<String, Object> modes = new LinkedHashMap<>();
+        for (boolean sequencer : new boolean[]{false, true}) {
+            Map<String, Object> byClients = new LinkedHashMap<>();
+            try (ConfigurableApplicationContext context = startEmbeddedApplication(sequencer)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                QuoteRepository quoteRepository = context.getBean(QuoteRepository.class);
+                // Warm up the booking path before anything is recorded
+                drive(baseUrl, quoteRepository, clientCounts[0]);
+                for (int clients : clientCounts) {
+                    byClients.put(String.valueOf(clients), drive(baseUrl, quoteRepository, clients));
+                }
+            }
+            modes.put(sequencer ? "sequencer" : "direct", byClients);
+        }
+        return writeReport(modes);
+    }
+
+    private ConfigurableApplicationContext startEmbeddedApplication(boolean sequencer) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + Math.max(200, clientCounts[clientCounts.length - 1] * 2),
+                "--fxportal.quote-reaper.enabled=false",
+                "--fxportal.quote-rate-limit.enabled=false",
+                "--fxportal.warmup.enabled=false",
+                "--fxportal.booking-sequencer.enabled=" + sequencer,
+                "--logging.level.com.demo.fxportal=WARN"));
+        if (databaseUrl.isBlank()) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:sequencer-" + sequencer + ";DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.flyway.enabled=false"));
+        } else {
+            args.add("--spring.datasource.url=" + databaseUrl);
+        }
+        return new SpringApplicationBuilder(FxPortalApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private Map<String, Object> drive(String baseUrl, QuoteRepository quoteRepository, int clients) {
+        List<List<UUID>> quotesPerClient = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            List<Quote> quotes = new ArrayList<>();
+            for (int i = 0; i < bookingsPerClient; i++) {
+                quotes.add(Quote.builder()
+                        .currencyPair(CurrencyPairRegistry.of(currencyPairs.get((client + i) % currencyPairs.size())))
+                        .side(i % 2 == 0 ? Side.BUY : Side.SELL)
+                        .amount(new BigDecimal("10000.0000"))
+                        .rate(new BigDecimal("1.085000"))
+                        .expiresAt(LocalDateTime.now().plusMinutes(30))
+                        .build());
+            }
+            quotesPerClient.add(quoteRepository.saveAll(quotes).stream().map(Quote::getId).toList());
+        }
+
+        EndpointStats stats = new EndpointStats();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        try {
+            CompletableFuture.allOf(quotesPerClient.stream()
+                    .map(quoteIds -> CompletableFuture.runAsync(() -> bookAll(baseUrl, quoteIds, stats), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+        Map<String, Object> report = stats.toReport((System.nanoTime() - start) / 1e9);
+        report.put("clients", clients);
+        return report;
+    }
+
+    private void bookAll(String baseUrl, List<UUID> quoteIds, EndpointStats stats) {
+        for (UUID quoteId : quoteIds) {
+            long sent = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/trades"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"quoteId\":\"" + quoteId + "\"}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 201) {
+                    stats.recordSuccess(sent, sent, System.nanoTime());
+                } else {
+                    stats.recordError();
+                }
+            } catch (IOException ex) {
+                stats.recordError();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Path writeReport(Map<String, Object> modes) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("target", databaseUrl.isBlank() ? "embedded-h2" : databaseUrl);
+        report.put("bookingsPerClient", bookingsPerClient);
+        report.put("processors", Runtime.getRuntime().availableProcessors());
+        report.put("modes", modes);
+
+        Path directory = Path.of(reportDirectory);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("booking-sequencer-" + System.currentTimeMillis() + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+        return file;
+    }
+}
@@ -0,0 +1,38 @@
+package com.demo.fxportal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entry point for the booking sequencer comparison from Maven. Skipped unless
+ * {@code -Dloadtest=true} is given:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=BookingSequencerLoadTest -Dloadtest=true \
+ *     -Dloadtest.databaseUrl=jdbc:postgresql://localhost:5433/fxportal -Dloadtest.sequencer.clients=16,32,64
+ * </pre>
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class BookingSequencerLoadTest {
+
+    @Test
+    void bookings_shouldBeMeasuredOnBothPaths() throws Exception {
+        Path reportFile = new BookingSequencerHarness().run();
+
+        JsonNode modes = new ObjectMapper().readTree(reportFile.toFile()).path("modes");
+        for (String mode : new String[]{"direct", "sequencer"}) {
+            modes.path(mode).forEach(run -> {
+                assertThat(run.path("errors").asLong()).isZero();
+                assertThat(run.path("throughputPerSecond").asDouble()).isPositive();
+            });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.demo.fxportal.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts for one endpoint.
+ *
+ * <p>{@code responseTime} is measured from when the request was <em>supposed</em> to be sent
+ * under the open arrival schedule, so stalls in the load generator or the server's queue show
+ * up in the percentiles (coordinated-omission correction). {@code serviceTime} is measured from
+ * when it was actually sent.
+ */
+class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    void recordSuccess(long intendedStartNanos, long sentNanos, long completedNanos) {
+        responseTime.recordValue(Math.min(completedNanos - intendedStartNanos, HIGHEST_TRACKABLE_NANOS));
+        serviceTime.recordValue(Math.min(completedNanos - sentNanos, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    Map<String, Object> toReport(double measuredSeconds) {
+        long successes = responseTime.getTotalCount();
+        long failures = errors.sum();
+        long total = successes + failures;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", total);
+        report.put("errors", failures);
+        report.put("errorRate", total == 0 ? 0.0 : (double) failures / total);
+        report.put("throughputPerSecond", successes / measuredSeconds);
+        report.put("responseTimeMillis", percentiles(responseTime));
+        report.put("serviceTimeMillis", percentiles(serviceTime));
+        return report;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", millis(histogram.getValueAtPercentile(50.0)));
+        percentiles.put("p99", millis(histogram.getValueAtPercentile(99.0)));
+        percentiles.put("p99.9", millis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        return percentiles;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,155 @@
+package com.demo.fxportal.loadtest;
+
+import com.demo.fxportal.FxPortalApplication;
+import com.demo.fxportal.config.EodReportProperties;
+import com.demo.fxportal.dto.EodReportResponse;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.service.EodReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * End-of-day report throughput by worker count. Seeds {@code loadtest.eod.trades} open trades spread
+ * over a day of {@code booked_at}, then generates the report at each of {@code loadtest.eod.parallelism}
+ * and records the best of {@code loadtest.eod.runs} runs.
+ *
+ * <p>Runs on in-memory H2 unless {@code loadtest.databaseUrl} points at Postgres; only Postgres
+ * streams a range with a cursor, so that is where the numbers mean something. Run from Maven with
+ * {@code ./mvnw test -Dtest=EodReportLoadTest -Dloadtest=true}.
+ */
+public class EodReportHarness {
+
+    private final int trades = Integer.getInteger("loadtest.eod.trades", 200_000);
+    private final int[] parallelisms = Arrays.stream(System.getProperty("loadtest.eod.parallelism", "1,2,4")
+            .split(",")).mapToInt(Integer::parseInt).toArray();
+    private final int runs = Integer.getInteger("loadtest.eod.runs", 3);
+    private final String databaseUrl = System.getProperty("loadtest.databaseUrl", "");
+    private final List<String> currencyPairs =
+            List.of(System.getProperty("loadtest.pairs", "EUR/USD,GBP/USD,USD/JPY,EUR/JPY,GBP/CHF").split(","));
+    private final String reportDirectory = System.getProperty("loadtest.reportDir", "target/loadtest");
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        Path report = new EodReportHarness().run();
+        System.out.println("End-of-day report throughput written to " + report.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /** Measures the report at every worker count and returns the path of the written report. */
+    public Path run() throws Exception {
+        Map<String, Object> byParallelism = new LinkedHashMap<>();
+        try (ConfigurableApplicationContext context = startEmbeddedApplication()) {
+            seed(context.getBean(JdbcTemplate.class));
+            EodReportService service = context.getBean(EodReportService.class);
+            EodReportProperties properties = context.getBean(EodReportProperties.class);
+            properties.setMaxConnections(Arrays.stream(parallelisms).max().orElse(1));
+
+            // Warm up the scan path before anything is recorded
+            service.generate();
+            for (int parallelism : parallelisms) {
+                properties.setParallelism(parallelism);
+                byParallelism.put(String.valueOf(parallelism), measure(service));
+            }
+        }
+        return writeReport(byParallelism);
+    }
+
+    private ConfigurableApplicationContext startEmbeddedApplication() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--fxportal.quote-reaper.enabled=false",
+                "--fxportal.warmup.enabled=false",
+                "--fxportal.eod-report.directory=" + reportDirectory + "/eod-reports",
+                "--logging.level.com.demo.fxportal=WARN"));
+        if (databaseUrl.isBlank()) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:eod-report;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.flyway.enabled=false"));
+        } else {
+            args.add("--spring.datasource.url=" + databaseUrl);
+        }
+        return new SpringApplicationBuilder(FxPortalApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /** Inserts the quotes and open trades in JDBC batches, booked at random times over the last day. */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime dayStart = LocalDateTime.now().minusDays(1);
+        int batchSize = 5_000;
+        for (int offset = 0; offset < trades; offset += batchSize) {
+            List<Object[]> quotes = new ArrayList<>();
+            List<Object[]> bookings = new ArrayList<>();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = offset; i < Math.min(trades, offset + batchSize); i++) {
+                UUID quoteId = UUID.randomUUID();
+                short pairId = CurrencyPairRegistry.of(currencyPairs.get(i % currencyPairs.size())).getId();
+                String side = i % 2 == 0 ? "BUY" : "SELL";
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong(1_000, 5_000_000));
+                BigDecimal rate = BigDecimal.valueOf(random.nextLong(900_000, 1_300_000), 6);
+                Timestamp bookedAt = Timestamp.valueOf(dayStart.plusNanos(random.nextLong(86_400_000_000L) * 1_000));
+                quotes.add(new Object[]{quoteId, pairId, side, amount, rate, bookedAt, bookedAt});
+                bookings.add(new Object[]{UUID.randomUUID(), quoteId, pairId, side, amount, rate, "BOOKED", bookedAt});
+            }
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO quotes (id, currency_pair_id, side, amount, rate, expires_at, created_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    """, quotes);
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO trades (id, quote_id, currency_pair_id, side, amount, rate, status, booked_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    """, bookings);
+        }
+    }
+
+    private Map<String, Object> measure(EodReportService service) {
+        long bestMillis = Long.MAX_VALUE;
+        EodReportResponse last = null;
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            last = service.generate();
+            bestMillis = Math.min(bestMillis, (System.nanoTime() - start) / 1_000_000);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("parallelism", last.getParallelism());
+        result.put("ranges", last.getRanges());
+        result.put("openTrades", last.getOpenTrades());
+        result.put("bestMillis", bestMillis);
+        result.put("tradesPerSecond", last.getOpenTrades() * 1000.0 / Math.max(1, bestMillis));
+        return result;
+    }
+
+    private Path writeReport(Map<String, Object> byParallelism) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("target", databaseUrl.isBlank() ? "embedded-h2" : databaseUrl);
+        report.put("seededTrades", trades);
+        report.put("processors", Runtime.getRuntime().availableProcessors());
+        report.put("parallelism", byParallelism);
+
+        Path directory = Path.of(reportDirectory);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("eod-report-" + System.currentTimeMillis() + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+        return file;
+    }
+}
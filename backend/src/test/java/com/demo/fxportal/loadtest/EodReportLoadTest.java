@@ -0,0 +1,37 @@
+package com.demo.fxportal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entry point for the end-of-day report scaling run from Maven. Skipped unless
+ * {@code -Dloadtest=true} is given:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=EodReportLoadTest -Dloadtest=true \
+ *     -Dloadtest.databaseUrl=jdbc:postgresql://localhost:5433/fxportal -Dloadtest.eod.parallelism=1,2,4,8
+ * </pre>
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class EodReportLoadTest {
+
+    @Test
+    void report_shouldBeMeasuredAtEveryParallelism() throws Exception {
+        Path reportFile = new EodReportHarness().run();
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        long seeded = report.path("seededTrades").asLong();
+        report.path("parallelism").forEach(run -> {
+            assertThat(run.path("openTrades").asLong()).isGreaterThanOrEqualTo(seeded);
+            assertThat(run.path("tradesPerSecond").asDouble()).isPositive();
+        });
+    }
+}
@@ -0,0 +1,189 @@
+package com.demo.fxportal.loadtest;
+
+import com.demo.fxportal.FxPortalApplication;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.gateway.FxGatewayClient;
+import com.demo.fxportal.gateway.GatewayServer;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import com.demo.fxportal.wire.FxBinaryHttpMessageConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Quote-then-book round trips from a single client over each transport, against an embedded
+ * {@link FxPortalApplication} on H2 with the binary gateway switched on:
+ * <ul>
+ *   <li>{@code rest-json}: Spring MVC with JSON bodies, as the UI and most clients use it</li>
+ *   <li>{@code rest-binary}: Spring MVC with {@code application/x-fx-binary} bodies</li>
+ *   <li>{@code gateway}: the TCP gateway, one request at a time</li>
+ *   <li>{@code gateway-pipelined}: the TCP gateway with {@code loadtest.gateway.pipelineDepth}
+ *       round trips outstanding</li>
+ * </ul>
+ * Run from Maven with {@code ./mvnw test -Dtest=GatewayLatencyLoadTest -Dloadtest=true}.
+ */
+public class GatewayLatencyHarness {
+
+    private final int iterations = Integer.getInteger("loadtest.gateway.iterations", 5_000);
+    private final int warmupIterations = Integer.getInteger("loadtest.gateway.warmup", 2_000);
+    private final int pipelineDepth = Integer.getInteger("loadtest.gateway.pipelineDepth", 16);
+    private final String reportDirectory = System.getProperty("loadtest.reportDir", "target/loadtest");
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        Path report = new GatewayLatencyHarness().run();
+        System.out.println("Gateway latency report written to " + report.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /** Runs every transport in turn and returns the path of the written report. */
+    public Path run() throws Exception {
+        try (ConfigurableApplicationContext context = startEmbeddedApplication()) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            int gatewayPort = context.getBean(GatewayServer.class).getLocalPort();
+
+            Map<String, Object> transports = new LinkedHashMap<>();
+            transports.put("rest-json", measure(this::restJsonRoundTrip));
+            transports.put("rest-binary", measure(this::restBinaryRoundTrip));
+            try (FxGatewayClient client = FxGatewayClient.connect("localhost", gatewayPort)) {
+                transports.put("gateway", measure(() -> gatewayRoundTrip(client).join()));
+                transports.put("gateway-pipelined", measurePipelined(client));
+            }
+            return writeReport(transports);
+        }
+    }
+
+    private ConfigurableApplicationContext startEmbeddedApplication() {
+        return new SpringApplicationBuilder(FxPortalApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:gatewaylatency;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--fxportal.quote-reaper.enabled=false",
+                "--fxportal.quote-rate-limit.enabled=false",
+                "--fxportal.warmup.enabled=false",
+                "--fxportal.gateway.enabled=true",
+                "--fxportal.gateway.port=0",
+                "--logging.level.com.demo.fxportal=WARN");
+    }
+
+    private interface RoundTrip {
+        void run() throws Exception;
+    }
+
+    private Map<String, Object> measure(RoundTrip roundTrip) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            roundTrip.run();
+        }
+        EndpointStats stats = new EndpointStats();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long sent = System.nanoTime();
+            roundTrip.run();
+            stats.recordSuccess(sent, sent, System.nanoTime());
+        }
+        return stats.toReport((System.nanoTime() - start) / 1e9);
+    }
+
+    private Map<String, Object> measurePipelined(FxGatewayClient client) {
+        for (int i = 0; i < warmupIterations; i++) {
+            gatewayRoundTrip(client).join();
+        }
+        EndpointStats stats = new EndpointStats();
+        Deque<CompletableFuture<?>> window = new ArrayDeque<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (window.size() == pipelineDepth) {
+                window.poll().join();
+            }
+            long sent = System.nanoTime();
+            window.add(gatewayRoundTrip(client).thenRun(() -> stats.recordSuccess(sent, sent, System.nanoTime())));
+        }
+        window.forEach(CompletableFuture::join);
+        Map<String, Object> report = stats.toReport((System.nanoTime() - start) / 1e9);
+        report.put("pipelineDepth", pipelineDepth);
+        return report;
+    }
+
+    private void restJsonRoundTrip() throws IOException, InterruptedException {
+        JsonNode quote = objectMapper.readTree(post("/api/quotes", "application/json",
+                "{\"currencyPair\":\"EUR/USD\",\"side\":\"BUY\",\"amount\":10000}".getBytes(), 201));
+        post("/api/trades", "application/json",
+                ("{\"quoteId\":\"" + quote.get("quoteId").asText() + "\"}").getBytes(), 201);
+    }
+
+    private void restBinaryRoundTrip() throws IOException, InterruptedException {
+        byte[] quote = post("/api/quotes", FxBinaryHttpMessageConverter.MEDIA_TYPE_VALUE,
+                FxBinaryCodec.encode(quoteRequest()), 201);
+        UUID quoteId = FxBinaryCodec.decode(ByteBuffer.wrap(quote), QuoteResponse.class).getQuoteId();
+        post("/api/trades", FxBinaryHttpMessageConverter.MEDIA_TYPE_VALUE,
+                FxBinaryCodec.encode(new TradeRequest(quoteId)), 201);
+    }
+
+    private CompletableFuture<TradeResponse> gatewayRoundTrip(FxGatewayClient client) {
+        return client.requestQuote(quoteRequest())
+                .thenCompose(quote -> client.bookTrade(new TradeRequest(quote.getQuoteId())));
+    }
+
+    private static QuoteRequest quoteRequest() {
+        return new QuoteRequest("EUR/USD", Side.BUY, new BigDecimal("10000"));
+    }
+
+    private byte[] post(String path, String mediaType, byte[] body, int expectedStatus)
+            throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Content-Type", mediaType)
+                        .header("Accept", mediaType)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(path + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private Path writeReport(Map<String, Object> transports) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("target", "embedded-h2");
+        report.put("iterations", iterations);
+        report.put("roundTrip", "quote then book");
+        report.put("transports", transports);
+
+        Path directory = Path.of(reportDirectory);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("gateway-latency-" + System.currentTimeMillis() + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+        return file;
+    }
+}
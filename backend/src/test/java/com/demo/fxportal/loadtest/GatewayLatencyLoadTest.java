@@ -0,0 +1,35 @@
+package com.demo.fxportal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entry point for the REST vs. gateway latency comparison from Maven. Skipped unless
+ * {@code -Dloadtest=true} is given:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=GatewayLatencyLoadTest -Dloadtest=true -Dloadtest.gateway.iterations=10000
+ * </pre>
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class GatewayLatencyLoadTest {
+
+    @Test
+    void quoteAndBook_shouldBeMeasuredOnEveryTransport() throws Exception {
+        Path reportFile = new GatewayLatencyHarness().run();
+
+        JsonNode transports = new ObjectMapper().readTree(reportFile.toFile()).path("transports");
+        for (String transport : new String[]{"rest-json", "rest-binary", "gateway", "gateway-pipelined"}) {
+            assertThat(transports.path(transport).path("errors").asLong()).isZero();
+            assertThat(transports.path(transport).path("responseTimeMillis").has("p99")).isTrue();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo.fxportal.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for {@link LoadTestHarness}, read from {@code loadtest.*} system properties.
+ *
+ * @param baseUrl           target server; when blank an embedded app on H2 is started
+ * @param arrivalRate       new quote-to-book flows started per second (open model)
+ * @param clients           when positive, run a closed model instead: this many clients each
+ *                          start their next flow as soon as the previous one finished
+ * @param duration          how long flows keep arriving
+ * @param warmup            arrivals during this initial period are not recorded
+ * @param meanThinkTime     mean of the exponential pause between quote and booking
+ * @param bookRatio         share of quotes that are booked
+ * @param historyRatio      share of flows that browse the trade history afterwards
+ * @param currencyPairs     pairs quoted, picked uniformly
+ * @param reportDirectory   where the JSON report is written
+ */
+public record LoadTestConfig(
+        String baseUrl,
+        int arrivalRate,
+        int clients,
+        Duration duration,
+        Duration warmup,
+        Duration meanThinkTime,
+        double bookRatio,
+        double historyRatio,
+        List<String> currencyPairs,
+        String reportDirectory) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("loadtest.baseUrl", ""),
+                Integer.getInteger("loadtest.rate", 200),
+                Integer.getInteger("loadtest.clients", 0),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT5S")),
+                Duration.parse(System.getProperty("loadtest.thinkTime", "PT0.2S")),
+                Double.parseDouble(System.getProperty("loadtest.bookRatio", "0.8")),
+                Double.parseDouble(System.getProperty("loadtest.historyRatio", "0.2")),
+                List.of(System.getProperty("loadtest.pairs", "EUR/USD,GBP/USD,USD/JPY,EUR/JPY,GBP/CHF").split(",")),
+                System.getProperty("loadtest.reportDir", "target/loadtest"));
+    }
+}
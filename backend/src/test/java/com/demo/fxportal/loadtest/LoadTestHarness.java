@@ -0,0 +1,239 @@
+package com.demo.fxportal.loadtest;
+
+import com.demo.fxportal.FxPortalApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the quote-to-book flow: request a quote, optionally think,
+ * book it, and sometimes browse the trade history.
+ *
+ * <p>Flows arrive on a fixed schedule regardless of how fast the server answers, and every
+ * latency is measured from its scheduled start (see {@link EndpointStats}). Without a
+ * {@code loadtest.baseUrl} the harness boots {@link FxPortalApplication} on an in-memory H2
+ * database. Run from Maven with {@code ./mvnw test -Dtest=QuoteToBookLoadTest -Dloadtest=true}.
+ */
+public class LoadTestHarness {
+
+    static final String QUOTE = "POST /api/quotes";
+    static final String BOOK = "POST /api/trades";
+    static final String HISTORY = "GET /api/trades";
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Executor thinkTimeExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    private HttpClient httpClient;
+    private String baseUrl;
+    private long recordFromNanos;
+
+    public LoadTestHarness(LoadTestConfig config) {
+        this.config = config;
+        stats.put(QUOTE, new EndpointStats());
+        stats.put(BOOK, new EndpointStats());
+        stats.put(HISTORY, new EndpointStats());
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path report = new LoadTestHarness(LoadTestConfig.fromSystemProperties()).run();
+        System.out.println("Load test report written to " + report.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /** Runs the workload and returns the path of the written report. */
+    public Path run() throws IOException {
+        ConfigurableApplicationContext context = config.baseUrl().isBlank() ? startEmbeddedApplication() : null;
+        try {
+            baseUrl = context == null
+                    ? config.baseUrl()
+                    : "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                    .build();
+            return writeReport(config.clients() > 0 ? driveClosed() : drive());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startEmbeddedApplication() {
+        // Passed as arguments rather than default properties so they win over application.properties
+        return new SpringApplicationBuilder(FxPortalApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--fxportal.quote-reaper.enabled=false",
+                // Every simulated client shares this host's address, so one bucket would throttle them all
+                "--fxportal.quote-rate-limit.enabled=false",
+                "--logging.level.com.demo.fxportal=WARN");
+    }
+
+    private double drive() {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.arrivalRate();
+        long arrivals = config.duration().toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        recordFromNanos = start + config.warmup().toNanos();
+
+        CompletableFuture<?>[] flows = new CompletableFuture<?>[(int) arrivals];
+        for (int i = 0; i < arrivals; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            flows[i] = startFlow(intendedStart);
+        }
+        CompletableFuture.allOf(flows).orTimeout(1, TimeUnit.MINUTES).exceptionally(ex -> null).join();
+
+        return (config.duration().toNanos() - config.warmup().toNanos()) / 1e9;
+    }
+
+    /**
+     * Closed model for concurrency comparisons: each client loops until the deadline. Latency is
+     * measured from when each flow actually started, so it is not corrected for waiting.
+     */
+    private double driveClosed() {
+        long start = System.nanoTime();
+        long deadline = start + config.duration().toNanos();
+        recordFromNanos = start + config.warmup().toNanos();
+
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[config.clients()];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = loopFlows(deadline);
+        }
+        CompletableFuture.allOf(clients).orTimeout(1, TimeUnit.MINUTES).exceptionally(ex -> null).join();
+
+        return (config.duration().toNanos() - config.warmup().toNanos()) / 1e9;
+    }
+
+    private CompletableFuture<?> loopFlows(long deadline) {
+        long now = System.nanoTime();
+        if (now >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return startFlow(now).thenCompose(ignored -> loopFlows(deadline));
+    }
+
+    private CompletableFuture<?> startFlow(long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String currencyPair = config.currencyPairs().get(random.nextInt(config.currencyPairs().size()));
+        String side = random.nextBoolean() ? "BUY" : "SELL";
+        boolean book = random.nextDouble() < config.bookRatio();
+        boolean browse = random.nextDouble() < config.historyRatio();
+        String quoteBody = "{\"currencyPair\":\"" + currencyPair + "\",\"side\":\"" + side
+                + "\",\"amount\":" + (1000 + random.nextInt(1_000_000)) + "}";
+
+        return send(QUOTE, post("/api/quotes", quoteBody), 201, intendedStart)
+                .thenCompose(quote -> {
+                    if (quote == null || !book) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    long thinkNanos = thinkTimeNanos();
+                    String quoteId = quote.get("quoteId").asText();
+                    return CompletableFuture.supplyAsync(System::nanoTime,
+                                    CompletableFuture.delayedExecutor(thinkNanos, TimeUnit.NANOSECONDS, thinkTimeExecutor))
+                            .thenCompose(bookStart -> send(BOOK,
+                                    post("/api/trades", "{\"quoteId\":\"" + quoteId + "\"}"), 201, bookStart));
+                })
+                .thenCompose(trade -> browse
+                        ? send(HISTORY, get("/api/trades?size=20&currencyPair="
+                        + URLEncoder.encode(currencyPair, StandardCharsets.UTF_8)), 200, System.nanoTime())
+                        : CompletableFuture.completedFuture(null));
+    }
+
+    private CompletableFuture<JsonNode> send(String endpoint, HttpRequest request, int expectedStatus, long intendedStart) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        boolean recorded = intendedStart >= recordFromNanos;
+        long sent = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    long completed = System.nanoTime();
+                    if (failure != null || response.statusCode() != expectedStatus) {
+                        if (recorded) {
+                            endpointStats.recordError();
+                        }
+                        return null;
+                    }
+                    if (recorded) {
+                        endpointStats.recordSuccess(intendedStart, sent, completed);
+                    }
+                    try {
+                        return objectMapper.readTree(response.body());
+                    } catch (IOException ex) {
+                        return null;
+                    }
+                });
+    }
+
+    private long thinkTimeNanos() {
+        long mean = config.meanThinkTime().toNanos();
+        return mean == 0 ? 0 : (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * mean);
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private Path writeReport(double measuredSeconds) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> endpoints.put(entry.getKey(), entry.getValue().toReport(measuredSeconds)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("target", config.baseUrl().isBlank() ? "embedded-h2" : config.baseUrl());
+        report.put("config", config);
+        report.put("measuredSeconds", measuredSeconds);
+        report.put("endpoints", endpoints);
+
+        Path directory = Path.of(config.reportDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve("quote-to-book-" + System.currentTimeMillis() + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+        return file;
+    }
+}
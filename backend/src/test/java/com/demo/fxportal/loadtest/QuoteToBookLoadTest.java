@@ -0,0 +1,32 @@
+package com.demo.fxportal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entry point for the load test from Maven. Skipped unless {@code -Dloadtest=true} is given:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=QuoteToBookLoadTest -Dloadtest=true -Dloadtest.rate=500 -Dloadtest.duration=PT60S
+ * </pre>
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class QuoteToBookLoadTest {
+
+    @Test
+    void quoteToBookFlow_shouldProduceReport() throws Exception {
+        Path reportFile = new LoadTestHarness(LoadTestConfig.fromSystemProperties()).run();
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertThat(report.path("endpoints").path(LoadTestHarness.QUOTE).path("requests").asLong()).isPositive();
+        assertThat(report.path("endpoints").path(LoadTestHarness.QUOTE).path("responseTimeMillis").has("p99.9")).isTrue();
+    }
+}
@@ -0,0 +1,57 @@
+package com.demo.fxportal.metrics;
+
+import com.demo.fxportal.metrics.TradingMetrics.BookingOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradingMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TradingMetrics tradingMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tradingMetrics = new TradingMetrics(meterRegistry);
+    }
+
+    @Test
+    void constructor_shouldRegisterEveryOutcomeAndFilterCombinationUpFront() {
+        assertThat(meterRegistry.get("fxportal.trades.bookings").timers()).hasSize(BookingOutcome.values().length);
+        assertThat(meterRegistry.get("fxportal.quotes.requests").timers()).hasSize(2);
+        assertThat(meterRegistry.get("fxportal.trades.history").timers()).hasSize(32);
+    }
+
+    @Test
+    void filterTag_shouldNameFiltersInFixedOrder() {
+        assertThat(TradingMetrics.filterTag(0)).isEqualTo("none");
+        assertThat(TradingMetrics.filterTag(TradingMetrics.FILTER_TO_DATE | TradingMetrics.FILTER_CURRENCY_PAIR))
+                .isEqualTo("currencyPair+toDate");
+    }
+
+    @Test
+    void recordQuoteToBook_shouldMeasureFromQuoteCreationToBooking() {
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        tradingMetrics.recordQuoteToBook(createdAt, createdAt.plusSeconds(3));
+        tradingMetrics.recordQuoteToBook(null, createdAt);
+
+        var timer = meterRegistry.get("fxportal.trades.quote.to.book").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.SECONDS)).isEqualTo(3.0);
+    }
+
+    @Test
+    void recordHistoryQuery_shouldRecordAgainstFilterCombination() {
+        tradingMetrics.recordHistoryQuery(TradingMetrics.FILTER_SIDE | TradingMetrics.FILTER_STATUS, System.nanoTime());
+
+        assertThat(meterRegistry.get("fxportal.trades.history").tag("filters", "side+status").timer().count())
+                .isEqualTo(1);
+    }
+}
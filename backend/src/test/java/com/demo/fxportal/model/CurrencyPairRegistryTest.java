@@ -0,0 +1,80 @@
+package com.demo.fxportal.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CurrencyPairRegistryTest {
+
+    @Test
+    void of_shouldInternPairs() {
+        CurrencyPair first = CurrencyPairRegistry.of("EUR/USD");
+        CurrencyPair second = CurrencyPairRegistry.of(new String("EUR/USD"));
+
+        assertThat(first).isSameAs(second);
+        assertThat(first.getSymbol()).isEqualTo("EUR/USD");
+        assertThat(first.isTradable()).isTrue();
+        assertThat(CurrencyPairRegistry.fromId(first.getId())).isSameAs(first);
+    }
+
+    @Test
+    void of_withUnknownPair_shouldThrow() {
+        assertThatThrownBy(() -> CurrencyPairRegistry.of("ABC/XYZ"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported currency pair");
+        assertThat(CurrencyPairRegistry.find("EUR/EUR")).isEmpty();
+    }
+
+    @Test
+    void registerLegacy_shouldMakeStoredPairReadableButNotTradable() {
+        CurrencyPair legacy = CurrencyPairRegistry.registerLegacy((short) 1024, "ABC/DEF");
+
+        assertThat(CurrencyPairRegistry.of("ABC/DEF")).isSameAs(legacy);
+        assertThat(CurrencyPairRegistry.fromId((short) 1024)).isSameAs(legacy);
+        assertThat(legacy.isTradable()).isFalse();
+    }
+
+    @Test
+    void registerLegacy_withSameCurrencyPair_shouldBeFoundBySymbol() {
+        CurrencyPair legacy = CurrencyPairRegistry.registerLegacy((short) 1025, "GBP/GBP");
+
+        assertThat(CurrencyPairRegistry.of("GBP/GBP")).isSameAs(legacy);
+        assertThat(CurrencyPairRegistry.findTradable("GBP/GBP")).isEmpty();
+    }
+
+    @Test
+    void converter_shouldRoundTripThroughId() {
+        CurrencyPairConverter converter = new CurrencyPairConverter();
+        CurrencyPair pair = CurrencyPairRegistry.of("USD/JPY");
+
+        Short id = converter.convertToDatabaseColumn(pair);
+
+        assertThat(id).isEqualTo((short) 3);
+        assertThat(converter.convertToEntityAttribute(id)).isSameAs(pair);
+    }
+
+    @Test
+    void supportedPairs_shouldMatchTheDictionarySeededByMigration() throws IOException {
+        Map<Short, String> seeded = new HashMap<>();
+        try (InputStream in = getClass().getResourceAsStream("/db/migration/V4__Dictionary_encode_currency_pairs.sql")) {
+            String sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            Matcher matcher = Pattern.compile("\\((\\d+), '([A-Z]{3}/[A-Z]{3})'\\)").matcher(sql);
+            while (matcher.find()) {
+                seeded.put(Short.parseShort(matcher.group(1)), matcher.group(2));
+            }
+        }
+
+        assertThat(seeded).hasSize(CurrencyPairRegistry.supported().size());
+        CurrencyPairRegistry.supported().forEach(pair ->
+                assertThat(seeded.get(pair.getId())).isEqualTo(pair.getSymbol()));
+    }
+}
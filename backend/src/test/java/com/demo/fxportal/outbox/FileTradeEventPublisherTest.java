@@ -0,0 +1,55 @@
+package com.demo.fxportal.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileTradeEventPublisherTest {
+
+    @TempDir
+    Path directory;
+
+    private static TradeEvent event(long id) {
+        return new TradeEvent(id, TradeEventType.TRADE_BOOKED, UUID.randomUUID(), "{\"id\":" + id + "}",
+                LocalDateTime.now());
+    }
+
+    @Test
+    void publish_shouldAppendOneLinePerEventInOrder() throws Exception {
+        // Given
+        Path file = directory.resolve("events/trade-events.ndjson");
+
+        // When
+        try (FileTradeEventPublisher publisher = new FileTradeEventPublisher(file)) {
+            publisher.publish(List.of(event(1), event(2)));
+            publisher.publish(List.of(event(3)));
+        }
+
+        // Then
+        assertThat(Files.readAllLines(file)).containsExactly("{\"id\":1}", "{\"id\":2}", "{\"id\":3}");
+    }
+
+    @Test
+    void publish_afterRestart_shouldAppendToTheExistingFile() throws Exception {
+        // Given
+        Path file = directory.resolve("trade-events.ndjson");
+        try (FileTradeEventPublisher publisher = new FileTradeEventPublisher(file)) {
+            publisher.publish(List.of(event(1)));
+        }
+
+        // When
+        try (FileTradeEventPublisher publisher = new FileTradeEventPublisher(file)) {
+            publisher.publish(List.of(event(2)));
+        }
+
+        // Then
+        assertThat(Files.readAllLines(file)).containsExactly("{\"id\":1}", "{\"id\":2}");
+    }
+}
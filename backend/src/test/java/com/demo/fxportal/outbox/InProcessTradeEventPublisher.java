@@ -0,0 +1,28 @@
+package com.demo.fxportal.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Keeps published events in memory, and refuses the next batches when told to. */
+class InProcessTradeEventPublisher implements TradeEventPublisher {
+
+    private final List<TradeEvent> published = new ArrayList<>();
+    private int failuresLeft;
+
+    @Override
+    public synchronized void publish(List<TradeEvent> events) throws Exception {
+        if (failuresLeft > 0) {
+            failuresLeft--;
+            throw new Exception("Broker unavailable");
+        }
+        published.addAll(events);
+    }
+
+    synchronized void failNext(int batches) {
+        failuresLeft = batches;
+    }
+
+    synchronized List<TradeEvent> published() {
+        return List.copyOf(published);
+    }
+}
@@ -0,0 +1,157 @@
+package com.demo.fxportal.outbox;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.OutboxProperties;
+import com.demo.fxportal.repository.TradeOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TradeOutboxRelayTest {
+
+    @Mock
+    private TradeOutboxRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final InProcessTradeEventPublisher publisher = new InProcessTradeEventPublisher();
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxProperties properties;
+    private TradeOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new OutboxProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(3);
+        properties.setPollInterval(Duration.ofMillis(10));
+        properties.setRetryDelay(Duration.ofMillis(10));
+        relay = new TradeOutboxRelay(repository, publisher, properties,
+                new DbConcurrencyLimiter(new DbConcurrencyProperties(), meterRegistry), transactionManager, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    private static List<TradeEvent> events(long fromId, long toId) {
+        UUID tradeId = UUID.randomUUID();
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new TradeEvent(id, TradeEventType.TRADE_BOOKED, tradeId, "{\"id\":" + id + "}",
+                        LocalDateTime.now().minusSeconds(1)))
+                .toList();
+    }
+
+    @Test
+    void relayBatch_shouldPublishInIdOrderThenDelete() {
+        // Given
+        List<TradeEvent> batch = events(1, 3);
+        when(repository.lockOldest(3)).thenReturn(batch);
+
+        // When
+        int published = relay.relayBatch();
+
+        // Then
+        assertThat(published).isEqualTo(3);
+        assertThat(publisher.published()).extracting(TradeEvent::id).containsExactly(1L, 2L, 3L);
+        verify(repository).delete(batch);
+        InOrder commit = inOrder(repository, transactionManager);
+        commit.verify(repository).delete(batch);
+        commit.verify(transactionManager).commit(any());
+        assertThat(meterRegistry.get("fxportal.outbox.published").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("fxportal.outbox.batch").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("fxportal.outbox.lag").timer().max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    void relayBatch_whenOutboxIsEmpty_shouldNotPublish() {
+        // Given
+        when(repository.lockOldest(anyInt())).thenReturn(List.of());
+
+        // When
+        int published = relay.relayBatch();
+
+        // Then
+        assertThat(published).isZero();
+        assertThat(publisher.published()).isEmpty();
+        verify(repository, never()).delete(any());
+    }
+
+    @Test
+    void relayBatch_whenPublisherRefuses_shouldKeepTheEventsAndRollBack() {
+        // Given
+        when(repository.lockOldest(3)).thenReturn(events(1, 2));
+        publisher.failNext(1);
+
+        // When / Then
+        assertThatThrownBy(() -> relay.relayBatch()).hasMessageContaining("Publisher refused 2 trade events");
+        verify(repository, never()).delete(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void start_shouldDrainFullBatchesAndRetryRefusedOnesInOrder() {
+        // Given — two full batches, then a partial one the publisher refuses once
+        List<TradeEvent> first = events(1, 3);
+        List<TradeEvent> second = events(4, 6);
+        List<TradeEvent> third = events(7, 8);
+        when(repository.lockOldest(3)).thenReturn(first, second, third, third, List.of());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == second) {
+                publisher.failNext(1);
+            }
+            return null;
+        }).when(repository).delete(any());
+
+        // When
+        relay.start();
+
+        // Then
+        verify(repository, timeout(5000).times(3)).delete(any());
+        assertThat(publisher.published()).extracting(TradeEvent::id)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(meterRegistry.get("fxportal.outbox.publish.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void start_whenDisabled_shouldNotRelay() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        relay.start();
+
+        // Then
+        assertThat(relay.isRunning()).isFalse();
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,116 @@
+package com.demo.fxportal.outbox;
+
+import com.demo.fxportal.config.OutboxProperties;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.repository.TradeOutboxRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class TradeOutboxTest {
+
+    @Mock
+    private TradeOutboxRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private OutboxProperties properties;
+    private TradeOutbox tradeOutbox;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setEnabled(true);
+        tradeOutbox = new TradeOutbox(repository, properties, objectMapper);
+    }
+
+    private static Trade trade(Trade.Status status) {
+        return Trade.builder()
+                .id(UUID.randomUUID())
+                .quoteId(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.of("GBP/USD"))
+                .side(Side.SELL)
+                .amount(new BigDecimal("250000.00"))
+                .rate(new BigDecimal("1.265400"))
+                .status(status)
+                .bookedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TradeEvent> appended() {
+        ArgumentCaptor<List<TradeEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).append(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void tradesBooked_shouldAppendOneEventPerTradeInOrder() throws Exception {
+        // Given
+        Trade first = trade(Trade.Status.BOOKED);
+        Trade second = trade(Trade.Status.BOOKED);
+
+        // When
+        tradeOutbox.tradesBooked(List.of(first, second));
+
+        // Then
+        List<TradeEvent> events = appended();
+        assertThat(events).extracting(TradeEvent::tradeId).containsExactly(first.getId(), second.getId());
+        assertThat(events).extracting(TradeEvent::type).containsOnly(TradeEventType.TRADE_BOOKED);
+        JsonNode payload = objectMapper.readTree(events.get(0).payload());
+        assertThat(payload.path("type").asText()).isEqualTo("TRADE_BOOKED");
+        assertThat(payload.path("trade").path("tradeId").asText()).isEqualTo(first.getId().toString());
+        assertThat(payload.path("trade").path("currencyPair").asText()).isEqualTo("GBP/USD");
+        assertThat(payload.path("previousStatus").isNull()).isTrue();
+        assertThat(payload.path("occurredAt").isTextual()).isTrue();
+    }
+
+    @Test
+    void statusChanged_shouldCarryTheNewAndPreviousStatus() throws Exception {
+        // Given
+        Trade trade = trade(Trade.Status.CANCELLED);
+
+        // When
+        tradeOutbox.statusChanged(trade, Trade.Status.BOOKED);
+
+        // Then
+        TradeEvent event = appended().get(0);
+        assertThat(event.type()).isEqualTo(TradeEventType.TRADE_STATUS_CHANGED);
+        JsonNode payload = objectMapper.readTree(event.payload());
+        assertThat(payload.path("trade").path("status").asText()).isEqualTo("CANCELLED");
+        assertThat(payload.path("previousStatus").asText()).isEqualTo("BOOKED");
+    }
+
+    @Test
+    void tradesBooked_whenDisabled_shouldNotAppend() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        tradeOutbox.tradesBooked(List.of(trade(Trade.Status.BOOKED)));
+        tradeOutbox.statusChanged(trade(Trade.Status.SETTLED), Trade.Status.BOOKED);
+
+        // Then
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.fxportal.pricing;
+
+import com.demo.fxportal.config.PricingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CrossRateMatrixTest {
+
+    private CrossRateMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new CrossRateMatrix(new PricingProperties());
+    }
+
+    @Test
+    void rate_forDirectLegs_shouldMatchConfiguredRatesExactly() {
+        assertThat(rate("EUR/USD")).isEqualTo(new BigDecimal("1.085000"));
+        assertThat(rate("USD/JPY")).isEqualTo(new BigDecimal("149.500000"));
+        assertThat(rate("USD/CHF")).isEqualTo(new BigDecimal("0.875000"));
+    }
+
+    @Test
+    void rate_forInverseLeg_shouldBeReciprocal() {
+        assertThat(rate("USD/EUR")).isEqualTo(new BigDecimal("0.921659"));
+        assertThat(rate("JPY/USD")).isEqualTo(new BigDecimal("0.006689"));
+    }
+
+    @Test
+    void rate_forCrosses_shouldTriangulateThroughUsd() {
+        // 1.0850 * 149.50
+        assertThat(rate("EUR/JPY")).isEqualTo(new BigDecimal("162.207500"));
+        // 1.2650 * 0.8750
+        assertThat(rate("GBP/CHF")).isEqualTo(new BigDecimal("1.106875"));
+        // 1.0850 / 1.2650
+        assertThat(rate("EUR/GBP")).isEqualTo(new BigDecimal("0.857708"));
+    }
+
+    @Test
+    void rate_forUnknownOrIdenticalCurrencies_shouldBeUnavailable() {
+        assertThat(matrix.rate("ABC/USD")).isEqualTo(CrossRateMatrix.UNAVAILABLE);
+        assertThat(matrix.rate("EUR/EUR")).isEqualTo(CrossRateMatrix.UNAVAILABLE);
+        assertThat(matrix.rate("EURUSD")).isEqualTo(CrossRateMatrix.UNAVAILABLE);
+    }
+
+    @Test
+    void onTick_shouldRefreshEveryCrossOfTheMovedCurrency() {
+        matrix.onTick("USD/JPY", new BigDecimal("150.00"));
+
+        assertThat(rate("USD/JPY")).isEqualTo(new BigDecimal("150.000000"));
+        assertThat(rate("EUR/JPY")).isEqualTo(new BigDecimal("162.750000"));
+        assertThat(rate("JPY/CHF")).isEqualTo(new BigDecimal("0.005833"));
+        assertThat(rate("EUR/GBP")).isEqualTo(new BigDecimal("0.857708"));
+    }
+
+    @Test
+    void onTick_withNonUsdLeg_shouldThrow() {
+        assertThatThrownBy(() -> matrix.onTick("EUR/GBP", new BigDecimal("0.85")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not a USD leg");
+    }
+
+    private BigDecimal rate(String currencyPair) {
+        return FixedPoint.toBigDecimal(matrix.rate(currencyPair), FixedPoint.RATE_SCALE);
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.fxportal.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixedPointTest {
+
+    @Test
+    void applySpread_shouldMatchBigDecimalHalfUpRounding() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] baseRates = {1_085_000L, 1_265_000L, 149_500_000L, 875_000L, 655_000L, 1L, 9_999_999_999L};
+
+        for (long baseRate : baseRates) {
+            for (int i = 0; i < 10_000; i++) {
+                long spreadPpb = random.nextLong(-5_000_000L, 5_000_001L);
+
+                BigDecimal base = BigDecimal.valueOf(baseRate, FixedPoint.RATE_SCALE);
+                BigDecimal expected = base.add(base.multiply(BigDecimal.valueOf(spreadPpb, 9)))
+                        .setScale(FixedPoint.RATE_SCALE, RoundingMode.HALF_UP);
+
+                assertThat(FixedPoint.toBigDecimal(FixedPoint.applySpread(baseRate, spreadPpb), FixedPoint.RATE_SCALE))
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void mulDivHalfUp_shouldRoundHalfAwayFromZero() {
+        assertThat(FixedPoint.mulDivHalfUp(5, 1, 10)).isEqualTo(1);
+        assertThat(FixedPoint.mulDivHalfUp(4, 1, 10)).isZero();
+        assertThat(FixedPoint.mulDivHalfUp(-5, 1, 10)).isEqualTo(-1);
+        assertThat(FixedPoint.mulDivHalfUp(-4, 1, 10)).isZero();
+    }
+
+    @Test
+    void mulDivHalfUp_whenProductOverflows_shouldFallBackToExactArithmetic() {
+        long result = FixedPoint.mulDivHalfUp(Long.MAX_VALUE / 2, 10, 20);
+
+        assertThat(result).isEqualTo(Long.MAX_VALUE / 4 + 1);
+    }
+
+    @Test
+    void rescale_shouldRoundHalfUpWhenReducingScale() {
+        assertThat(FixedPoint.rescale(1_234_550L, 6, 4)).isEqualTo(12_346L);
+        assertThat(FixedPoint.rescale(12_345L, 4, 6)).isEqualTo(1_234_500L);
+    }
+
+    @Test
+    void bigDecimalConversions_shouldRoundTrip() {
+        BigDecimal amount = new BigDecimal("10000.1234");
+
+        long unscaled = FixedPoint.fromBigDecimal(amount, FixedPoint.AMOUNT_SCALE);
+
+        assertThat(unscaled).isEqualTo(100_001_234L);
+        assertThat(FixedPoint.toBigDecimal(unscaled, FixedPoint.AMOUNT_SCALE)).isEqualTo(amount);
+    }
+
+    @Test
+    void fromBigDecimal_whenValueDoesNotFitLong_shouldThrow() {
+        assertThatThrownBy(() -> FixedPoint.fromBigDecimal(new BigDecimal("999999999999999999"), FixedPoint.AMOUNT_SCALE))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
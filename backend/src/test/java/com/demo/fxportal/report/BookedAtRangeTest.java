@@ -0,0 +1,56 @@
+package com.demo.fxportal.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookedAtRangeTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 8, 0, 0, 123_000);
+
+    @Test
+    void split_shouldCoverTheRangeWithAdjacentEqualRanges() {
+        // Given
+        BookedAtRange day = new BookedAtRange(START, START.plusHours(12));
+
+        // When
+        List<BookedAtRange> ranges = day.split(8);
+
+        // Then
+        assertThat(ranges).hasSize(8);
+        assertThat(ranges.get(0).from()).isEqualTo(START);
+        assertThat(ranges.get(7).to()).isEqualTo(day.to());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i).from()).isEqualTo(ranges.get(i - 1).to());
+        }
+        assertThat(ranges.get(1).from()).isEqualTo(START.plusMinutes(90));
+    }
+
+    @Test
+    void split_shouldKeepBoundariesOnWholeMicroseconds() {
+        // Given
+        BookedAtRange range = new BookedAtRange(START, START.plusNanos(10_000));
+
+        // When
+        List<BookedAtRange> ranges = range.split(3);
+
+        // Then
+        assertThat(ranges).extracting(BookedAtRange::to).allSatisfy(to -> assertThat(to.getNano() % 1_000).isZero());
+        assertThat(ranges.get(ranges.size() - 1).to()).isEqualTo(range.to());
+    }
+
+    @Test
+    void split_narrowerThanTheCount_shouldDropEmptyRanges() {
+        // Given - a single trade: the range is one microsecond wide
+        BookedAtRange range = new BookedAtRange(START, START.plusNanos(1_000));
+
+        // When
+        List<BookedAtRange> ranges = range.split(16);
+
+        // Then
+        assertThat(ranges).containsExactly(range);
+    }
+}
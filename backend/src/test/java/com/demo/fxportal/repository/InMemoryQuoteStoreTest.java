@@ -0,0 +1,54 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryQuoteStoreTest {
+
+    private final InMemoryQuoteStore store = new InMemoryQuoteStore(Duration.ofMinutes(5));
+
+    private static Quote quote(LocalDateTime expiresAt) {
+        return Quote.builder()
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
+                .side(Side.BUY)
+                .amount(new BigDecimal("1000.00"))
+                .rate(new BigDecimal("1.085000"))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void save_AssignsIdAndCreatedAt() {
+        // When
+        Quote saved = store.save(quote(LocalDateTime.now().plus(Quote.VALIDITY)));
+
+        // Then
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getCreatedAt()).isNotNull();
+        assertThat(store.findById(saved.getId())).contains(saved);
+    }
+
+    @Test
+    void save_DropsQuotesExpiredLongerThanTheRetention() {
+        // Given
+        Quote stale = store.save(quote(LocalDateTime.now().minusMinutes(10)));
+        Quote recentlyExpired = store.save(quote(LocalDateTime.now().minusMinutes(1)));
+
+        // When
+        Quote live = store.save(quote(LocalDateTime.now().plus(Quote.VALIDITY)));
+
+        // Then
+        assertThat(store.findById(stale.getId())).isEmpty();
+        assertThat(store.findById(recentlyExpired.getId())).isPresent();
+        assertThat(store.findById(live.getId())).isPresent();
+        assertThat(store.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,188 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryTradeStoreTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 9, 0);
+    private static final TradeHistoryFilter ALL = new TradeHistoryFilter(null, null, null, null, null);
+
+    private InMemoryTradeStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTradeStore();
+    }
+
+    private static Trade trade(String pair, Side side, String amount, LocalDateTime bookedAt) {
+        return Trade.builder()
+                .quoteId(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.of(pair))
+                .side(side)
+                .amount(new BigDecimal(amount))
+                .rate(new BigDecimal("1.085000"))
+                .bookedAt(bookedAt)
+                .build();
+    }
+
+    @Test
+    void save_AssignsIdAndDefaults_AndReturnsCopies() {
+        // When
+        Trade saved = store.save(trade("EUR/USD", Side.BUY, "1000", null));
+        saved.setStatus(Trade.Status.CANCELLED);
+
+        // Then
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getBookedAt()).isNotNull();
+        Trade found = store.findById(saved.getId()).orElseThrow();
+        assertThat(found.getStatus()).isEqualTo(Trade.Status.BOOKED);
+        assertThat(store.existsByQuoteId(saved.getQuoteId())).isTrue();
+        assertThat(store.findById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void save_SecondTradeForQuote_IsRefusedLikeTheUniqueConstraint() {
+        // Given
+        Trade first = store.save(trade("EUR/USD", Side.BUY, "1000", DAY));
+        Trade second = trade("EUR/USD", Side.SELL, "2000", DAY);
+        second.setQuoteId(first.getQuoteId());
+
+        // When / Then
+        assertThatThrownBy(() -> store.save(second)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void saveAll_WithOneDuplicate_StoresNone() {
+        // Given
+        Trade booked = store.save(trade("EUR/USD", Side.BUY, "1000", DAY));
+        Trade fresh = trade("GBP/USD", Side.BUY, "1000", DAY);
+        Trade duplicate = trade("EUR/USD", Side.SELL, "1000", DAY);
+        duplicate.setQuoteId(booked.getQuoteId());
+
+        // When / Then
+        assertThatThrownBy(() -> store.saveAll(List.of(fresh, duplicate)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(store.existsByQuoteId(fresh.getQuoteId())).isFalse();
+        assertThat(store.findBookedQuoteIds(List.of(fresh.getQuoteId(), booked.getQuoteId())))
+                .containsExactly(booked.getQuoteId());
+        assertThat(store.findTradeIdsByQuoteId(List.of(fresh.getQuoteId(), booked.getQuoteId())))
+                .containsExactly(Map.entry(booked.getQuoteId(), booked.getId()));
+    }
+
+    @Test
+    void updateStatus_OnlyFromTheExpectedStatus() {
+        // Given
+        Trade saved = store.save(trade("EUR/USD", Side.BUY, "1000", DAY));
+
+        // When
+        int settled = store.updateStatus(saved.getId(), Trade.Status.BOOKED, Trade.Status.SETTLED);
+        int cancelled = store.updateStatus(saved.getId(), Trade.Status.BOOKED, Trade.Status.CANCELLED);
+
+        // Then
+        assertThat(settled).isEqualTo(1);
+        assertThat(cancelled).isZero();
+        assertThat(store.updateStatus(UUID.randomUUID(), Trade.Status.BOOKED, Trade.Status.SETTLED)).isZero();
+        assertThat(store.findHistory(new TradeHistoryFilter(null, null, Trade.Status.SETTLED, null, null),
+                PageRequest.of(0, 10)).getContent()).extracting(Trade::getId).containsExactly(saved.getId());
+    }
+
+    @Test
+    void findHistory_ByBookedAt_FiltersBoundsInclusivelyAndPages() {
+        // Given five EUR/USD trades an hour apart and one GBP/USD trade
+        for (int hour = 0; hour < 5; hour++) {
+            store.save(trade("EUR/USD", Side.BUY, "1000", DAY.plusHours(hour)));
+        }
+        store.save(trade("GBP/USD", Side.BUY, "1000", DAY.plusHours(2)));
+        TradeHistoryFilter filter = new TradeHistoryFilter(CurrencyPairRegistry.of("EUR/USD"), Side.BUY, null,
+                DAY.plusHours(1), DAY.plusHours(4));
+
+        // When
+        Page<Trade> page = store.findHistory(filter, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "bookedAt")));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Trade::getBookedAt)
+                .containsExactly(DAY.plusHours(2), DAY.plusHours(1));
+    }
+
+    @Test
+    void findHistory_ByOtherFields_SortsAllMatches() {
+        // Given
+        store.save(trade("EUR/USD", Side.SELL, "300", DAY));
+        store.save(trade("EUR/USD", Side.BUY, "100", DAY.plusHours(1)));
+        store.save(trade("EUR/USD", Side.BUY, "200", DAY.plusHours(2)));
+
+        // When
+        Page<Trade> byAmount = store.findHistory(ALL, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "amount")));
+        Page<Trade> unpaged = store.findHistory(ALL, Pageable.unpaged());
+
+        // Then unsorted is newest first, as the API defaults to
+        assertThat(byAmount.getContent()).extracting(trade -> trade.getAmount().toPlainString())
+                .containsExactly("300", "200", "100");
+        assertThat(unpaged.getContent()).extracting(trade -> trade.getAmount().toPlainString())
+                .containsExactly("200", "100", "300");
+    }
+
+    @Test
+    void findHistory_OutsideTheSortWhitelist_IsRejected() {
+        // When / Then
+        assertThatThrownBy(() -> store.findHistory(ALL, PageRequest.of(0, 10, Sort.by("side"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unsupported sort field: side");
+        assertThatThrownBy(() -> store.findHistory(ALL,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("amount"), Sort.Order.asc("rate")))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void save_Concurrently_BooksEachQuoteOnce() throws InterruptedException {
+        // Given eight threads racing to book the same 500 quotes
+        List<UUID> quoteIds = Stream.generate(UUID::randomUUID).limit(500).toList();
+        ConcurrentLinkedQueue<UUID> booked = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> quoteIds.forEach(quoteId -> {
+                Trade trade = trade("EUR/USD", Side.BUY, "1000", DAY);
+                trade.setQuoteId(quoteId);
+                try {
+                    booked.add(store.save(trade).getQuoteId());
+                } catch (DataIntegrityViolationException ex) {
+                    // lost the race
+                }
+            }));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(booked).hasSize(500).doesNotHaveDuplicates();
+        assertThat(store.findHistory(ALL, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(500);
+    }
+}
@@ -0,0 +1,143 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TradeHistoryRepositoryTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Trade> select;
+
+    @Mock
+    private TypedQuery<Long> count;
+
+    private TradeHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new TradeHistoryRepository(entityManager);
+    }
+
+    @Test
+    void select_shouldPickTheStatementForTheFiltersSetAndBindOnlyThose() {
+        // Given
+        when(entityManager.createQuery(anyString(), eq(Trade.class))).thenReturn(select);
+        TradeHistoryFilter filter = new TradeHistoryFilter(CurrencyPairRegistry.of("EUR/USD"), null,
+                Trade.Status.BOOKED, null, DAY);
+
+        // When
+        TradeHistoryRepository.select(entityManager, filter, Sort.Order.asc("amount"));
+
+        // Then
+        verify(entityManager).createQuery("SELECT t FROM Trade t WHERE t.currencyPair = :currencyPair"
+                + " AND t.status = :status AND t.bookedAt <= :toDate ORDER BY t.amount ASC, t.id ASC", Trade.class);
+        verify(select).setParameter("currencyPair", CurrencyPairRegistry.of("EUR/USD"));
+        verify(select).setParameter("status", Trade.Status.BOOKED);
+        verify(select).setParameter("toDate", DAY);
+        verifyNoMoreInteractions(select);
+    }
+
+    @Test
+    void select_shouldReuseTheSameStatementForRequestsOfTheSameShape() {
+        // Given
+        when(entityManager.createQuery(anyString(), eq(Trade.class))).thenReturn(select);
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+
+        // When
+        TradeHistoryRepository.select(entityManager,
+                new TradeHistoryFilter(null, Side.BUY, null, DAY, null), Sort.Order.desc("rate"));
+        TradeHistoryRepository.select(entityManager,
+                new TradeHistoryFilter(null, Side.SELL, null, DAY.plusDays(1), null), Sort.Order.desc("rate"));
+
+        // Then
+        verify(entityManager, times(2)).createQuery(statements.capture(), eq(Trade.class));
+        assertThat(statements.getAllValues().get(0))
+                .isEqualTo("SELECT t FROM Trade t WHERE t.side = :side AND t.bookedAt >= :fromDate"
+                        + " ORDER BY t.rate DESC, t.id DESC")
+                .isSameAs(statements.getAllValues().get(1));
+    }
+
+    @Test
+    void findHistory_shouldSkipTheCountWhenThePageShowsTheTotal() {
+        // Given
+        when(entityManager.createQuery(anyString(), eq(Trade.class))).thenReturn(select);
+        when(select.setFirstResult(0)).thenReturn(select);
+        when(select.setMaxResults(20)).thenReturn(select);
+        when(select.getResultList()).thenReturn(List.of(Trade.builder().build()));
+        TradeHistoryFilter filter = new TradeHistoryFilter(null, null, null, null, null);
+
+        // When
+        Page<Trade> page = repository.findHistory(filter, PageRequest.of(0, 20));
+
+        // Then unsorted pages get the API default
+        verify(entityManager).createQuery("SELECT t FROM Trade t ORDER BY t.bookedAt DESC, t.id DESC", Trade.class);
+        verify(entityManager, never()).createQuery(anyString(), eq(Long.class));
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void findHistory_shouldCountAFullPage() {
+        // Given
+        when(entityManager.createQuery(anyString(), eq(Trade.class))).thenReturn(select);
+        when(select.setFirstResult(2)).thenReturn(select);
+        when(select.setMaxResults(2)).thenReturn(select);
+        when(select.getResultList()).thenReturn(List.of(Trade.builder().build(), Trade.builder().build()));
+        when(entityManager.createQuery("SELECT COUNT(t) FROM Trade t WHERE t.side = :side", Long.class))
+                .thenReturn(count);
+        when(count.getSingleResult()).thenReturn(7L);
+
+        // When
+        Page<Trade> page = repository.findHistory(new TradeHistoryFilter(null, Side.SELL, null, null, null),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "bookedAt")));
+
+        // Then
+        verify(count).setParameter("side", Side.SELL);
+        assertThat(page.getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    void findHistory_shouldRejectSortsWithoutAStatement() {
+        // Given
+        TradeHistoryFilter filter = new TradeHistoryFilter(null, null, null, null, null);
+
+        // When / Then
+        assertThatThrownBy(() -> repository.findHistory(filter, PageRequest.of(0, 20, Sort.by("quoteId"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unsupported sort field: quoteId (supported: bookedAt, amount, rate)");
+        assertThatThrownBy(() -> repository.findHistory(filter, PageRequest.of(0, 20, Sort.by("amount", "rate"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.tradeimport.ImportedTrade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TradeImportRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TradeImportRepository repository;
+
+    private static ImportedTrade trade(long line, UUID tradeId, UUID quoteId) {
+        return new ImportedTrade(line, tradeId, quoteId, CurrencyPairRegistry.of("EUR/USD").getId(), Side.BUY,
+                new BigDecimal("10000.0000"), new BigDecimal("1.085000"), Trade.Status.BOOKED,
+                LocalDateTime.of(2024, 3, 1, 9, 30));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertTrades_withIdsRepeatedInTheChunk_shouldLoadTheFirstLineAndRejectTheRest() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(Object[].class))).thenReturn(List.of());
+        UUID tradeId = UUID.randomUUID();
+        UUID quoteId = UUID.randomUUID();
+        List<ImportedTrade> trades = List.of(
+                trade(2, tradeId, quoteId),
+                trade(3, tradeId, UUID.randomUUID()),
+                trade(4, UUID.randomUUID(), quoteId),
+                trade(5, UUID.randomUUID(), UUID.randomUUID()));
+
+        // When
+        List<TradeImportReject> rejects = repository.insertTrades(trades, 100);
+
+        // Then
+        assertThat(rejects).extracting(TradeImportReject::getLine).containsExactly(3L, 4L);
+        ArgumentCaptor<Collection<ImportedTrade>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(argThat(sql -> sql.contains("INSERT INTO trades")), inserted.capture(),
+                eq(100), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(inserted.getValue()).extracting(ImportedTrade::line).containsExactly(2L, 5L);
+    }
+}
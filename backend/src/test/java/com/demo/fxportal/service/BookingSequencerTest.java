@@ -0,0 +1,251 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbCapacityExceededException;
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.config.BookingSequencerProperties;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.TradeJournalProperties;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.outbox.TradeOutbox;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookingSequencerTest {
+
+    @Mock
+    private QuoteStore quoteStore;
+
+    @Mock
+    private TradeStore tradeStore;
+
+    @Mock
+    private TradeService tradeService;
+
+    @Mock
+    private TradeOutbox tradeOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingSequencerProperties properties;
+    private BookingSequencer sequencer;
+    private final List<Integer> savedBatchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DbConcurrencyProperties dbProperties = new DbConcurrencyProperties();
+        dbProperties.setEnabled(false);
+        properties = new BookingSequencerProperties();
+        properties.setEnabled(true);
+        properties.setShards(2);
+
+        when(tradeStore.findBookedQuoteIds(anyCollection())).thenReturn(List.of());
+        when(tradeStore.saveAll(any())).thenAnswer(invocation -> {
+            List<Trade> saved = new ArrayList<>();
+            for (Trade trade : invocation.<Iterable<Trade>>getArgument(0)) {
+                trade.setId(UUID.randomUUID());
+                trade.setBookedAt(LocalDateTime.now());
+                saved.add(trade);
+            }
+            synchronized (savedBatchSizes) {
+                savedBatchSizes.add(saved.size());
+            }
+            return saved;
+        });
+
+        sequencer = new BookingSequencer(quoteStore, tradeStore, tradeService, tradeOutbox,
+                new TradingMetrics(meterRegistry), new DbConcurrencyLimiter(dbProperties, meterRegistry),
+                transactionManager, properties, new TradeJournalProperties(), meterRegistry);
+        sequencer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.stop();
+    }
+
+    private Quote quote(String pair, LocalDateTime expiresAt) {
+        Quote quote = Quote.builder()
+                .id(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.of(pair))
+                .side(Side.BUY)
+                .amount(new BigDecimal("10000.0000"))
+                .rate(new BigDecimal("1.085000"))
+                .expiresAt(expiresAt)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(quoteStore.findById(quote.getId())).thenReturn(Optional.of(quote));
+        return quote;
+    }
+
+    private ServiceResult<TradeResponse> book(Quote quote) throws Exception {
+        return sequencer.submit(new TradeRequest(quote.getId())).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void submit_shouldBookTheQuoteOnItsPairsShard() throws Exception {
+        // Given
+        Quote quote = quote("EUR/USD", LocalDateTime.now().plusSeconds(30));
+
+        // When
+        ServiceResult<TradeResponse> result = book(quote);
+
+        // Then
+        assertThat(result).isInstanceOfSatisfying(ServiceResult.Success.class, success -> {
+            TradeResponse trade = (TradeResponse) success.value();
+            assertThat(trade.getQuoteId()).isEqualTo(quote.getId());
+            assertThat(trade.getCurrencyPair()).isEqualTo("EUR/USD");
+            assertThat(trade.getStatus()).isEqualTo(Trade.Status.BOOKED);
+        });
+        verify(tradeOutbox).tradesBooked(argThat(trades ->
+                trades.size() == 1 && trades.get(0).getQuoteId().equals(quote.getId())));
+    }
+
+    @Test
+    void submit_shouldRejectUnknownAndExpiredQuotes() throws Exception {
+        UUID unknown = UUID.randomUUID();
+        when(quoteStore.findById(unknown)).thenReturn(Optional.empty());
+        Quote expired = quote("EUR/USD", LocalDateTime.now().minusSeconds(1));
+
+        assertThat(sequencer.submit(new TradeRequest(unknown)).get(5, TimeUnit.SECONDS))
+                .isEqualTo(ServiceResult.rejected(Rejection.QUOTE_NOT_FOUND, "Quote not found: " + unknown));
+        assertThat(book(expired))
+                .isEqualTo(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, TradeService.EXPIRED_MESSAGE));
+        verify(tradeStore, never()).saveAll(any());
+    }
+
+    @Test
+    void submit_sameQuoteTwice_shouldRejectTheSecondFromShardMemory() throws Exception {
+        Quote quote = quote("GBP/USD", LocalDateTime.now().plusSeconds(30));
+
+        book(quote);
+        ServiceResult<TradeResponse> second = book(quote);
+
+        assertThat(second).isEqualTo(ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE));
+        verify(tradeStore, times(1)).findBookedQuoteIds(anyCollection());
+    }
+
+    @Test
+    void submit_quoteBookedElsewhere_shouldBeRejectedFromTheBatchLookup() throws Exception {
+        Quote quote = quote("USD/JPY", LocalDateTime.now().plusSeconds(30));
+        when(tradeStore.findBookedQuoteIds(anyCollection())).thenReturn(List.of(quote.getId()));
+
+        assertThat(book(quote))
+                .isEqualTo(ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE));
+        verify(tradeStore).saveAll(List.of());
+    }
+
+    @Test
+    void submit_whileAShardIsWriting_shouldBatchTheQueuedBookings() throws Exception {
+        // Given: the first write blocks, so the next bookings for the same pair queue up behind it
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tradeStore.findBookedQuoteIds(anyCollection())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        }).thenReturn(List.of());
+        CompletableFuture<ServiceResult<TradeResponse>> first =
+                sequencer.submit(new TradeRequest(quote("EUR/USD", LocalDateTime.now().plusSeconds(30)).getId()));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        List<CompletableFuture<ServiceResult<TradeResponse>>> queued = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            queued.add(sequencer.submit(new TradeRequest(quote("EUR/USD", LocalDateTime.now().plusSeconds(30)).getId())));
+        }
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isInstanceOf(ServiceResult.Success.class);
+        for (CompletableFuture<ServiceResult<TradeResponse>> booking : queued) {
+            assertThat(booking.get(5, TimeUnit.SECONDS)).isInstanceOf(ServiceResult.Success.class);
+        }
+        assertThat(savedBatchSizes).containsExactly(1, 10);
+    }
+
+    @Test
+    void submit_whenTheBatchHitsTheUniqueConstraint_shouldRetryEachBookingDirectly() throws Exception {
+        Quote quote = quote("EUR/GBP", LocalDateTime.now().plusSeconds(30));
+        doThrow(new DataIntegrityViolationException("uk_trades_quote_id")).when(tradeStore).saveAll(any());
+        ServiceResult<TradeResponse> direct =
+                ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE);
+        when(tradeService.bookTrade(new TradeRequest(quote.getId()))).thenReturn(direct);
+
+        assertThat(book(quote)).isEqualTo(direct);
+    }
+
+    @Test
+    void submit_afterStop_shouldBookOnTheCallersThreadRatherThanStrand() throws Exception {
+        // Given a caller that passed isEnabled() just before the shards were drained
+        Quote quote = quote("EUR/USD", LocalDateTime.now().plusSeconds(30));
+        ServiceResult<TradeResponse> direct =
+                ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE);
+        when(tradeService.bookTrade(new TradeRequest(quote.getId()))).thenReturn(direct);
+        sequencer.stop();
+
+        // When
+        CompletableFuture<ServiceResult<TradeResponse>> result = sequencer.submit(new TradeRequest(quote.getId()));
+
+        // Then
+        assertThat(result).isCompletedWithValue(direct);
+        verify(tradeStore, never()).saveAll(any());
+    }
+
+    @Test
+    void book_whenTheBatchTakesTooLong_shouldShedTheRequest() throws Exception {
+        // Given a shard stuck in its write
+        CountDownLatch release = new CountDownLatch(1);
+        when(tradeStore.findBookedQuoteIds(anyCollection())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        properties.setResultTimeout(Duration.ofMillis(50));
+        Quote quote = quote("EUR/USD", LocalDateTime.now().plusSeconds(30));
+
+        // When / Then
+        try {
+            assertThatThrownBy(() -> sequencer.book(new TradeRequest(quote.getId())))
+                    .isInstanceOf(DbCapacityExceededException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+}
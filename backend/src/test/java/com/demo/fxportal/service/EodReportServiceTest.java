@@ -0,0 +1,272 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.EodReportProperties;
+import com.demo.fxportal.config.PricingProperties;
+import com.demo.fxportal.config.StorageProperties;
+import com.demo.fxportal.dto.EodReportLine;
+import com.demo.fxportal.dto.EodReportResponse;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.report.BookedAtRange;
+import com.demo.fxportal.repository.TradeReportRepository;
+import com.demo.fxportal.repository.TradeReportRepository.OpenTradeVisitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EodReportServiceTest {
+
+    private static final LocalDateTime OPEN = LocalDateTime.of(2026, 3, 2, 0, 0);
+
+    @Mock
+    private TradeReportRepository tradeReportRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EodReportProperties properties;
+    private StorageProperties storageProperties;
+    private EodReportService service;
+
+    private final List<OpenTrade> openTrades = new ArrayList<>();
+
+    /** An open trade as the scan sees it: amount and rate unscaled at 4 and 6 decimals. */
+    private record OpenTrade(LocalDateTime bookedAt, short pairId, boolean buy, long amount, long rate) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new EodReportProperties();
+        properties.setParallelism(2);
+        properties.setRangesPerWorker(2);
+        properties.setDirectory(directory.toString());
+        storageProperties = new StorageProperties();
+        service = new EodReportService(tradeReportRepository, new CrossRateMatrix(new PricingProperties()),
+                properties, storageProperties, new DbConcurrencyLimiter(new DbConcurrencyProperties(), meterRegistry),
+                transactionManager, meterRegistry);
+
+        when(tradeReportRepository.openTradeBounds()).thenAnswer(invocation -> openTrades.isEmpty()
+                ? Optional.empty()
+                : Optional.of(new BookedAtRange(
+                        openTrades.stream().map(OpenTrade::bookedAt).min(LocalDateTime::compareTo).orElseThrow(),
+                        openTrades.stream().map(OpenTrade::bookedAt).max(LocalDateTime::compareTo).orElseThrow()
+                                .plusNanos(1_000))));
+        when(tradeReportRepository.scanOpenTrades(any(), anyInt(), any())).thenAnswer(invocation -> {
+            BookedAtRange range = invocation.getArgument(0);
+            OpenTradeVisitor visitor = invocation.getArgument(2);
+            long rows = 0;
+            for (OpenTrade trade : openTrades) {
+                if (!trade.bookedAt().isBefore(range.from()) && trade.bookedAt().isBefore(range.to())) {
+                    visitor.visit(trade.pairId(), trade.buy(), trade.amount(), trade.rate());
+                    rows++;
+                }
+            }
+            return rows;
+        });
+    }
+
+    private void open(String pair, Side side, long units, String rate, int minute) {
+        openTrades.add(new OpenTrade(OPEN.plusMinutes(minute), CurrencyPairRegistry.of(pair).getId(),
+                side == Side.BUY, units * 10_000, new BigDecimal(rate).movePointRight(6).longValueExact()));
+    }
+
+    private static EodReportLine line(EodReportResponse report, String pair, Side side) {
+        return report.getLines().stream()
+                .filter(line -> line.getCurrencyPair().equals(pair) && line.getSide() == side)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void generate_shouldMarkOpenTradesAtMidAndConvertPnlToUsd() {
+        // Given - mids are EUR/USD 1.085000 and USD/JPY 149.500000
+        open("EUR/USD", Side.BUY, 1_000_000, "1.080000", 0);
+        open("USD/JPY", Side.SELL, 1_000_000, "150.000000", 30);
+
+        // When
+        EodReportResponse report = service.generate();
+
+        // Then
+        EodReportLine eurUsd = line(report, "EUR/USD", Side.BUY);
+        assertThat(eurUsd.getMarkRate()).isEqualByComparingTo("1.085");
+        assertThat(eurUsd.getPnl()).isEqualByComparingTo("5000");
+        assertThat(eurUsd.getPnlCurrency()).isEqualTo("USD");
+        assertThat(eurUsd.getPnlUsd()).isEqualByComparingTo("5000");
+
+        EodReportLine usdJpy = line(report, "USD/JPY", Side.SELL);
+        assertThat(usdJpy.getPnl()).isEqualByComparingTo("500000");
+        assertThat(usdJpy.getPnlCurrency()).isEqualTo("JPY");
+        // JPY/USD is 0.006689 at rate precision
+        assertThat(usdJpy.getPnlUsd()).isEqualByComparingTo("3344.5");
+
+        assertThat(report.getOpenTrades()).isEqualTo(2);
+        assertThat(report.getUnpricedTrades()).isZero();
+        assertThat(report.getTotalPnlUsd()).isEqualByComparingTo("8344.5");
+    }
+
+    @Test
+    void generate_shouldScanEachRangeUnderABackgroundPermit() {
+        // Given
+        open("EUR/USD", Side.BUY, 1_000_000, "1.080000", 0);
+        open("EUR/USD", Side.BUY, 1_000_000, "1.080000", 30);
+        List<Double> availableDuringScan = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            availableDuringScan.add(meterRegistry.get("fxportal.db.permit.available").gauge().value());
+            return 0L;
+        }).when(tradeReportRepository).scanOpenTrades(any(), anyInt(), any());
+
+        // When
+        service.generate();
+
+        // Then
+        assertThat(availableDuringScan).isNotEmpty().allSatisfy(available -> assertThat(available).isLessThan(14));
+    }
+
+    @Test
+    void generate_shouldAggregatePerPairAndSide() {
+        // Given
+        open("EUR/USD", Side.BUY, 1_000_000, "1.080000", 0);
+        open("EUR/USD", Side.BUY, 3_000_000, "1.090000", 10);
+        open("EUR/USD", Side.SELL, 2_000_000, "1.090000", 20);
+
+        // When
+        EodReportResponse report = service.generate();
+
+        // Then
+        EodReportLine buys = line(report, "EUR/USD", Side.BUY);
+        assertThat(buys.getTrades()).isEqualTo(2);
+        assertThat(buys.getAmount()).isEqualByComparingTo("4000000");
+        assertThat(buys.getAverageRate()).isEqualByComparingTo("1.0875");
+        assertThat(buys.getPnl()).isEqualByComparingTo("-10000");
+        EodReportLine sells = line(report, "EUR/USD", Side.SELL);
+        assertThat(sells.getPnl()).isEqualByComparingTo("10000");
+        assertThat(report.getTotalPnlUsd()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void generate_shouldCountEveryTradeOnceWhateverTheParallelism() {
+        // Given - bookings clustered at the start of the day, so ranges are uneven
+        String[] pairs = {"EUR/USD", "GBP/USD", "USD/JPY", "EUR/GBP", "AUD/NZD"};
+        for (int i = 0; i < 1_000; i++) {
+            open(pairs[i % pairs.length], i % 3 == 0 ? Side.SELL : Side.BUY, 1_000 + i, "1.100000",
+                    i < 900 ? i % 60 : i);
+        }
+        properties.setParallelism(1);
+        EodReportResponse sequential = service.generate();
+
+        // When
+        properties.setParallelism(4);
+        properties.setRangesPerWorker(8);
+        EodReportResponse parallel = service.generate();
+
+        // Then
+        assertThat(parallel.getParallelism()).isEqualTo(4);
+        assertThat(parallel.getRanges()).isGreaterThan(sequential.getRanges());
+        assertThat(parallel.getOpenTrades()).isEqualTo(1_000);
+        assertThat(parallel.getLines()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(sequential.getLines());
+        assertThat(parallel.getTotalPnlUsd()).isEqualTo(sequential.getTotalPnlUsd());
+        verify(tradeReportRepository, times(sequential.getRanges() + parallel.getRanges()))
+                .scanOpenTrades(any(), eq(properties.getFetchSize()), any());
+        verify(transactionManager, times(sequential.getRanges() + parallel.getRanges())).commit(any());
+    }
+
+    @Test
+    void generate_withLegacyPair_shouldCountItAsUnpriced() {
+        // Given
+        open("EUR/USD", Side.BUY, 1_000, "1.085000", 0);
+        short legacyId = CurrencyPairRegistry.registerLegacy((short) 2001, "XAU/USD").getId();
+        openTrades.add(new OpenTrade(OPEN.plusMinutes(5), legacyId, true, 10_000, 2_000_000_000L));
+
+        // When
+        EodReportResponse report = service.generate();
+
+        // Then
+        assertThat(report.getOpenTrades()).isEqualTo(2);
+        assertThat(report.getUnpricedTrades()).isEqualTo(1);
+        assertThat(report.getLines()).extracting(EodReportLine::getCurrencyPair).containsExactly("EUR/USD");
+    }
+
+    @Test
+    void generate_shouldWriteTheLinesAsCsv() throws Exception {
+        // Given
+        open("EUR/USD", Side.BUY, 1_000_000, "1.080000", 0);
+
+        // When
+        EodReportResponse report = service.generate();
+
+        // Then
+        Path file = Path.of(report.getFile());
+        assertThat(file.getFileName().toString()).isEqualTo("eod-report-" + report.getBusinessDate() + ".csv");
+        assertThat(Files.readAllLines(file)).containsExactly(
+                "currency_pair,side,trades,amount,average_rate,mark_rate,pnl,pnl_currency,pnl_usd",
+                "EUR/USD,BUY,1,1000000.0000,1.080000,1.085000,5000.0000,USD,5000.0000");
+        assertThat(meterRegistry.get("fxportal.eod-report.trades").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fxportal.eod-report.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void latest_shouldBeRejectedUntilAReportRuns() {
+        // When / Then
+        assertThat(service.latest()).isInstanceOfSatisfying(ServiceResult.Rejected.class,
+                rejected -> assertThat(rejected.rejection()).isEqualTo(Rejection.REPORT_NOT_FOUND));
+
+        EodReportResponse report = service.generate();
+
+        assertThat(report.getOpenTrades()).isZero();
+        assertThat(report.getRanges()).isZero();
+        assertThat(service.latest()).isEqualTo(ServiceResult.success(report));
+    }
+
+    @Test
+    void run_withInMemoryStorage_shouldRejectWithoutScanning() {
+        // Given
+        storageProperties.setBackend(StorageProperties.Backend.MEMORY);
+
+        // When / Then
+        assertThat(service.run()).isInstanceOfSatisfying(ServiceResult.Rejected.class,
+                rejected -> assertThat(rejected.rejection()).isEqualTo(Rejection.DATABASE_REQUIRED));
+        verifyNoInteractions(tradeReportRepository);
+    }
+
+    @Test
+    void parallelism_shouldBeCappedByTheConnectionBudget() {
+        // Given
+        properties.setParallelism(16);
+        properties.setMaxConnections(3);
+
+        // When / Then
+        assertThat(service.parallelism()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,139 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.QuoteReaperProperties;
+import com.demo.fxportal.repository.QuoteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteReaperServiceTest {
+
+    @Mock
+    private QuoteRepository quoteRepository;
+
+    @Mock
+    private TradeJournalService tradeJournalService;
+
+    private MeterRegistry meterRegistry;
+    private QuoteReaperProperties properties;
+    private QuoteReaperService reaperService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new QuoteReaperProperties();
+        properties.setBatchSize(100);
+        properties.setMaxBatchesPerRun(3);
+        properties.setBatchPause(Duration.ZERO);
+
+        meterRegistry = new SimpleMeterRegistry();
+        reaperService = new QuoteReaperService(quoteRepository, properties, tradeJournalService,
+                new DbConcurrencyLimiter(new DbConcurrencyProperties(), meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void reapExpiredQuotes_shouldStopAfterPartialBatch() {
+        // Given
+        when(quoteRepository.countArchivable(any(LocalDateTime.class))).thenReturn(140L);
+        when(quoteRepository.archiveExpiredBatch(any(LocalDateTime.class), eq(100)))
+                .thenReturn(100, 40);
+
+        // When
+        reaperService.reapExpiredQuotes();
+
+        // Then
+        verify(quoteRepository, times(2)).archiveExpiredBatch(any(LocalDateTime.class), eq(100));
+        assertThat(meterRegistry.get("fxportal.quotes.reaper.archived").counter().count()).isEqualTo(140.0);
+        assertThat(reaperService.getBacklog()).isZero();
+    }
+
+    @Test
+    void reapExpiredQuotes_whenDisabled_shouldNotTouchTheDatabase() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        reaperService.reapExpiredQuotes();
+
+        // Then
+        verifyNoInteractions(quoteRepository, tradeJournalService);
+    }
+
+    @Test
+    void reapExpiredQuotes_shouldRespectMaxBatchesPerRun() {
+        // Given
+        when(quoteRepository.countArchivable(any(LocalDateTime.class))).thenReturn(1000L);
+        when(quoteRepository.archiveExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(100);
+
+        // When
+        reaperService.reapExpiredQuotes();
+
+        // Then
+        verify(quoteRepository, times(3)).archiveExpiredBatch(any(LocalDateTime.class), anyInt());
+        assertThat(meterRegistry.get("fxportal.quotes.reaper.backlog").gauge().value()).isEqualTo(700.0);
+    }
+
+    @Test
+    void reapExpiredQuotes_shouldOnlyArchiveQuotesPastGracePeriod() {
+        // Given
+        when(quoteRepository.countArchivable(any(LocalDateTime.class))).thenReturn(0L);
+        when(quoteRepository.archiveExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(0);
+        LocalDateTime latestAllowedCutoff = LocalDateTime.now().minusMinutes(5);
+
+        // When
+        reaperService.reapExpiredQuotes();
+
+        // Then
+        verify(quoteRepository).archiveExpiredBatch(
+                argThat(cutoff -> !cutoff.isBefore(latestAllowedCutoff.minusSeconds(1))
+                        && !cutoff.isAfter(LocalDateTime.now().minusMinutes(5))),
+                eq(100));
+    }
+
+    @Test
+    void reapExpiredQuotes_shouldKeepQuotesOfUnprojectedJournalTrades() {
+        // Given
+        LocalDateTime oldestUnprojected = LocalDateTime.now().minusMinutes(20);
+        when(tradeJournalService.oldestUnprojectedBookedAt()).thenReturn(Optional.of(oldestUnprojected));
+        when(quoteRepository.countArchivable(any(LocalDateTime.class))).thenReturn(0L);
+        when(quoteRepository.archiveExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(0);
+
+        // When
+        reaperService.reapExpiredQuotes();
+
+        // Then
+        verify(quoteRepository).archiveExpiredBatch(eq(oldestUnprojected), eq(100));
+    }
+
+    @Test
+    void reapExpiredQuotes_whenDatabaseFails_shouldAbortRunQuietly() {
+        // Given
+        when(quoteRepository.countArchivable(any(LocalDateTime.class))).thenReturn(500L);
+        when(quoteRepository.archiveExpiredBatch(any(LocalDateTime.class), anyInt()))
+                .thenThrow(new QueryTimeoutException("lock timeout"));
+
+        // When
+        reaperService.reapExpiredQuotes();
+
+        // Then
+        assertThat(meterRegistry.get("fxportal.quotes.reaper.archived").counter().count()).isZero();
+        assertThat(reaperService.getBacklog()).isEqualTo(500L);
+    }
+}
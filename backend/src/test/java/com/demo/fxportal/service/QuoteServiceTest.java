@@ -1,14 +1,19 @@
 package com.demo.fxportal.service;
 
+import com.demo.fxportal.config.PricingProperties;
 import com.demo.fxportal.dto.QuoteRequest;
 import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPairRegistry;
 import com.demo.fxportal.model.Quote;
 import com.demo.fxportal.model.Side;
-import com.demo.fxportal.repository.QuoteRepository;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.pricing.QuotePricer;
+import com.demo.fxportal.repository.QuoteStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -24,9 +29,8 @@ import static org.mockito.Mockito.*;
 class QuoteServiceTest {
 
     @Mock
-    private QuoteRepository quoteRepository;
+    private QuoteStore quoteStore;
 
-    @InjectMocks
     private QuoteService quoteService;
 
     private QuoteRequest quoteRequest;
@@ -34,6 +38,9 @@ class QuoteServiceTest {
 
     @BeforeEach
     void setUp() {
+        quoteService = new QuoteService(quoteStore, new QuotePricer(new CrossRateMatrix(new PricingProperties())),
+                new TradingMetrics(new SimpleMeterRegistry()));
+
         quoteRequest = QuoteRequest.builder()
                 .currencyPair("EUR/USD")
                 .side(Side.BUY)
@@ -42,7 +49,7 @@ class QuoteServiceTest {
 
         savedQuote = Quote.builder()
                 .id(UUID.randomUUID())
-                .currencyPair("EUR/USD")
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
                 .side(Side.BUY)
                 .amount(new BigDecimal("10000.00"))
                 .rate(new BigDecimal("1.0850"))
@@ -54,10 +61,10 @@ class QuoteServiceTest {
     @Test
     void requestQuote_shouldCreateAndReturnQuote() {
         // Given
-        when(quoteRepository.save(any(Quote.class))).thenReturn(savedQuote);
+        when(quoteStore.save(any(Quote.class))).thenReturn(savedQuote);
 
         // When
-        QuoteResponse response = quoteService.requestQuote(quoteRequest);
+        QuoteResponse response = success(quoteService.requestQuote(quoteRequest));
 
         // Then
         assertThat(response).isNotNull();
@@ -68,19 +75,71 @@ class QuoteServiceTest {
         assertThat(response.getRate()).isNotNull();
         assertThat(response.getExpiresAt()).isNotNull();
 
-        verify(quoteRepository, times(1)).save(any(Quote.class));
+        verify(quoteStore, times(1)).save(any(Quote.class));
     }
 
     @Test
     void requestQuote_shouldGenerateRateForEurUsd() {
         // Given
-        when(quoteRepository.save(any(Quote.class))).thenReturn(savedQuote);
+        when(quoteStore.save(any(Quote.class))).thenReturn(savedQuote);
 
         // When
-        QuoteResponse response = quoteService.requestQuote(quoteRequest);
+        QuoteResponse response = success(quoteService.requestQuote(quoteRequest));
 
         // Then
         assertThat(response.getRate()).isNotNull();
         assertThat(response.getRate()).isGreaterThan(BigDecimal.ZERO);
     }
+
+    @Test
+    void requestQuote_shouldPriceWithinSpreadAtRateScale() {
+        // Given
+        when(quoteStore.save(any(Quote.class))).thenReturn(savedQuote);
+
+        // When
+        quoteService.requestQuote(quoteRequest);
+
+        // Then
+        verify(quoteStore).save(argThat(quote ->
+                quote.getRate().scale() == 6 &&
+                quote.getRate().compareTo(new BigDecimal("1.079575")) >= 0 &&
+                quote.getRate().compareTo(new BigDecimal("1.090425")) <= 0
+        ));
+    }
+
+    @Test
+    void requestQuote_forCrossPair_shouldTriangulateRate() {
+        // Given
+        quoteRequest.setCurrencyPair("EUR/JPY");
+        when(quoteStore.save(any(Quote.class))).thenReturn(savedQuote);
+
+        // When
+        quoteService.requestQuote(quoteRequest);
+
+        // Then — EUR/JPY mid is 1.0850 * 149.50 = 162.2075, within the 0.5% spread
+        verify(quoteStore).save(argThat(quote ->
+                quote.getRate().compareTo(new BigDecimal("161.396462")) >= 0 &&
+                quote.getRate().compareTo(new BigDecimal("163.018538")) <= 0
+        ));
+    }
+
+    @Test
+    void requestQuote_forUnsupportedPair_shouldReturnRejection() {
+        // Given
+        quoteRequest.setCurrencyPair("ABC/XYZ");
+
+        // When
+        ServiceResult<QuoteResponse> result = quoteService.requestQuote(quoteRequest);
+
+        // Then
+        assertThat(result).isEqualTo(new ServiceResult.Rejected<>(Rejection.UNSUPPORTED_PAIR,
+                "Unsupported currency pair: ABC/XYZ"));
+        verify(quoteStore, never()).save(any(Quote.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T success(ServiceResult<T> result) {
+        assertThat(result).isInstanceOf(ServiceResult.Success.class);
+        return ((ServiceResult.Success<T>) result).value();
+    }
 }
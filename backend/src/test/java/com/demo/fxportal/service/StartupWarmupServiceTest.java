@@ -0,0 +1,122 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.config.PricingProperties;
+import com.demo.fxportal.config.WarmupProperties;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.pricing.QuotePricer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManager entityManager;
+
+    private WarmupProperties properties;
+    private StartupWarmupService warmupService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WarmupProperties();
+        CrossRateMatrix crossRateMatrix = new CrossRateMatrix(new PricingProperties());
+        warmupService = new StartupWarmupService(properties, new QuotePricer(crossRateMatrix),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(), entityManagerFactory);
+    }
+
+    @Test
+    void warmUp_shouldRunAllIterationsAndBuildHistoryQueriesWithoutPersisting() {
+        // Given
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+
+        // When
+        int completed = warmupService.warmUp(200, System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+        // Then
+        assertThat(completed).isEqualTo(200);
+        verify(entityManager, times(10)).createQuery(anyString(), eq(Trade.class));
+        verify(entityManager, never()).persist(any());
+        verify(entityManager).close();
+    }
+
+    @Test
+    void warmUp_whenAnInvalidFixturePassesValidation_shouldStopEarly() {
+        // Given a validator that no longer rejects the negative amount
+        Validator acceptsEverything = mock(Validator.class);
+        when(acceptsEverything.validate(any())).thenReturn(Set.of());
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        StartupWarmupService lenient = new StartupWarmupService(properties,
+                new QuotePricer(new CrossRateMatrix(new PricingProperties())),
+                new ObjectMapper().registerModule(new JavaTimeModule()), acceptsEverything, entityManagerFactory);
+
+        // When
+        int completed = lenient.warmUp(200, System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+        // Then
+        assertThat(completed).isZero();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void warmUp_shouldStopOnceTheBudgetIsSpent() {
+        // Given
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+
+        // When
+        int completed = warmupService.warmUp(1_000_000, System.nanoTime());
+
+        // Then
+        assertThat(completed).isZero();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void run_whenDisabled_shouldNotWarmUp() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        warmupService.run(new DefaultApplicationArguments());
+
+        // Then
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    void run_shouldReturnWithinBudget() {
+        // Given
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        properties.setIterations(Integer.MAX_VALUE);
+        properties.setBudget(Duration.ofMillis(200));
+
+        // When
+        long start = System.nanoTime();
+        warmupService.run(new DefaultApplicationArguments());
+
+        // Then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,185 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.config.StorageProperties;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.repository.InMemoryQuoteStore;
+import com.demo.fxportal.repository.InMemoryTradeStore;
+import com.demo.fxportal.repository.JpaQuoteStore;
+import com.demo.fxportal.repository.JpaTradeStore;
+import com.demo.fxportal.snapshot.StoreSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StoreSnapshotServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties properties;
+    private InMemoryQuoteStore quoteStore;
+    private InMemoryTradeStore tradeStore;
+    private StoreSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageProperties();
+        properties.setBackend(StorageProperties.Backend.MEMORY);
+        properties.getSnapshot().setEnabled(true);
+        properties.getSnapshot().setDirectory(directory.toString());
+        properties.getSnapshot().setFullEvery(3);
+        service = restart();
+    }
+
+    /** A fresh pair of stores, restored from whatever is in the directory. */
+    private StoreSnapshotService restart() {
+        quoteStore = new InMemoryQuoteStore(Duration.ofMinutes(5), true);
+        tradeStore = new InMemoryTradeStore(true);
+        StoreSnapshotService restarted = new StoreSnapshotService(quoteStore, tradeStore, properties,
+                new SimpleMeterRegistry());
+        restarted.restore();
+        return restarted;
+    }
+
+    private Trade book() {
+        Quote quote = quoteStore.save(Quote.builder()
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
+                .side(Side.BUY)
+                .amount(new BigDecimal("1000.00"))
+                .rate(new BigDecimal("1.085000"))
+                .expiresAt(LocalDateTime.now().plus(Quote.VALIDITY))
+                .build());
+        return tradeStore.save(Trade.builder()
+                .quoteId(quote.getId())
+                .currencyPair(quote.getCurrencyPair())
+                .side(quote.getSide())
+                .amount(quote.getAmount())
+                .rate(quote.getRate())
+                .build());
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    void snapshot_shouldWriteAFullSnapshotFirstAndThenOnlyChanges() {
+        // Given
+        book();
+        book();
+
+        // When
+        StoreSnapshot first = service.snapshot();
+        Trade third = book();
+        StoreSnapshot second = service.snapshot();
+        StoreSnapshot unchanged = service.snapshot();
+
+        // Then
+        assertThat(first.kind()).isEqualTo(StoreSnapshot.Kind.FULL);
+        assertThat(first.trades()).hasSize(2);
+        assertThat(first.tradeWatermark()).isEqualTo(2);
+        assertThat(second.kind()).isEqualTo(StoreSnapshot.Kind.DELTA);
+        assertThat(second.trades()).extracting(Trade::getId).containsExactly(third.getId());
+        assertThat(second.quoteWatermark()).isEqualTo(3);
+        assertThat(unchanged).isNull();
+    }
+
+    @Test
+    void restore_shouldLoadTheFullSnapshotAndReplayTheDeltasAfterIt() {
+        // Given a full snapshot, a booking and a settlement in later deltas
+        Trade settled = book();
+        service.snapshot();
+        Trade booked = book();
+        service.snapshot();
+        tradeStore.updateStatus(settled.getId(), Trade.Status.BOOKED, Trade.Status.SETTLED);
+        service.shutdown();
+
+        // When
+        restart();
+
+        // Then
+        assertThat(tradeStore.size()).isEqualTo(2);
+        assertThat(tradeStore.findById(settled.getId())).get()
+                .extracting(Trade::getStatus).isEqualTo(Trade.Status.SETTLED);
+        assertThat(tradeStore.findById(booked.getId())).contains(booked);
+        assertThat(tradeStore.existsByQuoteId(booked.getQuoteId())).isTrue();
+        assertThat(quoteStore.findById(booked.getQuoteId())).isPresent();
+        assertThat(tradeStore.watermark()).isEqualTo(3);
+        assertThat(quoteStore.watermark()).isEqualTo(2);
+    }
+
+    @Test
+    void snapshot_shouldCompactTheChainEveryFullEveryDeltas() throws IOException {
+        // Given a full snapshot and three deltas
+        for (int i = 0; i < 4; i++) {
+            book();
+            service.snapshot();
+        }
+        assertThat(files()).hasSize(4);
+
+        // When
+        book();
+        StoreSnapshot compacted = service.snapshot();
+
+        // Then
+        assertThat(compacted.kind()).isEqualTo(StoreSnapshot.Kind.FULL);
+        assertThat(compacted.trades()).hasSize(5);
+        assertThat(files()).containsExactly("snapshot-000000000005-full.bin");
+    }
+
+    @Test
+    void restore_shouldStopAtAnUnreadableDeltaAndWriteAFullSnapshotNext() throws IOException {
+        // Given a delta torn by a crash, and one after it
+        Trade kept = book();
+        service.snapshot();
+        book();
+        service.snapshot();
+        book();
+        service.snapshot();
+        Files.write(directory.resolve("snapshot-000000000002-delta.bin"), new byte[]{1, 2, 3});
+
+        // When
+        StoreSnapshotService restarted = restart();
+        book();
+        StoreSnapshot next = restarted.snapshot();
+
+        // Then
+        assertThat(tradeStore.size()).isEqualTo(2);
+        assertThat(tradeStore.findById(kept.getId())).isPresent();
+        assertThat(next.kind()).isEqualTo(StoreSnapshot.Kind.FULL);
+        assertThat(next.generation()).isEqualTo(4);
+    }
+
+    @Test
+    void restore_shouldDoNothingForTheJpaBackend() throws IOException {
+        // Given
+        book();
+        service.snapshot();
+        StoreSnapshotService jpa = new StoreSnapshotService(new JpaQuoteStore(null), new JpaTradeStore(null, null, null),
+                properties, new SimpleMeterRegistry());
+
+        // When
+        jpa.restore();
+        jpa.runScheduled();
+
+        // Then
+        assertThat(files()).containsExactly("snapshot-000000000001-full.bin");
+    }
+}
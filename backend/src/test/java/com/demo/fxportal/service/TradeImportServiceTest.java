@@ -0,0 +1,336 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.StorageProperties;
+import com.demo.fxportal.config.TradeImportProperties;
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.dto.TradeImportStatus;
+import com.demo.fxportal.repository.TradeImportRepository;
+import com.demo.fxportal.repository.TradeImportRepository.ChunkTotals;
+import com.demo.fxportal.repository.TradeImportRepository.ImportRecord;
+import com.demo.fxportal.tradeimport.ImportedTrade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TradeImportServiceTest {
+
+    private static final String HEADER = "trade_id,quote_id,currency_pair,side,amount,rate,status,booked_at";
+    private static final String ROW = ",,EUR/USD,BUY,1000000,1.0845,SETTLED,2025-06-30T16:45:00";
+
+    @Mock
+    private TradeImportRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TradeImportProperties properties;
+    private StorageProperties storageProperties;
+    private TradeImportService service;
+    private final AtomicReference<ImportRecord> stored = new AtomicReference<>();
+    private final Set<Integer> recorded = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new TradeImportProperties();
+        properties.setDirectory(directory.toString());
+        properties.setChunkBytes(100);
+        properties.setParallelism(2);
+        storageProperties = new StorageProperties();
+        service = new TradeImportService(repository, properties, storageProperties,
+                new DbConcurrencyLimiter(new DbConcurrencyProperties(), meterRegistry),
+                new ObjectMapper().findAndRegisterModules(), Validation.buildDefaultValidatorFactory(),
+                transactionManager, meterRegistry);
+
+        // The import record and committed chunks as the tables would hold them
+        when(repository.findImport(anyString())).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        doAnswer(invocation -> {
+            stored.set(new ImportRecord(invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4),
+                    LocalDateTime.now(), null));
+            return null;
+        }).when(repository).createImport(anyString(), anyLong(), anyLong(), anyInt(), anyInt());
+        doAnswer(invocation -> {
+            ImportRecord record = stored.get();
+            stored.set(new ImportRecord(record.id(), record.fileSize(), record.fileModifiedMillis(),
+                    record.chunkBytes(), record.chunks(),
+                    record.startedAt(), LocalDateTime.now()));
+            return null;
+        }).when(repository).markCompleted(anyString());
+        doAnswer(invocation -> recorded.add(invocation.getArgument(1)))
+                .when(repository).recordChunk(anyString(), anyInt(), anyInt(), anyInt());
+        when(repository.loadedChunks(anyString())).thenAnswer(invocation -> Set.copyOf(recorded));
+        when(repository.supportsCopy()).thenReturn(true);
+        when(repository.copyTrades(anyList())).thenReturn(List.of());
+        when(repository.insertTrades(anyList(), anyInt())).thenReturn(List.of());
+        when(repository.chunkTotals(anyString())).thenReturn(new ChunkTotals(0, 0, 0));
+    }
+
+    /** Writes a CSV file of {@code rows} valid rows of 57 bytes each, so two to a 100-byte chunk. */
+    private Path csv(String name, int rows) throws Exception {
+        List<String> lines = new ArrayList<>(List.of(HEADER));
+        for (int i = 0; i < rows; i++) {
+            lines.add(ROW);
+        }
+        Path file = directory.resolve(name);
+        Files.write(file, lines);
+        return file;
+    }
+
+    private static long modified(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis();
+    }
+
+    private TradeImportStatus awaitFinished(String file) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ServiceResult<TradeImportStatus> status = service.status(file);
+            if (status instanceof ServiceResult.Success<TradeImportStatus> success
+                    && success.value().getState() != TradeImportStatus.State.RUNNING) {
+                return success.value();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import of " + file + " did not finish");
+    }
+
+    private static Rejection rejection(ServiceResult<?> result) {
+        assertThat(result).isInstanceOf(ServiceResult.Rejected.class);
+        return ((ServiceResult.Rejected<?>) result).rejection();
+    }
+
+    @Test
+    void start_shouldLoadEveryChunkThroughCopyAndRecordIt() throws Exception {
+        // Given - six rows, two per chunk, the fourth with a negative amount
+        Path file = csv("history.csv", 6);
+        List<String> lines = Files.readAllLines(file);
+        lines.set(4, lines.get(4).replace("1000000", "-1"));
+        Files.write(file, lines);
+
+        // When
+        ServiceResult<TradeImportStatus> started = service.start("history.csv");
+        TradeImportStatus finished = awaitFinished("history.csv");
+
+        // Then
+        assertThat(started).isInstanceOf(ServiceResult.Success.class);
+        assertThat(finished.getState()).isEqualTo(TradeImportStatus.State.COMPLETED);
+        assertThat(finished.getError()).isNull();
+        verify(repository).createImport("history.csv", Files.size(file), modified(file), 100, 3);
+        verify(repository, times(3)).copyTrades(anyList());
+        verify(repository).recordChunk("history.csv", 0, 2, 0);
+        verify(repository).recordChunk("history.csv", 1, 1, 1);
+        verify(repository).recordChunk("history.csv", 2, 2, 0);
+        verify(repository).insertRejects("history.csv",
+                List.of(new TradeImportReject(5, "amount: Amount must be greater than 0")));
+        verify(repository).markCompleted("history.csv");
+        verify(transactionManager, times(3)).commit(any());
+        assertThat(meterRegistry.counter("fxportal.trade-import.rows", "outcome", "loaded").count()).isEqualTo(5);
+        assertThat(meterRegistry.counter("fxportal.trade-import.rows", "outcome", "rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void start_afterAnInterruption_shouldOnlyLoadTheChunksWithoutARecord() throws Exception {
+        // Given - chunks 0 and 1 committed before the last run stopped
+        Path file = csv("history.csv", 6);
+        when(repository.findImport("history.csv")).thenReturn(Optional.of(
+                new ImportRecord("history.csv", Files.size(file), modified(file), 100, 3, LocalDateTime.now(), null)));
+        when(repository.loadedChunks("history.csv")).thenReturn(Set.of(0, 1), Set.of(0, 1, 2));
+
+        // When
+        service.start("history.csv");
+        awaitFinished("history.csv");
+
+        // Then
+        verify(repository, never()).createImport(anyString(), anyLong(), anyLong(), anyInt(), anyInt());
+        ArgumentCaptor<List<ImportedTrade>> trades = ArgumentCaptor.forClass(List.class);
+        verify(repository).copyTrades(trades.capture());
+        assertThat(trades.getValue()).extracting(ImportedTrade::line).containsExactly(6L, 7L);
+        verify(repository).recordChunk("history.csv", 2, 2, 0);
+        verify(repository).markCompleted("history.csv");
+    }
+
+    @Test
+    void start_withoutCopy_shouldLoadJdbcBatchesAndReportSkippedRows() throws Exception {
+        // Given
+        csv("history.csv", 2);
+        when(repository.supportsCopy()).thenReturn(false);
+        when(repository.insertTrades(anyList(), anyInt())).thenReturn(
+                List.of(new TradeImportReject(3, "Trade already exists, or its quote is already booked")));
+
+        // When
+        service.start("history.csv");
+        awaitFinished("history.csv");
+
+        // Then
+        verify(repository).insertTrades(anyList(), eq(properties.getBatchSize()));
+        verify(repository, never()).copyTrades(anyList());
+        verify(repository).recordChunk("history.csv", 0, 1, 1);
+    }
+
+    @Test
+    void start_whenAChunkCollidesWithAnother_shouldRetryIt() throws Exception {
+        // Given
+        csv("history.csv", 1);
+        properties.setCopyEnabled(false);
+        when(repository.insertTrades(anyList(), anyInt()))
+                .thenThrow(new DuplicateKeyException("quotes_pkey"))
+                .thenReturn(List.of());
+
+        // When
+        service.start("history.csv");
+        TradeImportStatus finished = awaitFinished("history.csv");
+
+        // Then
+        assertThat(finished.getState()).isEqualTo(TradeImportStatus.State.COMPLETED);
+        verify(repository, times(2)).insertTrades(anyList(), anyInt());
+        verify(transactionManager).rollback(any());
+        verify(repository).recordChunk("history.csv", 0, 1, 0);
+    }
+
+    @Test
+    void start_whenLoadingFails_shouldStopAndLeaveTheImportResumable() throws Exception {
+        // Given
+        csv("history.csv", 6);
+        properties.setParallelism(1);
+        when(repository.copyTrades(anyList())).thenThrow(new IllegalStateException("connection lost"));
+
+        // When
+        service.start("history.csv");
+        TradeImportStatus finished = awaitFinished("history.csv");
+
+        // Then
+        assertThat(finished.getState()).isEqualTo(TradeImportStatus.State.INCOMPLETE);
+        assertThat(finished.getError()).isEqualTo("connection lost");
+        verify(repository, times(1)).copyTrades(anyList());
+        verify(repository, never()).markCompleted(anyString());
+    }
+
+    @Test
+    void start_whileRunning_shouldReturnImportInProgress() throws Exception {
+        // Given
+        csv("history.csv", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.copyTrades(anyList())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        service.start("history.csv");
+
+        // When
+        ServiceResult<TradeImportStatus> again = service.start("history.csv");
+        release.countDown();
+
+        // Then
+        assertThat(rejection(again)).isEqualTo(Rejection.IMPORT_IN_PROGRESS);
+        assertThat(awaitFinished("history.csv").getState()).isEqualTo(TradeImportStatus.State.COMPLETED);
+    }
+
+    @Test
+    void start_whenAlreadyCompleted_shouldNotLoadAgain() throws Exception {
+        // Given
+        Path file = csv("history.csv", 2);
+        when(repository.findImport("history.csv")).thenReturn(Optional.of(new ImportRecord("history.csv",
+                Files.size(file), modified(file), 100, 1, LocalDateTime.now().minusHours(1), LocalDateTime.now())));
+
+        // When
+        ServiceResult<TradeImportStatus> result = service.start("history.csv");
+
+        // Then
+        assertThat(result).isInstanceOf(ServiceResult.Success.class);
+        assertThat(((ServiceResult.Success<TradeImportStatus>) result).value().getState())
+                .isEqualTo(TradeImportStatus.State.COMPLETED);
+        verify(repository, never()).copyTrades(anyList());
+    }
+
+    @Test
+    void start_whenTheFileChangedSinceItStarted_shouldReject() throws Exception {
+        // Given
+        Path file = csv("history.csv", 2);
+        when(repository.findImport("history.csv")).thenReturn(Optional.of(new ImportRecord("history.csv",
+                Files.size(file) - 1, modified(file), 100, 1, LocalDateTime.now(), null)));
+
+        // When / Then
+        assertThat(rejection(service.start("history.csv"))).isEqualTo(Rejection.IMPORT_FILE_INVALID);
+        verify(repository, never()).copyTrades(anyList());
+    }
+
+    @Test
+    void start_whenTheFileWasRewrittenAtTheSameSize_shouldReject() throws Exception {
+        // Given
+        Path file = csv("history.csv", 2);
+        when(repository.findImport("history.csv")).thenReturn(Optional.of(new ImportRecord("history.csv",
+                Files.size(file), modified(file) - 1000, 100, 1, LocalDateTime.now(), null)));
+
+        // When / Then
+        assertThat(rejection(service.start("history.csv"))).isEqualTo(Rejection.IMPORT_FILE_INVALID);
+        verify(repository, never()).copyTrades(anyList());
+    }
+
+    @Test
+    void start_shouldRejectFilesItCannotImport() throws Exception {
+        // Given
+        Files.writeString(directory.resolve("notes.txt"), "hello\n");
+        Files.writeString(directory.resolve("bad.csv"), "side,amount\n");
+        Files.writeString(directory.getParent().resolve("outside.csv"), HEADER + "\n");
+
+        // When / Then
+        assertThat(rejection(service.start("missing.csv"))).isEqualTo(Rejection.IMPORT_FILE_INVALID);
+        assertThat(rejection(service.start("notes.txt"))).isEqualTo(Rejection.IMPORT_FILE_INVALID);
+        assertThat(rejection(service.start("bad.csv"))).isEqualTo(Rejection.IMPORT_FILE_INVALID);
+        assertThat(rejection(service.start("../outside.csv"))).isEqualTo(Rejection.IMPORT_FILE_INVALID);
+        verify(repository, never()).createImport(anyString(), anyLong(), anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void start_withInMemoryStorage_shouldReject() throws Exception {
+        // Given
+        csv("history.csv", 2);
+        storageProperties.setBackend(StorageProperties.Backend.MEMORY);
+
+        // When / Then
+        assertThat(rejection(service.start("history.csv"))).isEqualTo(Rejection.DATABASE_REQUIRED);
+        verify(repository, never()).findImport(anyString());
+    }
+
+    @Test
+    void statusAndRejects_ofAnUnknownImport_shouldReturnNotFound() {
+        assertThat(rejection(service.status("never.csv"))).isEqualTo(Rejection.IMPORT_NOT_FOUND);
+        assertThat(rejection(service.rejects("never.csv", 0, 100))).isEqualTo(Rejection.IMPORT_NOT_FOUND);
+    }
+}
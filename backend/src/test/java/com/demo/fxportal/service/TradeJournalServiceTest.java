@@ -0,0 +1,288 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.TradeJournalProperties;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.journal.JournalRecord;
+import com.demo.fxportal.journal.TradeJournal;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.outbox.TradeOutbox;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TradeJournalServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private QuoteStore quoteStore;
+
+    @Mock
+    private TradeStore tradeStore;
+
+    @Mock
+    private TradeService tradeService;
+
+    @Mock
+    private TradeOutbox tradeOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TradeJournalService service;
+
+    @BeforeEach
+    void setUp() {
+        when(tradeStore.findTradeIdsByQuoteId(anyCollection())).thenReturn(Map.of());
+        service = newService();
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    private TradeJournalService newService() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DbConcurrencyProperties dbProperties = new DbConcurrencyProperties();
+        dbProperties.setEnabled(false);
+        TradeJournalProperties properties = new TradeJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setProjectorRetryDelay(Duration.ofMillis(20));
+        return new TradeJournalService(quoteStore, tradeStore, tradeService,
+                tradeOutbox, new TradingMetrics(meterRegistry), new DbConcurrencyLimiter(dbProperties, meterRegistry),
+                transactionManager, properties, meterRegistry);
+    }
+
+    private Quote quote(LocalDateTime expiresAt) {
+        Quote quote = Quote.builder()
+                .id(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
+                .side(Side.BUY)
+                .amount(new BigDecimal("10000.0000"))
+                .rate(new BigDecimal("1.085000"))
+                .expiresAt(expiresAt)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(quoteStore.findById(quote.getId())).thenReturn(Optional.of(quote));
+        return quote;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Trade> projectedTrades(int times) {
+        ArgumentCaptor<List<Trade>> captor = ArgumentCaptor.forClass(List.class);
+        verify(tradeStore, timeout(5000).times(times)).insertAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @Test
+    void bookTrade_shouldCommitToTheJournalAndProjectTheSameTrade() {
+        // Given
+        Quote quote = quote(LocalDateTime.now().plusSeconds(30));
+
+        // When
+        ServiceResult<TradeResponse> result = service.bookTrade(new TradeRequest(quote.getId()));
+
+        // Then
+        assertThat(result).isInstanceOf(ServiceResult.Success.class);
+        TradeResponse booked = ((ServiceResult.Success<TradeResponse>) result).value();
+        assertThat(booked.getQuoteId()).isEqualTo(quote.getId());
+        assertThat(booked.getStatus()).isEqualTo(Trade.Status.BOOKED);
+        assertThat(projectedTrades(1)).singleElement().satisfies(trade -> {
+            assertThat(trade.getId()).isEqualTo(booked.getTradeId());
+            assertThat(trade.getBookedAt()).isEqualTo(booked.getBookedAt());
+            assertThat(trade.getAmount()).isEqualByComparingTo("10000");
+        });
+        verify(tradeOutbox, timeout(5000)).tradesBooked(argThat(trades ->
+                trades.size() == 1 && trades.get(0).getId().equals(booked.getTradeId())));
+        verify(tradeStore, never()).save(any());
+    }
+
+    @Test
+    void bookTrade_whileProjectionLags_shouldStillRejectTheSecondBooking() throws Exception {
+        // Given a projector stuck in its insert
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(tradeStore).insertAll(any());
+        Quote quote = quote(LocalDateTime.now().plusSeconds(30));
+        assertThat(service.bookTrade(new TradeRequest(quote.getId()))).isInstanceOf(ServiceResult.Success.class);
+
+        // When the database cannot see the first booking yet
+        when(tradeStore.existsByQuoteId(quote.getId())).thenReturn(false);
+        ServiceResult<TradeResponse> second = service.bookTrade(new TradeRequest(quote.getId()));
+        release.countDown();
+
+        // Then
+        assertThat(second).isEqualTo(ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE));
+        assertThat(projectedTrades(1)).hasSize(1);
+    }
+
+    @Test
+    void changeStatus_beforeTheTradeIsProjected_shouldAskTheCallerToRetry() throws Exception {
+        // Given a projector stuck in its insert
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(tradeStore).insertAll(any());
+        Quote quote = quote(LocalDateTime.now().plusSeconds(30));
+        UUID tradeId = ((ServiceResult.Success<TradeResponse>) service.bookTrade(new TradeRequest(quote.getId())))
+                .value().getTradeId();
+
+        // When
+        ServiceResult<TradeResponse> pending = service.changeStatus(tradeId, Trade.Status.SETTLED);
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.changeStatus(tradeId, Trade.Status.SETTLED) instanceof ServiceResult.Rejected<TradeResponse>
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertThat(pending).isInstanceOf(ServiceResult.Rejected.class)
+                .extracting(result -> ((ServiceResult.Rejected<TradeResponse>) result).rejection())
+                .isEqualTo(Rejection.TRADE_NOT_PROJECTED);
+        verify(tradeService).changeStatus(tradeId, Trade.Status.SETTLED);
+    }
+
+    @Test
+    void bookTrade_whenAlreadyInTrades_shouldRejectAsDuplicate() {
+        Quote quote = quote(LocalDateTime.now().plusSeconds(30));
+        when(tradeStore.existsByQuoteId(quote.getId())).thenReturn(true);
+
+        ServiceResult<TradeResponse> result = service.bookTrade(new TradeRequest(quote.getId()));
+
+        assertThat(result).isEqualTo(ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE));
+        verify(tradeStore, never()).insertAll(any());
+    }
+
+    @Test
+    void bookTrade_withExpiredQuote_shouldRejectWithoutJournaling() {
+        Quote quote = quote(LocalDateTime.now().minusSeconds(1));
+
+        ServiceResult<TradeResponse> result = service.bookTrade(new TradeRequest(quote.getId()));
+
+        assertThat(result).isEqualTo(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, TradeService.EXPIRED_MESSAGE));
+        assertThat(service.oldestUnprojectedBookedAt()).isEmpty();
+    }
+
+    @Test
+    void start_afterRestart_shouldReplayUnprojectedTradesIdempotently() throws Exception {
+        // Given three bookings the database never took
+        doThrow(new QueryTimeoutException("database down")).when(tradeStore).insertAll(any());
+        List<Quote> quotes = List.of(quote(LocalDateTime.now().plusSeconds(30)),
+                quote(LocalDateTime.now().plusSeconds(30)), quote(LocalDateTime.now().plusSeconds(30)));
+        List<TradeResponse> booked = quotes.stream()
+                .map(quote -> ((ServiceResult.Success<TradeResponse>) service.bookTrade(
+                        new TradeRequest(quote.getId()))).value())
+                .toList();
+        assertThat(service.oldestUnprojectedBookedAt()).isPresent();
+        service.stop();
+
+        // When it restarts, and the first one had reached trades before the crash
+        clearInvocations(tradeStore);
+        when(tradeStore.findTradeIdsByQuoteId(anyCollection()))
+                .thenReturn(Map.of(quotes.get(0).getId(), booked.get(0).getTradeId()));
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(tradeStore).insertAll(any());
+        service = newService();
+        service.start();
+
+        // Then journaled bookings still count before they are projected
+        ServiceResult<TradeResponse> rebook = service.bookTrade(new TradeRequest(quotes.get(2).getId()));
+        assertThat(rebook).isEqualTo(ServiceResult.rejected(Rejection.ALREADY_BOOKED, TradeService.ALREADY_BOOKED_MESSAGE));
+        release.countDown();
+        assertThat(projectedTrades(1)).extracting(Trade::getQuoteId)
+                .containsExactly(quotes.get(1).getId(), quotes.get(2).getId());
+    }
+
+    @Test
+    void projectBatch_whenTheQuoteIsBookedByAnotherTrade_shouldParkTheJournaledOne() throws Exception {
+        // Given another instance booked the quote through its direct path first
+        Quote quote = quote(LocalDateTime.now().plusSeconds(30));
+        when(tradeStore.findTradeIdsByQuoteId(anyCollection())).thenReturn(Map.of(quote.getId(), UUID.randomUUID()));
+
+        // When
+        TradeResponse booked = ((ServiceResult.Success<TradeResponse>) service.bookTrade(
+                new TradeRequest(quote.getId()))).value();
+        verify(tradeStore, timeout(5000)).findTradeIdsByQuoteId(anyCollection());
+        service.stop();
+
+        // Then
+        verify(tradeStore, never()).insertAll(any());
+        try (TradeJournal journal = TradeJournal.open(directory, 1024, Duration.ZERO, 1)) {
+            assertThat(journal.readParked()).extracting(JournalRecord::tradeId).containsExactly(booked.getTradeId());
+            assertThat(journal.getProjectedSequence()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void projectBatch_whenOneTradeViolatesAConstraint_shouldProjectTheRestOneByOne() {
+        // Given
+        doThrow(new DataIntegrityViolationException("fk_trades_quote")).doNothing()
+                .when(tradeStore).insertAll(any());
+        Quote quote = quote(LocalDateTime.now().plusSeconds(30));
+
+        // When
+        service.bookTrade(new TradeRequest(quote.getId()));
+
+        // Then the batch is retried for the single trade it held
+        assertThat(projectedTrades(2)).extracting(Trade::getQuoteId).containsExactly(quote.getId(), quote.getId());
+    }
+
+    @Test
+    void projectBatch_whenTheDatabaseRefusesATrade_shouldParkItRatherThanDropIt() throws Exception {
+        // Given
+        doThrow(new DataIntegrityViolationException("uk_trades_quote_id")).when(tradeStore).insertAll(any());
+        Quote quote = quote(LocalDateTime.now().plusSeconds(30));
+
+        // When
+        TradeResponse booked = ((ServiceResult.Success<TradeResponse>) service.bookTrade(
+                new TradeRequest(quote.getId()))).value();
+        projectedTrades(2);
+        service.stop();
+
+        // Then
+        try (TradeJournal journal = TradeJournal.open(directory, 1024, Duration.ZERO, 1)) {
+            assertThat(journal.readParked()).extracting(JournalRecord::tradeId).containsExactly(booked.getTradeId());
+            assertThat(journal.getProjectedSequence()).isEqualTo(1);
+        }
+    }
+}
@@ -2,25 +2,32 @@ package com.demo.fxportal.service;
 
 import com.demo.fxportal.dto.TradeRequest;
 import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPairRegistry;
 import com.demo.fxportal.model.Quote;
 import com.demo.fxportal.model.Side;
 import com.demo.fxportal.model.Trade;
-import com.demo.fxportal.repository.QuoteRepository;
-import com.demo.fxportal.repository.TradeRepository;
+import com.demo.fxportal.outbox.TradeOutbox;
+import com.demo.fxportal.repository.QuoteStore;
+import com.demo.fxportal.repository.TradeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -28,12 +35,15 @@ import static org.mockito.Mockito.*;
 class TradeServiceTest {
 
     @Mock
-    private TradeRepository tradeRepository;
+    private TradeStore tradeStore;
 
     @Mock
-    private QuoteRepository quoteRepository;
+    private QuoteStore quoteStore;
 
-    @InjectMocks
+    @Mock
+    private TradeOutbox tradeOutbox;
+
+    private SimpleMeterRegistry meterRegistry;
     private TradeService tradeService;
 
     private UUID quoteId;
@@ -43,11 +53,13 @@ class TradeServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tradeService = new TradeService(tradeStore, quoteStore, new TradingMetrics(meterRegistry), tradeOutbox);
         quoteId = UUID.randomUUID();
 
         validQuote = Quote.builder()
                 .id(quoteId)
-                .currencyPair("EUR/USD")
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
                 .side(Side.BUY)
                 .amount(new BigDecimal("10000.00"))
                 .rate(new BigDecimal("1.0850"))
@@ -57,7 +69,7 @@ class TradeServiceTest {
 
         expiredQuote = Quote.builder()
                 .id(quoteId)
-                .currencyPair("EUR/USD")
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
                 .side(Side.BUY)
                 .amount(new BigDecimal("10000.00"))
                 .rate(new BigDecimal("1.0850"))
@@ -68,7 +80,7 @@ class TradeServiceTest {
         savedTrade = Trade.builder()
                 .id(UUID.randomUUID())
                 .quoteId(quoteId)
-                .currencyPair("EUR/USD")
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
                 .side(Side.BUY)
                 .amount(new BigDecimal("10000.00"))
                 .rate(new BigDecimal("1.0850"))
@@ -81,11 +93,11 @@ class TradeServiceTest {
     void bookTrade_withValidQuote_shouldCreateTrade() {
         // Given
         TradeRequest request = TradeRequest.builder().quoteId(quoteId).build();
-        when(quoteRepository.findById(quoteId)).thenReturn(Optional.of(validQuote));
-        when(tradeRepository.save(any(Trade.class))).thenReturn(savedTrade);
+        when(quoteStore.findById(quoteId)).thenReturn(Optional.of(validQuote));
+        when(tradeStore.save(any(Trade.class))).thenReturn(savedTrade);
 
         // When
-        TradeResponse response = tradeService.bookTrade(request);
+        TradeResponse response = success(tradeService.bookTrade(request));
 
         // Then
         assertThat(response).isNotNull();
@@ -95,72 +107,193 @@ class TradeServiceTest {
         assertThat(response.getAmount()).isEqualTo(new BigDecimal("10000.00"));
         assertThat(response.getStatus()).isEqualTo(Trade.Status.BOOKED);
 
-        verify(quoteRepository, times(1)).findById(quoteId);
-        verify(tradeRepository, times(1)).save(any(Trade.class));
+        verify(quoteStore, times(1)).findById(quoteId);
+        verify(tradeStore, times(1)).save(any(Trade.class));
+        verify(tradeOutbox).tradesBooked(List.of(savedTrade));
+        assertThat(bookings("booked")).isEqualTo(1);
+        assertThat(meterRegistry.get("fxportal.trades.quote.to.book").timer().count()).isEqualTo(1);
     }
 
     @Test
-    void bookTrade_withNonExistentQuote_shouldThrowException() {
+    void bookTrade_shouldCountTheBookingOnlyOnceItsTransactionCommits() {
         // Given
         TradeRequest request = TradeRequest.builder().quoteId(quoteId).build();
-        when(quoteRepository.findById(quoteId)).thenReturn(Optional.empty());
+        when(quoteStore.findById(quoteId)).thenReturn(Optional.of(validQuote));
+        when(tradeStore.save(any(Trade.class))).thenReturn(savedTrade);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            success(tradeService.bookTrade(request));
+            List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+
+            // Then
+            assertThat(bookings("booked")).isZero();
+            pending.forEach(TransactionSynchronization::afterCommit);
+            assertThat(bookings("booked")).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 
-        // When & Then
-        assertThatThrownBy(() -> tradeService.bookTrade(request))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Quote not found");
+    @Test
+    void bookTrade_withNonExistentQuote_shouldReturnRejection() {
+        // Given
+        TradeRequest request = TradeRequest.builder().quoteId(quoteId).build();
+        when(quoteStore.findById(quoteId)).thenReturn(Optional.empty());
 
-        verify(quoteRepository, times(1)).findById(quoteId);
-        verify(tradeRepository, never()).save(any(Trade.class));
+        // When
+        ServiceResult<TradeResponse> result = tradeService.bookTrade(request);
+
+        // Then
+        assertThat(result).isEqualTo(new ServiceResult.Rejected<>(Rejection.QUOTE_NOT_FOUND,
+                "Quote not found: " + quoteId));
+
+        verify(quoteStore, times(1)).findById(quoteId);
+        verify(tradeStore, never()).save(any(Trade.class));
     }
 
     @Test
-    void bookTrade_withExpiredQuote_shouldThrowException() {
+    void bookTrade_withExpiredQuote_shouldReturnRejection() {
         // Given
         TradeRequest request = TradeRequest.builder().quoteId(quoteId).build();
-        when(quoteRepository.findById(quoteId)).thenReturn(Optional.of(expiredQuote));
+        when(quoteStore.findById(quoteId)).thenReturn(Optional.of(expiredQuote));
 
-        // When & Then
-        assertThatThrownBy(() -> tradeService.bookTrade(request))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("Quote has expired");
+        // When
+        ServiceResult<TradeResponse> result = tradeService.bookTrade(request);
 
-        verify(quoteRepository, times(1)).findById(quoteId);
-        verify(tradeRepository, never()).save(any(Trade.class));
+        // Then
+        assertThat(result).isEqualTo(new ServiceResult.Rejected<>(Rejection.QUOTE_EXPIRED, "Quote has expired"));
+
+        verify(quoteStore, times(1)).findById(quoteId);
+        verify(tradeStore, never()).save(any(Trade.class));
+        assertThat(bookings("expired")).isEqualTo(1);
     }
 
     @Test
-    void bookTrade_withAlreadyBookedQuote_shouldThrowException() {
+    void bookTrade_withAlreadyBookedQuote_shouldReturnRejection() {
         // Given
         TradeRequest request = TradeRequest.builder().quoteId(quoteId).build();
-        when(quoteRepository.findById(quoteId)).thenReturn(Optional.of(validQuote));
-        when(tradeRepository.existsByQuoteId(quoteId)).thenReturn(true);
+        when(quoteStore.findById(quoteId)).thenReturn(Optional.of(validQuote));
+        when(tradeStore.existsByQuoteId(quoteId)).thenReturn(true);
+
+        // When
+        ServiceResult<TradeResponse> result = tradeService.bookTrade(request);
 
-        // When & Then
-        assertThatThrownBy(() -> tradeService.bookTrade(request))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("A trade has already been booked for this quote");
+        // Then
+        assertThat(result).isEqualTo(new ServiceResult.Rejected<>(Rejection.ALREADY_BOOKED,
+                "A trade has already been booked for this quote"));
 
-        verify(tradeRepository, never()).save(any(Trade.class));
+        verify(tradeStore, never()).save(any(Trade.class));
+        verifyNoInteractions(tradeOutbox);
+        assertThat(bookings("duplicate")).isEqualTo(1);
+        assertThat(bookings("booked")).isZero();
     }
 
     @Test
     void bookTrade_withValidQuote_shouldCopyAllFieldsFromQuote() {
         // Given
         TradeRequest request = TradeRequest.builder().quoteId(quoteId).build();
-        when(quoteRepository.findById(quoteId)).thenReturn(Optional.of(validQuote));
-        when(tradeRepository.save(any(Trade.class))).thenReturn(savedTrade);
+        when(quoteStore.findById(quoteId)).thenReturn(Optional.of(validQuote));
+        when(tradeStore.save(any(Trade.class))).thenReturn(savedTrade);
 
         // When
         tradeService.bookTrade(request);
 
         // Then — verify the saved trade picks up all fields from the quote
-        verify(tradeRepository).save(argThat(trade ->
+        verify(tradeStore).save(argThat(trade ->
                 trade.getQuoteId().equals(quoteId) &&
-                trade.getCurrencyPair().equals("EUR/USD") &&
+                trade.getCurrencyPair() == CurrencyPairRegistry.of("EUR/USD") &&
                 trade.getSide() == Side.BUY &&
                 trade.getAmount().compareTo(new BigDecimal("10000.00")) == 0 &&
                 trade.getRate().compareTo(new BigDecimal("1.0850")) == 0
         ));
     }
+
+    @Test
+    void getTradeHistory_withUnknownCurrencyPair_shouldReturnEmptyPageWithoutQuery() {
+        // When
+        Page<TradeResponse> page = tradeService.getTradeHistory(
+                Optional.of("ABC/XYZ"), Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), PageRequest.of(0, 20));
+
+        // Then
+        assertThat(page.getContent()).isEmpty();
+        verifyNoInteractions(tradeStore);
+        assertThat(meterRegistry.get("fxportal.trades.history").tag("filters", "currencyPair").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void changeStatus_fromBooked_shouldUpdateAndRecordTheEvent() {
+        // Given
+        when(tradeStore.findById(savedTrade.getId())).thenReturn(Optional.of(savedTrade));
+        when(tradeStore.updateStatus(savedTrade.getId(), Trade.Status.BOOKED, Trade.Status.SETTLED))
+                .thenReturn(1);
+
+        // When
+        TradeResponse response = success(tradeService.changeStatus(savedTrade.getId(), Trade.Status.SETTLED));
+
+        // Then
+        assertThat(response.getTradeId()).isEqualTo(savedTrade.getId());
+        assertThat(response.getStatus()).isEqualTo(Trade.Status.SETTLED);
+        verify(tradeOutbox).statusChanged(argThat(trade -> trade.getStatus() == Trade.Status.SETTLED),
+                eq(Trade.Status.BOOKED));
+    }
+
+    @Test
+    void changeStatus_withUnknownTrade_shouldReturnRejection() {
+        // Given
+        UUID tradeId = UUID.randomUUID();
+        when(tradeStore.findById(tradeId)).thenReturn(Optional.empty());
+
+        // When
+        ServiceResult<TradeResponse> result = tradeService.changeStatus(tradeId, Trade.Status.SETTLED);
+
+        // Then
+        assertThat(result).isEqualTo(new ServiceResult.Rejected<>(Rejection.TRADE_NOT_FOUND,
+                "Trade not found: " + tradeId));
+        verifyNoInteractions(tradeOutbox);
+    }
+
+    @Test
+    void changeStatus_fromSettled_shouldReturnRejectionWithoutUpdating() {
+        // Given
+        savedTrade.setStatus(Trade.Status.SETTLED);
+        when(tradeStore.findById(savedTrade.getId())).thenReturn(Optional.of(savedTrade));
+
+        // When
+        ServiceResult<TradeResponse> result = tradeService.changeStatus(savedTrade.getId(), Trade.Status.CANCELLED);
+
+        // Then
+        assertThat(result).isEqualTo(new ServiceResult.Rejected<>(Rejection.INVALID_STATUS_CHANGE,
+                "Trade cannot change from SETTLED to CANCELLED"));
+        verify(tradeStore, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(tradeOutbox);
+    }
+
+    @Test
+    void changeStatus_whenAConcurrentChangeWins_shouldReturnRejection() {
+        // Given
+        when(tradeStore.findById(savedTrade.getId())).thenReturn(Optional.of(savedTrade));
+        when(tradeStore.updateStatus(savedTrade.getId(), Trade.Status.BOOKED, Trade.Status.CANCELLED))
+                .thenReturn(0);
+
+        // When
+        ServiceResult<TradeResponse> result = tradeService.changeStatus(savedTrade.getId(), Trade.Status.CANCELLED);
+
+        // Then
+        assertThat(result).isInstanceOfSatisfying(ServiceResult.Rejected.class,
+                rejected -> assertThat(rejected.rejection()).isEqualTo(Rejection.INVALID_STATUS_CHANGE));
+        verifyNoInteractions(tradeOutbox);
+    }
+
+    private long bookings(String outcome) {
+        return meterRegistry.get("fxportal.trades.bookings").tag("outcome", outcome).timer().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T success(ServiceResult<T> result) {
+        assertThat(result).isInstanceOf(ServiceResult.Success.class);
+        return ((ServiceResult.Success<T>) result).value();
+    }
 }
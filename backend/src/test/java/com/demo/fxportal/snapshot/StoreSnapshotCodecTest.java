@@ -0,0 +1,94 @@
+package com.demo.fxportal.snapshot;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StoreSnapshotCodecTest {
+
+    @TempDir
+    Path directory;
+
+    private static StoreSnapshot snapshot() {
+        Quote quote = Quote.builder()
+                .id(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.of("EUR/JPY"))
+                .side(Side.SELL)
+                .amount(new BigDecimal("1000"))
+                .rate(new BigDecimal("162.215431"))
+                .expiresAt(LocalDateTime.of(2024, 3, 1, 9, 2, 0, 123_456_789))
+                .createdAt(LocalDateTime.of(2024, 3, 1, 9, 0, 0, 123_456_789))
+                .build();
+        Trade trade = Trade.builder()
+                .id(UUID.randomUUID())
+                .quoteId(quote.getId())
+                .currencyPair(quote.getCurrencyPair())
+                .side(quote.getSide())
+                .status(Trade.Status.SETTLED)
+                .amount(new BigDecimal("-1250000.5000"))
+                .rate(quote.getRate())
+                .bookedAt(LocalDateTime.of(2024, 3, 1, 9, 1, 0, 1))
+                .build();
+        return new StoreSnapshot(StoreSnapshot.Kind.DELTA, 7, 42, 43, List.of(quote), List.of(trade));
+    }
+
+    @Test
+    void write_shouldRoundTripEveryFieldExactly() throws IOException {
+        // Given
+        StoreSnapshot snapshot = snapshot();
+        Path file = directory.resolve("snapshot.bin");
+
+        // When
+        StoreSnapshotCodec.write(file, snapshot);
+        StoreSnapshot read = StoreSnapshotCodec.read(file);
+
+        // Then scales and nanos survive, so the entities are equal
+        assertThat(read).isEqualTo(snapshot);
+        assertThat(read.quotes().get(0).getAmount().scale()).isZero();
+        assertThat(directory.resolve("snapshot.bin.partial")).doesNotExist();
+    }
+
+    @Test
+    void read_shouldRejectAFlippedByte() throws IOException {
+        // Given
+        Path file = directory.resolve("snapshot.bin");
+        StoreSnapshotCodec.write(file, snapshot());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[60] ^= 1;
+        Files.write(file, bytes);
+
+        // When / Then
+        assertThatThrownBy(() -> StoreSnapshotCodec.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void read_shouldRejectATruncatedFile() throws IOException {
+        // Given
+        Path file = directory.resolve("snapshot.bin");
+        StoreSnapshotCodec.write(file, snapshot());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        // When / Then
+        assertThatThrownBy(() -> StoreSnapshotCodec.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+    }
+}
@@ -0,0 +1,101 @@
+package com.demo.fxportal.tradeimport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkPlannerTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(String content) throws Exception {
+        Path file = directory.resolve("trades.csv");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private static String read(Path file, ImportChunk chunk) throws Exception {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return new String(ChunkPlanner.read(channel, chunk), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void plan_shouldCutChunksAtTheFirstLineBreakPastTheTargetSize() throws Exception {
+        // Given - ten lines of 10 bytes
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            content.append("line-").append(i).append("---\n");
+        }
+        Path file = write(content.toString());
+
+        // When
+        List<ImportChunk> chunks = ChunkPlanner.plan(file, 25, false);
+
+        // Then - each chunk ends at the line break at or after 25 bytes from its start
+        assertThat(chunks).containsExactly(
+                new ImportChunk(0, 0, 30, 1),
+                new ImportChunk(1, 30, 60, 4),
+                new ImportChunk(2, 60, 90, 7),
+                new ImportChunk(3, 90, 100, 10));
+        assertThat(read(file, chunks.get(1))).isEqualTo("line-3---\nline-4---\nline-5---\n");
+    }
+
+    @Test
+    void plan_withHeader_shouldStartTheFirstChunkOnLineTwo() throws Exception {
+        // Given - no line break after the last line
+        Path file = write("side,amount\nBUY,1\nSELL,2");
+
+        // When
+        List<ImportChunk> chunks = ChunkPlanner.plan(file, 1_000, true);
+
+        // Then
+        assertThat(chunks).containsExactly(new ImportChunk(0, 12, 24, 2));
+        assertThat(read(file, chunks.get(0))).isEqualTo("BUY,1\nSELL,2");
+    }
+
+    @Test
+    void plan_withOnlyAHeader_shouldHaveNoChunks() throws Exception {
+        // Given
+        Path file = write("side,amount\n");
+
+        // When / Then
+        assertThat(ChunkPlanner.plan(file, 1_000, true)).isEmpty();
+        assertThat(ChunkPlanner.plan(write(""), 1_000, false)).isEmpty();
+    }
+
+    @Test
+    void plan_shouldCoverEveryLineOfALargeFileExactlyOnce() throws Exception {
+        // Given - lines longer than the read buffer boundary lands on
+        StringBuilder content = new StringBuilder("header\n");
+        for (int i = 0; i < 50_000; i++) {
+            content.append("row-").append(i).append(",").append("x".repeat(i % 50)).append('\n');
+        }
+        Path file = write(content.toString());
+
+        // When
+        List<ImportChunk> chunks = ChunkPlanner.plan(file, 64 * 1024, true);
+
+        // Then
+        long line = 2;
+        long position = "header\n".length();
+        for (ImportChunk chunk : chunks) {
+            assertThat(chunk.start()).isEqualTo(position);
+            assertThat(chunk.firstLine()).isEqualTo(line);
+            String text = read(file, chunk);
+            assertThat(text).endsWith("\n").startsWith("row-" + (line - 2) + ",");
+            line += text.chars().filter(c -> c == '\n').count();
+            position = chunk.end();
+        }
+        assertThat(position).isEqualTo(Files.size(file));
+        assertThat(line).isEqualTo(50_002);
+    }
+}
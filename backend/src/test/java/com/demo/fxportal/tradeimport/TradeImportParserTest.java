@@ -0,0 +1,160 @@
+package com.demo.fxportal.tradeimport;
+
+import com.demo.fxportal.dto.TradeImportReject;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.tradeimport.TradeImportParser.ParsedChunk;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TradeImportParserTest {
+
+    private static final String HEADER = "trade_id,quote_id,currency_pair,side,amount,rate,status,booked_at";
+    private static final UUID TRADE_ID = UUID.fromString("6f1c1c6e-0b8a-4a39-9a57-6a3f3b0c0d01");
+    private static final UUID QUOTE_ID = UUID.fromString("6f1c1c6e-0b8a-4a39-9a57-6a3f3b0c0d02");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @TempDir
+    Path directory;
+
+    private TradeImportParser parser(String name, String header) throws Exception {
+        Path file = directory.resolve(name);
+        Files.writeString(file, header == null ? "" : header + "\n");
+        return TradeImportParser.open(name, file, TradeImportFormat.of(file).orElseThrow(), objectMapper, validator);
+    }
+
+    private static ParsedChunk parse(TradeImportParser parser, String lines) {
+        return parser.parse(lines.getBytes(StandardCharsets.UTF_8), 2);
+    }
+
+    @Test
+    void parse_csv_shouldMapColumnsByHeaderName() throws Exception {
+        // Given - camelCase and reordered columns, CRLF line ends and a quoted field
+        TradeImportParser parser = parser("trades.csv", "bookedAt,Side,amount,rate,\"currencyPair\",tradeId,quoteId,status");
+
+        // When
+        ParsedChunk chunk = parse(parser,
+                "2025-06-30T16:45:00,buy,1000000.5,1.0845,\"EUR/USD\"," + TRADE_ID + "," + QUOTE_ID + ",SETTLED\r\n");
+
+        // Then
+        assertThat(chunk.rejects()).isEmpty();
+        assertThat(chunk.trades()).containsExactly(new ImportedTrade(2, TRADE_ID, QUOTE_ID,
+                CurrencyPairRegistry.of("EUR/USD").getId(), Side.BUY, new BigDecimal("1000000.5"),
+                new BigDecimal("1.0845"), Trade.Status.SETTLED, LocalDateTime.of(2025, 6, 30, 16, 45)));
+    }
+
+    @Test
+    void parse_withoutIds_shouldDeriveTheSameIdsForTheSameLine() throws Exception {
+        // Given
+        TradeImportParser parser = parser("trades.csv", HEADER);
+        String line = ",,GBP/USD,SELL,250000,1.2710,,2025-06-30T09:00:00\n";
+
+        // When
+        ImportedTrade first = parse(parser, line).trades().get(0);
+        ImportedTrade again = parse(parser, line).trades().get(0);
+        ImportedTrade otherFile = parse(parser("other.csv", HEADER), line).trades().get(0);
+
+        // Then
+        assertThat(first.status()).isEqualTo(Trade.Status.BOOKED);
+        assertThat(first.tradeId()).isNotEqualTo(first.quoteId());
+        assertThat(again.tradeId()).isEqualTo(first.tradeId());
+        assertThat(again.quoteId()).isEqualTo(first.quoteId());
+        assertThat(otherFile.tradeId()).isNotEqualTo(first.tradeId());
+    }
+
+    @Test
+    void parse_shouldRejectLinesThatBreakTheEntityRules() throws Exception {
+        // Given
+        TradeImportParser parser = parser("trades.csv", HEADER);
+
+        // When
+        ParsedChunk chunk = parse(parser, String.join("\n",
+                ",,EUR/USD,BUY,0,1.08,,2025-06-30T09:00:00",
+                ",,EUR/USD,BUY,1.00001,1.08,,2025-06-30T09:00:00",
+                ",,XAU/XAG,BUY,1,1.08,,2025-06-30T09:00:00",
+                ",,EUR/USD,HOLD,1,1.08,,2025-06-30T09:00:00",
+                ",,EUR/USD,BUY,1,1.08,,2999-01-01T00:00:00",
+                ",,EUR/USD,BUY,1,1.08,,yesterday",
+                "",
+                ",,EUR/USD,BUY,1",
+                ",,EUR/USD,BUY,1,1.08,,2025-06-30T09:00:00"));
+
+        // Then - the blank line is skipped but counted
+        assertThat(chunk.trades()).extracting(ImportedTrade::line).containsExactly(10L);
+        assertThat(chunk.rejects()).extracting(TradeImportReject::getLine).containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 9L);
+        assertThat(chunk.rejects()).extracting(TradeImportReject::getReason).containsExactly(
+                "amount: Amount must be greater than 0",
+                "amount: Amount must have at most 15 integer digits and 4 decimal places",
+                "currencyPair: Unsupported currency pair: XAU/XAG",
+                "side: Side must be BUY or SELL: HOLD",
+                "bookedAt: Booked at must not be in the future",
+                "bookedAt: Not an ISO date-time (yyyy-MM-dd'T'HH:mm:ss): yesterday",
+                "Expected 8 columns but found 5");
+    }
+
+    @Test
+    void parse_shouldRejectRepeatedTradeAndQuoteIdsAfterTheFirst() throws Exception {
+        // Given
+        TradeImportParser parser = parser("trades.csv", HEADER);
+        String booked = ",EUR/USD,BUY,1,1.08,,2025-06-30T09:00:00";
+
+        // When
+        ParsedChunk chunk = parse(parser, String.join("\n",
+                TRADE_ID + "," + QUOTE_ID + booked,
+                TRADE_ID + "," + UUID.randomUUID() + booked,
+                UUID.randomUUID() + "," + QUOTE_ID + booked));
+
+        // Then
+        assertThat(chunk.trades()).extracting(ImportedTrade::line).containsExactly(2L);
+        assertThat(chunk.rejects()).extracting(TradeImportReject::getReason).containsExactly(
+                "Trade " + TRADE_ID + " is already on line 2",
+                "Quote " + QUOTE_ID + " is already booked on line 2");
+    }
+
+    @Test
+    void parse_ndjson_shouldReadApiFieldNamesAndReportBadFields() throws Exception {
+        // Given
+        TradeImportParser parser = parser("trades.ndjson", null);
+
+        // When
+        ParsedChunk chunk = parse(parser, String.join("\n",
+                "{\"currencyPair\":\"USD/JPY\",\"side\":\"SELL\",\"amount\":500,\"rate\":149.25,\"bookedAt\":\"2025-06-30T09:00:00\"}",
+                "{\"currencyPair\":\"USD/JPY\",\"side\":\"SELL\",\"amount\":\"lots\",\"rate\":149.25,\"bookedAt\":\"2025-06-30T09:00:00\"}",
+                "{\"currencyPair\":\"USD/JPY\"",
+                "{\"side\":\"SELL\",\"amount\":500,\"rate\":149.25,\"bookedAt\":\"2025-06-30T09:00:00\"}"));
+
+        // Then
+        assertThat(chunk.trades()).hasSize(1);
+        assertThat(chunk.trades().get(0).side()).isEqualTo(Side.SELL);
+        assertThat(chunk.rejects()).extracting(TradeImportReject::getLine).containsExactly(3L, 4L, 5L);
+        assertThat(chunk.rejects().get(0).getReason()).startsWith("amount: ");
+        assertThat(chunk.rejects().get(1).getReason()).startsWith("Malformed JSON: ");
+        assertThat(chunk.rejects().get(2).getReason()).isEqualTo("currencyPair: Currency pair is required");
+    }
+
+    @Test
+    void open_withoutARequiredColumn_shouldFail() {
+        assertThatThrownBy(() -> parser("trades.csv", "trade_id,currency_pair,side,amount"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV header has no column for rate, bookedAt");
+        assertThatThrownBy(() -> parser("empty.csv", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV file has no header line");
+    }
+}
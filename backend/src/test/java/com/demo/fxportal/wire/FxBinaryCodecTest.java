@@ -0,0 +1,155 @@
+package com.demo.fxportal.wire;
+
+import com.demo.fxportal.controller.GlobalExceptionHandler.ErrorResponse;
+import com.demo.fxportal.controller.GlobalExceptionHandler.ValidationErrorResponse;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxBinaryCodecTest {
+
+    private static final LocalDateTime BOOKED_AT = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_000);
+
+    private TradeResponse trade() {
+        return TradeResponse.builder()
+                .tradeId(UUID.randomUUID())
+                .quoteId(UUID.randomUUID())
+                .currencyPair("EUR/USD")
+                .side(Side.SELL)
+                .amount(new BigDecimal("10000.50"))
+                .rate(new BigDecimal("1.085123"))
+                .status(Trade.Status.SETTLED)
+                .bookedAt(BOOKED_AT)
+                .build();
+    }
+
+    private <T> T roundTrip(Object message, Class<T> type) {
+        return FxBinaryCodec.decode(ByteBuffer.wrap(FxBinaryCodec.encode(message)), type);
+    }
+
+    @Test
+    void tradeResponse_shouldRoundTripAtColumnScales() {
+        TradeResponse trade = trade();
+
+        TradeResponse decoded = roundTrip(trade, TradeResponse.class);
+
+        assertThat(decoded).usingRecursiveComparison().ignoringFields("amount", "rate").isEqualTo(trade);
+        assertThat(decoded.getAmount()).isEqualByComparingTo("10000.50");
+        assertThat(decoded.getAmount().scale()).isEqualTo(4);
+        assertThat(decoded.getRate()).isEqualTo(new BigDecimal("1.085123"));
+    }
+
+    @Test
+    void quoteResponse_shouldRoundTripWithNullFields() {
+        QuoteResponse quote = QuoteResponse.builder()
+                .quoteId(UUID.randomUUID())
+                .currencyPair("USD/JPY")
+                .side(Side.BUY)
+                .amount(new BigDecimal("1.0000"))
+                .rate(new BigDecimal("149.500000"))
+                .expiresAt(BOOKED_AT.plusSeconds(30))
+                .build();
+
+        QuoteResponse decoded = roundTrip(quote, QuoteResponse.class);
+
+        assertThat(decoded).isEqualTo(quote);
+        assertThat(decoded.getCreatedAt()).isNull();
+    }
+
+    @Test
+    void requests_shouldRoundTrip() {
+        QuoteRequest quoteRequest = new QuoteRequest("GBP/USD", Side.BUY, new BigDecimal("2500.0000"));
+        TradeRequest tradeRequest = new TradeRequest(UUID.randomUUID());
+
+        assertThat(roundTrip(quoteRequest, QuoteRequest.class)).isEqualTo(quoteRequest);
+        assertThat(roundTrip(tradeRequest, TradeRequest.class)).isEqualTo(tradeRequest);
+    }
+
+    @Test
+    void tradePage_shouldKeepRowsAndPaging() {
+        List<TradeResponse> rows = List.of(trade(), trade(), trade());
+        Page<TradeResponse> page = new PageImpl<>(rows, PageRequest.of(2, 3), 100);
+
+        @SuppressWarnings("unchecked")
+        Page<TradeResponse> decoded = roundTrip(page, Page.class);
+
+        assertThat(decoded.getNumber()).isEqualTo(2);
+        assertThat(decoded.getSize()).isEqualTo(3);
+        assertThat(decoded.getTotalElements()).isEqualTo(100);
+        assertThat(decoded.getTotalPages()).isEqualTo(34);
+        assertThat(decoded.getContent()).extracting(TradeResponse::getTradeId)
+                .containsExactlyElementsOf(rows.stream().map(TradeResponse::getTradeId).toList());
+    }
+
+    @Test
+    void tradePage_shouldAddLittleOverheadToTheRowFields() {
+        Page<TradeResponse> page = new PageImpl<>(List.of(trade()), PageRequest.of(0, 20), 1);
+
+        // 2 UUIDs (32) + pair (9) + 2 enums (2) + 2 numerics (16) + timestamp (8) = 67 bytes of fields
+        assertThat(FxBinaryCodec.encode(page).length).isLessThan(67 + 40);
+    }
+
+    @Test
+    void errors_shouldRoundTrip() {
+        ErrorResponse error = new ErrorResponse(409, "Quote has expired", BOOKED_AT);
+        ValidationErrorResponse validation = new ValidationErrorResponse(400, "Validation failed", BOOKED_AT,
+                Map.of("amount", "Amount is required"));
+
+        assertThat(roundTrip(error, ErrorResponse.class)).isEqualTo(error);
+        assertThat(roundTrip(validation, ValidationErrorResponse.class)).isEqualTo(validation);
+    }
+
+    @Test
+    void decode_shouldSkipFieldsAppendedByANewerWriter() {
+        byte[] encoded = FxBinaryCodec.encode(new TradeRequest(UUID.randomUUID()));
+        // version, type, u16 length, mask, 16-byte UUID; append 4 unknown bytes to the record
+        byte[] extended = Arrays.copyOf(encoded, encoded.length + 4);
+        extended[3] += 4;
+        extended[4] |= 0b10;
+
+        TradeRequest decoded = FxBinaryCodec.decode(ByteBuffer.wrap(extended), TradeRequest.class);
+
+        assertThat(decoded.getQuoteId()).isNotNull();
+    }
+
+    @Test
+    void encode_shouldRejectAmountsBeyondTheColumnScale() {
+        QuoteRequest request = new QuoteRequest("EUR/USD", Side.BUY, new BigDecimal("1.00001"));
+
+        assertThatThrownBy(() -> FxBinaryCodec.encode(request)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void decode_shouldRejectWrongTypeVersionAndTruncation() {
+        byte[] encoded = FxBinaryCodec.encode(new TradeRequest(UUID.randomUUID()));
+        byte[] otherVersion = encoded.clone();
+        otherVersion[0] = 2;
+
+        assertThatThrownBy(() -> FxBinaryCodec.decode(ByteBuffer.wrap(encoded), QuoteRequest.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FxBinaryCodec.decode(ByteBuffer.wrap(otherVersion), TradeRequest.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> FxBinaryCodec.decode(ByteBuffer.wrap(Arrays.copyOf(encoded, 10)), TradeRequest.class))
+                .isInstanceOfAny(IllegalArgumentException.class, BufferUnderflowException.class);
+    }
+}
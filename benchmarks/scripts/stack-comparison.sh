@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# Compares the servlet backend and the WebFlux/R2DBC module under the same closed-model load.
+#
+# Needs a Postgres reachable through DATABASE_URL/DATABASE_USERNAME/DATABASE_PASSWORD, with
+# R2DBC_URL pointing the reactive module at the same database, and both apps built with `./mvnw package -DskipTests` / `mvn -f reactive/pom.xml package -DskipTests`.
+# Each stack runs on its own, so they never compete for CPU or connections. Reports land in
+# backend/target/loadtest/stack-<stack>-<clients>/, plus an rss.txt next to each report.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+BACKEND="$ROOT/backend"
+PORT="${PORT:-18080}"
+CLIENTS="${CLIENTS:-1000 5000}"
+DURATION="${DURATION:-PT60S}"
+WARMUP="${WARMUP:-PT15S}"
+SERVLET_JAR="$(ls "$BACKEND"/target/*-exec.jar)"
+REACTIVE_JAR="$(ls "$ROOT"/reactive/target/fx-portal-reactive-*.jar | grep -v original)"
+
+ulimit -n 65536 2>/dev/null || echo "warning: could not raise the open file limit" >&2
+
+rss_kb() {
+  awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+}
+
+for stack in servlet reactive; do
+  jar="$SERVLET_JAR"
+  [[ "$stack" == reactive ]] && jar="$REACTIVE_JAR"
+
+  for clients in $CLIENTS; do
+    # A fresh JVM per run so the idle RSS baseline is not inflated by the previous run.
+    java -jar "$jar" \
+        --server.port="$PORT" \
+        --server.tomcat.max-connections=20000 \
+        --server.tomcat.accept-count=1000 \
+        --fxportal.quote-rate-limit.enabled=false \
+        --spring.r2dbc.pool.initial-size=14 \
+        --spring.r2dbc.pool.max-size=14 \
+        --logging.level.com.demo.fxportal=WARN > "$BACKEND/target/stack-$stack.log" 2>&1 &
+    app=$!
+    trap 'kill $app 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+      kill -0 "$app" || { echo "$stack failed to start, see target/stack-$stack.log" >&2; exit 1; }
+      sleep 1
+    done
+
+    report_dir="target/loadtest/stack-$stack-$clients"
+    mkdir -p "$BACKEND/$report_dir"
+    idle="$(rss_kb "$app")"
+    (while kill -0 "$app" 2>/dev/null; do rss_kb "$app"; sleep 1; done) > "$BACKEND/$report_dir/rss-samples.txt" &
+    sampler=$!
+
+    echo "== $stack, $clients clients"
+    (cd "$BACKEND" && ./mvnw -B -q test -Dtest=QuoteToBookLoadTest -Dloadtest=true \
+        -Dloadtest.baseUrl="http://localhost:$PORT" \
+        -Dloadtest.clients="$clients" \
+        -Dloadtest.duration="$DURATION" \
+        -Dloadtest.warmup="$WARMUP" \
+        -Dloadtest.reportDir="$report_dir")
+
+    kill "$sampler" 2>/dev/null || true
+    peak="$(sort -n "$BACKEND/$report_dir/rss-samples.txt" | tail -1)"
+    printf 'idle_kb=%s\npeak_kb=%s\nper_connection_kb=%s\n' \
+        "$idle" "$peak" "$(( (peak - idle) / clients ))" > "$BACKEND/$report_dir/rss.txt"
+
+    kill "$app"
+    wait "$app" 2>/dev/null || true
+  done
+done
+
+if command -v jq > /dev/null; then
+  printf '%-9s %8s %-18s %12s %10s %10s %10s %8s\n' stack clients endpoint throughput p99_ms p99.9_ms kb/conn errors
+  for report in "$BACKEND"/target/loadtest/stack-*/quote-to-book-*.json; do
+    dir="$(dirname "$report")"
+    run="$(basename "$dir")"
+    run="${run#stack-}"
+    per_conn="$(awk -F= '/^per_connection_kb/ { print $2 }' "$dir/rss.txt")"
+    jq -r --arg stack "${run%-*}" --arg clients "${run##*-}" --arg kb "$per_conn" '.endpoints | to_entries[] |
+        [$stack, $clients, .key, (.value.throughputPerSecond | floor),
+         .value.responseTimeMillis.p99, .value.responseTimeMillis["p99.9"], $kb, .value.errors] | @tsv' "$report" |
+      awk -F'\t' '{ printf "%-9s %8s %-18s %12s %10.1f %10.1f %10s %8s\n", $1, $2, $3, $4, $5, $6, $7, $8 }'
+  done
+fi
@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Compares startup of the default jar with the fast-startup build (Spring AOT + CDS archive).
+#
+# For each mode it launches the backend RUNS times and measures the wall-clock time from
+# launching the JVM to the first 201 from POST /api/quotes, then the RSS once the idle app has
+# settled. Needs Java 21 on PATH and a Postgres reachable through
+# DATABASE_URL/DATABASE_USERNAME/DATABASE_PASSWORD (the CDS training run needs it too).
+# Results land in backend/target/startup/results.csv.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+BACKEND="$ROOT/backend"
+OUT="$BACKEND/target/startup"
+PORT="${PORT:-18080}"
+RUNS="${RUNS:-5}"
+IDLE_SETTLE="${IDLE_SETTLE:-10}"
+QUOTE='{"currencyPair":"EUR/USD","side":"BUY","amount":1000}'
+
+# Default build, then the fast-startup build; each copied out before the next build runs.
+(cd "$BACKEND" && ./mvnw -B -q clean package -DskipTests)
+mkdir -p "$OUT/default" "$OUT/fast"
+cp "$BACKEND"/target/*-exec.jar "$OUT/default/app.jar"
+
+(cd "$BACKEND" && ./mvnw -B -q package -DskipTests -Pfast-startup)
+rm -rf "$OUT/fast/lib"
+cp "$BACKEND"/target/fx-portal-*-SNAPSHOT.jar "$OUT/fast/app.jar"
+cp -r "$BACKEND/target/lib" "$OUT/fast/lib"
+
+# Training run: refresh the context once and write the classes it loaded to the archive.
+(cd "$OUT/fast" && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh -jar app.jar --logging.level.root=WARN > training.log 2>&1)
+
+run_once() {
+  local mode="$1" run="$2"
+  local cmd=(java -jar app.jar)
+  [[ "$mode" == fast ]] && cmd=(java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar)
+
+  local start app elapsed rss
+  start="$(date +%s%N)"
+  (cd "$OUT/$mode" && exec "${cmd[@]}" --server.port="$PORT" > "run-$run.log" 2>&1) &
+  app=$!
+  until [[ "$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' \
+      -d "$QUOTE" "http://localhost:$PORT/api/quotes")" == 201 ]]; do
+    kill -0 "$app" 2>/dev/null || { echo "$mode run $run failed, see $OUT/$mode/run-$run.log" >&2; exit 1; }
+    sleep 0.05
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+
+  sleep "$IDLE_SETTLE"
+  rss="$(awk '/^VmRSS:/ { print $2 }' "/proc/$app/status")"
+  kill "$app"
+  wait "$app" 2>/dev/null || true
+  echo "$mode,$run,$elapsed,$(( rss / 1024 ))" >> "$OUT/results.csv"
+}
+
+echo "mode,run,time_to_first_quote_ms,idle_rss_mb" > "$OUT/results.csv"
+for run in $(seq 1 "$RUNS"); do
+  # Interleave the modes so drift on the machine affects both alike.
+  run_once default "$run"
+  run_once fast "$run"
+done
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+summary="| mode | time to first quote (ms, median) | idle RSS (MB, median) |
+|---|---|---|"
+for mode in default fast; do
+  ttfq="$(awk -F, -v m="$mode" '$1 == m { print $3 }' "$OUT/results.csv" | median)"
+  rss="$(awk -F, -v m="$mode" '$1 == m { print $4 }' "$OUT/results.csv" | median)"
+  summary="$summary
+| $mode | $ttfq | $rss |"
+done
+echo "$summary"
+[[ -n "${GITHUB_STEP_SUMMARY:-}" ]] && echo "$summary" >> "$GITHUB_STEP_SUMMARY"
+exit 0
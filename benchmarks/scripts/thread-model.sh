@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Compares platform and virtual request threads under 1k, 5k and 10k concurrent clients.
+#
+# Needs a Java 21 runtime on PATH (virtual threads are ignored on 17), a Postgres reachable
+# through DATABASE_URL/DATABASE_USERNAME/DATABASE_PASSWORD, and the backend built with
+# `./mvnw package -DskipTests`. Reports land in backend/target/loadtest/<mode>-<clients>/.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+BACKEND="$ROOT/backend"
+PORT="${PORT:-18080}"
+CLIENTS="${CLIENTS:-1000 5000 10000}"
+DURATION="${DURATION:-PT60S}"
+WARMUP="${WARMUP:-PT15S}"
+JAR="$(ls "$BACKEND"/target/*-exec.jar)"
+
+ulimit -n 65536 2>/dev/null || echo "warning: could not raise the open file limit" >&2
+
+for mode in platform virtual; do
+  virtual=false
+  [[ "$mode" == virtual ]] && virtual=true
+
+  VIRTUAL_THREADS_ENABLED="$virtual" java -jar "$JAR" \
+      --server.port="$PORT" \
+      --server.tomcat.max-connections=20000 \
+      --server.tomcat.accept-count=1000 \
+      --fxportal.quote-rate-limit.enabled=false \
+      --logging.level.com.demo.fxportal=WARN > "$BACKEND/target/thread-model-$mode.log" 2>&1 &
+  app=$!
+  trap 'kill $app 2>/dev/null || true' EXIT
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    kill -0 "$app" || { echo "backend failed to start, see target/thread-model-$mode.log" >&2; exit 1; }
+    sleep 1
+  done
+
+  for clients in $CLIENTS; do
+    echo "== $mode threads, $clients clients"
+    (cd "$BACKEND" && ./mvnw -B -q test -Dtest=QuoteToBookLoadTest -Dloadtest=true \
+        -Dloadtest.baseUrl="http://localhost:$PORT" \
+        -Dloadtest.clients="$clients" \
+        -Dloadtest.duration="$DURATION" \
+        -Dloadtest.warmup="$WARMUP" \
+        -Dloadtest.reportDir="target/loadtest/$mode-$clients")
+  done
+
+  kill "$app"
+  wait "$app" 2>/dev/null || true
+done
+
+if command -v jq > /dev/null; then
+  printf '%-9s %8s %-18s %12s %10s %10s %8s\n' mode clients endpoint throughput p50_ms p99_ms errors
+  for report in "$BACKEND"/target/loadtest/*-*/quote-to-book-*.json; do
+    run="$(basename "$(dirname "$report")")"
+    jq -r --arg mode "${run%-*}" --arg clients "${run##*-}" '.endpoints | to_entries[] |
+        [$mode, $clients, .key, (.value.throughputPerSecond | floor),
+         .value.responseTimeMillis.p50, .value.responseTimeMillis.p99, .value.errors] | @tsv' "$report" |
+      awk -F'\t' '{ printf "%-9s %8s %-18s %12s %10.1f %10.1f %8s\n", $1, $2, $3, $4, $5, $6, $7 }'
+  done
+fi
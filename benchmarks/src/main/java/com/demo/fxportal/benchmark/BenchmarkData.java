@@ -0,0 +1,57 @@
+package com.demo.fxportal.benchmark;
+
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed synthetic data shared by the benchmarks, so runs on different commits see the same input.
+ */
+public final class BenchmarkData {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+    private BenchmarkData() {
+    }
+
+    public static Quote quote() {
+        return Quote.builder()
+                .id(UUID.fromString("6f1c2a0e-8a7b-4c1d-9e2f-3a4b5c6d7e8f"))
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
+                .side(Side.BUY)
+                .amount(new BigDecimal("10000.0000"))
+                .rate(new BigDecimal("1.085123"))
+                .expiresAt(NOW.plusMinutes(2))
+                .createdAt(NOW)
+                .build();
+    }
+
+    public static Trade trade(int index) {
+        return Trade.builder()
+                .id(new UUID(0x1234L, index))
+                .quoteId(new UUID(0x5678L, index))
+                .currencyPair(CurrencyPairRegistry.of(index % 2 == 0 ? "EUR/USD" : "USD/JPY"))
+                .side(index % 3 == 0 ? Side.SELL : Side.BUY)
+                .amount(BigDecimal.valueOf(1_000_000L + index * 250L, 4))
+                .rate(BigDecimal.valueOf(1_085_000L + index, 6))
+                .status(Trade.Status.BOOKED)
+                .bookedAt(NOW.plusSeconds(index))
+                .build();
+    }
+
+    public static List<TradeResponse> tradeResponses(int count) {
+        List<TradeResponse> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(TradeResponse.fromEntity(trade(i)));
+        }
+        return responses;
+    }
+}
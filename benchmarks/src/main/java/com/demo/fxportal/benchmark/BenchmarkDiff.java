@@ -0,0 +1,87 @@
+package com.demo.fxportal.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compares two JMH JSON result files, printing score and allocation per operation side by side.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.demo.fxportal.benchmark.BenchmarkDiff base.json head.json
+ * </pre>
+ */
+public final class BenchmarkDiff {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkDiff <base.json> <head.json>");
+            System.exit(2);
+        }
+        Map<String, Row> base = read(new File(args[0]));
+        Map<String, Row> head = read(new File(args[1]));
+
+        System.out.printf("%-80s %14s %14s %8s %12s %12s%n",
+                "Benchmark", "Base", "Head", "Change", "Base B/op", "Head B/op");
+        for (String key : union(base, head)) {
+            Row before = base.get(key);
+            Row after = head.get(key);
+            System.out.printf("%-80s %14s %14s %8s %12s %12s%n",
+                    key,
+                    before == null ? "-" : format(before.score) + " " + before.unit,
+                    after == null ? "-" : format(after.score) + " " + after.unit,
+                    before == null || after == null ? "" : String.format("%+.1f%%", (after.score / before.score - 1) * 100),
+                    before == null ? "-" : format(before.allocation),
+                    after == null ? "-" : format(after.allocation));
+        }
+    }
+
+    private static Map<String, Row> read(File file) throws IOException {
+        Map<String, Row> rows = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(shorten(result.get("benchmark").asText()));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            JsonNode primary = result.get("primaryMetric");
+            JsonNode allocation = result.path("secondaryMetrics").path(ALLOCATION).path("score");
+            rows.put(key.toString(), new Row(
+                    primary.get("score").asDouble(),
+                    primary.get("scoreUnit").asText(),
+                    allocation.isMissingNode() ? Double.NaN : allocation.asDouble()));
+        }
+        return rows;
+    }
+
+    private static String shorten(String benchmark) {
+        return benchmark.replace("com.demo.fxportal.", "");
+    }
+
+    private static TreeSet<String> union(Map<String, Row> base, Map<String, Row> head) {
+        TreeSet<String> keys = new TreeSet<>(base.keySet());
+        keys.addAll(head.keySet());
+        return keys;
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "-" : String.format("%.3f", value);
+    }
+
+    private record Row(double score, String unit, double allocation) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.demo.fxportal.benchmark;
+
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Trade;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping done on every quote, booking and history row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private Quote quote;
+    private Trade trade;
+
+    @Setup
+    public void setUp() {
+        quote = BenchmarkData.quote();
+        trade = BenchmarkData.trade(1);
+    }
+
+    @Benchmark
+    public QuoteResponse quoteFromEntity() {
+        return QuoteResponse.fromEntity(quote);
+    }
+
+    @Benchmark
+    public TradeResponse tradeFromEntity() {
+        return TradeResponse.fromEntity(trade);
+    }
+}
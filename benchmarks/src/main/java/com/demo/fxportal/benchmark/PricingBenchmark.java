@@ -0,0 +1,66 @@
+package com.demo.fxportal.benchmark;
+
+import com.demo.fxportal.pricing.FixedPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing one quote with the fixed-point kernel versus the former
+ * BigDecimal implementation. Run with {@code -prof gc} to compare allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingBenchmark {
+
+    @Param({"EUR/USD", "USD/JPY"})
+    public String currencyPair;
+
+    /** Original implementation, kept here as the baseline. */
+    @Benchmark
+    public BigDecimal bigDecimalRate() {
+        BigDecimal baseRate;
+        switch (currencyPair) {
+            case "EUR/USD":
+                baseRate = new BigDecimal("1.0850");
+                break;
+            case "USD/JPY":
+                baseRate = new BigDecimal("149.50");
+                break;
+            default:
+                baseRate = new BigDecimal("1.0000");
+                break;
+        }
+
+        double spreadPercent = (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.01;
+        BigDecimal spread = baseRate.multiply(BigDecimal.valueOf(spreadPercent));
+
+        return baseRate.add(spread).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    /** Kernel only: no allocation. */
+    @Benchmark
+    public long fixedPointRate() {
+        long baseRate = switch (currencyPair) {
+            case "EUR/USD" -> 1_085_000L;
+            case "USD/JPY" -> 149_500_000L;
+            default -> 1_000_000L;
+        };
+        long spreadPpb = ThreadLocalRandom.current().nextLong(-5_000_000L, 5_000_001L);
+
+        return FixedPoint.applySpread(baseRate, spreadPpb);
+    }
+
+    /** Kernel plus the single BigDecimal conversion at the API edge. */
+    @Benchmark
+    public BigDecimal fixedPointRateAtEdge() {
+        return FixedPoint.toBigDecimal(fixedPointRate(), FixedPoint.RATE_SCALE);
+    }
+}
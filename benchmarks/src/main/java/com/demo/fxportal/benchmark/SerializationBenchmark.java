@@ -0,0 +1,40 @@
+package com.demo.fxportal.benchmark;
+
+import com.demo.fxportal.dto.TradeResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of a full trade history page, configured like Spring Boot's ObjectMapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Page<TradeResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = new PageImpl<>(BenchmarkData.tradeResponses(100),
+                PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "bookedAt")), 10_000);
+    }
+
+    @Benchmark
+    public byte[] tradeHistoryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
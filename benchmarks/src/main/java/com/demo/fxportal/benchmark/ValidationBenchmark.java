@@ -0,0 +1,60 @@
+package com.demo.fxportal.benchmark;
+
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.model.Side;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of a quote request, as run by {@code @Valid} on {@code POST /api/quotes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private QuoteRequest validRequest;
+    private QuoteRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validRequest = QuoteRequest.builder()
+                .currencyPair("EUR/USD")
+                .side(Side.BUY)
+                .amount(new BigDecimal("10000.00"))
+                .build();
+        invalidRequest = QuoteRequest.builder()
+                .currencyPair("EURUSD")
+                .amount(new BigDecimal("-1"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<QuoteRequest>> validQuoteRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<QuoteRequest>> invalidQuoteRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
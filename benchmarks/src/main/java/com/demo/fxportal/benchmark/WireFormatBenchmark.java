@@ -0,0 +1,99 @@
+package com.demo.fxportal.benchmark;
+
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.wire.FxBinaryCodec;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A 100-row trade history page on the wire: JSON (as Spring Boot renders it) with and without
+ * gzip, against {@link FxBinaryCodec}. Encoding is the server's cost, decoding the client's;
+ * the payload sizes are printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Page<TradeResponse> page;
+    private byte[] json;
+    private byte[] gzippedJson;
+    private byte[] binary;
+
+    /** The parts of Spring's page JSON a client reads back. */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record JsonPage(List<TradeResponse> content, long totalElements, int number, int size) {
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = new PageImpl<>(BenchmarkData.tradeResponses(100),
+                PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "bookedAt")), 10_000);
+        json = objectMapper.writeValueAsBytes(page);
+        gzippedJson = gzip(json);
+        binary = FxBinaryCodec.encode(page);
+        System.out.printf("%npayload bytes: json=%d json+gzip=%d binary=%d binary+gzip=%d%n",
+                json.length, gzippedJson.length, binary.length, gzip(binary).length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeJsonGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return FxBinaryCodec.encode(page);
+    }
+
+    @Benchmark
+    public JsonPage decodeJson() throws IOException {
+        return objectMapper.readValue(json, JsonPage.class);
+    }
+
+    @Benchmark
+    public JsonPage decodeJsonGzip() throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzippedJson))) {
+            return objectMapper.readValue(in, JsonPage.class);
+        }
+    }
+
+    @Benchmark
+    public Page<?> decodeBinary() {
+        return FxBinaryCodec.decode(ByteBuffer.wrap(binary), Page.class);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
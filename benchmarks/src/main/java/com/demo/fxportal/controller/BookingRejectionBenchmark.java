@@ -0,0 +1,121 @@
+package com.demo.fxportal.controller;
+
+import com.demo.fxportal.concurrency.DbConcurrencyLimiter;
+import com.demo.fxportal.config.BookingSequencerProperties;
+import com.demo.fxportal.config.DbConcurrencyProperties;
+import com.demo.fxportal.config.TradeJournalProperties;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.service.BookingSequencer;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import com.demo.fxportal.service.TradeJournalService;
+import com.demo.fxportal.service.TradeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Valid;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Cost of rejecting a booking for an expired quote: the former exception path
+ * ({@code IllegalStateException} handled by {@link GlobalExceptionHandler}) versus the
+ * {@link ServiceResult} that {@link TradeController} now maps directly. Measured on its own
+ * and through a standalone MockMvc dispatch, where the stack is as deep as in a real request.
+ * Run with {@code -prof gc} to compare allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingRejectionBenchmark {
+
+    private static final String EXPIRED_MESSAGE = "Quote has expired";
+
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+    private MockMvc exceptionMvc;
+    private MockMvc resultMvc;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        TradeService expiringService = new TradeService(null, null, null, null) {
+            @Override
+            public ServiceResult<TradeResponse> bookTrade(TradeRequest request) {
+                return ServiceResult.rejected(Rejection.QUOTE_EXPIRED, EXPIRED_MESSAGE);
+            }
+        };
+        DbConcurrencyProperties unlimited = new DbConcurrencyProperties();
+        unlimited.setEnabled(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Never started, so the controller books through the service
+        BookingSequencer sequencer = new BookingSequencer(null, null, null, null, null, null, null,
+                new BookingSequencerProperties(), new TradeJournalProperties(), meterRegistry);
+        TradeJournalService journal = new TradeJournalService(null, null, null, null, null, null, null,
+                new TradeJournalProperties(), meterRegistry);
+
+        resultMvc = MockMvcBuilders
+                .standaloneSetup(new TradeController(expiringService,
+                        new DbConcurrencyLimiter(unlimited, meterRegistry), sequencer, journal))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        exceptionMvc = MockMvcBuilders
+                .standaloneSetup(new ThrowingTradeController())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        body = "{\"quoteId\":\"" + UUID.randomUUID() + "\"}";
+    }
+
+    /** Former path, kept here as the baseline. */
+    @Benchmark
+    public ResponseEntity<?> exceptionRejection() {
+        try {
+            throw new IllegalStateException(EXPIRED_MESSAGE);
+        } catch (IllegalStateException ex) {
+            return exceptionHandler.handleIllegalStateException(ex);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> resultRejection() {
+        return ResultResponses.toResponse(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, EXPIRED_MESSAGE),
+                HttpStatus.CREATED);
+    }
+
+    @Benchmark
+    public int exceptionRejectionThroughMvc() throws Exception {
+        return exceptionMvc.perform(post("/api/trades").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int resultRejectionThroughMvc() throws Exception {
+        return resultMvc.perform(post("/api/trades").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getStatus();
+    }
+
+    /** How {@code TradeController} signalled an expired quote before bookings returned results. */
+    @RestController
+    @RequestMapping("/api/trades")
+    static class ThrowingTradeController {
+
+        @PostMapping
+        public ResponseEntity<TradeResponse> bookTrade(@Valid @RequestBody TradeRequest request) {
+            throw new IllegalStateException(EXPIRED_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.demo.fxportal.repository;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a trade history filter into a Hibernate query with its parameters
+ * bound, without executing it, against an in-memory H2 schema: the criteria query built for every
+ * request, as history was read before, against the precompiled statements of
+ * {@link TradeHistoryRepository}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoryQueryBenchmark {
+
+    private static final Sort.Order ORDER = Sort.Order.desc("bookedAt");
+
+    @Param({"none", "pair", "all"})
+    public String filters;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+
+    private TradeHistoryFilter filter;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:history;DB_CLOSE_DELAY=-1");
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.demo.fxportal.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+
+        boolean any = !filters.equals("none");
+        boolean all = filters.equals("all");
+        filter = new TradeHistoryFilter(
+                any ? CurrencyPairRegistry.of("EUR/USD") : null,
+                all ? Side.BUY : null,
+                all ? Trade.Status.BOOKED : null,
+                all ? LocalDateTime.of(2024, 1, 1, 0, 0) : null,
+                all ? LocalDateTime.of(2024, 12, 31, 0, 0) : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public TypedQuery<Trade> criteriaQuery() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Trade> query = criteriaBuilder.createQuery(Trade.class);
+        Root<Trade> root = query.from(Trade.class);
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.currencyPair() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("currencyPair"), filter.currencyPair()));
+        }
+        if (filter.side() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("side"), filter.side()));
+        }
+        if (filter.status() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("status"), filter.status()));
+        }
+        if (filter.fromDate() != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("bookedAt"), filter.fromDate()));
+        }
+        if (filter.toDate() != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("bookedAt"), filter.toDate()));
+        }
+        query.where(criteriaBuilder.and(predicates.toArray(new Predicate[0])));
+        query.orderBy(criteriaBuilder.desc(root.get(ORDER.getProperty())));
+        return entityManager.createQuery(query);
+    }
+
+    @Benchmark
+    public TypedQuery<Trade> precompiledQuery() {
+        return TradeHistoryRepository.select(entityManager, filter, ORDER);
+    }
+}
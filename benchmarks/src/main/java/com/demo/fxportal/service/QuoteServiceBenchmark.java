@@ -0,0 +1,44 @@
+package com.demo.fxportal.service;
+
+import com.demo.fxportal.config.PricingProperties;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.pricing.QuotePricer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QuoteService#generateSimulatedRate} for a direct leg and a triangulated cross.
+ * Lives in the service package to reach the package-private method.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuoteServiceBenchmark {
+
+    @Param({"EUR/USD", "EUR/JPY"})
+    public String currencyPair;
+
+    private QuoteService quoteService;
+    private CurrencyPair pair;
+
+    @Setup
+    public void setUp() {
+        quoteService = new QuoteService(null, new QuotePricer(new CrossRateMatrix(new PricingProperties())),
+                new TradingMetrics(new SimpleMeterRegistry()));
+        pair = CurrencyPairRegistry.of(currencyPair);
+    }
+
+    @Benchmark
+    public BigDecimal generateSimulatedRate() {
+        return quoteService.generateSimulatedRate(pair);
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.fxportal.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+
+/**
+ * WebFlux + R2DBC variant of the quote and trade API. Only this package is scanned; the pieces
+ * shared with the servlet backend are imported by {@link SharedBackendConfig}.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+public class ReactivePortalApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactivePortalApplication.class, args);
+    }
+}
@@ -0,0 +1,20 @@
+package com.demo.fxportal.reactive;
+
+import com.demo.fxportal.config.PricingProperties;
+import com.demo.fxportal.controller.GlobalExceptionHandler;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.pricing.QuotePricer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Pricing, metrics and error responses taken as-is from the servlet backend, so both stacks
+ * price, count and fail the same way.
+ */
+@Configuration
+@EnableConfigurationProperties(PricingProperties.class)
+@Import({CrossRateMatrix.class, QuotePricer.class, TradingMetrics.class, GlobalExceptionHandler.class})
+public class SharedBackendConfig {
+}
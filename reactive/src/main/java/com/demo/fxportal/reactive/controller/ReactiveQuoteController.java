@@ -0,0 +1,25 @@
+package com.demo.fxportal.reactive.controller;
+
+import com.demo.fxportal.controller.ResultResponses;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.reactive.service.ReactiveQuoteService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/quotes")
+@RequiredArgsConstructor
+public class ReactiveQuoteController {
+
+    private final ReactiveQuoteService quoteService;
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> requestQuote(@Valid @RequestBody QuoteRequest request) {
+        return quoteService.requestQuote(request)
+                .map(result -> ResultResponses.toResponse(result, HttpStatus.CREATED));
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.fxportal.reactive.controller;
+
+import com.demo.fxportal.controller.ResultResponses;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.reactive.service.ReactiveTradeService;
+import com.demo.fxportal.repository.TradeHistorySort;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/trades")
+@RequiredArgsConstructor
+@Validated
+public class ReactiveTradeController {
+
+    private final ReactiveTradeService tradeService;
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> bookTrade(@Valid @RequestBody TradeRequest request) {
+        return tradeService.bookTrade(request)
+                .map(result -> ResultResponses.toResponse(result, HttpStatus.CREATED));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<TradeResponse>>> getTradeHistory(
+            @RequestParam(required = false) Optional<String> currencyPair,
+            @RequestParam(required = false) Optional<Side> side,
+            @RequestParam(required = false) Optional<Trade.Status> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<LocalDateTime> fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<LocalDateTime> toDate,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "bookedAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction
+    ) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, TradeHistorySort.from(sortBy).property()));
+        return tradeService.getTradeHistory(currencyPair, side, status, fromDate, toDate, pageable)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.fxportal.reactive.repository;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Registers legacy currency pairs (ids from {@link CurrencyPairRegistry#LEGACY_ID_START}) so
+ * stored trades on them can be read. Adding new supported pairs is left to the servlet backend.
+ * Runs once every singleton, including the Flyway migration, has been initialized.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveCurrencyPairLoader implements SmartInitializingSingleton {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Long registered = databaseClient.sql("SELECT id, symbol FROM currency_pairs WHERE id >= :legacyStart")
+                    .bind("legacyStart", (short) CurrencyPairRegistry.LEGACY_ID_START)
+                    .map(row -> CurrencyPairRegistry.registerLegacy(row.get("id", Short.class), row.get("symbol", String.class)))
+                    .all()
+                    .count()
+                    .block(Duration.ofSeconds(30));
+            log.info("Registered {} legacy currency pairs", registered);
+        } catch (DataAccessException ex) {
+            log.info("No currency_pairs table found, using the built-in currency pair dictionary only");
+        }
+    }
+}
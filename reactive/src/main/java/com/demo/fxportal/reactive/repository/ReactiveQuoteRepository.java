@@ -0,0 +1,56 @@
+package com.demo.fxportal.reactive.repository;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveQuoteRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> insert(Quote quote) {
+        return databaseClient.sql("""
+                        INSERT INTO quotes (id, currency_pair_id, side, amount, rate, expires_at, created_at)
+                        VALUES (:id, :currencyPairId, :side, :amount, :rate, :expiresAt, :createdAt)""")
+                .bind("id", quote.getId())
+                .bind("currencyPairId", quote.getCurrencyPair().getId())
+                .bind("side", quote.getSide().name())
+                .bind("amount", quote.getAmount())
+                .bind("rate", quote.getRate())
+                .bind("expiresAt", quote.getExpiresAt())
+                .bind("createdAt", quote.getCreatedAt())
+                .then();
+    }
+
+    public Mono<Quote> findById(UUID id) {
+        return databaseClient.sql("""
+                        SELECT id, currency_pair_id, side, amount, rate, expires_at, created_at
+                        FROM quotes WHERE id = :id""")
+                .bind("id", id)
+                .map(ReactiveQuoteRepository::toQuote)
+                .one();
+    }
+
+    private static Quote toQuote(Readable row) {
+        return Quote.builder()
+                .id(row.get("id", UUID.class))
+                .currencyPair(CurrencyPairRegistry.fromId(row.get("currency_pair_id", Short.class)))
+                .side(Side.valueOf(row.get("side", String.class)))
+                .amount(row.get("amount", BigDecimal.class))
+                .rate(row.get("rate", BigDecimal.class))
+                .expiresAt(row.get("expires_at", LocalDateTime.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.demo.fxportal.reactive.repository;
+
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.repository.TradeHistorySort;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTradeRepository {
+
+    private static final String COLUMNS = "id, quote_id, currency_pair_id, side, amount, rate, status, booked_at";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> insert(Trade trade) {
+        return databaseClient.sql("""
+                        INSERT INTO trades (id, quote_id, currency_pair_id, side, amount, rate, status, booked_at)
+                        VALUES (:id, :quoteId, :currencyPairId, :side, :amount, :rate, :status, :bookedAt)""")
+                .bind("id", trade.getId())
+                .bind("quoteId", trade.getQuoteId())
+                .bind("currencyPairId", trade.getCurrencyPair().getId())
+                .bind("side", trade.getSide().name())
+                .bind("amount", trade.getAmount())
+                .bind("rate", trade.getRate())
+                .bind("status", trade.getStatus().name())
+                .bind("bookedAt", trade.getBookedAt())
+                .then();
+    }
+
+    public Mono<Boolean> existsByQuoteId(UUID quoteId) {
+        return databaseClient.sql("SELECT 1 FROM trades WHERE quote_id = :quoteId")
+                .bind("quoteId", quoteId)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Flux<Trade> findHistory(TradeHistoryFilter filter, Pageable pageable) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = "SELECT " + COLUMNS + " FROM trades" + where(filter, bindings)
+                + orderBy(pageable.getSort())
+                + " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+        return bind(databaseClient.sql(sql), bindings)
+                .map(ReactiveTradeRepository::toTrade)
+                .all();
+    }
+
+    public Mono<Long> countHistory(TradeHistoryFilter filter) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        return bind(databaseClient.sql("SELECT COUNT(*) AS total FROM trades" + where(filter, bindings)), bindings)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    private static String where(TradeHistoryFilter filter, Map<String, Object> bindings) {
+        StringJoiner predicates = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        filter.currencyPair().ifPresent(pair -> {
+            predicates.add("currency_pair_id = :currencyPairId");
+            bindings.put("currencyPairId", pair.getId());
+        });
+        filter.side().ifPresent(side -> {
+            predicates.add("side = :side");
+            bindings.put("side", side.name());
+        });
+        filter.status().ifPresent(status -> {
+            predicates.add("status = :status");
+            bindings.put("status", status.name());
+        });
+        filter.fromDate().ifPresent(from -> {
+            predicates.add("booked_at >= :fromDate");
+            bindings.put("fromDate", from);
+        });
+        filter.toDate().ifPresent(to -> {
+            predicates.add("booked_at <= :toDate");
+            bindings.put("toDate", to);
+        });
+        return predicates.toString();
+    }
+
+    /** Sorts by one {@link TradeHistorySort} field, ties broken by id, so each page walks a {@code (column, id)} index. */
+    private static String orderBy(Sort sort) {
+        Sort.Order order = TradeHistorySort.order(sort);
+        String direction = order.isAscending() ? " ASC" : " DESC";
+        return " ORDER BY " + column(TradeHistorySort.from(order.getProperty())) + direction + ", id" + direction;
+    }
+
+    private static String column(TradeHistorySort sort) {
+        return switch (sort) {
+            case BOOKED_AT -> "booked_at";
+            case AMOUNT -> "amount";
+            case RATE -> "rate";
+        };
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+                                                         Map<String, Object> bindings) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private static Trade toTrade(Readable row) {
+        return Trade.builder()
+                .id(row.get("id", UUID.class))
+                .quoteId(row.get("quote_id", UUID.class))
+                .currencyPair(CurrencyPairRegistry.fromId(row.get("currency_pair_id", Short.class)))
+                .side(Side.valueOf(row.get("side", String.class)))
+                .amount(row.get("amount", BigDecimal.class))
+                .rate(row.get("rate", BigDecimal.class))
+                .status(Trade.Status.valueOf(row.get("status", String.class)))
+                .bookedAt(row.get("booked_at", LocalDateTime.class))
+                .build();
+    }
+}
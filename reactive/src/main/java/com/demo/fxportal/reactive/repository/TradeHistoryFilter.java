@@ -0,0 +1,17 @@
+package com.demo.fxportal.reactive.repository;
+
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/** The optional trade history filters, already resolved to their stored representation. */
+public record TradeHistoryFilter(
+        Optional<CurrencyPair> currencyPair,
+        Optional<Side> side,
+        Optional<Trade.Status> status,
+        Optional<LocalDateTime> fromDate,
+        Optional<LocalDateTime> toDate) {
+}
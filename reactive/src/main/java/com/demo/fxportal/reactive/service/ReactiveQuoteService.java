@@ -0,0 +1,62 @@
+package com.demo.fxportal.reactive.service;
+
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.metrics.TradingMetrics.QuoteOutcome;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.pricing.QuotePricer;
+import com.demo.fxportal.reactive.repository.ReactiveQuoteRepository;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Non-blocking counterpart of {@code QuoteService}; same pricing, validity, rejections and outcomes. */
+@Service
+@RequiredArgsConstructor
+public class ReactiveQuoteService {
+
+    private final ReactiveQuoteRepository quoteRepository;
+    private final QuotePricer quotePricer;
+    private final TradingMetrics tradingMetrics;
+
+    public Mono<ServiceResult<QuoteResponse>> requestQuote(QuoteRequest request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+
+            CurrencyPair currencyPair = CurrencyPairRegistry.findTradable(request.getCurrencyPair()).orElse(null);
+            if (currencyPair == null || !quotePricer.canPrice(currencyPair)) {
+                tradingMetrics.recordQuote(QuoteOutcome.UNSUPPORTED_PAIR, start);
+                return Mono.just(ServiceResult.rejected(Rejection.UNSUPPORTED_PAIR,
+                        "Unsupported currency pair: " + request.getCurrencyPair()));
+            }
+            BigDecimal rate = quotePricer.price(currencyPair);
+
+            LocalDateTime now = LocalDateTime.now();
+            Quote quote = Quote.builder()
+                    .id(UUID.randomUUID())
+                    .currencyPair(currencyPair)
+                    .side(request.getSide())
+                    .amount(request.getAmount())
+                    .rate(rate)
+                    .expiresAt(now.plus(Quote.VALIDITY))
+                    .createdAt(now)
+                    .build();
+
+            // The insert runs outside a transaction, so it has committed by the time it completes
+            return quoteRepository.insert(quote)
+                    .then(Mono.fromSupplier(() -> {
+                        tradingMetrics.recordQuote(QuoteOutcome.CREATED, start);
+                        return ServiceResult.success(QuoteResponse.fromEntity(quote));
+                    }));
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.demo.fxportal.reactive.service;
+
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.metrics.TradingMetrics.BookingOutcome;
+import com.demo.fxportal.model.CurrencyPair;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.reactive.repository.ReactiveQuoteRepository;
+import com.demo.fxportal.reactive.repository.ReactiveTradeRepository;
+import com.demo.fxportal.reactive.repository.TradeHistoryFilter;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/** Non-blocking counterpart of {@code TradeService}; same booking rules, rejections and outcomes. */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTradeService {
+
+    private static final String EXPIRED_MESSAGE = "Quote has expired";
+    private static final String DUPLICATE_MESSAGE = "A trade has already been booked for this quote";
+
+    private final ReactiveTradeRepository tradeRepository;
+    private final ReactiveQuoteRepository quoteRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final TradingMetrics tradingMetrics;
+
+    public Mono<ServiceResult<TradeResponse>> bookTrade(TradeRequest request) {
+        UUID quoteId = request.getQuoteId();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // Set by a successful insert and run once the transaction has committed, as the servlet path does
+            Runnable[] afterCommit = {() -> { }};
+            return quoteRepository.findById(quoteId)
+                    .flatMap(quote -> quote.isExpired()
+                            ? reject(BookingOutcome.EXPIRED, start, Rejection.QUOTE_EXPIRED, EXPIRED_MESSAGE)
+                            : book(quote, start, afterCommit))
+                    .switchIfEmpty(Mono.defer(() -> reject(BookingOutcome.NOT_FOUND, start,
+                            Rejection.QUOTE_NOT_FOUND, "Quote not found: " + quoteId)))
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(result -> afterCommit[0].run());
+        });
+    }
+
+    private Mono<ServiceResult<TradeResponse>> book(Quote quote, long start, Runnable[] afterCommit) {
+        return tradeRepository.existsByQuoteId(quote.getId())
+                .flatMap(exists -> {
+                    if (exists) {
+                        return reject(BookingOutcome.DUPLICATE, start, Rejection.ALREADY_BOOKED, DUPLICATE_MESSAGE);
+                    }
+                    Trade trade = Trade.builder()
+                            .id(UUID.randomUUID())
+                            .quoteId(quote.getId())
+                            .currencyPair(quote.getCurrencyPair())
+                            .side(quote.getSide())
+                            .amount(quote.getAmount())
+                            .rate(quote.getRate())
+                            .status(Trade.Status.BOOKED)
+                            .bookedAt(LocalDateTime.now())
+                            .build();
+                    return tradeRepository.insert(trade)
+                            .then(Mono.fromSupplier(() -> {
+                                afterCommit[0] = () -> {
+                                    tradingMetrics.recordBooking(BookingOutcome.BOOKED, start);
+                                    tradingMetrics.recordQuoteToBook(quote.getCreatedAt(), trade.getBookedAt());
+                                };
+                                return ServiceResult.success(TradeResponse.fromEntity(trade));
+                            }))
+                            // A concurrent booking of the same quote lost the race on unique_quote_id
+                            .onErrorResume(DataIntegrityViolationException.class, ex ->
+                                    reject(BookingOutcome.DUPLICATE, start, Rejection.ALREADY_BOOKED, DUPLICATE_MESSAGE));
+                });
+    }
+
+    public Mono<Page<TradeResponse>> getTradeHistory(
+            Optional<String> currencyPair,
+            Optional<Side> side,
+            Optional<Trade.Status> status,
+            Optional<LocalDateTime> fromDate,
+            Optional<LocalDateTime> toDate,
+            Pageable pageable) {
+
+        int filterMask = TradingMetrics.historyFilterMask(currencyPair, side, status, fromDate, toDate);
+        Optional<CurrencyPair> pair = currencyPair.flatMap(CurrencyPairRegistry::find);
+        if (currencyPair.isPresent() && pair.isEmpty()) {
+            // No trade can reference a pair that is not in the dictionary
+            tradingMetrics.recordHistoryQuery(filterMask, System.nanoTime());
+            return Mono.just(Page.empty(pageable));
+        }
+
+        TradeHistoryFilter filter = new TradeHistoryFilter(pair, side, status, fromDate, toDate);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return tradeRepository.findHistory(filter, pageable)
+                    .map(TradeResponse::fromEntity)
+                    .collectList()
+                    .zipWith(tradeRepository.countHistory(filter))
+                    .<Page<TradeResponse>>map(pageAndTotal ->
+                            new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()))
+                    .doOnSuccess(page -> tradingMetrics.recordHistoryQuery(filterMask, start));
+        });
+    }
+
+    private Mono<ServiceResult<TradeResponse>> reject(BookingOutcome outcome, long start,
+                                                      Rejection rejection, String message) {
+        tradingMetrics.recordBooking(outcome, start);
+        return Mono.just(ServiceResult.rejected(rejection, message));
+    }
+}
@@ -0,0 +1,138 @@
+package com.demo.fxportal.reactive.controller;
+
+import com.demo.fxportal.controller.GlobalExceptionHandler;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.reactive.service.ReactiveTradeService;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveTradeController.class)
+@Import(GlobalExceptionHandler.class)
+class ReactiveTradeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveTradeService tradeService;
+
+    private TradeResponse buildTradeResponse() {
+        return TradeResponse.builder()
+                .tradeId(UUID.randomUUID())
+                .quoteId(UUID.randomUUID())
+                .currencyPair("EUR/USD")
+                .side(Side.BUY)
+                .amount(new BigDecimal("10000.00"))
+                .rate(new BigDecimal("1.085000"))
+                .status(Trade.Status.BOOKED)
+                .bookedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void bookTrade_withValidRequest_shouldReturn201() {
+        when(tradeService.bookTrade(any())).thenReturn(Mono.just(ServiceResult.success(buildTradeResponse())));
+
+        webTestClient.post().uri("/api/trades")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"quoteId\":\"" + UUID.randomUUID() + "\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.currencyPair").isEqualTo("EUR/USD")
+                .jsonPath("$.status").isEqualTo("BOOKED");
+    }
+
+    @Test
+    void bookTrade_withMissingQuoteId_shouldReturn400WithFieldErrors() {
+        webTestClient.post().uri("/api/trades")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.errors.quoteId").isEqualTo("Quote ID is required");
+    }
+
+    @Test
+    void bookTrade_withExpiredQuote_shouldReturn409() {
+        when(tradeService.bookTrade(any()))
+                .thenReturn(Mono.just(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, "Quote has expired")));
+
+        webTestClient.post().uri("/api/trades")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"quoteId\":\"" + UUID.randomUUID() + "\"}")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Quote has expired");
+    }
+
+    @Test
+    void bookTrade_withUnknownQuote_shouldReturn400() {
+        UUID quoteId = UUID.randomUUID();
+        when(tradeService.bookTrade(any()))
+                .thenReturn(Mono.just(ServiceResult.rejected(Rejection.QUOTE_NOT_FOUND, "Quote not found: " + quoteId)));
+
+        webTestClient.post().uri("/api/trades")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"quoteId\":\"" + quoteId + "\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Quote not found: " + quoteId);
+    }
+
+    @Test
+    void getTradeHistory_shouldReturnPageContract() {
+        when(tradeService.getTradeHistory(any(), any(), any(), any(), any(), any()))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(buildTradeResponse()), PageRequest.of(0, 20), 1)));
+
+        webTestClient.get().uri("/api/trades?currencyPair=EUR/USD&side=BUY")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].currencyPair").isEqualTo("EUR/USD")
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.pageable.pageSize").isEqualTo(20);
+    }
+
+    @Test
+    void getTradeHistory_withPageSizeAboveLimit_shouldReturn400() {
+        webTestClient.get().uri("/api/trades?size=101")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTradeHistory_withUnsupportedSortField_shouldReturn400() {
+        webTestClient.get().uri("/api/trades?sortBy=side")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Unsupported sort field: side (supported: bookedAt, amount, rate)");
+        verifyNoInteractions(tradeService);
+    }
+}
@@ -0,0 +1,177 @@
+package com.demo.fxportal.reactive.service;
+
+import com.demo.fxportal.config.PricingProperties;
+import com.demo.fxportal.dto.QuoteRequest;
+import com.demo.fxportal.dto.QuoteResponse;
+import com.demo.fxportal.dto.TradeRequest;
+import com.demo.fxportal.dto.TradeResponse;
+import com.demo.fxportal.metrics.TradingMetrics;
+import com.demo.fxportal.model.CurrencyPairRegistry;
+import com.demo.fxportal.model.Quote;
+import com.demo.fxportal.model.Side;
+import com.demo.fxportal.model.Trade;
+import com.demo.fxportal.pricing.CrossRateMatrix;
+import com.demo.fxportal.pricing.QuotePricer;
+import com.demo.fxportal.reactive.repository.ReactiveQuoteRepository;
+import com.demo.fxportal.reactive.repository.ReactiveTradeRepository;
+import com.demo.fxportal.service.Rejection;
+import com.demo.fxportal.service.ServiceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveTradeServiceTest {
+
+    private ReactiveQuoteRepository quoteRepository;
+    private ReactiveQuoteService quoteService;
+    private ReactiveTradeService tradeService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = H2ConnectionFactory.inMemory("reactive-" + UUID.randomUUID());
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).populate(connectionFactory).block();
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+        meterRegistry = new SimpleMeterRegistry();
+        TradingMetrics tradingMetrics = new TradingMetrics(meterRegistry);
+        quoteRepository = new ReactiveQuoteRepository(databaseClient);
+        quoteService = new ReactiveQuoteService(quoteRepository,
+                new QuotePricer(new CrossRateMatrix(new PricingProperties())), tradingMetrics);
+        tradeService = new ReactiveTradeService(new ReactiveTradeRepository(databaseClient), quoteRepository,
+                TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory)), tradingMetrics);
+    }
+
+    @Test
+    void bookTrade_withValidQuote_shouldBookAndCopyQuoteFields() {
+        // Given
+        QuoteResponse quote = requestQuote("EUR/JPY", Side.SELL, "2500.00");
+
+        // When
+        TradeResponse trade = book(quote);
+
+        // Then
+        assertThat(trade.getQuoteId()).isEqualTo(quote.getQuoteId());
+        assertThat(trade.getCurrencyPair()).isEqualTo("EUR/JPY");
+        assertThat(trade.getSide()).isEqualTo(Side.SELL);
+        assertThat(trade.getRate()).isEqualByComparingTo(quote.getRate());
+        assertThat(trade.getStatus()).isEqualTo(Trade.Status.BOOKED);
+        assertThat(meterRegistry.get("fxportal.trades.bookings").tag("outcome", "booked").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bookTrade_twice_shouldRejectDuplicate() {
+        QuoteResponse quote = requestQuote("EUR/USD", Side.BUY, "1000.00");
+        book(quote);
+
+        StepVerifier.create(tradeService.bookTrade(new TradeRequest(quote.getQuoteId())))
+                .expectNext(ServiceResult.rejected(Rejection.ALREADY_BOOKED, "A trade has already been booked for this quote"))
+                .verifyComplete();
+    }
+
+    @Test
+    void bookTrade_withExpiredQuote_shouldReject() {
+        Quote expired = Quote.builder()
+                .id(UUID.randomUUID())
+                .currencyPair(CurrencyPairRegistry.of("EUR/USD"))
+                .side(Side.BUY)
+                .amount(new BigDecimal("1000.00"))
+                .rate(new BigDecimal("1.085000"))
+                .expiresAt(LocalDateTime.now().minusSeconds(1))
+                .createdAt(LocalDateTime.now().minusMinutes(3))
+                .build();
+        quoteRepository.insert(expired).block();
+
+        StepVerifier.create(tradeService.bookTrade(new TradeRequest(expired.getId())))
+                .expectNext(ServiceResult.rejected(Rejection.QUOTE_EXPIRED, "Quote has expired"))
+                .verifyComplete();
+        assertThat(meterRegistry.get("fxportal.trades.bookings").tag("outcome", "expired").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bookTrade_withUnknownQuote_shouldReject() {
+        UUID unknown = UUID.randomUUID();
+
+        StepVerifier.create(tradeService.bookTrade(new TradeRequest(unknown)))
+                .expectNext(ServiceResult.rejected(Rejection.QUOTE_NOT_FOUND, "Quote not found: " + unknown))
+                .verifyComplete();
+        assertThat(meterRegistry.get("fxportal.trades.bookings").tag("outcome", "not_found").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestQuote_withUnsupportedPair_shouldReject() {
+        QuoteRequest request = new QuoteRequest("ABC/XYZ", Side.BUY, new BigDecimal("10"));
+
+        StepVerifier.create(quoteService.requestQuote(request))
+                .expectNext(ServiceResult.rejected(Rejection.UNSUPPORTED_PAIR, "Unsupported currency pair: ABC/XYZ"))
+                .verifyComplete();
+    }
+
+    @Test
+    void getTradeHistory_shouldFilterSortAndPage() {
+        // Given
+        for (String amount : new String[]{"300.00", "100.00", "200.00"}) {
+            book(requestQuote("GBP/USD", Side.BUY, amount));
+        }
+        book(requestQuote("GBP/USD", Side.SELL, "50.00"));
+        book(requestQuote("EUR/USD", Side.BUY, "75.00"));
+
+        // When
+        Page<TradeResponse> page = tradeService.getTradeHistory(
+                Optional.of("GBP/USD"), Optional.of(Side.BUY), Optional.empty(), Optional.empty(), Optional.empty(),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "amount"))).block();
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(TradeResponse::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100"), new BigDecimal("200"));
+    }
+
+    @Test
+    void getTradeHistory_withUnsupportedSort_shouldReject() {
+        StepVerifier.create(tradeService.getTradeHistory(
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        PageRequest.of(0, 20, Sort.by("quoteId; DROP TABLE trades"))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void getTradeHistory_withUnknownCurrencyPair_shouldReturnEmptyPage() {
+        Page<TradeResponse> page = tradeService.getTradeHistory(
+                Optional.of("ABC/XYZ"), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                PageRequest.of(0, 20)).block();
+
+        assertThat(page.getContent()).isEmpty();
+    }
+
+    private QuoteResponse requestQuote(String currencyPair, Side side, String amount) {
+        return ((ServiceResult.Success<QuoteResponse>) quoteService.requestQuote(
+                new QuoteRequest(currencyPair, side, new BigDecimal(amount))).block()).value();
+    }
+
+    private TradeResponse book(QuoteResponse quote) {
+        return ((ServiceResult.Success<TradeResponse>) tradeService.bookTrade(
+                new TradeRequest(quote.getQuoteId())).block()).value();
+    }
+}
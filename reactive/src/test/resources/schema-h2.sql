@@ -0,0 +1,23 @@
+-- The columns the reactive repositories use, as migrated by the backend's Flyway scripts
+CREATE TABLE quotes (
+    id UUID PRIMARY KEY,
+    currency_pair_id SMALLINT NOT NULL,
+    side VARCHAR(4) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    rate DECIMAL(19, 6) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE trades (
+    id UUID PRIMARY KEY,
+    quote_id UUID NOT NULL,
+    currency_pair_id SMALLINT NOT NULL,
+    side VARCHAR(4) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    rate DECIMAL(19, 6) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    booked_at TIMESTAMP NOT NULL,
+    CONSTRAINT unique_quote_id UNIQUE (quote_id),
+    FOREIGN KEY (quote_id) REFERENCES quotes(id)
+);